@@ -1,5 +1,11 @@
 package hr.fer.zemris.java.custom.collections;
 
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
 /**
  * Class represents collection that uses array to store elements.
  * Duplicate elements are allowed.
@@ -31,6 +37,10 @@ public class ArrayIndexedCollection extends Collection {
 	 * used for resizing collection capacity
 	 */
 	private static final int CAPACITY_MULTIPLIER = 2;
+	/**
+	 * smallest number of elements that one parallel task processes
+	 */
+	private static final int PARALLEL_THRESHOLD = 8192;
 	
 	/**
 	 * Constructor that is used when initial capacity is not given.
@@ -137,10 +147,8 @@ public class ArrayIndexedCollection extends Collection {
 		if (position < 0 || position > size)
 			throw new IndexOutOfBoundsException("You entered: " + position);
 
-		reallocateElements();
-		for (int i = size; i > position; i--) {
-			elements[i] = elements[i - 1];
-		}
+		ensureCapacity(size + 1);
+		System.arraycopy(elements, position, elements, position + 1, size - position);
 		elements[position] = value;
 		size++;
 	}
@@ -166,20 +174,39 @@ public class ArrayIndexedCollection extends Collection {
 	
 	/**
 	 * Method that is used for reallocating elements with larger capacity only if necessary.
-	 * Capacity is multiplied by <code>CAPACITY_MULTIPLIER<code>.
+	 * Capacity is multiplied by <code>CAPACITY_MULTIPLIER<code>, 
+	 * or set to <code>minCapacity</code> if that is not enough.
+	 * 
+	 * @param minCapacity minimum number of elements that collection must be able to store without reallocating
 	 */
-	private void reallocateElements() {
-		if (size >= capacity) {
-			capacity *= CAPACITY_MULTIPLIER;
-			Object[] newElements = new Object[capacity];
-
-			for (int i = 0; i < size; i++) {
-				newElements[i] = elements[i];
-			}
-			elements = newElements;
+	public void ensureCapacity(int minCapacity) {
+		if (minCapacity > capacity) {
+			capacity = Math.max(capacity * CAPACITY_MULTIPLIER, minCapacity);
+			elements = Arrays.copyOf(elements, capacity);
 		}
 	}
 	
+	/**
+	 * Method that reduces capacity of collection to its current size.
+	 * Capacity is never reduced below one.
+	 */
+	public void trimToSize() {
+		int newCapacity = Math.max(size, 1);
+		if (newCapacity < capacity) {
+			capacity = newCapacity;
+			elements = Arrays.copyOf(elements, capacity);
+		}
+	}
+	
+	/**
+	 * Returns current capacity of collection.
+	 * 
+	 * @return number of elements that collection can store without reallocating
+	 */
+	public int capacity() {
+		return capacity;
+	}
+	
 	/**
 	 * Method used for checking if collection contains given element.
 	 * 
@@ -214,10 +241,26 @@ public class ArrayIndexedCollection extends Collection {
 		if(index < 0 || index >= size) 
 			throw new IndexOutOfBoundsException("You entered: " + index);
 		
-		for (int i = index; i < size - 1; i++) {
-			elements[i] = elements[i + 1];
-		}
-		size--;
+		System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+		elements[--size] = null;
+	}
+	
+	/**
+	 * Removes all elements whose index is between <code>fromIndex</code> (inclusive)
+	 * and <code>toIndex</code> (exclusive). Following elements are shifted to the left.
+	 * 
+	 * @param fromIndex index of the first element that is removed
+	 * @param toIndex   index after the last element that is removed
+	 * @throws <code>IndexOutOfBoundsException</code> if range is not valid
+	 */
+	public void removeRange(int fromIndex, int toIndex) {
+		if (fromIndex < 0 || toIndex > size || fromIndex > toIndex)
+			throw new IndexOutOfBoundsException("You entered: " + fromIndex + ", " + toIndex);
+		
+		System.arraycopy(elements, toIndex, elements, fromIndex, size - toIndex);
+		int newSize = size - (toIndex - fromIndex);
+		Arrays.fill(elements, newSize, size, null);
+		size = newSize;
 	}
 	
 	/**
@@ -248,11 +291,7 @@ public class ArrayIndexedCollection extends Collection {
 	 * @return array of objects that this collection contains
 	 */
 	public Object[] toArray() {
-		Object[] newElements = new Object[size];
-		for (int i = 0; i < size; i++) {
-			newElements[i] = elements[i];
-		}
-		return newElements;
+		return Arrays.copyOf(elements, size);
 	}
 	
 	/**
@@ -267,30 +306,167 @@ public class ArrayIndexedCollection extends Collection {
 		}
 	}
 	
+	/**
+	 * Method calls <code>processor.process()<code> for each element of this collection,
+	 * splitting the backing array across the common <code>ForkJoinPool</code>.
+	 * Given processor must be safe to call concurrently and 
+	 * collection must not be modified until this method returns.
+	 * 
+	 * @param processor instance of <code>Processor</code> class
+	 */
+	@Override
+	public void parallelForEach(Processor processor) {
+		parallelForEach(processor, ForkJoinPool.commonPool());
+	}
+	
+	/**
+	 * Method calls <code>processor.process()<code> for each element of this collection,
+	 * splitting the backing array across the given <code>ForkJoinPool</code>.
+	 * Given processor must be safe to call concurrently and 
+	 * collection must not be modified until this method returns.
+	 * 
+	 * @param processor instance of <code>Processor</code> class
+	 * @param pool      pool whose threads process the elements
+	 */
+	public void parallelForEach(Processor processor, ForkJoinPool pool) {
+		if (size <= PARALLEL_THRESHOLD) {
+			forEach(processor);
+			return;
+		}
+		
+		int granularity = Math.max(PARALLEL_THRESHOLD, size / (pool.getParallelism() * 8));
+		pool.invoke(new ProcessTask(elements, 0, size, granularity, processor));
+	}
+	
+	/**
+	 * Returns sized and splittable <code>Spliterator</code> over the backing array.
+	 * Spliterator is not fail-fast, so collection must not be modified during traversal.
+	 * 
+	 * @return <code>Spliterator</code> over the elements of this collection
+	 */
+	@Override
+	public Spliterator<Object> spliterator() {
+		return Spliterators.spliterator(elements, 0, size, Spliterator.ORDERED | Spliterator.NONNULL);
+	}
+	
 	/**
 	 * Method adds into the current collection all elements from the given collection.
 	 * This other collection remains unchanged.
+	 * If the other collection is <code>ArrayIndexedCollection</code>, 
+	 * its backing array is copied in one bulk operation.
 	 * 
 	 * @param other the collection whose elements are added to this collection
 	 */
 	public void addAll(Collection other) {
+		if (other instanceof ArrayIndexedCollection) {
+			ArrayIndexedCollection array = (ArrayIndexedCollection) other;
+			int otherSize = array.size;
+			ensureCapacity(size + otherSize);
+			System.arraycopy(array.elements, 0, elements, size, otherSize);
+			size += otherSize;
+			return;
+		}
 
 		class addElementsProcessor extends Processor {
 			public void process(Object value) {
 				add(value);
 			}
 		}
+		ensureCapacity(size + other.size());
 		other.forEach(new addElementsProcessor());
 	}
 	
+	/**
+	 * Method adds all elements of the given array to the end of this collection
+	 * in one bulk operation.
+	 * 
+	 * @param values array whose elements are added to this collection
+	 * @throws <code>NullPointerException</code> if the array or any of its elements is <code>null</code>
+	 */
+	public void addAll(Object[] values) {
+		for (Object value : values) {
+			if (value == null)
+				throw new NullPointerException();
+		}
+		
+		ensureCapacity(size + values.length);
+		System.arraycopy(values, 0, elements, size, values.length);
+		size += values.length;
+	}
+	
 	/**
 	 * Removes all elements from this collection.
 	 */
 	public void clear() {
-		for (int i = 0; i < size; i++) {
-			elements[i] = null;
-		}
+		Arrays.fill(elements, 0, size, null);
 		size = 0;
 	}
 	
+	/**
+	 * Task that sends part of the backing array to the processor,
+	 * splitting itself in halves while the part is larger than granularity.
+	 * 
+	 * @author Ante Gazibarić
+	 * @version 1.0
+	 *
+	 */
+	private static class ProcessTask extends RecursiveAction {
+		
+		/**
+		 * serial number of the task
+		 */
+		private static final long serialVersionUID = 1L;
+		/**
+		 * array whose elements are processed
+		 */
+		private final Object[] elements;
+		/**
+		 * index of the first element of this task
+		 */
+		private final int from;
+		/**
+		 * index after the last element of this task
+		 */
+		private final int to;
+		/**
+		 * largest number of elements that is processed without splitting
+		 */
+		private final int granularity;
+		/**
+		 * processor to which elements are sent
+		 */
+		private final Processor processor;
+		
+		/**
+		 * Constructor for creating new <code>ProcessTask</code>.
+		 * 
+		 * @param elements    array whose elements are processed
+		 * @param from        index of the first element
+		 * @param to          index after the last element
+		 * @param granularity largest number of elements that is processed without splitting
+		 * @param processor   processor to which elements are sent
+		 */
+		public ProcessTask(Object[] elements, int from, int to, int granularity, Processor processor) {
+			this.elements = elements;
+			this.from = from;
+			this.to = to;
+			this.granularity = granularity;
+			this.processor = processor;
+		}
+		
+		@Override
+		protected void compute() {
+			if (to - from <= granularity) {
+				for (int i = from; i < to; i++) {
+					processor.process(elements[i]);
+				}
+				return;
+			}
+			
+			int middle = (from + to) >>> 1;
+			invokeAll(new ProcessTask(elements, from, middle, granularity, processor),
+					  new ProcessTask(elements, middle, to, granularity, processor));
+		}
+	}
+	
 }
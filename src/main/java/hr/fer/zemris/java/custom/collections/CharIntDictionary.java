@@ -0,0 +1,323 @@
+package hr.fer.zemris.java.custom.collections;
+
+/**
+ * Class represents dictionary that maps primitive <code>char</code> keys to primitive <code>int</code> values. </br>
+ * It is intended for counting symbols, so value of the key that is not contained </br>
+ * in the dictionary is zero. </br>
+ * Keys from the ASCII range are stored in directly indexed array, </br>
+ * all other keys are stored in hashed overflow table that uses linear probing.
+ *
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+public class CharIntDictionary {
+
+	/**
+	 * number of keys that are stored in directly indexed array
+	 */
+	private static final int DIRECT_SIZE = 128;
+	/**
+	 * initial capacity of overflow table, must be power of two
+	 */
+	private static final int INITIAL_OVERFLOW_CAPACITY = 8;
+	/**
+	 * marks empty slot of overflow table, overflow keys are never in ASCII range
+	 */
+	private static final char EMPTY_KEY = 0;
+
+	/**
+	 * values of keys from ASCII range
+	 */
+	private int[] directValues;
+	/**
+	 * bit set that marks which keys from ASCII range are present
+	 */
+	private long[] directPresent;
+	/**
+	 * keys of overflow table
+	 */
+	private char[] overflowKeys;
+	/**
+	 * values of overflow table
+	 */
+	private int[] overflowValues;
+	/**
+	 * number of keys stored in overflow table
+	 */
+	private int overflowSize;
+	/**
+	 * number of records stored in dictionary
+	 */
+	private int size;
+	/**
+	 * <code>true</code> if this dictionary is read-only snapshot
+	 */
+	private boolean frozen;
+
+	/**
+	 * Constructor used for creating new empty <code>CharIntDictionary</code>.
+	 */
+	public CharIntDictionary() {
+		directValues = new int[DIRECT_SIZE];
+		directPresent = new long[DIRECT_SIZE / Long.SIZE];
+		overflowKeys = new char[INITIAL_OVERFLOW_CAPACITY];
+		overflowValues = new int[INITIAL_OVERFLOW_CAPACITY];
+	}
+
+	/**
+	 * Constructor used for creating copy of given dictionary.
+	 *
+	 * @param other  dictionary whose records are copied
+	 * @param frozen <code>true</code> if newly created dictionary is read-only
+	 */
+	private CharIntDictionary(CharIntDictionary other, boolean frozen) {
+		directValues = other.directValues.clone();
+		directPresent = other.directPresent.clone();
+		overflowKeys = other.overflowKeys.clone();
+		overflowValues = other.overflowValues.clone();
+		overflowSize = other.overflowSize;
+		size = other.size;
+		this.frozen = frozen;
+	}
+
+	/**
+	 * Method checks if dictionary contains any records.
+	 *
+	 * @return <code>true</code> if dictionary does not contain any records, otherwise <code>false</code>
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Method that returns number of records stored in dictionary.
+	 *
+	 * @return number of records stored in dictionary
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Method checks if this dictionary is read-only snapshot.
+	 *
+	 * @return <code>true</code> if this dictionary can not be modified, otherwise <code>false</code>
+	 */
+	public boolean isFrozen() {
+		return frozen;
+	}
+
+	/**
+	 * Method checks if dictionary contains record with given key.
+	 *
+	 * @param key <code>char</code> key whose presence is checked
+	 * @return    <code>true</code> if dictionary contains given key, otherwise <code>false</code>
+	 */
+	public boolean containsKey(char key) {
+		if (key < DIRECT_SIZE)
+			return (directPresent[key >>> 6] & (1L << key)) != 0;
+
+		return overflowKeys[findSlot(key)] == key;
+	}
+
+	/**
+	 * Method that returns value that is assigned to the given key in dictionary.
+	 *
+	 * @param key <code>char</code> key whose value is returned
+	 * @return    value assigned to the given key, or zero if the key is not contained in dictionary
+	 */
+	public int get(char key) {
+		if (key < DIRECT_SIZE)
+			return directValues[key];
+
+		int slot = findSlot(key);
+		return overflowKeys[slot] == key ? overflowValues[slot] : 0;
+	}
+
+	/**
+	 * Method adds given key and value to the dictionary as a one record. </br>
+	 * If the given key is already contained in dictionary its value is overridden.
+	 *
+	 * @param key   <code>char</code> key to which given value is mapped
+	 * @param value <code>int</code> value that is assigned to the given key
+	 * @throws      <code>UnsupportedOperationException</code> if this dictionary is frozen
+	 */
+	public void put(char key, int value) {
+		checkNotFrozen();
+
+		if (key < DIRECT_SIZE) {
+			markDirect(key);
+			directValues[key] = value;
+			return;
+		}
+
+		int slot = insertSlot(key);
+		overflowValues[slot] = value;
+	}
+
+	/**
+	 * Method adds given <code>delta</code> to the value of the given key. </br>
+	 * If the key is not contained in dictionary, it is added with value <code>delta</code>.
+	 *
+	 * @param key   <code>char</code> key whose value is incremented
+	 * @param delta <code>int</code> that is added to the value
+	 * @return      new value of the key
+	 * @throws      <code>UnsupportedOperationException</code> if this dictionary is frozen
+	 */
+	public int increment(char key, int delta) {
+		checkNotFrozen();
+
+		if (key < DIRECT_SIZE) {
+			markDirect(key);
+			return directValues[key] += delta;
+		}
+
+		int slot = insertSlot(key);
+		return overflowValues[slot] += delta;
+	}
+
+	/**
+	 * Method deletes all records that dictionary contained.
+	 *
+	 * @throws <code>UnsupportedOperationException</code> if this dictionary is frozen
+	 */
+	public void clear() {
+		checkNotFrozen();
+
+		for (int i = 0; i < DIRECT_SIZE; i++) {
+			directValues[i] = 0;
+		}
+		for (int i = 0; i < directPresent.length; i++) {
+			directPresent[i] = 0;
+		}
+		overflowKeys = new char[INITIAL_OVERFLOW_CAPACITY];
+		overflowValues = new int[INITIAL_OVERFLOW_CAPACITY];
+		overflowSize = 0;
+		size = 0;
+	}
+
+	/**
+	 * Method calls <code>processor.process()</code> for each record of this dictionary. </br>
+	 * Keys from ASCII range are sent in ascending order, </br>
+	 * other keys are sent after them in undefined order.
+	 *
+	 * @param processor instance of <code>CharIntProcessor</code> class
+	 */
+	public void forEach(CharIntProcessor processor) {
+		for (char key = 0; key < DIRECT_SIZE; key++) {
+			if ((directPresent[key >>> 6] & (1L << key)) != 0)
+				processor.process(key, directValues[key]);
+		}
+		for (int i = 0; i < overflowKeys.length; i++) {
+			if (overflowKeys[i] != EMPTY_KEY)
+				processor.process(overflowKeys[i], overflowValues[i]);
+		}
+	}
+
+	/**
+	 * Method returns read-only snapshot of this dictionary. </br>
+	 * Later changes of this dictionary are not visible in the snapshot. </br>
+	 * Snapshot can be shared between threads once it is safely published.
+	 *
+	 * @return frozen copy of this dictionary
+	 */
+	public CharIntDictionary freeze() {
+		return frozen ? this : new CharIntDictionary(this, true);
+	}
+
+	/**
+	 * Helper method that marks key from ASCII range as present.
+	 *
+	 * @param key <code>char</code> key from ASCII range
+	 */
+	private void markDirect(char key) {
+		long mask = 1L << key;
+		if ((directPresent[key >>> 6] & mask) == 0) {
+			directPresent[key >>> 6] |= mask;
+			size++;
+		}
+	}
+
+	/**
+	 * Helper method that returns slot of the given key in overflow table. </br>
+	 * If the key is not contained, it is inserted with value zero.
+	 *
+	 * @param key <code>char</code> key outside of ASCII range
+	 * @return    index of the slot that contains given key
+	 */
+	private int insertSlot(char key) {
+		int slot = findSlot(key);
+		if (overflowKeys[slot] == key)
+			return slot;
+
+		overflowKeys[slot] = key;
+		overflowValues[slot] = 0;
+		overflowSize++;
+		size++;
+
+		if (overflowSize * 2 > overflowKeys.length) {
+			rehash(overflowKeys.length * 2);
+			slot = findSlot(key);
+		}
+		return slot;
+	}
+
+	/**
+	 * Helper method that finds slot of overflow table </br>
+	 * that either contains given key or is empty slot where key should be stored.
+	 *
+	 * @param key <code>char</code> key whose slot is searched for
+	 * @return    index of the slot
+	 */
+	private int findSlot(char key) {
+		int mask = overflowKeys.length - 1;
+		int slot = hash(key) & mask;
+		while (overflowKeys[slot] != EMPTY_KEY && overflowKeys[slot] != key) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	/**
+	 * Method used for reallocating overflow table with given capacity.
+	 *
+	 * @param capacity new capacity of overflow table, must be power of two
+	 */
+	private void rehash(int capacity) {
+		char[] oldKeys = overflowKeys;
+		int[] oldValues = overflowValues;
+		overflowKeys = new char[capacity];
+		overflowValues = new int[capacity];
+
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != EMPTY_KEY) {
+				int slot = findSlot(oldKeys[i]);
+				overflowKeys[slot] = oldKeys[i];
+				overflowValues[slot] = oldValues[i];
+			}
+		}
+	}
+
+	/**
+	 * Helper method that spreads bits of the given key.
+	 *
+	 * @param key <code>char</code> key that is hashed
+	 * @return    hash of the key
+	 */
+	private static int hash(char key) {
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * Helper method that checks if this dictionary can be modified.
+	 *
+	 * @throws <code>UnsupportedOperationException</code> if this dictionary is frozen
+	 */
+	private void checkNotFrozen() {
+		if (frozen)
+			throw new UnsupportedOperationException("Dictionary is frozen.");
+	}
+
+}
@@ -0,0 +1,17 @@
+package hr.fer.zemris.java.custom.collections;
+
+/**
+ * Processor of <code>CharIntDictionary</code> records. </br>
+ * Key and value are sent as primitives so no boxing takes place.
+ * 
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+public class CharIntProcessor {
+	
+	public void process(char key, int value) {
+		
+	}
+	
+}
@@ -0,0 +1,281 @@
+package hr.fer.zemris.java.custom.collections;
+
+/**
+ * Class represents <code>Dictionary</code>-like collection whose keys are primitive <code>char</code> values. </br>
+ * Keys from the ASCII range are stored in directly indexed array, </br>
+ * all other keys are stored in hashed overflow table that uses linear probing. </br>
+ * Methods <code>get</code> and <code>put</code> never box the key and do not allocate </br>
+ * (except when overflow table has to grow). </br>
+ * Value that is assigned to the key is allowed to be <code>null</code>.
+ *
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+public class CharObjectDictionary {
+
+	/**
+	 * number of keys that are stored in directly indexed array
+	 */
+	private static final int DIRECT_SIZE = 128;
+	/**
+	 * initial capacity of overflow table, must be power of two
+	 */
+	private static final int INITIAL_OVERFLOW_CAPACITY = 8;
+	/**
+	 * marks empty slot of overflow table, overflow keys are never in ASCII range
+	 */
+	private static final char EMPTY_KEY = 0;
+
+	/**
+	 * values of keys from ASCII range
+	 */
+	private Object[] directValues;
+	/**
+	 * bit set that marks which keys from ASCII range are present
+	 */
+	private long[] directPresent;
+	/**
+	 * keys of overflow table
+	 */
+	private char[] overflowKeys;
+	/**
+	 * values of overflow table
+	 */
+	private Object[] overflowValues;
+	/**
+	 * number of keys stored in overflow table
+	 */
+	private int overflowSize;
+	/**
+	 * number of records stored in dictionary
+	 */
+	private int size;
+	/**
+	 * <code>true</code> if this dictionary is read-only snapshot
+	 */
+	private boolean frozen;
+
+	/**
+	 * Constructor used for creating new empty <code>CharObjectDictionary</code>.
+	 */
+	public CharObjectDictionary() {
+		directValues = new Object[DIRECT_SIZE];
+		directPresent = new long[DIRECT_SIZE / Long.SIZE];
+		overflowKeys = new char[INITIAL_OVERFLOW_CAPACITY];
+		overflowValues = new Object[INITIAL_OVERFLOW_CAPACITY];
+	}
+
+	/**
+	 * Constructor used for creating copy of given dictionary.
+	 *
+	 * @param other  dictionary whose records are copied
+	 * @param frozen <code>true</code> if newly created dictionary is read-only
+	 */
+	private CharObjectDictionary(CharObjectDictionary other, boolean frozen) {
+		directValues = other.directValues.clone();
+		directPresent = other.directPresent.clone();
+		overflowKeys = other.overflowKeys.clone();
+		overflowValues = other.overflowValues.clone();
+		overflowSize = other.overflowSize;
+		size = other.size;
+		this.frozen = frozen;
+	}
+
+	/**
+	 * Method checks if dictionary contains any records.
+	 *
+	 * @return <code>true</code> if dictionary does not contain any records, otherwise <code>false</code>
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Method that returns number of records stored in dictionary.
+	 *
+	 * @return number of records stored in dictionary
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Method checks if this dictionary is read-only snapshot.
+	 *
+	 * @return <code>true</code> if this dictionary can not be modified, otherwise <code>false</code>
+	 */
+	public boolean isFrozen() {
+		return frozen;
+	}
+
+	/**
+	 * Method checks if dictionary contains record with given key.
+	 *
+	 * @param key <code>char</code> key whose presence is checked
+	 * @return    <code>true</code> if dictionary contains given key, otherwise <code>false</code>
+	 */
+	public boolean containsKey(char key) {
+		if (key < DIRECT_SIZE)
+			return (directPresent[key >>> 6] & (1L << key)) != 0;
+
+		return overflowKeys[findSlot(key)] == key;
+	}
+
+	/**
+	 * Method that returns value that is assigned to the given key in dictionary.
+	 *
+	 * @param key <code>char</code> key whose value is returned
+	 * @return    <code>Object</code> value that is assigned to the given <code>key</code> </br>
+	 * 			  only if the <code>key</code> is contained in dictionary, </br>
+	 * 			  otherwise returns <code>null</code>
+	 */
+	public Object get(char key) {
+		if (key < DIRECT_SIZE)
+			return directValues[key];
+
+		int slot = findSlot(key);
+		return overflowKeys[slot] == key ? overflowValues[slot] : null;
+	}
+
+	/**
+	 * Method adds given key and value to the dictionary as a one record. </br>
+	 * If the given key is already contained in dictionary its value is overridden.
+	 *
+	 * @param key   <code>char</code> key to which given value is mapped
+	 * @param value <code>Object</code> value that is assigned to the given key
+	 * @throws      <code>UnsupportedOperationException</code> if this dictionary is frozen
+	 */
+	public void put(char key, Object value) {
+		checkNotFrozen();
+
+		if (key < DIRECT_SIZE) {
+			long mask = 1L << key;
+			if ((directPresent[key >>> 6] & mask) == 0) {
+				directPresent[key >>> 6] |= mask;
+				size++;
+			}
+			directValues[key] = value;
+			return;
+		}
+
+		int slot = findSlot(key);
+		if (overflowKeys[slot] != key) {
+			overflowKeys[slot] = key;
+			overflowSize++;
+			size++;
+		}
+		overflowValues[slot] = value;
+
+		if (overflowSize * 2 > overflowKeys.length) {
+			rehash(overflowKeys.length * 2);
+		}
+	}
+
+	/**
+	 * Method deletes all records that dictionary contained.
+	 *
+	 * @throws <code>UnsupportedOperationException</code> if this dictionary is frozen
+	 */
+	public void clear() {
+		checkNotFrozen();
+
+		for (int i = 0; i < DIRECT_SIZE; i++) {
+			directValues[i] = null;
+		}
+		for (int i = 0; i < directPresent.length; i++) {
+			directPresent[i] = 0;
+		}
+		overflowKeys = new char[INITIAL_OVERFLOW_CAPACITY];
+		overflowValues = new Object[INITIAL_OVERFLOW_CAPACITY];
+		overflowSize = 0;
+		size = 0;
+	}
+
+	/**
+	 * Method calls <code>processor.process()</code> for each record of this dictionary. </br>
+	 * Keys from ASCII range are sent in ascending order, </br>
+	 * other keys are sent after them in undefined order.
+	 *
+	 * @param processor instance of <code>CharObjectProcessor</code> class
+	 */
+	public void forEach(CharObjectProcessor processor) {
+		for (char key = 0; key < DIRECT_SIZE; key++) {
+			if ((directPresent[key >>> 6] & (1L << key)) != 0)
+				processor.process(key, directValues[key]);
+		}
+		for (int i = 0; i < overflowKeys.length; i++) {
+			if (overflowKeys[i] != EMPTY_KEY)
+				processor.process(overflowKeys[i], overflowValues[i]);
+		}
+	}
+
+	/**
+	 * Method returns read-only snapshot of this dictionary. </br>
+	 * Later changes of this dictionary are not visible in the snapshot. </br>
+	 * Snapshot can be shared between threads once it is safely published.
+	 *
+	 * @return frozen copy of this dictionary
+	 */
+	public CharObjectDictionary freeze() {
+		return frozen ? this : new CharObjectDictionary(this, true);
+	}
+
+	/**
+	 * Helper method that finds slot of overflow table </br>
+	 * that either contains given key or is empty slot where key should be stored.
+	 *
+	 * @param key <code>char</code> key whose slot is searched for
+	 * @return    index of the slot
+	 */
+	private int findSlot(char key) {
+		int mask = overflowKeys.length - 1;
+		int slot = hash(key) & mask;
+		while (overflowKeys[slot] != EMPTY_KEY && overflowKeys[slot] != key) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	/**
+	 * Method used for reallocating overflow table with given capacity.
+	 *
+	 * @param capacity new capacity of overflow table, must be power of two
+	 */
+	private void rehash(int capacity) {
+		char[] oldKeys = overflowKeys;
+		Object[] oldValues = overflowValues;
+		overflowKeys = new char[capacity];
+		overflowValues = new Object[capacity];
+
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != EMPTY_KEY) {
+				int slot = findSlot(oldKeys[i]);
+				overflowKeys[slot] = oldKeys[i];
+				overflowValues[slot] = oldValues[i];
+			}
+		}
+	}
+
+	/**
+	 * Helper method that spreads bits of the given key.
+	 *
+	 * @param key <code>char</code> key that is hashed
+	 * @return    hash of the key
+	 */
+	private static int hash(char key) {
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+
+	/**
+	 * Helper method that checks if this dictionary can be modified.
+	 *
+	 * @throws <code>UnsupportedOperationException</code> if this dictionary is frozen
+	 */
+	private void checkNotFrozen() {
+		if (frozen)
+			throw new UnsupportedOperationException("Dictionary is frozen.");
+	}
+
+}
@@ -0,0 +1,17 @@
+package hr.fer.zemris.java.custom.collections;
+
+/**
+ * Processor of <code>CharObjectDictionary</code> records. </br>
+ * Key is sent as primitive <code>char</code> so no boxing takes place.
+ * 
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+public class CharObjectProcessor {
+	
+	public void process(char key, Object value) {
+		
+	}
+	
+}
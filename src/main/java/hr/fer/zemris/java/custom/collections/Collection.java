@@ -1,5 +1,10 @@
 package hr.fer.zemris.java.custom.collections;
 
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 /**
  * This class represents some general collection of objects.
  * 
@@ -81,6 +86,47 @@ public class Collection {
 		
 	}
 	
+	/**
+	 * Method calls <code>processor.process()<code> for each element of this collection,
+	 * possibly from several threads at once.
+	 * This class simply delegates to <code>forEach</code>; 
+	 * subclasses that can split their storage process it in parallel.
+	 * Given processor must be safe to call concurrently.
+	 * 
+	 * @param processor instance of <code>Processor</code> class
+	 */
+	public void parallelForEach(Processor processor) {
+		forEach(processor);
+	}
+	
+	/**
+	 * Returns <code>Spliterator</code> over the elements of this collection.
+	 * This class creates it over a snapshot returned by <code>toArray()</code>.
+	 * 
+	 * @return sized <code>Spliterator</code> over the elements of this collection
+	 */
+	public Spliterator<Object> spliterator() {
+		return Spliterators.spliterator(toArray(), Spliterator.ORDERED);
+	}
+	
+	/**
+	 * Returns sequential <code>Stream</code> of the elements of this collection.
+	 * 
+	 * @return sequential <code>Stream</code> of the elements
+	 */
+	public Stream<Object> stream() {
+		return StreamSupport.stream(spliterator(), false);
+	}
+	
+	/**
+	 * Returns possibly parallel <code>Stream</code> of the elements of this collection.
+	 * 
+	 * @return parallel <code>Stream</code> of the elements
+	 */
+	public Stream<Object> parallelStream() {
+		return StreamSupport.stream(spliterator(), true);
+	}
+	
 	/**
 	 * Method adds into the current collection all elements from the given collection.
 	 * This other collection remains unchanged.
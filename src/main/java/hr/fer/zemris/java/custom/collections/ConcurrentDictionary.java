@@ -0,0 +1,182 @@
+package hr.fer.zemris.java.custom.collections;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * Thread-safe variant of <code>Dictionary</code> that can be shared between threads. </br>
+ * Reads never lock, writes lock only the bin of the key they modify </br>
+ * and the table is resized without blocking readers. </br>
+ * Just like <code>Dictionary</code>, it only allows keys that are not <code>null</code>, </br>
+ * however value that is assigned to the key is allowed be <code>null</code>.
+ *
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+public class ConcurrentDictionary {
+
+	/**
+	 * marker that is stored instead of <code>null</code> values
+	 */
+	private static final Object NULL_VALUE = new Object();
+
+	/**
+	 * Private map for storing records that is used like adaptee
+	 */
+	private ConcurrentHashMap<Object, Object> map;
+
+	/**
+	 * Constructor used for creating new <code>ConcurrentDictionary</code>.
+	 */
+	public ConcurrentDictionary() {
+		map = new ConcurrentHashMap<>();
+	}
+
+	/**
+	 * Method checks if dictionary contains any records.
+	 *
+	 * @return <code>true</code> if dictionary does not contain any records, otherwise <code>false</code>
+	 */
+	public boolean isEmpty() {
+		return map.isEmpty();
+	}
+
+	/**
+	 * Method that returns number of records stored in dictionary. </br>
+	 * While other threads modify the dictionary, returned number is only an estimate.
+	 *
+	 * @return number of records stored in dictionary
+	 */
+	public int size() {
+		return map.size();
+	}
+
+	/**
+	 * Method deletes all records that dictionary contained.
+	 */
+	public void clear() {
+		map.clear();
+	}
+
+	/**
+	 * Method adds given key and value to the dictionary as a one record. </br>
+	 * If the given key is already contained in dictionary its value is overridden.
+	 *
+	 * @param key   <code>Object</code> key to which given value is mapped
+	 * @param value <code>Object</code> value that is assigned to the given key
+	 * @throws      <code>NullPointerException</code> if the given <code>key</code> is <code>null</code>
+	 */
+	public void put(Object key, Object value) {
+		Objects.requireNonNull(key, "Key must not be null");
+		map.put(key, mask(value));
+	}
+
+	/**
+	 * Method that returns value that is assigned to the given key in dictionary. </br>
+	 * This method never blocks.
+	 *
+	 * @param key <code>Object</code> key whose value is returned
+	 * @return    <code>Object</code> value that is assigned to the given <code>key</code> </br>
+	 * 			  only if the <code>key</code> is contained in dictionary, </br>
+	 * 			  otherwise returns <code>null</code>
+	 * @throws    <code>NullPointerException</code> if the given <code>key</code> is <code>null</code>
+	 */
+	public Object get(Object key) {
+		Objects.requireNonNull(key, "Key must not be null");
+		return unmask(map.get(key));
+	}
+
+	/**
+	 * Method checks if dictionary contains record with given key.
+	 *
+	 * @param key <code>Object</code> key whose presence is checked
+	 * @return    <code>true</code> if dictionary contains given key, otherwise <code>false</code>
+	 * @throws    <code>NullPointerException</code> if the given <code>key</code> is <code>null</code>
+	 */
+	public boolean containsKey(Object key) {
+		Objects.requireNonNull(key, "Key must not be null");
+		return map.containsKey(key);
+	}
+
+	/**
+	 * Method atomically adds given record only if the key is not already contained in dictionary.
+	 *
+	 * @param key   <code>Object</code> key to which given value is mapped
+	 * @param value <code>Object</code> value that is assigned to the given key
+	 * @return      value that was already assigned to the key, or <code>null</code> if record was added
+	 * @throws      <code>NullPointerException</code> if the given <code>key</code> is <code>null</code>
+	 */
+	public Object putIfAbsent(Object key, Object value) {
+		Objects.requireNonNull(key, "Key must not be null");
+		return unmask(map.putIfAbsent(key, mask(value)));
+	}
+
+	/**
+	 * Method atomically computes new value of the given key from its current value. </br>
+	 * Function receives the key and its current value (<code>null</code> if the key is not contained) </br>
+	 * and is called at most once. If function returns <code>null</code> record is removed. </br>
+	 * Function should be short and must not modify this dictionary.
+	 *
+	 * @param key      <code>Object</code> key whose value is computed
+	 * @param function function that computes new value
+	 * @return         new value of the key, or <code>null</code> if record was removed
+	 * @throws         <code>NullPointerException</code> if the given <code>key</code> or function is <code>null</code>
+	 */
+	public Object compute(Object key, BiFunction<Object, Object, Object> function) {
+		Objects.requireNonNull(key, "Key must not be null");
+		Objects.requireNonNull(function);
+
+		return unmask(map.compute(key, (k, old) -> {
+			Object value = function.apply(k, unmask(old));
+			return value == null ? null : mask(value);
+		}));
+	}
+
+	/**
+	 * Method removes record with the given key.
+	 *
+	 * @param key <code>Object</code> key whose record is removed
+	 * @return    value that was assigned to the key, or <code>null</code> if it was not contained
+	 * @throws    <code>NullPointerException</code> if the given <code>key</code> is <code>null</code>
+	 */
+	public Object remove(Object key) {
+		Objects.requireNonNull(key, "Key must not be null");
+		return unmask(map.remove(key));
+	}
+
+	/**
+	 * Method sends each key of this dictionary to the given processor. </br>
+	 * Iteration is weakly consistent: it reflects some state of the dictionary </br>
+	 * at or after the start of iteration and never throws because of concurrent modification.
+	 *
+	 * @param processor instance of <code>Processor</code> class that receives keys
+	 */
+	public void forEachKey(Processor processor) {
+		for (Object key : map.keySet()) {
+			processor.process(key);
+		}
+	}
+
+	/**
+	 * Helper method that replaces <code>null</code> value with marker.
+	 *
+	 * @param value value that is stored
+	 * @return      value or marker
+	 */
+	private static Object mask(Object value) {
+		return value == null ? NULL_VALUE : value;
+	}
+
+	/**
+	 * Helper method that replaces marker with <code>null</code> value.
+	 *
+	 * @param value value that is read
+	 * @return      value or <code>null</code>
+	 */
+	private static Object unmask(Object value) {
+		return value == NULL_VALUE ? null : value;
+	}
+
+}
@@ -87,6 +87,26 @@ public class Dictionary {
 		return record == null ? null : record.getValue();
 	}
 	
+	/**
+	 * Method returns immutable snapshot of this dictionary that is optimized for lookups. </br>
+	 * Later changes of this dictionary are not visible in the snapshot. </br>
+	 * Snapshot is built in O(n) time and can be shared between threads without synchronization.
+	 * 
+	 * @return <code>FrozenDictionary</code> that contains all records of this dictionary
+	 */
+	public FrozenDictionary freeze() {
+		Object[] records = map.toArray();
+		Object[] keys = new Object[records.length];
+		Object[] values = new Object[records.length];
+		
+		for (int i = 0; i < records.length; i++) {
+			Record record = (Record) records[i];
+			keys[i] = record.getKey();
+			values[i] = record.getValue();
+		}
+		return new FrozenDictionary(keys, values);
+	}
+	
 	/**
 	 * Helper method for finding <code>Record</code> that contains given <code>key</code>.
 	 * 
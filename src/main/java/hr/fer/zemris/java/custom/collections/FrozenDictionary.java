@@ -0,0 +1,387 @@
+package hr.fer.zemris.java.custom.collections;
+
+import java.util.Objects;
+
+/**
+ * Class represents immutable read-only snapshot of <code>Dictionary</code>. </br>
+ * Keys are placed with perfect hash function (hash and displace scheme), </br>
+ * so every lookup examines exactly one slot of the table and never probes on collisions. </br>
+ * Only keys whose <code>hashCode</code> is equal to hash code of other key </br>
+ * can not be separated by any hash function; those are kept in small overflow array. </br>
+ * All fields are final, so snapshot can be shared between threads without synchronization.
+ *
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+public final class FrozenDictionary {
+
+	/**
+	 * average number of keys in one bucket
+	 */
+	private static final int KEYS_PER_BUCKET = 2;
+	/**
+	 * number of displacements that are tried for one bucket before table is enlarged
+	 */
+	private static final int MAX_DISPLACEMENT = 1 << 16;
+	/**
+	 * multiplier used for deriving displaced hash
+	 */
+	private static final int GOLDEN = 0x9E3779B9;
+
+	/**
+	 * keys of the table, <code>null</code> marks empty slot
+	 */
+	private final Object[] keys;
+	/**
+	 * values of the table
+	 */
+	private final Object[] values;
+	/**
+	 * displacement of each bucket
+	 */
+	private final int[] displacements;
+	/**
+	 * keys whose hash code is equal to hash code of other key, or <code>null</code> if there are none
+	 */
+	private final Object[] overflowKeys;
+	/**
+	 * values of overflow keys
+	 */
+	private final Object[] overflowValues;
+	/**
+	 * number of records stored in dictionary
+	 */
+	private final int size;
+
+	/**
+	 * Constructor that builds snapshot of given records in expected O(n) time.
+	 *
+	 * @param recordKeys   keys of records, all different and not <code>null</code>
+	 * @param recordValues values of records
+	 */
+	FrozenDictionary(Object[] recordKeys, Object[] recordValues) {
+		int n = recordKeys.length;
+		size = n;
+
+		int[] hashes = new int[n];
+		for (int i = 0; i < n; i++) {
+			hashes[i] = mix(recordKeys[i].hashCode());
+		}
+
+		int buckets = Math.max(1, (n + KEYS_PER_BUCKET - 1) / KEYS_PER_BUCKET);
+		int tableSize = Math.max(1, n + n / 4);
+		Placement placement = null;
+		while (placement == null) {
+			placement = place(hashes, buckets, tableSize);
+			tableSize += tableSize / 2 + 1;
+		}
+
+		keys = new Object[placement.tableSize];
+		values = new Object[placement.tableSize];
+		displacements = placement.displacements;
+
+		int overflowCount = 0;
+		for (int i = 0; i < n; i++) {
+			if (placement.slots[i] < 0)
+				overflowCount++;
+		}
+		overflowKeys = overflowCount == 0 ? null : new Object[overflowCount];
+		overflowValues = overflowCount == 0 ? null : new Object[overflowCount];
+
+		int overflowIndex = 0;
+		for (int i = 0; i < n; i++) {
+			int slot = placement.slots[i];
+			if (slot >= 0) {
+				keys[slot] = recordKeys[i];
+				values[slot] = recordValues[i];
+			} else {
+				overflowKeys[overflowIndex] = recordKeys[i];
+				overflowValues[overflowIndex++] = recordValues[i];
+			}
+		}
+	}
+
+	/**
+	 * Method checks if dictionary contains any records.
+	 *
+	 * @return <code>true</code> if dictionary does not contain any records, otherwise <code>false</code>
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Method that returns number of records stored in dictionary.
+	 *
+	 * @return number of records stored in dictionary
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Method that returns value that is assigned to the given key in dictionary.
+	 *
+	 * @param key <code>Object</code> key whose value is returned
+	 * @return    <code>Object</code> value that is assigned to the given <code>key</code> </br>
+	 * 			  only if the <code>key</code> is contained in dictionary, </br>
+	 * 			  otherwise returns <code>null</code>
+	 * @throws    <code>NullPointerException</code> if the given <code>key</code> is <code>null</code>
+	 */
+	public Object get(Object key) {
+		Objects.requireNonNull(key, "Key must not be null");
+
+		int hash = mix(key.hashCode());
+		int slot = slot(hash, displacements[reduce(hash, displacements.length)], keys.length);
+		Object candidate = keys[slot];
+		if (candidate != null && candidate.equals(key))
+			return values[slot];
+
+		return overflowKeys == null ? null : getOverflow(key);
+	}
+
+	/**
+	 * Method checks if dictionary contains record with given key.
+	 *
+	 * @param key <code>Object</code> key whose presence is checked
+	 * @return    <code>true</code> if dictionary contains given key, otherwise <code>false</code>
+	 * @throws    <code>NullPointerException</code> if the given <code>key</code> is <code>null</code>
+	 */
+	public boolean containsKey(Object key) {
+		Objects.requireNonNull(key, "Key must not be null");
+
+		int hash = mix(key.hashCode());
+		int slot = slot(hash, displacements[reduce(hash, displacements.length)], keys.length);
+		Object candidate = keys[slot];
+		if (candidate != null && candidate.equals(key))
+			return true;
+
+		if (overflowKeys != null) {
+			for (Object overflowKey : overflowKeys) {
+				if (overflowKey.equals(key))
+					return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Helper method that searches overflow array for the given key.
+	 *
+	 * @param key key that is searched for
+	 * @return    value of the key or <code>null</code>
+	 */
+	private Object getOverflow(Object key) {
+		for (int i = 0; i < overflowKeys.length; i++) {
+			if (overflowKeys[i].equals(key))
+				return overflowValues[i];
+		}
+		return null;
+	}
+
+	/**
+	 * Helper method that tries to find displacement of every bucket, </br>
+	 * so that all keys are placed in different slots of the table of given size. </br>
+	 * Buckets are processed from the largest to the smallest one.
+	 *
+	 * @param hashes    mixed hash codes of the keys
+	 * @param buckets   number of buckets
+	 * @param tableSize number of slots in table
+	 * @return          placement of the keys, or <code>null</code> if table is too small
+	 */
+	private static Placement place(int[] hashes, int buckets, int tableSize) {
+		int n = hashes.length;
+
+		// counting sort of keys by bucket
+		int[] bucketStart = new int[buckets + 1];
+		for (int i = 0; i < n; i++) {
+			bucketStart[reduce(hashes[i], buckets) + 1]++;
+		}
+		int maxBucketSize = 0;
+		for (int b = 0; b < buckets; b++) {
+			maxBucketSize = Math.max(maxBucketSize, bucketStart[b + 1]);
+			bucketStart[b + 1] += bucketStart[b];
+		}
+		int[] bucketKeys = new int[n];
+		int[] fill = new int[buckets];
+		for (int i = 0; i < n; i++) {
+			int b = reduce(hashes[i], buckets);
+			bucketKeys[bucketStart[b] + fill[b]++] = i;
+		}
+
+		// counting sort of buckets by size, largest first
+		int[] sizeStart = new int[maxBucketSize + 2];
+		for (int b = 0; b < buckets; b++) {
+			sizeStart[maxBucketSize - (bucketStart[b + 1] - bucketStart[b]) + 1]++;
+		}
+		for (int s = 0; s <= maxBucketSize; s++) {
+			sizeStart[s + 1] += sizeStart[s];
+		}
+		int[] order = new int[buckets];
+		for (int b = 0; b < buckets; b++) {
+			order[sizeStart[maxBucketSize - (bucketStart[b + 1] - bucketStart[b])]++] = b;
+		}
+
+		int[] displacements = new int[buckets];
+		int[] slots = new int[n];
+		boolean[] taken = new boolean[tableSize];
+		int[] candidate = new int[maxBucketSize];
+
+		for (int b : order) {
+			int from = bucketStart[b];
+			int count = bucketStart[b + 1] - from;
+			if (count == 0)
+				break;
+
+			count = separateEqualHashes(hashes, bucketKeys, from, count, slots);
+
+			int displacement = 0;
+			for (; displacement < MAX_DISPLACEMENT; displacement++) {
+				if (fits(hashes, bucketKeys, from, count, displacement, taken, candidate))
+					break;
+			}
+			if (displacement == MAX_DISPLACEMENT)
+				return null;
+
+			displacements[b] = displacement;
+			for (int j = 0; j < count; j++) {
+				taken[candidate[j]] = true;
+				slots[bucketKeys[from + j]] = candidate[j];
+			}
+		}
+		return new Placement(tableSize, displacements, slots);
+	}
+
+	/**
+	 * Helper method that moves keys whose hash equals hash of other key in the same bucket </br>
+	 * to the end of the bucket and marks them for overflow array.
+	 *
+	 * @param hashes     mixed hash codes of the keys
+	 * @param bucketKeys keys grouped by bucket
+	 * @param from       index of the first key of the bucket
+	 * @param count      number of keys in the bucket
+	 * @param slots      slots of keys, overflow keys are marked with -1
+	 * @return           number of keys that remain in the bucket
+	 */
+	private static int separateEqualHashes(int[] hashes, int[] bucketKeys, int from, int count, int[] slots) {
+		int kept = count;
+		for (int j = 1; j < kept; j++) {
+			for (int k = 0; k < j; k++) {
+				if (hashes[bucketKeys[from + j]] == hashes[bucketKeys[from + k]]) {
+					int overflow = bucketKeys[from + j];
+					bucketKeys[from + j] = bucketKeys[from + kept - 1];
+					bucketKeys[from + kept - 1] = overflow;
+					slots[overflow] = -1;
+					kept--;
+					j--;
+					break;
+				}
+			}
+		}
+		return kept;
+	}
+
+	/**
+	 * Helper method that checks if all keys of one bucket fall in free and different slots </br>
+	 * with given displacement.
+	 *
+	 * @param hashes       mixed hash codes of the keys
+	 * @param bucketKeys   keys grouped by bucket
+	 * @param from         index of the first key of the bucket
+	 * @param count        number of keys in the bucket
+	 * @param displacement displacement that is tried
+	 * @param taken        marks slots that are already taken
+	 * @param candidate    array where slots of the keys are stored
+	 * @return             <code>true</code> if displacement places all keys
+	 */
+	private static boolean fits(int[] hashes, int[] bucketKeys, int from, int count,
+			int displacement, boolean[] taken, int[] candidate) {
+		for (int j = 0; j < count; j++) {
+			int slot = slot(hashes[bucketKeys[from + j]], displacement, taken.length);
+			if (taken[slot])
+				return false;
+			for (int k = 0; k < j; k++) {
+				if (candidate[k] == slot)
+					return false;
+			}
+			candidate[j] = slot;
+		}
+		return true;
+	}
+
+	/**
+	 * Helper method that calculates slot of the key with given hash and displacement.
+	 *
+	 * @param hash         mixed hash code of the key
+	 * @param displacement displacement of the key's bucket
+	 * @param tableSize    number of slots in table
+	 * @return             slot of the key
+	 */
+	private static int slot(int hash, int displacement, int tableSize) {
+		return reduce(mix(hash + displacement * GOLDEN), tableSize);
+	}
+
+	/**
+	 * Helper method that maps hash uniformly to range from zero to <code>range</code> (not including)
+	 * with multiplication instead of division.
+	 *
+	 * @param hash  hash that is mapped
+	 * @param range size of the range
+	 * @return      number from the range
+	 */
+	private static int reduce(int hash, int range) {
+		return (int) (((hash & 0xFFFFFFFFL) * range) >>> 32);
+	}
+
+	/**
+	 * Helper method that spreads bits of the given hash code (MurmurHash3 finalizer).
+	 *
+	 * @param h hash code
+	 * @return  mixed hash code
+	 */
+	private static int mix(int h) {
+		h ^= h >>> 16;
+		h *= 0x85EBCA6B;
+		h ^= h >>> 13;
+		h *= 0xC2B2AE35;
+		h ^= h >>> 16;
+		return h;
+	}
+
+	/**
+	 * Private class that holds result of placing keys in the table.
+	 *
+	 * @author Ante Gazibarić
+	 * @version 1.0
+	 *
+	 */
+	private static class Placement {
+		/**
+		 * number of slots in table
+		 */
+		private final int tableSize;
+		/**
+		 * displacement of each bucket
+		 */
+		private final int[] displacements;
+		/**
+		 * slot of each key, -1 for overflow keys
+		 */
+		private final int[] slots;
+
+		/**
+		 * Constructor for creating new <code>Placement</code>.
+		 *
+		 * @param tableSize     number of slots in table
+		 * @param displacements displacement of each bucket
+		 * @param slots         slot of each key
+		 */
+		public Placement(int tableSize, int[] displacements, int[] slots) {
+			this.tableSize = tableSize;
+			this.displacements = displacements;
+			this.slots = slots;
+		}
+	}
+
+}
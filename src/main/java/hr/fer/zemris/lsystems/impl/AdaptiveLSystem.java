@@ -0,0 +1,29 @@
+package hr.fer.zemris.lsystems.impl;
+
+import hr.fer.zemris.lsystems.LSystem;
+import hr.fer.zemris.lsystems.Painter;
+
+/**
+ * <code>LSystem</code> that can be drawn with <code>DrawMode.ADAPTIVE</code> for any target resolution, </br>
+ * regardless of the mode it was built with. Exporters use it to match expansion depth to the size </br>
+ * of the image they produce.
+ * 
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+public interface AdaptiveLSystem extends LSystem {
+
+	/**
+	 * Method draws system, replacing every subtree smaller than threshold by chord.
+	 * 
+	 * @param level          level that is drawn
+	 * @param painter        <code>Painter</code> that draws lines
+	 * @param width          width of the target image in pixels
+	 * @param height         height of the target image in pixels
+	 * @param pixelThreshold size in pixels below which subtree is replaced
+	 * @throws <code>IllegalArgumentException</code> if level is negative or resolution is not valid
+	 */
+	void drawAdaptive(int level, Painter painter, int width, int height, double pixelThreshold);
+	
+}
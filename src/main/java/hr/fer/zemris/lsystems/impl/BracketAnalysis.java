@@ -0,0 +1,163 @@
+package hr.fer.zemris.lsystems.impl;
+
+import hr.fer.zemris.java.custom.collections.CharObjectDictionary;
+import hr.fer.zemris.lsystems.impl.commands.PopCommand;
+import hr.fer.zemris.lsystems.impl.commands.PushCommand;
+
+/**
+ * Static analysis of push and pop commands of <code>LSystem</code>. </br>
+ * For every symbol and level it computes effect that fully expanded symbol has on <code>Context</code> </br>
+ * when it is interpreted: net change of depth, highest depth and lowest depth, </br>
+ * all relative to the depth before the symbol. Effect of a production is effect of its symbols </br>
+ * one level lower, combined in order, so analysing level <code>n</code> costs </br>
+ * <code>n</code> passes over the productions, independently of length of generated string. </br>
+ * Result gives exact capacity of the stack and detects pops of the initial state before drawing starts. </br>
+ * Symbol with weighted alternatives has the union of effects of its alternatives, </br>
+ * and net change becomes a range, so result is a bound that holds for every choice.
+ * 
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+final class BracketAnalysis {
+
+	/**
+	 * largest capacity that stack is pre-sized to; deeper stacks grow while drawing
+	 */
+	private static final int MAX_PRESIZED_CAPACITY = 1 << 16;
+	/**
+	 * bound of computed values, so that exponentially deep grammars do not overflow
+	 */
+	private static final long LIMIT = Long.MAX_VALUE / 4;
+	
+	/**
+	 * indices of symbols of axiom
+	 */
+	private final int[] axiom;
+	/**
+	 * indices of symbols of every alternative production of every symbol, </br>
+	 * <code>null</code> for symbols without production
+	 */
+	private final int[][][] productions;
+	/**
+	 * change of depth caused by command of every symbol
+	 */
+	private final long[] commandDelta;
+	
+	/**
+	 * Constructor that analyses productions and commands.
+	 * 
+	 * @param axiom       axiom of the system
+	 * @param productions productions of the system
+	 * @param commands    commands of the system
+	 */
+	BracketAnalysis(String axiom, CharObjectDictionary productions, CharObjectDictionary commands) {
+		IndexedGrammar grammar = new IndexedGrammar(axiom, productions);
+		this.axiom = grammar.axiom();
+		this.productions = grammar.productions();
+		
+		this.commandDelta = new long[grammar.size()];
+		for (int i = 0; i < commandDelta.length; i++) {
+			Object command = commands.get(grammar.symbol(i));
+			if (command instanceof PushCommand)
+				commandDelta[i] = 1;
+			else if (command instanceof PopCommand)
+				commandDelta[i] = -1;
+		}
+	}
+	
+	/**
+	 * Method returns capacity of the stack that drawing of the given level needs.
+	 * 
+	 * @param level level that is drawn
+	 * @return      capacity for the initial state and the deepest nesting of pushes
+	 * @throws      <code>StateUnderflowException</code> if drawing would pop the initial state
+	 */
+	int stackCapacity(int level) {
+		int size = commandDelta.length;
+		long[] deltaLow = commandDelta.clone();
+		long[] deltaHigh = commandDelta.clone();
+		long[] peak = new long[size];
+		long[] min = new long[size];
+		for (int i = 0; i < size; i++) {
+			peak[i] = Math.max(0, commandDelta[i]);
+			min[i] = Math.min(0, commandDelta[i]);
+		}
+		
+		long[] effect = new long[4];
+		for (int l = 0; l < level; l++) {
+			long[] nextLow = new long[size];
+			long[] nextHigh = new long[size];
+			long[] nextPeak = new long[size];
+			long[] nextMin = new long[size];
+			for (int i = 0; i < size; i++) {
+				if (productions[i] == null) {
+					nextLow[i] = deltaLow[i];
+					nextHigh[i] = deltaHigh[i];
+					nextPeak[i] = peak[i];
+					nextMin[i] = min[i];
+					continue;
+				}
+				nextLow[i] = LIMIT;
+				nextHigh[i] = -LIMIT;
+				nextPeak[i] = -LIMIT;
+				nextMin[i] = LIMIT;
+				for (int[] alternative : productions[i]) {
+					combine(alternative, deltaLow, deltaHigh, peak, min, effect);
+					nextLow[i] = Math.min(nextLow[i], effect[0]);
+					nextHigh[i] = Math.max(nextHigh[i], effect[1]);
+					nextPeak[i] = Math.max(nextPeak[i], effect[2]);
+					nextMin[i] = Math.min(nextMin[i], effect[3]);
+				}
+			}
+			deltaLow = nextLow;
+			deltaHigh = nextHigh;
+			peak = nextPeak;
+			min = nextMin;
+		}
+		
+		combine(axiom, deltaLow, deltaHigh, peak, min, effect);
+		if (effect[3] < 0)
+			throw new StateUnderflowException(level);
+		return (int) Math.min(MAX_PRESIZED_CAPACITY, 1 + effect[2]);
+	}
+	
+	/**
+	 * Helper method that combines effects of the given symbols in order.
+	 * 
+	 * @param symbols   indices of symbols
+	 * @param deltaLow  smallest net change of depth of every symbol
+	 * @param deltaHigh largest net change of depth of every symbol
+	 * @param peak      highest depth of every symbol
+	 * @param min       lowest depth of every symbol
+	 * @param result    array where smallest and largest net change, highest and lowest depth are written
+	 */
+	private static void combine(int[] symbols, long[] deltaLow, long[] deltaHigh, long[] peak, long[] min,
+			long[] result) {
+		long low = 0;
+		long high = 0;
+		long highest = 0;
+		long lowest = 0;
+		for (int symbol : symbols) {
+			highest = Math.max(highest, clamp(high + peak[symbol]));
+			lowest = Math.min(lowest, clamp(low + min[symbol]));
+			low = clamp(low + deltaLow[symbol]);
+			high = clamp(high + deltaHigh[symbol]);
+		}
+		result[0] = low;
+		result[1] = high;
+		result[2] = highest;
+		result[3] = lowest;
+	}
+	
+	/**
+	 * Helper method that keeps value within <code>LIMIT</code>.
+	 * 
+	 * @param value value that is clamped
+	 * @return      clamped value
+	 */
+	private static long clamp(long value) {
+		return Math.max(-LIMIT, Math.min(LIMIT, value));
+	}
+	
+}
@@ -0,0 +1,58 @@
+package hr.fer.zemris.lsystems.impl;
+
+/**
+ * Exception that is thrown when textual configuration of <code>LSystem</code> is not valid. </br>
+ * It reports line and column (both starting from one) where the error was found.
+ *
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+public class ConfigParseException extends IllegalArgumentException {
+
+	/**
+	 * serial number of the exception
+	 */
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * line where error was found
+	 */
+	private final int line;
+	/**
+	 * column where error was found
+	 */
+	private final int column;
+
+	/**
+	 * Constructor for creating new <code>ConfigParseException</code>.
+	 *
+	 * @param message description of the error
+	 * @param line    line where error was found
+	 * @param column  column where error was found
+	 */
+	public ConfigParseException(String message, int line, int column) {
+		super("Line " + line + ", column " + column + ": " + message);
+		this.line = line;
+		this.column = column;
+	}
+
+	/**
+	 * Method returns line where error was found.
+	 *
+	 * @return line number, starting from one
+	 */
+	public int getLine() {
+		return line;
+	}
+
+	/**
+	 * Method returns column where error was found.
+	 *
+	 * @return column number, starting from one
+	 */
+	public int getColumn() {
+		return column;
+	}
+
+}
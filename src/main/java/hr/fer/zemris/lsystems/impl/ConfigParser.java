@@ -0,0 +1,361 @@
+package hr.fer.zemris.lsystems.impl;
+
+import java.awt.Color;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import hr.fer.zemris.lsystems.impl.commands.ColorCommand;
+import hr.fer.zemris.lsystems.impl.commands.DrawCommand;
+import hr.fer.zemris.lsystems.impl.commands.PopCommand;
+import hr.fer.zemris.lsystems.impl.commands.PushCommand;
+import hr.fer.zemris.lsystems.impl.commands.RotateCommand;
+import hr.fer.zemris.lsystems.impl.commands.ScaleCommand;
+import hr.fer.zemris.lsystems.impl.commands.SkipCommand;
+
+/**
+ * Parser of textual <code>LSystem</code> configuration. </br>
+ * Input is read once, line by line, and every line is split into tokens by hand. </br>
+ * The first token of the line is keyword that decides how the rest of the line is parsed, </br>
+ * so keywords can not be confused with each other (like <code>unitLength</code> </br>
+ * and <code>unitLengthDegreeScaler</code>). Empty lines and lines starting with <code>#</code> are skipped. </br>
+ * Production line with weight before the production (<code>production X 0.3 F[+X]</code>) </br>
+ * adds weighted alternative of the symbol, and <code>seed</code> line sets seed of the choices. </br>
+ * Errors are reported as <code>ConfigParseException</code> with line and column.
+ *
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+class ConfigParser {
+
+	/**
+	 * pattern for matching unit length degree scaler given in fraction form
+	 */
+	private static final Pattern FRACTION_PATTERN = Pattern.compile("([0-9]+\\.?[0-9]*)/([0-9]+\\.?[0-9]*)");
+
+	/**
+	 * builder that is configured
+	 */
+	private final LSystemBuilderImpl builder;
+
+	/**
+	 * line that is currently parsed
+	 */
+	private String line;
+	/**
+	 * number of the line that is currently parsed
+	 */
+	private int lineNumber;
+	/**
+	 * index of the first character that is not yet tokenized
+	 */
+	private int position;
+	/**
+	 * index where last returned token starts
+	 */
+	private int tokenStart;
+
+	/**
+	 * Constructor for creating new <code>ConfigParser</code>.
+	 *
+	 * @param builder <code>LSystemBuilderImpl</code> that is configured by parsed text
+	 */
+	public ConfigParser(LSystemBuilderImpl builder) {
+		this.builder = builder;
+	}
+
+	/**
+	 * Method parses all lines of the given reader.
+	 *
+	 * @param reader <code>Reader</code> from which configuration is read
+	 * @throws IOException            if reading fails
+	 * @throws ConfigParseException   if configuration is not valid
+	 */
+	public void parse(Reader reader) throws IOException {
+		BufferedReader lines = reader instanceof BufferedReader
+				? (BufferedReader) reader : new BufferedReader(reader);
+
+		int number = 0;
+		String text;
+		while ((text = lines.readLine()) != null) {
+			parseLine(text, ++number);
+		}
+	}
+
+	/**
+	 * Method parses all given lines.
+	 *
+	 * @param lines lines of configuration
+	 * @throws ConfigParseException if configuration is not valid
+	 */
+	public void parse(String[] lines) {
+		for (int i = 0; i < lines.length; i++) {
+			parseLine(lines[i], i + 1);
+		}
+	}
+
+	/**
+	 * Method parses one line of configuration.
+	 *
+	 * @param text       line that is parsed
+	 * @param lineNumber number of the line, starting from one
+	 * @throws ConfigParseException if line is not valid
+	 */
+	public void parseLine(String text, int lineNumber) {
+		this.line = text;
+		this.lineNumber = lineNumber;
+		this.position = 0;
+
+		String keyword = nextToken();
+		if (keyword == null || keyword.charAt(0) == '#')
+			return;
+
+		switch (keyword) {
+		case "origin":
+			double x = nextNumber("origin x");
+			double y = nextNumber("origin y");
+			builder.setOrigin(x, y);
+			break;
+		case "angle":
+			builder.setAngle(nextNumber("angle"));
+			break;
+		case "unitLength":
+			builder.setUnitLength(nextNumber("unit length"));
+			break;
+		case "unitLengthDegreeScaler":
+			builder.setUnitLengthDegreeScaler(restAsScaler());
+			break;
+		case "axiom":
+			builder.setAxiom(nextRequired("axiom"));
+			break;
+		case "command":
+			char commandSymbol = nextSymbol();
+			builder.registerCommand(commandSymbol, nextCommand());
+			break;
+		case "production":
+			char productionSymbol = nextSymbol();
+			String production = nextRequired("production");
+			int productionStart = tokenStart;
+			String weighted = nextToken();
+			if (weighted == null) {
+				builder.registerProduction(productionSymbol, production);
+				break;
+			}
+			// production has no whitespace, so the second token means that the first one is weight
+			double weight = parseNumber(production, "weight", productionStart);
+			if (!(weight > 0) || Double.isInfinite(weight))
+				throw error("Weight has to be positive, was " + production + ".", productionStart);
+			builder.registerProduction(productionSymbol, weight, weighted);
+			break;
+		case "seed":
+			String seed = nextRequired("seed");
+			try {
+				builder.setSeed(Long.parseLong(seed));
+			} catch (NumberFormatException ex) {
+				throw error("Invalid seed '" + seed + "'.", tokenStart);
+			}
+			break;
+		default:
+			throw error("Unknown keyword '" + keyword + "'.", tokenStart);
+		}
+		expectEnd();
+	}
+
+	/**
+	 * Method creates <code>Command</code> from its textual form, like <code>"draw 1"</code>. </br>
+	 * The first token is name of the command and decides how parameters are parsed.
+	 *
+	 * @param commandText <code>String</code> that contains command
+	 * @return            <code>Command</code> that given text represents
+	 * @throws            <code>IllegalArgumentException</code> if command is not valid
+	 */
+	public static Command parseCommand(String commandText) {
+		ConfigParser parser = new ConfigParser(null);
+		parser.line = commandText;
+		parser.lineNumber = 1;
+		Command command = parser.nextCommand();
+		parser.expectEnd();
+		return command;
+	}
+
+	/**
+	 * Helper method that parses command from the rest of the line.
+	 *
+	 * @return <code>Command</code> that rest of the line represents
+	 */
+	private Command nextCommand() {
+		String name = nextRequired("command");
+		int nameStart = tokenStart;
+
+		switch (name) {
+		case "draw":
+			return new DrawCommand(nextPositive("draw step"));
+		case "skip":
+			return new SkipCommand(nextPositive("skip step"));
+		case "rotate":
+			return new RotateCommand(nextNumber("rotate angle"));
+		case "scale":
+			return new ScaleCommand(nextPositive("scale factor"));
+		case "color":
+			String hexColor = nextRequired("color");
+			try {
+				return new ColorCommand(Color.decode("#" + hexColor));
+			} catch (NumberFormatException ex) {
+				throw error("Invalid color '" + hexColor + "'.", tokenStart);
+			}
+		case "push":
+			return new PushCommand();
+		case "pop":
+			return new PopCommand();
+		default:
+			throw error("Unsupported command '" + name + "'.", nameStart);
+		}
+	}
+
+	/**
+	 * Helper method that parses unit length degree scaler from the rest of the line. </br>
+	 * Scaler is either a number or a fraction (whitespace is ignored, like in <code>1.0 / 3.0</code>).
+	 *
+	 * @return value of the scaler
+	 */
+	private double restAsScaler() {
+		skipWhitespace();
+		int start = position;
+		if (start == line.length())
+			throw error("Missing unit length degree scaler.", start);
+
+		StringBuilder value = new StringBuilder(line.length() - start);
+		for (; position < line.length(); position++) {
+			char c = line.charAt(position);
+			if (!Character.isWhitespace(c))
+				value.append(c);
+		}
+
+		try {
+			Matcher fractionMatcher = FRACTION_PATTERN.matcher(value);
+			if (fractionMatcher.matches()) {
+				double numerator = Double.parseDouble(fractionMatcher.group(1));
+				double denominator = Double.parseDouble(fractionMatcher.group(2));
+				return numerator / denominator;
+			}
+			return Double.parseDouble(value.toString());
+		} catch (NumberFormatException ex) {
+			throw error("Invalid unit length degree scaler '" + value + "'.", start);
+		}
+	}
+
+	/**
+	 * Helper method that reads next token and checks that it is a single character.
+	 *
+	 * @return the symbol
+	 */
+	private char nextSymbol() {
+		String symbol = nextRequired("symbol");
+		if (symbol.length() != 1)
+			throw error("Symbol must be a single character, was '" + symbol + "'.", tokenStart);
+		return symbol.charAt(0);
+	}
+
+	/**
+	 * Helper method that reads next token as a positive number.
+	 *
+	 * @param what description of the value used in error message
+	 * @return     parsed number
+	 */
+	private double nextPositive(String what) {
+		double value = nextNumber(what);
+		if (value <= 0)
+			throw error("Value of " + what + " has to be positive, was " + value + ".", tokenStart);
+		return value;
+	}
+
+	/**
+	 * Helper method that reads next token as a number.
+	 *
+	 * @param what description of the value used in error message
+	 * @return     parsed number
+	 */
+	private double nextNumber(String what) {
+		String token = nextRequired(what);
+		return parseNumber(token, what, tokenStart);
+	}
+	
+	/**
+	 * Helper method that parses token as a number.
+	 *
+	 * @param token token that is parsed
+	 * @param what  description of the value used in error message
+	 * @param start index in line where token starts
+	 * @return      parsed number
+	 */
+	private double parseNumber(String token, String what, int start) {
+		try {
+			return Double.parseDouble(token);
+		} catch (NumberFormatException ex) {
+			throw error("Invalid " + what + " '" + token + "'.", start);
+		}
+	}
+
+	/**
+	 * Helper method that reads next token which must exist.
+	 *
+	 * @param what description of the value used in error message
+	 * @return     the token
+	 */
+	private String nextRequired(String what) {
+		String token = nextToken();
+		if (token == null)
+			throw error("Missing " + what + ".", position);
+		return token;
+	}
+
+	/**
+	 * Helper method that checks that there are no more tokens in the line.
+	 */
+	private void expectEnd() {
+		String token = nextToken();
+		if (token != null)
+			throw error("Unexpected '" + token + "'.", tokenStart);
+	}
+
+	/**
+	 * Helper method that returns next whitespace separated token of the line.
+	 *
+	 * @return next token or <code>null</code> if there are no more tokens
+	 */
+	private String nextToken() {
+		skipWhitespace();
+		if (position == line.length())
+			return null;
+
+		tokenStart = position;
+		while (position < line.length() && !Character.isWhitespace(line.charAt(position))) {
+			position++;
+		}
+		return line.substring(tokenStart, position);
+	}
+
+	/**
+	 * Helper method that moves position to the next character that is not whitespace.
+	 */
+	private void skipWhitespace() {
+		while (position < line.length() && Character.isWhitespace(line.charAt(position))) {
+			position++;
+		}
+	}
+
+	/**
+	 * Helper method that creates exception for the current line.
+	 *
+	 * @param message description of the error
+	 * @param index   index in line where error was found
+	 * @return        new <code>ConfigParseException</code>
+	 */
+	private ConfigParseException error(String message, int index) {
+		return new ConfigParseException(message, lineNumber, index + 1);
+	}
+
+}
@@ -1,10 +1,17 @@
 package hr.fer.zemris.lsystems.impl;
 
-import hr.fer.zemris.java.custom.collections.ObjectStack;
+import java.util.Arrays;
+
+import hr.fer.zemris.java.custom.collections.EmptyStackException;
 
 /**
  * <code>Context</code> is stack-like data storage for storing <code>TurtleState</code> objects. </br>
- * It offers methods for pushing or popping objects from <code>Context</code>.
+ * It offers methods for pushing or popping objects from <code>Context</code>. </br>
+ * States created by <code>pushCopy</code> are owned by the context: when such state is popped </br>
+ * it stays in its slot and is reused by the next <code>pushCopy</code>, which copies current state </br>
+ * into it instead of allocating new one. States given to <code>pushState</code> belong to the caller </br>
+ * and are never reused, their slot is cleared on pop. After the stack reached its peak depth, </br>
+ * balanced <code>pushCopy</code> and pop allocate nothing.
  * 
  * @author Ante Gazibarić
  * @version 1.0
@@ -13,25 +20,58 @@ import hr.fer.zemris.java.custom.collections.ObjectStack;
 public class Context {
 
 	/**
-	 * private stack for storing data
+	 * initial capacity of the stack
+	 */
+	private static final int DEFAULT_CAPACITY = 16;
+	
+	/**
+	 * stored states, slots from <code>size</code> onwards hold popped states that can be reused
+	 */
+	private TurtleState[] stack;
+	/**
+	 * flags that are <code>true</code> for slots whose state was created by this context
+	 */
+	private boolean[] owned;
+	/**
+	 * number of states currently stored
+	 */
+	private int size;
+	/**
+	 * largest number of states that were stored at once
 	 */
-	private ObjectStack stack;
+	private int peakDepth;
 	
 	/**
 	 * Constructor for creating new <code>Context</code>.
 	 * It accepts no arguments.
 	 */
 	public Context() {
-		stack = new ObjectStack();
+		this(DEFAULT_CAPACITY);
+	}
+	
+	/**
+	 * Constructor for creating new <code>Context</code> that can store given number of states without growing.
+	 * 
+	 * @param capacity initial capacity of the stack
+	 * @throws <code>IllegalArgumentException</code> if capacity is less than one
+	 */
+	public Context(int capacity) {
+		if (capacity < 1)
+			throw new IllegalArgumentException("Capacity must be at least one. You entered: " + capacity);
+		stack = new TurtleState[capacity];
+		owned = new boolean[capacity];
 	}
 	
 	/**
 	 * Method returns object that is last pushed to the context.
 	 * 
 	 * @return <code>Object</code> that is last pushed to the context
+	 * @throws <code>EmptyStackException</code> if context is empty
 	 */
 	public TurtleState getCurrentState() {
-		return (TurtleState) stack.peek();
+		if (size == 0)
+			throw new EmptyStackException();
+		return stack[size - 1];
 	}
 	
 	/**
@@ -40,15 +80,74 @@ public class Context {
 	 * @param state <code>TurtleState</code> object that is stored
 	 */
 	public void pushState(TurtleState state) {
-		stack.push(state);
+		ensureSlot();
+		owned[size] = false;
+		stack[size++] = state;
+		if (size > peakDepth)
+			peakDepth = size;
+	}
+	
+	/**
+	 * Method stores copy of the current state to the context. </br>
+	 * Copy is written into a previously popped state that this context created, if there is one.
+	 * 
+	 * @throws <code>EmptyStackException</code> if context is empty
+	 */
+	public void pushCopy() {
+		TurtleState current = getCurrentState();
+		ensureSlot();
+		TurtleState recycled = stack[size];
+		if (recycled == null || !owned[size]) {
+			stack[size] = current.copy();
+			owned[size] = true;
+		} else {
+			recycled.copyFrom(current);
+		}
+		size++;
+		if (size > peakDepth)
+			peakDepth = size;
 	}
 	
 	/**
 	 * Method that removes last <code>TurtleState</code> object </br>
 	 * that is pushed to the context.
+	 * 
+	 * @throws <code>EmptyStackException</code> if context is empty
 	 */
 	public void popState() {
-		stack.pop();
+		if (size == 0)
+			throw new EmptyStackException();
+		size--;
+		if (!owned[size])
+			stack[size] = null;
+	}
+	
+	/**
+	 * Method returns number of states currently stored in the context.
+	 * 
+	 * @return current depth of the context
+	 */
+	public int getDepth() {
+		return size;
+	}
+	
+	/**
+	 * Method returns largest number of states that were stored in the context at once.
+	 * 
+	 * @return peak depth of the context
+	 */
+	public int getPeakDepth() {
+		return peakDepth;
+	}
+	
+	/**
+	 * Helper method that grows the stack if there is no free slot.
+	 */
+	private void ensureSlot() {
+		if (size == stack.length) {
+			stack = Arrays.copyOf(stack, stack.length * 2);
+			owned = Arrays.copyOf(owned, owned.length * 2);
+		}
 	}
 	
 }
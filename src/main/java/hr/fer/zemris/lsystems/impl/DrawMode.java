@@ -0,0 +1,35 @@
+package hr.fer.zemris.lsystems.impl;
+
+/**
+ * Strategy that <code>LSystem</code> uses for drawing.
+ * 
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+public enum DrawMode {
+
+	/**
+	 * whole string of the level is generated first and then interpreted; </br>
+	 * memory grows with the length of the string
+	 */
+	MATERIALIZED,
+	/**
+	 * string is generated up to the level before the last one, and every symbol of it </br>
+	 * is replaced by precompiled commands of its production which are executed directly; </br>
+	 * the longest string is never created, so memory is smaller by the growth factor of the grammar
+	 */
+	FUSED,
+	/**
+	 * productions are expanded depth-first and every symbol is interpreted as soon as it is produced; </br>
+	 * memory grows only with the level
+	 */
+	STREAMING,
+	/**
+	 * like <code>STREAMING</code>, but subtree whose drawing would be smaller than pixel threshold </br>
+	 * at target resolution is not expanded; single chord from its start to its end is drawn instead, </br>
+	 * so number of expanded symbols follows size of the image rather than the level
+	 */
+	ADAPTIVE
+	
+}
@@ -0,0 +1,422 @@
+package hr.fer.zemris.lsystems.impl;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import hr.fer.zemris.java.custom.collections.ConcurrentDictionary;
+import hr.fer.zemris.java.custom.collections.Processor;
+import hr.fer.zemris.lsystems.LSystem;
+import hr.fer.zemris.lsystems.impl.admission.AdmissionPolicy;
+
+/**
+ * Library of <code>LSystem</code> definitions that are stored as files in one directory. </br>
+ * Every regular file of the directory is one definition, named by the file name without extension. </br>
+ * All definitions are parsed and built in parallel and are available by name </br>
+ * from concurrent registry. </br>
+ * When watching is started, directory is observed with <code>WatchService</code> </br>
+ * and only changed definitions are rebuilt in background. Rebuilt definition replaces </br>
+ * the old one atomically, so renders that already obtained old <code>LSystem</code> keep using it. </br>
+ * Definition that fails to parse keeps its previous version and the error is recorded.
+ *
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+public class GrammarLibrary implements Closeable {
+
+	/**
+	 * directory that contains definitions
+	 */
+	private final Path directory;
+	/**
+	 * optional cache of compiled definitions, may be <code>null</code>
+	 */
+	private final LSystemCache cache;
+	/**
+	 * policy that built definitions check renders against, may be <code>null</code>
+	 */
+	private volatile AdmissionPolicy admissionPolicy;
+	/**
+	 * registry that maps names to built systems
+	 */
+	private final ConcurrentDictionary systems = new ConcurrentDictionary();
+	/**
+	 * registry that maps names to the last error that occurred while loading definition
+	 */
+	private final ConcurrentDictionary errors = new ConcurrentDictionary();
+	/**
+	 * pool that parses and builds definitions during full load
+	 */
+	private final ExecutorService workers;
+	/**
+	 * single thread that rebuilds changed definitions, so rebuilds of one file are applied in order
+	 */
+	private final ExecutorService reloader;
+
+	/**
+	 * duration of the last full load in nanoseconds
+	 */
+	private final AtomicLong lastLoadNanos = new AtomicLong();
+	/**
+	 * number of definitions that were rebuilt because their file changed
+	 */
+	private final LongAdder reloads = new LongAdder();
+	/**
+	 * sum of reload latencies in nanoseconds
+	 */
+	private final LongAdder reloadNanos = new LongAdder();
+	/**
+	 * largest reload latency in nanoseconds
+	 */
+	private final AtomicLong maxReloadNanos = new AtomicLong();
+	/**
+	 * number of unexpected errors of watcher thread
+	 */
+	private final LongAdder watchFailures = new LongAdder();
+	/**
+	 * last unexpected error of watcher thread, <code>null</code> if there was none
+	 */
+	private volatile RuntimeException watchError;
+
+	/**
+	 * service that observes directory, <code>null</code> until watching is started
+	 */
+	private volatile WatchService watchService;
+	/**
+	 * thread that receives directory events
+	 */
+	private Thread watcher;
+
+	/**
+	 * Constructor for creating new <code>GrammarLibrary</code> that parses every definition.
+	 *
+	 * @param directory directory that contains definitions
+	 */
+	public GrammarLibrary(Path directory) {
+		this(directory, null);
+	}
+
+	/**
+	 * Constructor for creating new <code>GrammarLibrary</code> that uses given cache of compiled definitions.
+	 *
+	 * @param directory directory that contains definitions
+	 * @param cache     cache of compiled definitions, or <code>null</code>
+	 */
+	public GrammarLibrary(Path directory, LSystemCache cache) {
+		this.directory = Objects.requireNonNull(directory);
+		this.cache = cache;
+		this.workers = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(), runnable -> {
+			Thread thread = new Thread(runnable, "grammar-library-worker");
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.reloader = Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "grammar-library-reloader");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Method sets admission policy of definitions that are built afterwards, </br>
+	 * including definitions rebuilt by <code>loadAll()</code> and by watching. </br>
+	 * It returns <code>this</code> object.
+	 *
+	 * @param admissionPolicy the policy, or <code>null</code> to render without limits
+	 * @return                <code>this</code> object
+	 */
+	public GrammarLibrary setAdmissionPolicy(AdmissionPolicy admissionPolicy) {
+		this.admissionPolicy = admissionPolicy;
+		return this;
+	}
+
+	/**
+	 * Method scans directory and builds all definitions in parallel. </br>
+	 * It returns when every definition is either built or its error is recorded.
+	 *
+	 * @throws IOException if directory can not be read
+	 */
+	public void loadAll() throws IOException {
+		long start = System.nanoTime();
+
+		List<Future<?>> tasks = new ArrayList<>();
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+			for (Path file : files) {
+				if (isDefinition(file))
+					tasks.add(workers.submit(() -> load(file)));
+			}
+		}
+
+		for (Future<?> task : tasks) {
+			try {
+				task.get();
+			} catch (InterruptedException ex) {
+				Thread.currentThread().interrupt();
+				throw new IOException("Loading was interrupted.", ex);
+			} catch (ExecutionException ex) {
+				throw new IllegalStateException(ex.getCause());
+			}
+		}
+		lastLoadNanos.set(System.nanoTime() - start);
+	}
+
+	/**
+	 * Method starts background thread that rebuilds definitions whose files change.
+	 *
+	 * @throws IOException if directory can not be watched
+	 */
+	public synchronized void startWatching() throws IOException {
+		if (watchService != null)
+			return;
+
+		watchService = directory.getFileSystem().newWatchService();
+		directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+				StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+
+		watcher = new Thread(this::watch, "grammar-library-watcher");
+		watcher.setDaemon(true);
+		watcher.start();
+	}
+
+	/**
+	 * Method returns system with the given name.
+	 *
+	 * @param name name of the definition
+	 * @return     built <code>LSystem</code>, or <code>null</code> if there is no such definition
+	 */
+	public LSystem get(String name) {
+		return (LSystem) systems.get(name);
+	}
+
+	/**
+	 * Method returns error that occurred when definition with the given name was last loaded.
+	 *
+	 * @param name name of the definition
+	 * @return     the error, or <code>null</code> if definition was loaded successfully
+	 */
+	public Exception getError(String name) {
+		return (Exception) errors.get(name);
+	}
+
+	/**
+	 * Method returns number of definitions in the library.
+	 *
+	 * @return number of built definitions
+	 */
+	public int size() {
+		return systems.size();
+	}
+
+	/**
+	 * Method sends name of every definition to the given processor.
+	 *
+	 * @param processor instance of <code>Processor</code> class that receives names
+	 */
+	public void forEachName(Processor processor) {
+		systems.forEachKey(processor);
+	}
+
+	/**
+	 * @return duration of the last full load in nanoseconds
+	 */
+	public long getLastLoadNanos() {
+		return lastLoadNanos.get();
+	}
+
+	/**
+	 * @return number of definitions that were rebuilt because their file changed
+	 */
+	public long getReloadCount() {
+		return reloads.sum();
+	}
+
+	/**
+	 * @return average time in nanoseconds from noticing changed file to swapping in rebuilt definition
+	 */
+	public long getAverageReloadNanos() {
+		long count = reloads.sum();
+		return count == 0 ? 0 : reloadNanos.sum() / count;
+	}
+
+	/**
+	 * @return largest time in nanoseconds from noticing changed file to swapping in rebuilt definition
+	 */
+	public long getMaxReloadNanos() {
+		return maxReloadNanos.get();
+	}
+
+	/**
+	 * @return number of unexpected errors that watcher thread recorded while handling events
+	 */
+	public long getWatchFailureCount() {
+		return watchFailures.sum();
+	}
+
+	/**
+	 * @return last unexpected error of watcher thread, <code>null</code> if there was none
+	 */
+	public RuntimeException getWatchError() {
+		return watchError;
+	}
+
+	/**
+	 * Method stops watching directory and releases worker threads. </br>
+	 * Already built definitions remain available.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		workers.shutdownNow();
+		reloader.shutdownNow();
+		if (watchService != null) {
+			watchService.close();
+		}
+	}
+
+	/**
+	 * Body of watcher thread. It waits for directory events and schedules rebuilds. </br>
+	 * Unexpected error while handling events is recorded and watching continues.
+	 */
+	private void watch() {
+		try {
+			while (true) {
+				WatchKey key = watchService.take();
+				try {
+					if (!dispatch(key))
+						return;
+				} catch (RejectedExecutionException ex) {
+					// library was closed while events were pending
+					return;
+				} catch (RuntimeException ex) {
+					watchError = ex;
+					watchFailures.increment();
+					key.reset();
+				}
+			}
+		} catch (InterruptedException | ClosedWatchServiceException ex) {
+			// library is closed
+		}
+	}
+
+	/**
+	 * Helper method that handles events of one watch key and resets it.
+	 *
+	 * @param key key whose events are handled
+	 * @return    <code>true</code> if directory is still watched
+	 */
+	private boolean dispatch(WatchKey key) {
+		long noticed = System.nanoTime();
+
+		for (WatchEvent<?> event : key.pollEvents()) {
+			if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+				reloader.submit(this::reloadAll);
+				continue;
+			}
+
+			Path file = directory.resolve((Path) event.context());
+			if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+				systems.remove(nameOf(file));
+				errors.remove(nameOf(file));
+			} else if (isDefinition(file)) {
+				reloader.submit(() -> reload(file, noticed));
+			}
+		}
+		return key.reset();
+	}
+
+	/**
+	 * Helper method that rebuilds one definition and records reload latency.
+	 *
+	 * @param file    file of the definition
+	 * @param noticed time when change was noticed, from <code>System.nanoTime()</code>
+	 */
+	private void reload(Path file, long noticed) {
+		if (!load(file))
+			return;
+
+		long latency = System.nanoTime() - noticed;
+		reloads.increment();
+		reloadNanos.add(latency);
+		maxReloadNanos.accumulateAndGet(latency, Math::max);
+	}
+
+	/**
+	 * Helper method that rebuilds whole library after watch events were lost.
+	 */
+	private void reloadAll() {
+		try {
+			loadAll();
+		} catch (IOException ex) {
+			// directory is temporarily unavailable, next event will retry
+		}
+	}
+
+	/**
+	 * Helper method that parses and builds one definition and swaps it into registry.
+	 *
+	 * @param file file of the definition
+	 * @return     <code>true</code> if definition was built
+	 */
+	private boolean load(Path file) {
+		String name = nameOf(file);
+		try {
+			LSystemBuilderImpl builder;
+			if (cache != null) {
+				builder = cache.loadBuilder(new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+			} else {
+				builder = new LSystemBuilderImpl();
+				builder.configureFrom(file);
+			}
+			AdmissionPolicy policy = admissionPolicy;
+			if (policy != null)
+				builder.setAdmissionPolicy(policy);
+			systems.put(name, builder.build());
+			errors.remove(name);
+			return true;
+		} catch (IOException | RuntimeException ex) {
+			errors.put(name, ex);
+			return false;
+		}
+	}
+
+	/**
+	 * Helper method that checks if file is definition.
+	 *
+	 * @param file file that is checked
+	 * @return     <code>true</code> if file is regular file that is not hidden
+	 */
+	private static boolean isDefinition(Path file) {
+		return Files.isRegularFile(file) && !file.getFileName().toString().startsWith(".");
+	}
+
+	/**
+	 * Helper method that returns name of definition stored in given file.
+	 *
+	 * @param file file of the definition
+	 * @return     file name without extension
+	 */
+	private static String nameOf(Path file) {
+		String fileName = file.getFileName().toString();
+		int dot = fileName.lastIndexOf('.');
+		return dot > 0 ? fileName.substring(0, dot) : fileName;
+	}
+
+}
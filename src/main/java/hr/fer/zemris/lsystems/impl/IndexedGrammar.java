@@ -0,0 +1,127 @@
+package hr.fer.zemris.lsystems.impl;
+
+import java.util.Arrays;
+
+import hr.fer.zemris.java.custom.collections.CharIntDictionary;
+import hr.fer.zemris.java.custom.collections.CharObjectDictionary;
+
+/**
+ * Axiom and productions of <code>LSystem</code> with every symbol replaced by its index. </br>
+ * Alphabet contains only symbols reachable from the axiom, numbered in order in which they are found, </br>
+ * so static analyses can keep their tables in arrays instead of dictionaries. </br>
+ * Returned arrays are shared, not copied, and must not be modified.
+ * 
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+final class IndexedGrammar {
+
+	/**
+	 * maps symbols to their indices
+	 */
+	private final CharIntDictionary indices = new CharIntDictionary();
+	/**
+	 * symbols by their indices
+	 */
+	private final String alphabet;
+	/**
+	 * indices of symbols of axiom
+	 */
+	private final int[] axiom;
+	/**
+	 * indices of symbols of every alternative production of every symbol, </br>
+	 * <code>null</code> for symbols without production
+	 */
+	private final int[][][] productions;
+	
+	/**
+	 * Constructor that indexes axiom and productions.
+	 * 
+	 * @param axiom       axiom of the system
+	 * @param productions productions of the system
+	 */
+	IndexedGrammar(String axiom, CharObjectDictionary productions) {
+		StringBuilder alphabet = new StringBuilder();
+		this.axiom = index(axiom, alphabet);
+		
+		// new symbols found in productions are appended to alphabet while it is traversed
+		int[][][] indexed = new int[0][][];
+		for (int i = 0; i < alphabet.length(); i++) {
+			String[] alternatives = StochasticProduction.alternatives(productions.get(alphabet.charAt(i)));
+			if (i >= indexed.length)
+				indexed = Arrays.copyOf(indexed, Math.max(8, 2 * indexed.length));
+			if (alternatives != null) {
+				indexed[i] = new int[alternatives.length][];
+				for (int a = 0; a < alternatives.length; a++) {
+					indexed[i][a] = index(alternatives[a], alphabet);
+				}
+			}
+		}
+		this.productions = Arrays.copyOf(indexed, alphabet.length());
+		this.alphabet = alphabet.toString();
+	}
+	
+	/**
+	 * @return number of symbols reachable from the axiom
+	 */
+	int size() {
+		return alphabet.length();
+	}
+	
+	/**
+	 * Method returns symbol with the given index.
+	 * 
+	 * @param index index of the symbol
+	 * @return      the symbol
+	 */
+	char symbol(int index) {
+		return alphabet.charAt(index);
+	}
+	
+	/**
+	 * Method returns index of the given symbol.
+	 * 
+	 * @param symbol symbol whose index is returned
+	 * @return       index of the symbol, or -1 if it is not reachable from the axiom
+	 */
+	int indexOf(char symbol) {
+		return indices.containsKey(symbol) ? indices.get(symbol) : -1;
+	}
+	
+	/**
+	 * @return indices of symbols of axiom
+	 */
+	int[] axiom() {
+		return axiom;
+	}
+	
+	/**
+	 * @return indices of symbols of every alternative production of every symbol, </br>
+	 *         <code>null</code> for symbols without production
+	 */
+	int[][][] productions() {
+		return productions;
+	}
+	
+	/**
+	 * Helper method that converts symbols to their indices, adding new symbols to alphabet.
+	 * 
+	 * @param text     symbols that are converted
+	 * @param alphabet symbols found so far
+	 * @return         indices of the symbols
+	 */
+	private int[] index(String text, StringBuilder alphabet) {
+		int[] result = new int[text.length()];
+		for (int i = 0; i < result.length; i++) {
+			char symbol = text.charAt(i);
+			if (!indices.containsKey(symbol)) {
+				indices.put(symbol, alphabet.length());
+				alphabet.append(symbol);
+			}
+			result[i] = indices.get(symbol);
+		}
+		return result;
+	}
+	
+}
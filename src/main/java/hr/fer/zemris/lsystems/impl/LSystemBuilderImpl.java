@@ -1,20 +1,30 @@
 package hr.fer.zemris.lsystems.impl;
 
 import java.awt.Color;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
 
-import hr.fer.zemris.java.custom.collections.Dictionary;
+import hr.fer.zemris.java.custom.collections.ArrayIndexedCollection;
+import hr.fer.zemris.java.custom.collections.CharIntDictionary;
+import hr.fer.zemris.java.custom.collections.CharIntProcessor;
+import hr.fer.zemris.java.custom.collections.CharObjectDictionary;
+import hr.fer.zemris.java.custom.collections.CharObjectProcessor;
 import hr.fer.zemris.lsystems.LSystem;
 import hr.fer.zemris.lsystems.LSystemBuilder;
 import hr.fer.zemris.lsystems.Painter;
-import hr.fer.zemris.lsystems.impl.commands.ColorCommand;
-import hr.fer.zemris.lsystems.impl.commands.DrawCommand;
-import hr.fer.zemris.lsystems.impl.commands.PopCommand;
-import hr.fer.zemris.lsystems.impl.commands.PushCommand;
-import hr.fer.zemris.lsystems.impl.commands.RotateCommand;
-import hr.fer.zemris.lsystems.impl.commands.ScaleCommand;
-import hr.fer.zemris.lsystems.impl.commands.SkipCommand;
+import hr.fer.zemris.lsystems.impl.admission.AdmissionDecision;
+import hr.fer.zemris.lsystems.impl.admission.AdmissionException;
+import hr.fer.zemris.lsystems.impl.admission.AdmissionPolicy;
+import hr.fer.zemris.lsystems.impl.admission.GrowthEstimator;
+import hr.fer.zemris.lsystems.impl.metrics.AllocationCounter;
+import hr.fer.zemris.lsystems.impl.metrics.RenderListener;
+import hr.fer.zemris.lsystems.impl.metrics.RenderStats;
 import hr.fer.zemris.math.Vector2D;
 
 /**
@@ -51,11 +61,40 @@ public class LSystemBuilderImpl implements LSystemBuilder {
 	/**
 	 * represents map-like storage of commands
 	 */
-	private Dictionary commands = new Dictionary();
+	private CharObjectDictionary commands = new CharObjectDictionary();
 	/**
-	 * represents map-like storage of productions
+	 * represents map-like storage of productions, values are <code>String</code> </br>
+	 * or <code>StochasticProduction</code> for symbols with weighted alternatives
 	 */
-	private Dictionary productions = new Dictionary();
+	private CharObjectDictionary productions = new CharObjectDictionary();
+	/**
+	 * seed of choices of stochastic productions
+	 */
+	private long seed;
+	/**
+	 * listeners that are notified after every render of built systems
+	 */
+	private ArrayIndexedCollection renderListeners = new ArrayIndexedCollection();
+	/**
+	 * strategy used for drawing
+	 */
+	private DrawMode drawMode = DrawMode.FUSED;
+	/**
+	 * policy that checks every render before it starts, may be <code>null</code>
+	 */
+	private AdmissionPolicy admissionPolicy;
+	/**
+	 * width in pixels of the image that adaptive drawing targets
+	 */
+	private int targetWidth = 1024;
+	/**
+	 * height in pixels of the image that adaptive drawing targets
+	 */
+	private int targetHeight = 1024;
+	/**
+	 * size in pixels below which adaptive drawing replaces subtree by chord
+	 */
+	private double pixelThreshold = 1;
 	
 	/**
 	 * Constructor for creating new <code>LSystemBuilderImpl</code> object.
@@ -66,58 +105,708 @@ public class LSystemBuilderImpl implements LSystemBuilder {
 	}
 	
 	/**
-	 * Private class that represents implementation of <code>LSystem</code>.
+	 * Private class that represents implementation of <code>LSystem</code>. </br>
+	 * It is immutable snapshot of the builder taken when <code>build()</code> was called: </br>
+	 * later changes of the builder do not affect it, and commands and productions are kept </br>
+	 * in frozen dictionaries. Every draw uses its own <code>Context</code>, </br>
+	 * so any number of threads can draw or generate the same system at once. </br>
+	 * Render checks interrupt flag of its thread while expanding and interpreting symbols </br>
+	 * and stops with <code>CancellationException</code> when it is set.
 	 * 
 	 * @author Ante Gazibarić
 	 * @version 1.0
 	 *
 	 */
-	private class LSystemimpl implements LSystem {
+	private static final class LSystemimpl implements AdaptiveLSystem {
+		
+		/**
+		 * mask of symbol index at which interrupt flag of the rendering thread is checked
+		 */
+		private static final int INTERRUPT_CHECK_MASK = (1 << 12) - 1;
+		
+		/**
+		 * length of the line
+		 */
+		private final double unitLength;
+		/**
+		 * scaler used for modifying unit length of the line
+		 */
+		private final double unitLengthDegreeScaler;
+		/**
+		 * x coordinate of position where fractal pattern starts
+		 */
+		private final double originX;
+		/**
+		 * y coordinate of position where fractal pattern starts
+		 */
+		private final double originY;
+		/**
+		 * angle of the pattern that is drawn
+		 */
+		private final double angle;
+		/**
+		 * axiom that represents base of fractal pattern
+		 */
+		private final String axiom;
+		/**
+		 * frozen storage of commands
+		 */
+		private final CharObjectDictionary commands;
+		/**
+		 * frozen storage of productions
+		 */
+		private final CharObjectDictionary productions;
+		/**
+		 * flag that is <code>true</code> if some symbol has weighted alternative productions
+		 */
+		private final boolean stochastic;
+		/**
+		 * key that is parent of all symbols of the axiom, see <code>StochasticProduction</code>
+		 */
+		private final long rootKey;
+		/**
+		 * replacement of every symbol used for drawing, on levels before the last one, </br>
+		 * <code>null</code> if system is stochastic
+		 */
+		private final CharObjectDictionary liveRewrite;
+		/**
+		 * replacement of every symbol used for drawing, on the last level
+		 */
+		private final CharObjectDictionary finalRewrite;
+		/**
+		 * productions without dead symbols, used for streaming on levels before the last one
+		 */
+		private final CharObjectDictionary liveProductions;
+		/**
+		 * productions without symbols that have no command, used for streaming on the last level
+		 */
+		private final CharObjectDictionary finalProductions;
+		/**
+		 * commands executed for every symbol of the level before the last one, used by fused drawing
+		 */
+		private final CharObjectDictionary fusedCommands;
+		/**
+		 * analysis of push and pop commands, used for sizing the stack
+		 */
+		private final BracketAnalysis brackets;
+		/**
+		 * shapes of expanded symbols, used by adaptive drawing
+		 */
+		private final SubtreeExtents extents;
+		/**
+		 * largest extent of replaced subtree in adaptive drawing, in painter units
+		 */
+		private final double adaptiveLimit;
+		/**
+		 * listeners notified after every draw and generation, <code>null</code> if render is not instrumented
+		 */
+		private final RenderListener[] listeners;
+		/**
+		 * strategy used for drawing
+		 */
+		private final DrawMode drawMode;
+		/**
+		 * policy that checks every render, <code>null</code> if renders are not checked
+		 */
+		private final AdmissionPolicy admissionPolicy;
+		/**
+		 * estimator used by admission policy, <code>null</code> if renders are not checked
+		 */
+		private final GrowthEstimator estimator;
+		
+		/**
+		 * Constructor that takes snapshot of the given builder.
+		 * 
+		 * @param builder <code>LSystemBuilderImpl</code> whose configuration is copied
+		 */
+		private LSystemimpl(LSystemBuilderImpl builder) {
+			this.unitLength = builder.unitLength;
+			this.unitLengthDegreeScaler = builder.unitLengthDegreeScaler;
+			this.originX = builder.origin.getX();
+			this.originY = builder.origin.getY();
+			this.angle = builder.angle;
+			this.axiom = builder.axiom;
+			this.commands = builder.commands.freeze();
+			this.productions = builder.productions.freeze();
+			this.stochastic = isStochastic(productions);
+			this.rootKey = StochasticProduction.rootKey(builder.seed);
+			
+			if (stochastic) {
+				// choices depend on indices of symbols in productions, which pruned tables do not keep
+				this.liveRewrite = null;
+				this.finalRewrite = null;
+				this.liveProductions = null;
+				this.finalProductions = null;
+				this.fusedCommands = null;
+			} else {
+				PruningTables pruning = new PruningTables(axiom, productions, commands);
+				this.liveRewrite = pruning.rewrite(false);
+				this.finalRewrite = pruning.rewrite(true);
+				this.liveProductions = pruning.productions(false);
+				this.finalProductions = pruning.productions(true);
+				this.fusedCommands = compileFused(finalRewrite, commands);
+			}
+			this.brackets = new BracketAnalysis(axiom, productions, commands);
+			this.extents = new SubtreeExtents(axiom, productions, commands);
+			this.adaptiveLimit = adaptiveLimit(builder.targetWidth, builder.targetHeight, builder.pixelThreshold);
+			
+			int listenerCount = builder.renderListeners.size();
+			if (listenerCount == 0) {
+				this.listeners = null;
+			} else {
+				this.listeners = new RenderListener[listenerCount];
+				for (int i = 0; i < listenerCount; i++) {
+					listeners[i] = (RenderListener) builder.renderListeners.get(i);
+				}
+			}
+			
+			this.drawMode = builder.drawMode;
+			this.admissionPolicy = builder.admissionPolicy;
+			this.estimator = admissionPolicy == null ? null : new GrowthEstimator(axiom, productions, commands);
+		}
 		
 		@Override
 		public void draw(int level, Painter painter) {
-			Context ctx = new Context();
-			Vector2D direction = new Vector2D(1, 0);
-			direction.rotate(angle);
-			Color color = Color.BLACK;
-			double lengthOfLine = unitLength * Math.pow(unitLengthDegreeScaler, level);
-			Vector2D originPoint = new Vector2D(origin.getX(), origin.getY());
-			TurtleState turtle = new TurtleState(originPoint, direction, color, lengthOfLine);
-			ctx.pushState(turtle);
-			String fractalString = generate(level);
-			char[] fractalChars = fractalString.toCharArray();
+			render(level, painter, drawMode, adaptiveLimit);
+		}
+		
+		@Override
+		public void drawAdaptive(int level, Painter painter, int width, int height, double pixelThreshold) {
+			render(level, painter, DrawMode.ADAPTIVE, adaptiveLimit(width, height, pixelThreshold));
+		}
+		
+		/**
+		 * Helper method that draws system with the given strategy. </br>
+		 * When listeners are registered, every phase of the render is measured </br>
+		 * and measurements are sent to listeners.
+		 * 
+		 * @param level   level that is drawn
+		 * @param painter <code>Painter</code> that draws lines
+		 * @param mode    strategy used for drawing
+		 * @param limit   largest extent of replaced subtree in adaptive drawing, in painter units
+		 */
+		private void render(int level, Painter painter, DrawMode mode, double limit) {
+			checkLevel(level);
+			if (admissionPolicy != null) {
+				AdmissionDecision decision = admit(level, mode, false);
+				level = decision.getLevel();
+				mode = decision.getMode();
+			}
 			
-			for (char c : fractalChars) {
-				Command command = (Command) commands.get(c);
-				if (command != null)
-					command.execute(ctx, painter);
+			if (listeners == null) {
+				interpret(level, painter, mode, limit, null, null, null);
+				return;
+			}
+			
+			long allocatedAtStart = AllocationCounter.currentThread();
+			CharIntDictionary executions = new CharIntDictionary();
+			long[] nanos = new long[level + 1];
+			long[] expanded = new long[1];
+			long[] segments = new long[1];
+			Painter countingPainter = (x0, y0, x1, y1, color, size) -> {
+				segments[0]++;
+				painter.drawLine(x0, y0, x1, y1, color, size);
+			};
+			Context ctx = interpret(level, countingPainter, mode, limit, executions, nanos, expanded);
+			
+			// deterministic fused drawing counts whole command sequences of the symbols of the previous level
+			boolean countsSequences = mode == DrawMode.FUSED && level > 0 && !stochastic;
+			String[] types = new String[commands.size()];
+			long[] typeExecutions = new long[commands.size()];
+			int[] typeCount = new int[1];
+			executions.forEach(new CharIntProcessor() {
+				@Override
+				public void process(char key, int value) {
+					if (!countsSequences) {
+						count((Command) commands.get(key), value);
+						return;
+					}
+					for (Command command : (Command[]) fusedCommands.get(key)) {
+						count(command, value);
+					}
+				}
+				
+				private void count(Command command, int value) {
+					String type = command.getClass().getSimpleName();
+					for (int i = 0; i < typeCount[0]; i++) {
+						if (types[i].equals(type)) {
+							typeExecutions[i] += value;
+							return;
+						}
+					}
+					types[typeCount[0]] = type;
+					typeExecutions[typeCount[0]++] = value;
+				}
+			});
+			
+			long allocatedAtEnd = AllocationCounter.currentThread();
+			RenderStats stats = new RenderStats(level, Arrays.copyOf(nanos, level), nanos[level], expanded[0],
+					Arrays.copyOf(types, typeCount[0]), Arrays.copyOf(typeExecutions, typeCount[0]),
+					segments[0], ctx.getPeakDepth(),
+					allocatedAtStart < 0 ? -1 : allocatedAtEnd - allocatedAtStart);
+			for (RenderListener listener : listeners) {
+				listener.renderFinished(stats);
+			}
+		}
+		
+		/**
+		 * Helper method that generates and interprets the given level with the given strategy. </br>
+		 * Measurements are taken only into arguments that are not <code>null</code>.
+		 * 
+		 * @param level      level that is drawn
+		 * @param painter    <code>Painter</code> that draws lines
+		 * @param mode       strategy used for drawing
+		 * @param limit      largest extent of replaced subtree in adaptive drawing, in painter units
+		 * @param executions counts executions per interpreted symbol, may be <code>null</code>
+		 * @param nanos      receives duration of every generation step followed by duration of interpretation, </br>
+		 *                   may be <code>null</code>
+		 * @param expanded   counts rewritten symbols in its only element, may be <code>null</code>
+		 * @return           <code>Context</code> of the render
+		 */
+		private Context interpret(int level, Painter painter, DrawMode mode, double limit,
+				CharIntDictionary executions, long[] nanos, long[] expanded) {
+			Context ctx = createContext(level);
+			if (mode == DrawMode.STREAMING || mode == DrawMode.ADAPTIVE) {
+				// generation and interpretation are interleaved, so all time is counted as interpretation
+				long start = nanos == null ? 0 : System.nanoTime();
+				stream(axiom, rootKey, level, ctx, painter, mode == DrawMode.ADAPTIVE ? limit : -1,
+						executions, expanded);
+				if (nanos != null)
+					nanos[level] = System.nanoTime() - start;
+				return ctx;
+			}
+			
+			// fused mode leaves the last rewriting to interpretation
+			boolean fused = mode == DrawMode.FUSED && level > 0;
+			int steps = fused ? level - 1 : level;
+			String current = axiom;
+			long[][] keys = stochastic ? new long[][] { axiomKeys() } : null;
+			for (int l = 0; l < steps; l++) {
+				long start = nanos == null ? 0 : System.nanoTime();
+				if (expanded != null)
+					expanded[0] += current.length();
+				current = stochastic
+						? expandKeyed(current, keys[0], fused || l < steps - 1 ? keys : null)
+						: rewrite(current, l == level - 1 ? finalRewrite : liveRewrite);
+				if (nanos != null)
+					nanos[l] = System.nanoTime() - start;
+			}
+			
+			long start = nanos == null ? 0 : System.nanoTime();
+			if (fused && expanded != null)
+				expanded[0] += current.length();
+			if (fused && stochastic) {
+				drawStochasticFused(current, keys[0], ctx, painter, executions);
+			} else if (fused) {
+				for (int i = 0, n = current.length(); i < n; i++) {
+					if ((i & INTERRUPT_CHECK_MASK) == 0)
+						checkInterrupted();
+					char symbol = current.charAt(i);
+					for (Command command : (Command[]) fusedCommands.get(symbol)) {
+						command.execute(ctx, painter);
+					}
+					if (executions != null)
+						executions.increment(symbol, 1);
+				}
+			} else {
+				for (int i = 0, n = current.length(); i < n; i++) {
+					if ((i & INTERRUPT_CHECK_MASK) == 0)
+						checkInterrupted();
+					execute(current.charAt(i), ctx, painter, executions);
+				}
 			}
+			if (nanos != null)
+				nanos[level] = System.nanoTime() - start;
+			return ctx;
 		}
 
 		@Override
 		public String generate(int level) {
-			if(level < 0)
-				throw new IllegalArgumentException("Level must not be negative. You entered: " + level);
-			if (level == 0) 
-				return axiom;
+			checkLevel(level);
+			if (admissionPolicy != null)
+				level = admit(level, DrawMode.MATERIALIZED, true).getLevel();
 			
-			StringBuilder productionBuilder = new StringBuilder();
-			char[] parts = generate(level - 1).toCharArray();
-			for (char part : parts) {
-				String production = (String) productions.get(part);
-				productionBuilder.append(production == null ? part : production);
+			if (listeners != null)
+				return generateInstrumented(level);
+			return expandTo(level);
+		}
+		
+		/**
+		 * Helper method that generates string while measuring every generation step, </br>
+		 * and sends measurements to listeners. Nothing is interpreted, so measurements </br>
+		 * contain no command executions and no segments.
+		 * 
+		 * @param level level that is generated
+		 * @return      generated string
+		 */
+		private String generateInstrumented(int level) {
+			long allocatedAtStart = AllocationCounter.currentThread();
+			
+			long[] generationNanos = new long[level];
+			long symbolsExpanded = 0;
+			String current = axiom;
+			long[][] keys = stochastic ? new long[][] { axiomKeys() } : null;
+			for (int l = 0; l < level; l++) {
+				long start = System.nanoTime();
+				symbolsExpanded += current.length();
+				current = stochastic
+						? expandKeyed(current, keys[0], l == level - 1 ? null : keys)
+						: expand(current);
+				generationNanos[l] = System.nanoTime() - start;
+			}
+			
+			long allocatedAtEnd = AllocationCounter.currentThread();
+			RenderStats stats = new RenderStats(level, generationNanos, 0, symbolsExpanded, new String[0],
+					new long[0], 0, 0, allocatedAtStart < 0 ? -1 : allocatedAtEnd - allocatedAtStart);
+			for (RenderListener listener : listeners) {
+				listener.renderFinished(stats);
+			}
+			return current;
+		}
+		
+		/**
+		 * Helper method that checks render against admission policy and notifies listeners about the decision.
+		 * 
+		 * @param level         requested level
+		 * @param mode          requested mode
+		 * @param materializing <code>true</code> if generated string is returned
+		 * @return              decision of the policy
+		 * @throws AdmissionException if render is rejected
+		 */
+		private AdmissionDecision admit(int level, DrawMode mode, boolean materializing) {
+			AdmissionDecision decision = admissionPolicy.decide(estimator, level, mode, materializing);
+			if (listeners != null) {
+				for (RenderListener listener : listeners) {
+					listener.admissionDecided(decision);
+				}
+			}
+			if (decision.getOutcome() == AdmissionDecision.Outcome.REJECTED)
+				throw new AdmissionException(decision);
+			return decision;
+		}
+		
+		/**
+		 * Helper method that creates context with initial turtle state for the given level. </br>
+		 * Stack of the context is sized to the deepest nesting that the level reaches.
+		 * 
+		 * @param level level that is drawn
+		 * @return      new <code>Context</code>
+		 * @throws      <code>StateUnderflowException</code> if level pops more states than it pushes
+		 */
+		private Context createContext(int level) {
+			Context ctx = new Context(brackets.stackCapacity(level));
+			Vector2D direction = new Vector2D(1, 0);
+			direction.rotate(angle);
+			double lengthOfLine = unitLength * Math.pow(unitLengthDegreeScaler, level);
+			ctx.pushState(new TurtleState(new Vector2D(originX, originY), direction, Color.BLACK, lengthOfLine));
+			return ctx;
+		}
+		
+		/**
+		 * Helper method that expands given symbols depth-first and interprets every symbol </br>
+		 * as soon as it can not be rewritten any more. </br>
+		 * Memory used is proportional to the level, not to the length of generated string. </br>
+		 * When limit is not negative, symbol whose expanded subtree is not wider than the limit </br>
+		 * is not expanded, but replaced by chord, see <code>SubtreeExtents</code>.
+		 * 
+		 * @param symbols    symbols that are expanded
+		 * @param parentKey  key of the symbol whose production are given symbols, see <code>StochasticProduction</code>
+		 * @param remaining  number of rewritings left
+		 * @param ctx        <code>Context</code> of the render
+		 * @param painter    <code>Painter</code> that draws lines
+		 * @param limit      largest extent of replaced subtree in painter units, negative to expand everything
+		 * @param executions counts executions per symbol, may be <code>null</code>
+		 * @param expanded   counts rewritten symbols in its only element, may be <code>null</code>
+		 */
+		private void stream(String symbols, long parentKey, int remaining, Context ctx, Painter painter,
+				double limit, CharIntDictionary executions, long[] expanded) {
+			// calls on the last level only execute commands, so they are not checked
+			if (remaining > 1)
+				checkInterrupted();
+			for (int i = 0, n = symbols.length(); i < n; i++) {
+				char symbol = symbols.charAt(i);
+				if (remaining > 0) {
+					Object production = (stochastic ? productions
+							: remaining == 1 ? finalProductions : liveProductions).get(symbol);
+					if (production != null) {
+						if (expanded != null)
+							expanded[0]++;
+						if (limit >= 0 && extents.replace(symbol, remaining, ctx.getCurrentState(), limit, painter))
+							continue;
+						long key = stochastic ? StochasticProduction.childKey(parentKey, i) : 0;
+						String chosen = production instanceof StochasticProduction
+								? ((StochasticProduction) production).choose(key)
+								: (String) production;
+						if (!chosen.isEmpty())
+							stream(chosen, key, remaining - 1, ctx, painter, limit, executions, expanded);
+						continue;
+					}
+					// symbol without production would be copied on every remaining level
+					if (expanded != null)
+						expanded[0] += remaining;
+				}
+				
+				Command command = (Command) commands.get(symbol);
+				if (command != null) {
+					command.execute(ctx, painter);
+					if (executions != null)
+						executions.increment(symbol, 1);
+				}
+			}
+		}
+		
+		/**
+		 * Helper method that interprets given string of the level before the last one, </br>
+		 * rewriting every symbol with its chosen production while it is interpreted.
+		 * 
+		 * @param previous   string of the level before the last one
+		 * @param keys       keys of symbols of the string
+		 * @param ctx        <code>Context</code> of the render
+		 * @param painter    <code>Painter</code> that draws lines
+		 * @param executions counts executions per symbol, may be <code>null</code>
+		 */
+		private void drawStochasticFused(String previous, long[] keys, Context ctx, Painter painter,
+				CharIntDictionary executions) {
+			for (int i = 0, n = previous.length(); i < n; i++) {
+				if ((i & INTERRUPT_CHECK_MASK) == 0)
+					checkInterrupted();
+				char part = previous.charAt(i);
+				Object production = productions.get(part);
+				if (production == null) {
+					execute(part, ctx, painter, executions);
+					continue;
+				}
+				String chosen = production instanceof StochasticProduction
+						? ((StochasticProduction) production).choose(keys[i])
+						: (String) production;
+				for (int j = 0, m = chosen.length(); j < m; j++) {
+					execute(chosen.charAt(j), ctx, painter, executions);
+				}
+			}
+		}
+		
+		/**
+		 * Helper method that executes command of the symbol, if it has one.
+		 * 
+		 * @param symbol     symbol whose command is executed
+		 * @param ctx        <code>Context</code> of the render
+		 * @param painter    <code>Painter</code> that draws lines
+		 * @param executions counts executions per symbol, may be <code>null</code>
+		 */
+		private void execute(char symbol, Context ctx, Painter painter, CharIntDictionary executions) {
+			Command command = (Command) commands.get(symbol);
+			if (command != null) {
+				command.execute(ctx, painter);
+				if (executions != null)
+					executions.increment(symbol, 1);
+			}
+		}
+		
+		/**
+		 * Helper method that replaces every symbol of the given string by its replacement from the table.
+		 * 
+		 * @param current string of the previous level
+		 * @param table   table that contains replacement of every symbol
+		 * @return        string of the next level
+		 */
+		private static String rewrite(String current, CharObjectDictionary table) {
+			StringBuilder productionBuilder = new StringBuilder(current.length() * 2);
+			for (int i = 0, n = current.length(); i < n; i++) {
+				if ((i & INTERRUPT_CHECK_MASK) == 0)
+					checkInterrupted();
+				productionBuilder.append((String) table.get(current.charAt(i)));
+			}
+			return productionBuilder.toString();
+		}
+		
+		/**
+		 * Helper method that generates string of the given level.
+		 * 
+		 * @param level level that is generated
+		 * @return      generated string
+		 */
+		private String expandTo(int level) {
+			String current = axiom;
+			if (stochastic) {
+				long[][] keys = { axiomKeys() };
+				for (int l = 0; l < level; l++) {
+					current = expandKeyed(current, keys[0], l == level - 1 ? null : keys);
+				}
+				return current;
 			}
 			
+			for (int l = 0; l < level; l++) {
+				current = expand(current);
+			}
+			return current;
+		}
+		
+		/**
+		 * Helper method that returns keys of symbols of the axiom.
+		 * 
+		 * @return keys of the axiom, see <code>StochasticProduction</code>
+		 */
+		private long[] axiomKeys() {
+			long[] keys = new long[axiom.length()];
+			for (int i = 0; i < keys.length; i++) {
+				keys[i] = StochasticProduction.childKey(rootKey, i);
+			}
+			return keys;
+		}
+		
+		/**
+		 * Helper method that rewrites every symbol of the given string once, </br>
+		 * choosing alternative of every stochastic symbol by its key.
+		 * 
+		 * @param current  string of the previous level
+		 * @param keys     keys of symbols of the previous level
+		 * @param nextKeys array whose only element receives keys of the next level, </br>
+		 *                 or <code>null</code> if they are not needed
+		 * @return         string of the next level
+		 */
+		private String expandKeyed(String current, long[] keys, long[][] nextKeys) {
+			StringBuilder productionBuilder = new StringBuilder(current.length() * 2);
+			long[] next = nextKeys == null ? null : new long[current.length() * 2];
+			int size = 0;
+			for (int i = 0, n = current.length(); i < n; i++) {
+				if ((i & INTERRUPT_CHECK_MASK) == 0)
+					checkInterrupted();
+				char part = current.charAt(i);
+				Object production = productions.get(part);
+				String chosen = production == null ? null
+						: production instanceof StochasticProduction
+								? ((StochasticProduction) production).choose(keys[i])
+								: (String) production;
+				
+				if (chosen == null)
+					productionBuilder.append(part);
+				else
+					productionBuilder.append(chosen);
+				if (next == null)
+					continue;
+				
+				int length = chosen == null ? 1 : chosen.length();
+				if (size + length > next.length)
+					next = Arrays.copyOf(next, Math.max(2 * next.length, size + length));
+				if (chosen == null) {
+					next[size++] = keys[i];
+				} else {
+					for (int j = 0; j < length; j++) {
+						next[size++] = StochasticProduction.childKey(keys[i], j);
+					}
+				}
+			}
+			if (nextKeys != null)
+				nextKeys[0] = next;
 			return productionBuilder.toString();
 		}
+		
+		/**
+		 * Helper method that rewrites every symbol of the given string once.
+		 * 
+		 * @param current string of the previous level
+		 * @return        string of the next level
+		 */
+		private String expand(String current) {
+			StringBuilder productionBuilder = new StringBuilder(current.length() * 2);
+			for (int i = 0, n = current.length(); i < n; i++) {
+				if ((i & INTERRUPT_CHECK_MASK) == 0)
+					checkInterrupted();
+				char part = current.charAt(i);
+				String production = (String) productions.get(part);
+				if (production == null)
+					productionBuilder.append(part);
+				else
+					productionBuilder.append(production);
+			}
+			return productionBuilder.toString();
+		}
+		
+		/**
+		 * Helper method that checks if any symbol has weighted alternative productions.
+		 * 
+		 * @param productions productions of the system
+		 * @return            <code>true</code> if system is stochastic
+		 */
+		private static boolean isStochastic(CharObjectDictionary productions) {
+			boolean[] found = new boolean[1];
+			productions.forEach(new CharObjectProcessor() {
+				@Override
+				public void process(char key, Object value) {
+					found[0] |= value instanceof StochasticProduction;
+				}
+			});
+			return found[0];
+		}
+		
+		/**
+		 * Helper method that compiles replacement of every symbol on the last level into commands.
+		 * 
+		 * @param finalRewrite replacements on the last level, containing only symbols that have command
+		 * @param commands     commands of the system
+		 * @return             frozen table that maps every symbol to array of commands
+		 */
+		private static CharObjectDictionary compileFused(CharObjectDictionary finalRewrite,
+				CharObjectDictionary commands) {
+			CharObjectDictionary compiled = new CharObjectDictionary();
+			finalRewrite.forEach(new CharObjectProcessor() {
+				@Override
+				public void process(char key, Object value) {
+					String replacement = (String) value;
+					Command[] sequence = new Command[replacement.length()];
+					for (int i = 0; i < sequence.length; i++) {
+						sequence[i] = (Command) commands.get(replacement.charAt(i));
+					}
+					compiled.put(key, sequence);
+				}
+			});
+			return compiled.freeze();
+		}
+		
+		/**
+		 * Helper method that converts pixel threshold to extent in painter units. </br>
+		 * Painter coordinates are in unit square, so one pixel is the inverse of the larger side of the image.
+		 * 
+		 * @param width          width of the image in pixels
+		 * @param height         height of the image in pixels
+		 * @param pixelThreshold size in pixels below which subtree is replaced
+		 * @return               largest extent of replaced subtree in painter units
+		 */
+		private static double adaptiveLimit(int width, int height, double pixelThreshold) {
+			checkResolution(width, height, pixelThreshold);
+			return pixelThreshold / Math.max(width, height);
+		}
+		
+		/**
+		 * Helper method that stops render if the rendering thread was interrupted, </br>
+		 * so cancelled render does not keep expanding symbols that nobody will see. </br>
+		 * Interrupt flag stays set.
+		 * 
+		 * @throws <code>CancellationException</code> if the thread was interrupted
+		 */
+		private static void checkInterrupted() {
+			if (Thread.currentThread().isInterrupted())
+				throw new CancellationException("Render was interrupted.");
+		}
+		
+		/**
+		 * Helper method that checks that level is not negative.
+		 * 
+		 * @param level level that is checked
+		 */
+		private static void checkLevel(int level) {
+			if(level < 0)
+				throw new IllegalArgumentException("Level must not be negative. You entered: " + level);
+		}
 	}
 	
 	/**
-	 * Method that returns new <code>LSystem</code> object configured by this <code>LSystemBuilderImpl</code>.
+	 * Method that returns new <code>LSystem</code> object configured by this <code>LSystemBuilderImpl</code>. </br>
+	 * Returned system is immutable snapshot of the current configuration and is safe for concurrent use.
 	 */
 	@Override
 	public LSystem build() {
-		return new LSystemimpl();
+		return new LSystemimpl(this);
 	}
 
 	/**
@@ -126,13 +815,26 @@ public class LSystemBuilderImpl implements LSystemBuilder {
 	 */
 	@Override
 	public LSystemBuilder registerCommand(char symbol, String commandText) {
-		Command command = getCommand(commandText);
-		commands.put(symbol, command);
+		return registerCommand(symbol, ConfigParser.parseCommand(commandText));
+	}
+	
+	/**
+	 * Method used for adding already created command. </br>
+	 * It returns <code>this</code> object.
+	 * 
+	 * @param symbol  <code>char</code> symbol that executes the command
+	 * @param command <code>Command</code> that is executed
+	 * @return        <code>this</code> object
+	 * @throws        <code>NullPointerException</code> if given command is <code>null</code>
+	 */
+	public LSystemBuilder registerCommand(char symbol, Command command) {
+		commands.put(symbol, Objects.requireNonNull(command));
 		return this;
 	}
 
 	/**
 	 * Method used for adding production. </br>
+	 * It replaces every production of the symbol registered before, including weighted ones. </br>
 	 * It returns <code>this</code> object.
 	 */
 	@Override
@@ -140,6 +842,126 @@ public class LSystemBuilderImpl implements LSystemBuilder {
 		productions.put(symbol, production);
 		return this;
 	}
+	
+	/**
+	 * Method used for adding weighted alternative production of the symbol. </br>
+	 * Every occurrence of the symbol is rewritten by one of its alternatives, chosen with </br>
+	 * probability proportional to the weight, reproducibly for the seed (see <code>StochasticProduction</code>). </br>
+	 * Alternative replaces production registered by <code>registerProduction(char, String)</code>. </br>
+	 * It returns <code>this</code> object.
+	 * 
+	 * @param symbol     symbol that is rewritten
+	 * @param weight     weight of the alternative
+	 * @param production the alternative
+	 * @return           <code>this</code> object
+	 * @throws           <code>IllegalArgumentException</code> if weight is not positive and finite
+	 */
+	public LSystemBuilder registerProduction(char symbol, double weight, String production) {
+		Object existing = productions.get(symbol);
+		productions.put(symbol, existing instanceof StochasticProduction
+				? ((StochasticProduction) existing).with(weight, production)
+				: new StochasticProduction(weight, production));
+		return this;
+	}
+	
+	/**
+	 * Method used for setting seed of choices of weighted productions. Default is 0. </br>
+	 * Systems built with the same seed generate and draw the same, in every draw mode. </br>
+	 * It returns <code>this</code> object.
+	 * 
+	 * @param seed the seed
+	 * @return     <code>this</code> object
+	 */
+	public LSystemBuilder setSeed(long seed) {
+		this.seed = seed;
+		return this;
+	}
+
+	/**
+	 * Method used for adding listener that receives measurements of every render </br>
+	 * of systems built afterwards. Systems built without listeners are not instrumented at all.
+	 * It returns <code>this</code> object.
+	 * 
+	 * @param listener <code>RenderListener</code> that is notified after every render
+	 * @return         <code>this</code> object
+	 * @throws         <code>NullPointerException</code> if given listener is <code>null</code>
+	 */
+	public LSystemBuilder addRenderListener(RenderListener listener) {
+		renderListeners.add(Objects.requireNonNull(listener));
+		return this;
+	}
+
+	/**
+	 * Method used for choosing strategy used for drawing. Default is <code>DrawMode.FUSED</code>.
+	 * It returns <code>this</code> object.
+	 * 
+	 * @param drawMode <code>DrawMode</code> used by systems built afterwards
+	 * @return         <code>this</code> object
+	 * @throws         <code>NullPointerException</code> if given mode is <code>null</code>
+	 */
+	public LSystemBuilder setDrawMode(DrawMode drawMode) {
+		this.drawMode = Objects.requireNonNull(drawMode);
+		return this;
+	}
+	
+	/**
+	 * Method used for setting policy that checks every render of systems built afterwards </br>
+	 * before any work is done. Policy is shared, not copied, so its limits can be changed </br>
+	 * while systems are in use. It returns <code>this</code> object.
+	 * 
+	 * @param admissionPolicy <code>AdmissionPolicy</code>, or <code>null</code> to disable checking
+	 * @return                <code>this</code> object
+	 */
+	public LSystemBuilder setAdmissionPolicy(AdmissionPolicy admissionPolicy) {
+		this.admissionPolicy = admissionPolicy;
+		return this;
+	}
+
+	/**
+	 * Method used for setting size of the image that <code>DrawMode.ADAPTIVE</code> targets. </br>
+	 * Default is 1024 x 1024 pixels. It returns <code>this</code> object.
+	 * 
+	 * @param width  width of the image in pixels
+	 * @param height height of the image in pixels
+	 * @return       <code>this</code> object
+	 * @throws       <code>IllegalArgumentException</code> if width or height is not positive
+	 */
+	public LSystemBuilder setTargetResolution(int width, int height) {
+		checkResolution(width, height, pixelThreshold);
+		this.targetWidth = width;
+		this.targetHeight = height;
+		return this;
+	}
+	
+	/**
+	 * Method used for setting size in pixels below which <code>DrawMode.ADAPTIVE</code> </br>
+	 * stops expanding subtree and draws chord from its start to its end instead. </br>
+	 * Default is one pixel. It returns <code>this</code> object.
+	 * 
+	 * @param pixelThreshold the threshold
+	 * @return               <code>this</code> object
+	 * @throws               <code>IllegalArgumentException</code> if threshold is negative
+	 */
+	public LSystemBuilder setPixelThreshold(double pixelThreshold) {
+		checkResolution(targetWidth, targetHeight, pixelThreshold);
+		this.pixelThreshold = pixelThreshold;
+		return this;
+	}
+	
+	/**
+	 * Helper method that checks target resolution of adaptive drawing.
+	 * 
+	 * @param width          width of the image in pixels
+	 * @param height         height of the image in pixels
+	 * @param pixelThreshold size in pixels below which subtree is replaced
+	 * @throws               <code>IllegalArgumentException</code> if any of the values is not valid
+	 */
+	private static void checkResolution(int width, int height, double pixelThreshold) {
+		if (width <= 0 || height <= 0)
+			throw new IllegalArgumentException("Resolution must be positive, was: " + width + "x" + height);
+		if (!(pixelThreshold >= 0))
+			throw new IllegalArgumentException("Pixel threshold must not be negative, was: " + pixelThreshold);
+	}
 
 	/**
 	 * Method used for setting angle of fractal pattern.
@@ -192,272 +1014,100 @@ public class LSystemBuilderImpl implements LSystemBuilder {
 	}
 	
 	/**
-	 * Method used for configuring LSystem from text.
-	 * It returns <code>this</code> object.
+	 * @return unit length of the line
 	 */
-	@Override
-	public LSystemBuilder configureFromText(String[] lines) {
-		
-		for (String line : lines) {
-			if (line.contains("origin")) {
-				setOriginFromString(line);
-			} else if (line.contains("angle")) {
-				setAngleFromString(line);
-			} else if (line.contains("unitLengthDegreeScaler")) {
-				setUnitLengthDegreeScalerFromString(line);
-			} else if (line.contains("unitLength")) {
-				setUnitLengthFromString(line);
-			} else if (line.contains("axiom")) {
-				setAxiomFromString(line);
-			} else if (line.contains("command")) {
-				addCommandFromString(line);
-			} else if (line.contains("production")) {
-				addProductionFromString(line);
-			}
-		}
-		return this;
-	}
-	
-	/**
-	 * Method used for getting command from text.
-	 * 
-	 * @param commandText <code>String</code> that contains command
-	 * @return   		  <code>Command</code> that given text represents
-	 */
-	private static Command getCommand(String commandText) {
-		Command command = null;
-		if (commandText.contains("draw")) {
-			command = getDrawCommand(commandText);
-		} else if (commandText.contains("rotate")) {
-			command = getRotateCommand(commandText);
-		} else if (commandText.contains("skip")) {
-			command = getSkipCommand(commandText);
-		} else if (commandText.contains("push")) {
-			command = getPushCommand();
-		} else if (commandText.contains("pop")) {
-			command = getPopCommand();
-		} else if (commandText.contains("scale")) {
-			command = getScaleCommand(commandText);
-		} else if (commandText.contains("color")) {
-			command = getColorCommand(commandText);
-		} else {
-			throw new IllegalArgumentException("Unsupported command! Command was: " + commandText);
-		}
-		return command;
-	}
-
-	/**
-	 * Method used for getting <code>DrawCommand</code> from text.
-	 * 
-	 * @param commandText <code>String</code> that contains draw command
-	 * @return            <code>DrawCommand</code> that given text represents
-	 */
-	private static DrawCommand getDrawCommand(String commandText) {
-		try {
-			double step = Double.parseDouble(commandText.split("\\s+")[1]);
-			return new DrawCommand(step);
-		} catch (NumberFormatException ex) {
-			throw new IllegalArgumentException("Invalid Draw Command!");
-		}
+	double getUnitLength() {
+		return unitLength;
 	}
 	
 	/**
-	 * Method used for getting <code>RotateCommand</code> from text.
-	 * 
-	 * @param commandText <code>String</code> that contains rotate command
-	 * @return            <code>RotateCommand</code> that given text represents
-	 */
-	private static RotateCommand getRotateCommand(String commandText) {
-		try {
-			double angle = Double.parseDouble(commandText.split("\\s+")[1]);
-			return new RotateCommand(angle);
-		} catch (NumberFormatException ex) {
-			throw new IllegalArgumentException("Invalid Rotate Command!");
-		}
-	}
-	
-	/**
-	 * Method used for getting <code>SkipCommand</code> from text.
-	 * 
-	 * @param commandText <code>String</code> that contains skip command
-	 * @return            <code>SkipCommand</code> that given text represents
-	 */
-	private static SkipCommand getSkipCommand(String commandText) {
-		try {
-			double step = Double.parseDouble(commandText.split("\\s+")[1]);
-			return new SkipCommand(step);
-		} catch (NumberFormatException ex) {
-			throw new IllegalArgumentException("Invalid Skip Command!");
-		}
-	}
-	
-	/**
-	 * Method used for getting push command.
-	 * 
-	 * @return <code>PushCommand</code>
+	 * @return scaler used for modifying unit length of the line
 	 */
-	private static PushCommand getPushCommand() {
-		return new PushCommand();
+	double getUnitLengthDegreeScaler() {
+		return unitLengthDegreeScaler;
 	}
 	
 	/**
-	 * Method used for getting pop command.
-	 * 
-	 * @return <code>PopCommand</code>
+	 * @return position where fractal pattern starts
 	 */
-	private static PopCommand getPopCommand() {
-		return new PopCommand();
-	}
-	
-	/**
-	 * Method used for getting <code>ScaleCommand</code> from text.
-	 * 
-	 * @param commandText <code>String</code> that contains scale command
-	 * @return            <code>ScaleCommand</code> that given text represents
-	 */
-	private static ScaleCommand getScaleCommand(String commandText) {
-		try {
-			double factor = Double.parseDouble(commandText.split("\\s+")[1]);
-			return new ScaleCommand(factor);
-		} catch (NumberFormatException ex) {
-			throw new IllegalArgumentException("Invalid Scale Command!");
-		}
+	Vector2D getOrigin() {
+		return origin;
 	}
 	
 	/**
-	 * Method used for getting <code>ColorCommand</code> from text.
-	 * 
-	 * @param commandText <code>String</code> that contains color command
-	 * @return            <code>ColorCommand</code> that given text represents
-	 */
-	private static Command getColorCommand(String commandText) {
-		try {
-			String hexColor = commandText.split("\\s+")[1];
-			Color color = Color.decode("#" + hexColor);
-			return new ColorCommand(color);
-		} catch (NumberFormatException ex) {
-			throw new IllegalArgumentException("Invalid Color Command!");
-		}
+	 * @return angle of the pattern that is drawn
+	 */
+	double getAngle() {
+		return angle;
 	}
 	
 	/**
-	 * Method that sets origin which is given in text.
-	 * 
-	 * @param line <code>String</code> that represents origin
-	 */
-	private void setOriginFromString(String line) {
-		String[] originParts = line.split("\\s+");
-		try {
-			double x = Double.parseDouble(originParts[1]);
-			double y = Double.parseDouble(originParts[2]);
-			setOrigin(x, y);
-		} catch (NumberFormatException | IndexOutOfBoundsException ex) {
-			throw new IllegalArgumentException("Invalid origin input. You entered: " + line);
-		}
+	 * @return axiom that represents base of fractal pattern
+	 */
+	String getAxiom() {
+		return axiom;
 	}
 	
 	/**
-	 * Method that sets angle which is given in text.
-	 * 
-	 * @param line <code>String</code> that represents angle
-	 */
-	private void setAngleFromString(String line) {
-		String[] angleParts = line.split("\\s+");
-		try {
-			double angle = Double.parseDouble(angleParts[1]);
-			setAngle(angle);
-		} catch (NumberFormatException | IndexOutOfBoundsException ex) {
-			throw new IllegalArgumentException("Invalid angle input. You entered: " + line);
-		}
+	 * @return map-like storage of commands
+	 */
+	CharObjectDictionary getCommands() {
+		return commands;
 	}
 	
 	/**
-	 * Method that sets unit length which is given in text.
-	 * 
-	 * @param line <code>String</code> that represents unit length
-	 */
-	private void setUnitLengthFromString(String line) {
-		String[] unitLengthParts = line.split("\\s+");
-		try {
-			double unitLength = Double.parseDouble(unitLengthParts[1]);
-			setUnitLength(unitLength);
-		}  catch (NumberFormatException | IndexOutOfBoundsException ex) {
-			throw new IllegalArgumentException("Invalid unit length input. You entered: " + line);
-		}
+	 * @return map-like storage of productions
+	 */
+	CharObjectDictionary getProductions() {
+		return productions;
 	}
 	
 	/**
-	 * Method that sets unit length degree scaler which is given in text.
-	 * 
-	 * @param line <code>String</code> that represents unit length degree scaler
+	 * @return seed of choices of stochastic productions
 	 */
-	private void setUnitLengthDegreeScalerFromString(String line) {
-
-		try {
-			// Split line in two parts: name of parameter ("unitLengthDegreeScaler") and values
-			String valueString = line.split("\\s+", 2)[1].replaceAll("\\s+", "");
-			// Pattern for matching value given in fraction form
-			Pattern fractionPattern = Pattern.compile("([0-9]+\\.?[0-9]*?)/([0-9]+\\.?[0-9]*?)$");
-			Matcher fractionMatcher = fractionPattern.matcher(valueString);
-			
-			double scaler;
-			if (fractionMatcher.find()) {
-				double numerator = Double.parseDouble(fractionMatcher.group(1));
-				double denominator = Double.parseDouble(fractionMatcher.group(2));
-				scaler = numerator / denominator;
-			} else {
-				// If fraction pattern is not matched, then it's single double value
-				scaler = Double.parseDouble(valueString);
-			}
-		setUnitLengthDegreeScaler(scaler);
-		} catch (IndexOutOfBoundsException | NumberFormatException ex) {
-			throw new IllegalArgumentException("Invalid unit length degree scaler input. You entered: " + line);
-		}
+	long getSeed() {
+		return seed;
 	}
 	
 	/**
-	 * Method that sets axiom which is given in text.
+	 * Method used for configuring LSystem from text.
+	 * It returns <code>this</code> object.
 	 * 
-	 * @param line <code>String</code> that represents axiom
-	 */
-	private void setAxiomFromString(String line) {
-		String[] axiomParts = line.split("\\s+");
-		try {
-			setAxiom(axiomParts[1]);
-		} catch (IndexOutOfBoundsException ex) {
-			throw new IllegalArgumentException("Invalid axiom input. You entered: " + line);
-		}
+	 * @throws ConfigParseException if any of the lines is not valid
+	 */
+	@Override
+	public LSystemBuilder configureFromText(String[] lines) {
+		new ConfigParser(this).parse(lines);
+		return this;
 	}
 	
 	/**
-	 * Method that adds command which is given in text.
+	 * Method used for configuring LSystem from text that is read from given <code>Reader</code>.
+	 * Text is read only once and is never stored as a whole.
+	 * It returns <code>this</code> object.
 	 * 
-	 * @param line <code>String</code> that represents command
-	 */
-	private void addCommandFromString(String line) {
-		String[] commandParts = line.split("\\s+");
-		try {
-			String command = "";
-			for (int i = 2; i < commandParts.length; i++) {
-				command = command.concat(commandParts[i] + " ");
-			}
-			registerCommand(commandParts[1].charAt(0), command);
-		} catch (IndexOutOfBoundsException ex) {
-			throw new IllegalArgumentException("Invalid command input. You entered: " + line);
-		}
+	 * @param reader <code>Reader</code> from which configuration is read
+	 * @return       <code>this</code> object
+	 * @throws IOException          if reading fails
+	 * @throws ConfigParseException if configuration is not valid
+	 */
+	public LSystemBuilder configureFrom(Reader reader) throws IOException {
+		new ConfigParser(this).parse(reader);
+		return this;
 	}
 	
 	/**
-	 * Method that adds production which is given in text.
+	 * Method used for configuring LSystem from UTF-8 encoded file.
+	 * It returns <code>this</code> object.
 	 * 
-	 * @param line <code>String</code> that represents production
-	 */
-	private void addProductionFromString(String line) {
-		String[] productionParts = line.split("\\s+");
-		try {
-			registerProduction(productionParts[1].charAt(0), productionParts[2]);
-		} catch (IndexOutOfBoundsException ex) {
-			throw new IllegalArgumentException("Invalid production input. You entered: " + line);
+	 * @param path <code>Path</code> of the configuration file
+	 * @return     <code>this</code> object
+	 * @throws IOException          if reading fails
+	 * @throws ConfigParseException if configuration is not valid
+	 */
+	public LSystemBuilder configureFrom(Path path) throws IOException {
+		try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+			return configureFrom(reader);
 		}
 	}
 	
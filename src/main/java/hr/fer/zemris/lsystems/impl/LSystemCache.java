@@ -0,0 +1,185 @@
+package hr.fer.zemris.lsystems.impl;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+import hr.fer.zemris.lsystems.LSystem;
+
+/**
+ * Directory-level cache of compiled <code>LSystem</code> configurations. </br>
+ * Every configuration text is identified by SHA-256 hash of its content, </br>
+ * and its compiled form (see <code>LSystemCodec</code>) is stored in file named by that hash. </br>
+ * When the same text is loaded again, compiled form is read with one read operation </br>
+ * and text is not parsed at all. Entries are written to temporary file first and then moved, </br>
+ * so concurrent processes never see partially written entry. </br>
+ * Entry name depends only on the text, format version is stored in header of the entry, </br>
+ * so corrupted entries or entries of older format version are rebuilt in place </br>
+ * and do not stay in directory next to their newer versions.
+ *
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+public class LSystemCache {
+
+	/**
+	 * extension of cache entries
+	 */
+	private static final String EXTENSION = ".lsc";
+	/**
+	 * digits used for writing hash as hexadecimal number
+	 */
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+	/**
+	 * directory where entries are stored
+	 */
+	private final Path directory;
+	/**
+	 * number of loads that were served from cache
+	 */
+	private final LongAdder hits = new LongAdder();
+	/**
+	 * number of loads that required parsing
+	 */
+	private final LongAdder misses = new LongAdder();
+
+	/**
+	 * Constructor for creating new <code>LSystemCache</code>. </br>
+	 * Directory is created if it does not exist.
+	 *
+	 * @param directory directory where entries are stored
+	 * @throws IOException if directory can not be created
+	 */
+	public LSystemCache(Path directory) throws IOException {
+		this.directory = Objects.requireNonNull(directory);
+		Files.createDirectories(directory);
+	}
+
+	/**
+	 * Method returns built <code>LSystem</code> for the given configuration file.
+	 *
+	 * @param source UTF-8 encoded configuration file
+	 * @return       built <code>LSystem</code>
+	 * @throws IOException          if reading or writing fails
+	 * @throws ConfigParseException if configuration is not valid
+	 */
+	public LSystem load(Path source) throws IOException {
+		return loadBuilder(new String(Files.readAllBytes(source), StandardCharsets.UTF_8)).build();
+	}
+
+	/**
+	 * Method returns built <code>LSystem</code> for the given configuration text.
+	 *
+	 * @param text configuration text
+	 * @return     built <code>LSystem</code>
+	 * @throws IOException          if reading or writing cache entry fails
+	 * @throws ConfigParseException if configuration is not valid
+	 */
+	public LSystem load(String text) throws IOException {
+		return loadBuilder(text).build();
+	}
+
+	/**
+	 * Method returns builder configured by given configuration text. </br>
+	 * If the text was already compiled, builder is read from cache, </br>
+	 * otherwise text is parsed and its compiled form is stored in cache.
+	 *
+	 * @param text configuration text
+	 * @return     configured <code>LSystemBuilderImpl</code>
+	 * @throws IOException          if reading or writing cache entry fails
+	 * @throws ConfigParseException if configuration is not valid
+	 */
+	public LSystemBuilderImpl loadBuilder(String text) throws IOException {
+		Path entry = directory.resolve(hash(text) + EXTENSION);
+
+		try {
+			LSystemBuilderImpl builder = LSystemCodec.decode(Files.readAllBytes(entry));
+			hits.increment();
+			return builder;
+		} catch (NoSuchFileException ex) {
+			// not compiled yet
+		} catch (IllegalArgumentException ex) {
+			// corrupted entry or older format, it is overwritten below
+		}
+
+		misses.increment();
+		LSystemBuilderImpl builder = new LSystemBuilderImpl();
+		builder.configureFrom(new StringReader(text));
+		write(entry, LSystemCodec.encode(builder));
+		return builder;
+	}
+
+	/**
+	 * Method returns number of loads that were served from cache.
+	 *
+	 * @return number of cache hits
+	 */
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/**
+	 * Method returns number of loads that required parsing.
+	 *
+	 * @return number of cache misses
+	 */
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/**
+	 * Helper method that atomically writes entry.
+	 *
+	 * @param entry path of the entry
+	 * @param data  content of the entry
+	 * @throws IOException if writing fails
+	 */
+	private void write(Path entry, byte[] data) throws IOException {
+		Path temporary = Files.createTempFile(directory, "entry", ".tmp");
+		try {
+			Files.write(temporary, data);
+			try {
+				Files.move(temporary, entry, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+			} catch (AtomicMoveNotSupportedException ex) {
+				Files.move(temporary, entry, StandardCopyOption.REPLACE_EXISTING);
+			}
+		} finally {
+			Files.deleteIfExists(temporary);
+		}
+	}
+
+	/**
+	 * Helper method that calculates SHA-256 hash of the given text.
+	 *
+	 * @param text text that is hashed
+	 * @return     hash as hexadecimal string
+	 */
+	private static String hash(String text) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			byte[] bytes = digest.digest(text.getBytes(StandardCharsets.UTF_8));
+
+			char[] hex = new char[bytes.length * 2];
+			for (int i = 0; i < bytes.length; i++) {
+				hex[2 * i] = HEX_DIGITS[(bytes[i] >>> 4) & 0xF];
+				hex[2 * i + 1] = HEX_DIGITS[bytes[i] & 0xF];
+			}
+			return new String(hex);
+		} catch (NoSuchAlgorithmException ex) {
+			// every Java platform is required to support SHA-256
+			throw new IllegalStateException(ex);
+		}
+	}
+
+}
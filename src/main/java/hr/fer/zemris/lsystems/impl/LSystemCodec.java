@@ -0,0 +1,323 @@
+package hr.fer.zemris.lsystems.impl;
+
+import java.awt.Color;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+import hr.fer.zemris.java.custom.collections.CharObjectDictionary;
+import hr.fer.zemris.java.custom.collections.CharObjectProcessor;
+import hr.fer.zemris.lsystems.impl.commands.ColorCommand;
+import hr.fer.zemris.lsystems.impl.commands.DrawCommand;
+import hr.fer.zemris.lsystems.impl.commands.PopCommand;
+import hr.fer.zemris.lsystems.impl.commands.PushCommand;
+import hr.fer.zemris.lsystems.impl.commands.RotateCommand;
+import hr.fer.zemris.lsystems.impl.commands.ScaleCommand;
+import hr.fer.zemris.lsystems.impl.commands.SkipCommand;
+
+/**
+ * Class that converts configuration of <code>LSystemBuilderImpl</code> to compact binary form and back. </br>
+ * Binary form contains everything that <code>build()</code> needs: origin, angle, unit length, </br>
+ * scaler, axiom, productions and commands as op codes with parameters, </br>
+ * so loading it requires no text parsing. </br>
+ * Layout (big-endian): magic number, format version, five <code>double</code> values, seed, </br>
+ * axiom, number of productions followed by (symbol, number of weighted alternatives, productions) </br>
+ * and number of commands followed by (symbol, op code, parameter) triples. </br>
+ * Ordinary production has zero weighted alternatives and is followed by the production itself, </br>
+ * otherwise every alternative is written as its weight followed by the production. </br>
+ * Strings are stored as length followed by UTF-16 characters.
+ *
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+public final class LSystemCodec {
+
+	/**
+	 * magic number that starts every encoded configuration ("LSYS")
+	 */
+	public static final int MAGIC = 0x4C535953;
+	/**
+	 * version of the binary format, changed whenever layout changes
+	 */
+	public static final short VERSION = 2;
+
+	/**
+	 * op code of <code>DrawCommand</code>
+	 */
+	private static final byte OP_DRAW = 1;
+	/**
+	 * op code of <code>SkipCommand</code>
+	 */
+	private static final byte OP_SKIP = 2;
+	/**
+	 * op code of <code>RotateCommand</code>
+	 */
+	private static final byte OP_ROTATE = 3;
+	/**
+	 * op code of <code>ScaleCommand</code>
+	 */
+	private static final byte OP_SCALE = 4;
+	/**
+	 * op code of <code>ColorCommand</code>
+	 */
+	private static final byte OP_COLOR = 5;
+	/**
+	 * op code of <code>PushCommand</code>
+	 */
+	private static final byte OP_PUSH = 6;
+	/**
+	 * op code of <code>PopCommand</code>
+	 */
+	private static final byte OP_POP = 7;
+
+	/**
+	 * Private constructor, class offers only static methods.
+	 */
+	private LSystemCodec() {
+	}
+
+	/**
+	 * Method encodes configuration of the given builder.
+	 *
+	 * @param builder <code>LSystemBuilderImpl</code> whose configuration is encoded
+	 * @return        array that contains encoded configuration
+	 * @throws        <code>IllegalArgumentException</code> if builder contains command that has no op code
+	 */
+	public static byte[] encode(LSystemBuilderImpl builder) {
+		CharObjectDictionary productions = builder.getProductions();
+		CharObjectDictionary commands = builder.getCommands();
+
+		char[] productionSymbols = new char[productions.size()];
+		Object[] productionValues = new Object[productions.size()];
+		productions.forEach(new CharObjectProcessor() {
+			private int index;
+
+			@Override
+			public void process(char key, Object value) {
+				productionSymbols[index] = key;
+				productionValues[index++] = value;
+			}
+		});
+
+		char[] commandSymbols = new char[commands.size()];
+		Command[] commandValues = new Command[commands.size()];
+		commands.forEach(new CharObjectProcessor() {
+			private int index;
+
+			@Override
+			public void process(char key, Object value) {
+				commandSymbols[index] = key;
+				commandValues[index++] = (Command) value;
+			}
+		});
+
+		int capacity = 4 + 2 + 5 * 8 + 8 + stringSize(builder.getAxiom()) + 4 + 4;
+		for (int i = 0; i < productionSymbols.length; i++) {
+			capacity += 2 + 4;
+			for (String alternative : StochasticProduction.alternatives(productionValues[i])) {
+				capacity += 8 + stringSize(alternative);
+			}
+		}
+		capacity += commandSymbols.length * (2 + 1 + 8);
+
+		ByteBuffer buffer = ByteBuffer.allocate(capacity);
+		buffer.putInt(MAGIC);
+		buffer.putShort(VERSION);
+		buffer.putDouble(builder.getOrigin().getX());
+		buffer.putDouble(builder.getOrigin().getY());
+		buffer.putDouble(builder.getAngle());
+		buffer.putDouble(builder.getUnitLength());
+		buffer.putDouble(builder.getUnitLengthDegreeScaler());
+		buffer.putLong(builder.getSeed());
+		putString(buffer, builder.getAxiom());
+
+		buffer.putInt(productionSymbols.length);
+		for (int i = 0; i < productionSymbols.length; i++) {
+			buffer.putChar(productionSymbols[i]);
+			if (productionValues[i] instanceof StochasticProduction) {
+				StochasticProduction production = (StochasticProduction) productionValues[i];
+				buffer.putInt(production.size());
+				for (int a = 0; a < production.size(); a++) {
+					buffer.putDouble(production.getWeight(a));
+					putString(buffer, production.get(a));
+				}
+			} else {
+				buffer.putInt(0);
+				putString(buffer, (String) productionValues[i]);
+			}
+		}
+
+		buffer.putInt(commandSymbols.length);
+		for (int i = 0; i < commandSymbols.length; i++) {
+			buffer.putChar(commandSymbols[i]);
+			putCommand(buffer, commandValues[i], commandSymbols[i]);
+		}
+
+		byte[] result = new byte[buffer.position()];
+		buffer.flip();
+		buffer.get(result);
+		return result;
+	}
+
+	/**
+	 * Method decodes configuration into new builder.
+	 *
+	 * @param data array that contains encoded configuration
+	 * @return     new <code>LSystemBuilderImpl</code> configured by decoded data
+	 * @throws     <code>IllegalArgumentException</code> if data is not valid encoded configuration
+	 *             or has different format version
+	 */
+	public static LSystemBuilderImpl decode(byte[] data) {
+		return decode(ByteBuffer.wrap(data));
+	}
+
+	/**
+	 * Method decodes configuration from the given buffer into new builder.
+	 *
+	 * @param buffer buffer positioned at the start of encoded configuration
+	 * @return       new <code>LSystemBuilderImpl</code> configured by decoded data
+	 * @throws       <code>IllegalArgumentException</code> if data is not valid encoded configuration
+	 *               or has different format version
+	 */
+	public static LSystemBuilderImpl decode(ByteBuffer buffer) {
+		try {
+			if (buffer.getInt() != MAGIC)
+				throw new IllegalArgumentException("Data is not encoded LSystem.");
+			short version = buffer.getShort();
+			if (version != VERSION)
+				throw new IllegalArgumentException("Unsupported format version: " + version);
+
+			LSystemBuilderImpl builder = new LSystemBuilderImpl();
+			double x = buffer.getDouble();
+			double y = buffer.getDouble();
+			builder.setOrigin(x, y);
+			builder.setAngle(buffer.getDouble());
+			builder.setUnitLength(buffer.getDouble());
+			builder.setUnitLengthDegreeScaler(buffer.getDouble());
+			builder.setSeed(buffer.getLong());
+			builder.setAxiom(getString(buffer));
+
+			int productionCount = buffer.getInt();
+			for (int i = 0; i < productionCount; i++) {
+				char symbol = buffer.getChar();
+				int alternatives = buffer.getInt();
+				if (alternatives < 0)
+					throw new IllegalArgumentException("Invalid number of alternatives: " + alternatives);
+				if (alternatives == 0)
+					builder.registerProduction(symbol, getString(buffer));
+				for (int a = 0; a < alternatives; a++) {
+					double weight = buffer.getDouble();
+					builder.registerProduction(symbol, weight, getString(buffer));
+				}
+			}
+
+			int commandCount = buffer.getInt();
+			for (int i = 0; i < commandCount; i++) {
+				char symbol = buffer.getChar();
+				builder.registerCommand(symbol, getCommand(buffer));
+			}
+			return builder;
+		} catch (BufferUnderflowException ex) {
+			throw new IllegalArgumentException("Encoded LSystem is truncated or corrupted.");
+		}
+	}
+
+	/**
+	 * Helper method that writes op code and parameter of the given command.
+	 *
+	 * @param buffer  buffer where command is written
+	 * @param command command that is written
+	 * @param symbol  symbol of the command, used in error message
+	 */
+	private static void putCommand(ByteBuffer buffer, Command command, char symbol) {
+		if (command instanceof DrawCommand) {
+			buffer.put(OP_DRAW).putDouble(((DrawCommand) command).getStep());
+		} else if (command instanceof SkipCommand) {
+			buffer.put(OP_SKIP).putDouble(((SkipCommand) command).getStep());
+		} else if (command instanceof RotateCommand) {
+			buffer.put(OP_ROTATE).putDouble(((RotateCommand) command).getAngle());
+		} else if (command instanceof ScaleCommand) {
+			buffer.put(OP_SCALE).putDouble(((ScaleCommand) command).getFactor());
+		} else if (command instanceof ColorCommand) {
+			buffer.put(OP_COLOR).putDouble(((ColorCommand) command).getColor().getRGB());
+		} else if (command instanceof PushCommand) {
+			buffer.put(OP_PUSH).putDouble(0);
+		} else if (command instanceof PopCommand) {
+			buffer.put(OP_POP).putDouble(0);
+		} else {
+			throw new IllegalArgumentException("Command of symbol '" + symbol + "' can not be encoded: "
+					+ command.getClass().getName());
+		}
+	}
+
+	/**
+	 * Helper method that reads command written by <code>putCommand</code>.
+	 *
+	 * @param buffer buffer from which command is read
+	 * @return       decoded command
+	 */
+	private static Command getCommand(ByteBuffer buffer) {
+		byte op = buffer.get();
+		double parameter = buffer.getDouble();
+
+		switch (op) {
+		case OP_DRAW:
+			return new DrawCommand(parameter);
+		case OP_SKIP:
+			return new SkipCommand(parameter);
+		case OP_ROTATE:
+			return new RotateCommand(parameter);
+		case OP_SCALE:
+			return new ScaleCommand(parameter);
+		case OP_COLOR:
+			return new ColorCommand(new Color((int) parameter, true));
+		case OP_PUSH:
+			return new PushCommand();
+		case OP_POP:
+			return new PopCommand();
+		default:
+			throw new IllegalArgumentException("Unknown command op code: " + op);
+		}
+	}
+
+	/**
+	 * Helper method that returns number of bytes that encoded string takes.
+	 *
+	 * @param value string that is encoded
+	 * @return      number of bytes
+	 */
+	private static int stringSize(String value) {
+		return 4 + 2 * value.length();
+	}
+
+	/**
+	 * Helper method that writes string as its length followed by its characters.
+	 *
+	 * @param buffer buffer where string is written
+	 * @param value  string that is written
+	 */
+	private static void putString(ByteBuffer buffer, String value) {
+		buffer.putInt(value.length());
+		for (int i = 0; i < value.length(); i++) {
+			buffer.putChar(value.charAt(i));
+		}
+	}
+
+	/**
+	 * Helper method that reads string written by <code>putString</code>.
+	 *
+	 * @param buffer buffer from which string is read
+	 * @return       decoded string
+	 */
+	private static String getString(ByteBuffer buffer) {
+		int length = buffer.getInt();
+		if (length < 0 || 2L * length > buffer.remaining())
+			throw new BufferUnderflowException();
+		
+		char[] chars = new char[length];
+		buffer.asCharBuffer().get(chars);
+		buffer.position(buffer.position() + 2 * chars.length);
+		return new String(chars);
+	}
+
+}
@@ -0,0 +1,162 @@
+package hr.fer.zemris.lsystems.impl;
+
+import hr.fer.zemris.java.custom.collections.CharIntDictionary;
+import hr.fer.zemris.java.custom.collections.CharObjectDictionary;
+import hr.fer.zemris.java.custom.collections.CharObjectProcessor;
+
+/**
+ * Rewriting tables that drop symbols which have no effect on drawing. </br>
+ * Symbol is <i>live</i> if it has a command, or if some symbol of its production is live; </br>
+ * symbols that are not live never lead to command execution on any level, so drawing </br>
+ * can drop them on every level. On the last level every symbol without command is dropped, </br>
+ * because it will not be rewritten any more. </br>
+ * Tables are computed once when system is built and are used only for drawing; </br>
+ * <code>generate</code> still returns the full string. Systems with weighted productions </br>
+ * do not use the tables, because choices depend on positions of symbols in full productions.
+ * 
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+final class PruningTables {
+
+	/**
+	 * maps every symbol to its replacement on levels before the last one
+	 */
+	private final CharObjectDictionary liveRewrite = new CharObjectDictionary();
+	/**
+	 * maps every symbol to its replacement on the last level
+	 */
+	private final CharObjectDictionary finalRewrite = new CharObjectDictionary();
+	/**
+	 * maps symbols that have production to production without dead symbols
+	 */
+	private final CharObjectDictionary liveProductions = new CharObjectDictionary();
+	/**
+	 * maps symbols that have production to production without symbols that have no command
+	 */
+	private final CharObjectDictionary finalProductions = new CharObjectDictionary();
+	
+	/**
+	 * Constructor that analyses productions and commands.
+	 * 
+	 * @param axiom       axiom of the system
+	 * @param productions productions of the system
+	 * @param commands    commands of the system
+	 */
+	PruningTables(String axiom, CharObjectDictionary productions, CharObjectDictionary commands) {
+		StringBuilder alphabet = new StringBuilder(axiom);
+		productions.forEach(new CharObjectProcessor() {
+			@Override
+			public void process(char key, Object value) {
+				alphabet.append(key).append((String) value);
+			}
+		});
+		
+		CharIntDictionary commanded = symbolsOf(commands);
+		CharIntDictionary live = findLive(productions, symbolsOf(commands));
+		for (int i = 0; i < alphabet.length(); i++) {
+			char symbol = alphabet.charAt(i);
+			if (liveRewrite.containsKey(symbol))
+				continue;
+			
+			String production = (String) productions.get(symbol);
+			if (production == null) {
+				String replacement = commanded.containsKey(symbol) ? String.valueOf(symbol) : "";
+				liveRewrite.put(symbol, replacement);
+				finalRewrite.put(symbol, replacement);
+			} else {
+				String liveProduction = filter(production, live);
+				String finalProduction = filter(production, commanded);
+				liveRewrite.put(symbol, live.containsKey(symbol) ? liveProduction : "");
+				finalRewrite.put(symbol, finalProduction);
+				liveProductions.put(symbol, live.containsKey(symbol) ? liveProduction : "");
+				finalProductions.put(symbol, finalProduction);
+			}
+		}
+	}
+	
+	/**
+	 * Method returns replacements of every symbol that can be used for drawing.
+	 * 
+	 * @param last <code>true</code> for table of the last rewriting
+	 * @return     frozen table that contains replacement of every symbol of the alphabet
+	 */
+	CharObjectDictionary rewrite(boolean last) {
+		return last ? finalRewrite.freeze() : liveRewrite.freeze();
+	}
+	
+	/**
+	 * Method returns pruned productions that can be used for drawing.
+	 * 
+	 * @param last <code>true</code> for productions of the last rewriting
+	 * @return     frozen table that contains pruned production of every symbol that has production
+	 */
+	CharObjectDictionary productions(boolean last) {
+		return last ? finalProductions.freeze() : liveProductions.freeze();
+	}
+	
+	/**
+	 * Helper method that returns set of symbols that have command.
+	 * 
+	 * @param commands commands of the system
+	 * @return         set of symbols that have command
+	 */
+	private static CharIntDictionary symbolsOf(CharObjectDictionary commands) {
+		CharIntDictionary symbols = new CharIntDictionary();
+		commands.forEach(new CharObjectProcessor() {
+			@Override
+			public void process(char key, Object value) {
+				symbols.put(key, 1);
+			}
+		});
+		return symbols;
+	}
+	
+	/**
+	 * Helper method that finds live symbols, extending the given set of symbols that have command.
+	 * 
+	 * @param productions productions of the system
+	 * @param live        symbols that have command, extended to all live symbols
+	 * @return            set of live symbols
+	 */
+	private static CharIntDictionary findLive(CharObjectDictionary productions, CharIntDictionary live) {
+		boolean[] changed = { true };
+		while (changed[0]) {
+			changed[0] = false;
+			productions.forEach(new CharObjectProcessor() {
+				@Override
+				public void process(char key, Object value) {
+					if (live.containsKey(key))
+						return;
+					String production = (String) value;
+					for (int i = 0; i < production.length(); i++) {
+						if (live.containsKey(production.charAt(i))) {
+							live.put(key, 1);
+							changed[0] = true;
+							return;
+						}
+					}
+				}
+			});
+		}
+		return live;
+	}
+	
+	/**
+	 * Helper method that keeps only symbols which are keys of the given dictionary.
+	 * 
+	 * @param production symbols that are filtered
+	 * @param kept       symbols that are kept
+	 * @return           filtered symbols
+	 */
+	private static String filter(String production, CharIntDictionary kept) {
+		StringBuilder sb = new StringBuilder(production.length());
+		for (int i = 0; i < production.length(); i++) {
+			if (kept.containsKey(production.charAt(i)))
+				sb.append(production.charAt(i));
+		}
+		return sb.toString();
+	}
+	
+}
@@ -0,0 +1,27 @@
+package hr.fer.zemris.lsystems.impl;
+
+/**
+ * Exception that is thrown when level of the system pops more states than it pushes, </br>
+ * so drawing would remove the initial state. It is known before anything is drawn.
+ * 
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+public class StateUnderflowException extends IllegalStateException {
+
+	/**
+	 * serial number of the exception
+	 */
+	private static final long serialVersionUID = 1L;
+	
+	/**
+	 * Constructor for creating new <code>StateUnderflowException</code>.
+	 * 
+	 * @param level level that pops more states than it pushes
+	 */
+	public StateUnderflowException(int level) {
+		super("Level " + level + " pops more states than it pushes; drawing would remove the initial state.");
+	}
+	
+}
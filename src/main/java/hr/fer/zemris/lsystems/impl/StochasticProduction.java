@@ -0,0 +1,180 @@
+package hr.fer.zemris.lsystems.impl;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Immutable set of weighted alternative productions of one symbol. </br>
+ * Every occurrence of the symbol chooses one alternative with probability proportional to its weight. </br>
+ * Choice is not taken from shared random generator, but computed from <i>key</i> of the occurrence: </br>
+ * every symbol of the axiom has key derived from seed and its index, and every symbol </br>
+ * of a production has key derived from key of the rewritten symbol and index in the production. </br>
+ * Key therefore depends only on the path from the axiom to the occurrence, so generating </br>
+ * level by level, streaming depth-first, or rewriting parts of the string independently </br>
+ * all make the same choices without any synchronization. </br>
+ * Keys are mixed with SplitMix64 finalizer, whose output passes usual tests of randomness.
+ *
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+public final class StochasticProduction {
+
+	/**
+	 * increment of SplitMix64, odd integer closest to 2^64 divided by golden ratio
+	 */
+	private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+	/**
+	 * constant that separates choice of occurrence from keys of its children
+	 */
+	private static final long CHOICE_SALT = 0x632be59bd9b4e019L;
+
+	/**
+	 * alternative productions
+	 */
+	private final String[] productions;
+	/**
+	 * weights of alternative productions
+	 */
+	private final double[] weights;
+	/**
+	 * sums of weights of alternatives up to and including every alternative
+	 */
+	private final double[] cumulative;
+
+	/**
+	 * Constructor for creating new <code>StochasticProduction</code> with one alternative.
+	 *
+	 * @param weight     weight of the alternative
+	 * @param production the alternative
+	 * @throws <code>IllegalArgumentException</code> if weight is not positive and finite
+	 */
+	public StochasticProduction(double weight, String production) {
+		this(new String[0], new double[0], weight, production);
+	}
+
+	/**
+	 * Private constructor that appends alternative to the given ones.
+	 *
+	 * @param productions existing alternatives
+	 * @param weights     weights of existing alternatives
+	 * @param weight      weight of the new alternative
+	 * @param production  the new alternative
+	 */
+	private StochasticProduction(String[] productions, double[] weights, double weight, String production) {
+		if (!(weight > 0) || Double.isInfinite(weight))
+			throw new IllegalArgumentException("Weight must be positive and finite, was: " + weight);
+		int size = productions.length;
+		this.productions = Arrays.copyOf(productions, size + 1);
+		this.productions[size] = Objects.requireNonNull(production);
+		this.weights = Arrays.copyOf(weights, size + 1);
+		this.weights[size] = weight;
+		this.cumulative = new double[size + 1];
+		double sum = 0;
+		for (int i = 0; i <= size; i++) {
+			sum += this.weights[i];
+			cumulative[i] = sum;
+		}
+	}
+
+	/**
+	 * Method returns new <code>StochasticProduction</code> that has one more alternative.
+	 *
+	 * @param weight     weight of the new alternative
+	 * @param production the new alternative
+	 * @return           new <code>StochasticProduction</code>
+	 * @throws <code>IllegalArgumentException</code> if weight is not positive and finite
+	 */
+	public StochasticProduction with(double weight, String production) {
+		return new StochasticProduction(productions, weights, weight, production);
+	}
+
+	/**
+	 * @return number of alternatives
+	 */
+	public int size() {
+		return productions.length;
+	}
+
+	/**
+	 * @param index index of the alternative
+	 * @return      alternative production
+	 */
+	public String get(int index) {
+		return productions[index];
+	}
+
+	/**
+	 * @param index index of the alternative
+	 * @return      weight of the alternative
+	 */
+	public double getWeight(int index) {
+		return weights[index];
+	}
+
+	/**
+	 * Method chooses alternative for occurrence with the given key.
+	 *
+	 * @param key key of the occurrence
+	 * @return    chosen production
+	 */
+	public String choose(long key) {
+		if (productions.length == 1)
+			return productions[0];
+
+		double target = (mix(key ^ CHOICE_SALT) >>> 11) * 0x1.0p-53 * cumulative[cumulative.length - 1];
+		for (int i = 0; i < cumulative.length - 1; i++) {
+			if (target < cumulative[i])
+				return productions[i];
+		}
+		return productions[productions.length - 1];
+	}
+
+	/**
+	 * Method returns alternatives of the given value of production dictionary.
+	 *
+	 * @param production <code>String</code>, <code>StochasticProduction</code> or <code>null</code>
+	 * @return           all productions the value can rewrite to, <code>null</code> if there is no production
+	 */
+	public static String[] alternatives(Object production) {
+		if (production == null)
+			return null;
+		if (production instanceof StochasticProduction)
+			return ((StochasticProduction) production).productions.clone();
+		return new String[] { (String) production };
+	}
+
+	/**
+	 * Method returns key that is parent of all symbols of the axiom.
+	 *
+	 * @param seed seed of the system
+	 * @return     root key
+	 */
+	static long rootKey(long seed) {
+		return mix(seed + GOLDEN_GAMMA);
+	}
+
+	/**
+	 * Method returns key of symbol at the given index of production (or axiom) rewritten from parent.
+	 *
+	 * @param parent key of the rewritten symbol
+	 * @param index  index of the symbol in production
+	 * @return       key of the symbol
+	 */
+	static long childKey(long parent, int index) {
+		return mix(parent + (index + 1L) * GOLDEN_GAMMA);
+	}
+
+	/**
+	 * Helper method that applies SplitMix64 finalizer.
+	 *
+	 * @param z value that is mixed
+	 * @return  mixed value
+	 */
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+}
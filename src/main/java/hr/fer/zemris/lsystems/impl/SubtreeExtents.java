@@ -0,0 +1,428 @@
+package hr.fer.zemris.lsystems.impl;
+
+import java.awt.Color;
+import java.util.Arrays;
+import java.util.Objects;
+
+import hr.fer.zemris.java.custom.collections.CharObjectDictionary;
+import hr.fer.zemris.lsystems.Painter;
+import hr.fer.zemris.lsystems.impl.commands.ColorCommand;
+import hr.fer.zemris.lsystems.impl.commands.DrawCommand;
+import hr.fer.zemris.lsystems.impl.commands.PopCommand;
+import hr.fer.zemris.lsystems.impl.commands.PushCommand;
+import hr.fer.zemris.lsystems.impl.commands.RotateCommand;
+import hr.fer.zemris.lsystems.impl.commands.ScaleCommand;
+import hr.fer.zemris.lsystems.impl.commands.SkipCommand;
+import hr.fer.zemris.math.Vector2D;
+
+/**
+ * Static analysis of the shape that every symbol draws when it is expanded given number of times. </br>
+ * Shape is described in frame of the turtle before the symbol, with step length 1: </br>
+ * radius of circle around starting point and bounding box that contain every point turtle reaches, </br>
+ * and net effect on turtle state (translation, rotation, scale of step length and color). </br>
+ * Both bounds are combined conservatively; box stays exact under rotations by right angles, </br>
+ * circle under any rotation, so extent of the subtree is the smaller of the two. </br>
+ * Description of a production is combination of descriptions of its symbols one level lower, </br>
+ * so analysing level <code>n</code> costs <code>n</code> passes over the productions. </br>
+ * Adaptive drawing uses it to replace subtree that is smaller than a pixel by single chord </br>
+ * from its start to its end, while turtle state after the subtree stays exact. </br>
+ * Subtrees whose push and pop commands do not pair up are never replaced. </br>
+ * Shape of symbol with weighted alternatives bounds shapes of all alternatives, </br>
+ * and can replace subtree only if all alternatives have exactly the same net effect.
+ *
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+final class SubtreeExtents {
+
+	/**
+	 * shape of a push command, combined specially
+	 */
+	private static final Shape PUSH = new Shape();
+	/**
+	 * shape of a pop command, combined specially
+	 */
+	private static final Shape POP = new Shape();
+
+	/**
+	 * axiom and productions with symbols replaced by their indices
+	 */
+	private final IndexedGrammar grammar;
+	/**
+	 * indices of symbols of every alternative production of every symbol, </br>
+	 * <code>null</code> for symbols without production
+	 */
+	private final int[][][] productions;
+	/**
+	 * shapes of every symbol by number of expansions, extended on demand
+	 */
+	private volatile Shape[][] shapes;
+
+	/**
+	 * Constructor that analyses productions and commands.
+	 *
+	 * @param axiom       axiom of the system
+	 * @param productions productions of the system
+	 * @param commands    commands of the system
+	 */
+	SubtreeExtents(String axiom, CharObjectDictionary productions, CharObjectDictionary commands) {
+		this.grammar = new IndexedGrammar(axiom, productions);
+		this.productions = grammar.productions();
+
+		Shape[] leaves = new Shape[grammar.size()];
+		for (int i = 0; i < leaves.length; i++) {
+			leaves[i] = leaf((Command) commands.get(grammar.symbol(i)));
+		}
+		this.shapes = new Shape[][] { leaves };
+	}
+
+	/**
+	 * Method replaces subtree of the symbol by chord if subtree is small enough. </br>
+	 * When subtree is replaced, chord is drawn with color the subtree starts drawing with, </br>
+	 * and turtle state is moved to the state after the subtree.
+	 *
+	 * @param symbol    symbol whose subtree is checked
+	 * @param remaining number of expansions of the symbol
+	 * @param state     current turtle state
+	 * @param limit     largest extent of replaced subtree in painter units
+	 * @param painter   <code>Painter</code> that draws chord
+	 * @return          <code>true</code> if subtree was replaced
+	 */
+	boolean replace(char symbol, int remaining, TurtleState state, double limit, Painter painter) {
+		Shape shape = shape(symbol, remaining);
+		if (shape == null || !shape.closed)
+			return false;
+		double length = state.getEffectiveLength();
+		if (shape.extent * length > limit)
+			return false;
+
+		Vector2D position = state.getCurrentPosition();
+		Vector2D direction = state.getDirection();
+		double x0 = position.getX();
+		double y0 = position.getY();
+		double dx = direction.getX();
+		double dy = direction.getY();
+		double x1 = x0 + length * (shape.endX * dx - shape.endY * dy);
+		double y1 = y0 + length * (shape.endX * dy + shape.endY * dx);
+
+		if (shape.draws) {
+			painter.drawLine(x0, y0, x1, y1, shape.drawColor == null ? state.getColor() : shape.drawColor, 1.0f);
+		}
+		position.set(x1, y1);
+		direction.rotateByCosSin(shape.cos, shape.sin);
+		state.setEffectiveLength(length * shape.scale);
+		if (shape.endColor != null) {
+			state.setColor(shape.endColor);
+		}
+		return true;
+	}
+
+	/**
+	 * Helper method that returns shape of the symbol expanded given number of times.
+	 *
+	 * @param symbol    the symbol
+	 * @param remaining number of expansions
+	 * @return          shape, or <code>null</code> for unknown symbol
+	 */
+	private Shape shape(char symbol, int remaining) {
+		int index = grammar.indexOf(symbol);
+		if (index < 0)
+			return null;
+		Shape[][] table = shapes;
+		if (remaining >= table.length) {
+			table = extend(remaining);
+		}
+		return table[remaining][index];
+	}
+
+	/**
+	 * Helper method that computes shapes up to the given number of expansions.
+	 *
+	 * @param remaining largest number of expansions
+	 * @return          extended table
+	 */
+	private synchronized Shape[][] extend(int remaining) {
+		Shape[][] table = shapes;
+		if (remaining < table.length)
+			return table;
+
+		int old = table.length;
+		table = Arrays.copyOf(table, remaining + 1);
+		for (int r = old; r <= remaining; r++) {
+			Shape[] next = new Shape[productions.length];
+			for (int i = 0; i < next.length; i++) {
+				if (productions[i] == null) {
+					next[i] = table[0][i];
+					continue;
+				}
+				next[i] = combine(productions[i][0], table[r - 1]);
+				for (int a = 1; a < productions[i].length; a++) {
+					next[i] = merge(next[i], combine(productions[i][a], table[r - 1]));
+				}
+			}
+			table[r] = next;
+		}
+		shapes = table;
+		return table;
+	}
+
+	/**
+	 * Helper method that combines shapes of the given symbols in order.
+	 *
+	 * @param symbols indices of symbols
+	 * @param lower   shapes of symbols one level lower
+	 * @return        combined shape
+	 */
+	private static Shape combine(int[] symbols, Shape[] lower) {
+		Shape result = new Shape();
+		result.closed = true;
+		result.cos = 1;
+		result.scale = 1;
+
+		double x = 0, y = 0, cos = 1, sin = 0, scale = 1;
+		Color color = null;
+		double[] stack = new double[0];
+		Color[] colors = new Color[0];
+		int depth = 0;
+
+		for (int symbol : symbols) {
+			Shape shape = lower[symbol];
+			if (shape == PUSH) {
+				if (5 * depth == stack.length) {
+					stack = Arrays.copyOf(stack, Math.max(10, 2 * stack.length));
+					colors = Arrays.copyOf(colors, stack.length / 5);
+				}
+				int base = 5 * depth;
+				stack[base] = x;
+				stack[base + 1] = y;
+				stack[base + 2] = cos;
+				stack[base + 3] = sin;
+				stack[base + 4] = scale;
+				colors[depth++] = color;
+				continue;
+			}
+			if (shape == POP) {
+				if (depth == 0) {
+					result.closed = false;
+					return result;
+				}
+				int base = 5 * --depth;
+				x = stack[base];
+				y = stack[base + 1];
+				cos = stack[base + 2];
+				sin = stack[base + 3];
+				scale = stack[base + 4];
+				color = colors[depth];
+				continue;
+			}
+			if (!shape.closed) {
+				result.closed = false;
+				return result;
+			}
+
+			if (shape.draws && !result.draws) {
+				result.draws = true;
+				result.drawColor = shape.drawColor != null ? shape.drawColor : color;
+			}
+			result.radius = Math.max(result.radius, Math.hypot(x, y) + scale * shape.radius);
+			result.include(x, y, scale, cos, sin, shape);
+			x += scale * (shape.endX * cos - shape.endY * sin);
+			y += scale * (shape.endX * sin + shape.endY * cos);
+			double nextCos = cos * shape.cos - sin * shape.sin;
+			sin = sin * shape.cos + cos * shape.sin;
+			cos = nextCos;
+			scale *= shape.scale;
+			if (shape.endColor != null) {
+				color = shape.endColor;
+			}
+		}
+		if (depth != 0) {
+			result.closed = false;
+			return result;
+		}
+
+		result.endX = x;
+		result.endY = y;
+		result.cos = cos;
+		result.sin = sin;
+		result.scale = scale;
+		result.endColor = color;
+		result.measure();
+		return result;
+	}
+
+	/**
+	 * Helper method that merges shapes of two alternatives into shape that bounds both.
+	 *
+	 * @param first  shape of the first alternative
+	 * @param second shape of the second alternative
+	 * @return       merged shape, not closed if alternatives have different net effect
+	 */
+	private static Shape merge(Shape first, Shape second) {
+		Shape result = new Shape();
+		result.closed = first.closed && second.closed
+				&& first.draws == second.draws
+				&& first.endX == second.endX && first.endY == second.endY
+				&& first.cos == second.cos && first.sin == second.sin
+				&& first.scale == second.scale
+				&& Objects.equals(first.drawColor, second.drawColor)
+				&& Objects.equals(first.endColor, second.endColor);
+		if (!result.closed)
+			return result;
+
+		result.draws = first.draws;
+		result.radius = Math.max(first.radius, second.radius);
+		result.minX = Math.min(first.minX, second.minX);
+		result.minY = Math.min(first.minY, second.minY);
+		result.maxX = Math.max(first.maxX, second.maxX);
+		result.maxY = Math.max(first.maxY, second.maxY);
+		result.endX = first.endX;
+		result.endY = first.endY;
+		result.cos = first.cos;
+		result.sin = first.sin;
+		result.scale = first.scale;
+		result.drawColor = first.drawColor;
+		result.endColor = first.endColor;
+		result.measure();
+		return result;
+	}
+
+	/**
+	 * Helper method that returns shape of a symbol that is not expanded.
+	 *
+	 * @param command command of the symbol, may be <code>null</code>
+	 * @return        shape of the command
+	 */
+	private static Shape leaf(Command command) {
+		if (command instanceof PushCommand)
+			return PUSH;
+		if (command instanceof PopCommand)
+			return POP;
+
+		Shape shape = new Shape();
+		shape.closed = true;
+		shape.cos = 1;
+		shape.scale = 1;
+		if (command instanceof DrawCommand) {
+			shape.endX = shape.radius = shape.maxX = ((DrawCommand) command).getStep();
+			shape.draws = true;
+		} else if (command instanceof SkipCommand) {
+			shape.endX = shape.radius = shape.maxX = ((SkipCommand) command).getStep();
+		} else if (command instanceof RotateCommand) {
+			double angle = Math.toRadians(((RotateCommand) command).getAngle());
+			shape.cos = Math.cos(angle);
+			shape.sin = Math.sin(angle);
+		} else if (command instanceof ScaleCommand) {
+			shape.scale = ((ScaleCommand) command).getFactor();
+		} else if (command instanceof ColorCommand) {
+			shape.endColor = ((ColorCommand) command).getColor();
+		} else if (command != null) {
+			// effect of unknown command can not be described
+			shape.closed = false;
+		}
+		shape.measure();
+		return shape;
+	}
+
+	/**
+	 * Shape of an expanded symbol in frame of the turtle before the symbol.
+	 */
+	private static final class Shape {
+
+		/**
+		 * flag that is <code>true</code> if push and pop commands pair up, so shape can replace the subtree
+		 */
+		private boolean closed;
+		/**
+		 * flag that is <code>true</code> if subtree draws at least one line
+		 */
+		private boolean draws;
+		/**
+		 * radius of circle around start that contains every reached point
+		 */
+		private double radius;
+		/**
+		 * smallest <i>x</i> of reached points
+		 */
+		private double minX;
+		/**
+		 * smallest <i>y</i> of reached points
+		 */
+		private double minY;
+		/**
+		 * largest <i>x</i> of reached points
+		 */
+		private double maxX;
+		/**
+		 * largest <i>y</i> of reached points
+		 */
+		private double maxY;
+		/**
+		 * upper bound of distance between any two reached points
+		 */
+		private double extent;
+		/**
+		 * <i>x</i> of position after the subtree
+		 */
+		private double endX;
+		/**
+		 * <i>y</i> of position after the subtree
+		 */
+		private double endY;
+		/**
+		 * cosine of net rotation
+		 */
+		private double cos;
+		/**
+		 * sine of net rotation
+		 */
+		private double sin;
+		/**
+		 * net factor of step length
+		 */
+		private double scale;
+		/**
+		 * color of the first drawn line, <code>null</code> if it is color before the subtree
+		 */
+		private Color drawColor;
+		/**
+		 * color after the subtree, <code>null</code> if color does not change
+		 */
+		private Color endColor;
+
+		/**
+		 * Method extends bounding box by box of the given shape placed at given position and orientation.
+		 *
+		 * @param x     <i>x</i> of start of the shape
+		 * @param y     <i>y</i> of start of the shape
+		 * @param scale step length of the shape
+		 * @param cos   cosine of orientation of the shape
+		 * @param sin   sine of orientation of the shape
+		 * @param shape shape that is placed
+		 */
+		void include(double x, double y, double scale, double cos, double sin, Shape shape) {
+			double[] xs = { shape.minX, shape.maxX };
+			double[] ys = { shape.minY, shape.maxY };
+			for (double cornerX : xs) {
+				for (double cornerY : ys) {
+					double px = x + scale * (cornerX * cos - cornerY * sin);
+					double py = y + scale * (cornerX * sin + cornerY * cos);
+					minX = Math.min(minX, px);
+					minY = Math.min(minY, py);
+					maxX = Math.max(maxX, px);
+					maxY = Math.max(maxY, py);
+				}
+			}
+		}
+
+		/**
+		 * Method computes extent from both bounds.
+		 */
+		void measure() {
+			extent = Math.min(2 * radius, Math.hypot(maxX - minX, maxY - minY));
+		}
+
+	}
+
+}
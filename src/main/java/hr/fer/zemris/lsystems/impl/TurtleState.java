@@ -58,6 +58,21 @@ public class TurtleState {
 		return new TurtleState(currentPosition.copy(), direction.copy(), color, effectiveLength);
 	}
 	
+	/**
+	 * Method that overwrites this <code>TurtleState</code> with values of the given state. </br>
+	 * Vectors of this state are updated in place, so nothing is allocated. </br>
+	 * Direction is normalized exactly like in <code>copy()</code>, so the result is bit for bit the same.
+	 * 
+	 * @param other <code>TurtleState</code> whose values are copied
+	 */
+	public void copyFrom(TurtleState other) {
+		currentPosition.set(other.currentPosition);
+		direction.set(other.direction);
+		direction.scale(1.0 / length(direction));
+		color = other.color;
+		effectiveLength = other.effectiveLength;
+	}
+	
 	/**
 	 * Helper method for getting unit length vector with the same direction as given vector.
 	 * 
@@ -65,11 +80,19 @@ public class TurtleState {
 	 * @return          <code>Vector2D</code> with unit length with the same direction as given vector
 	 */
 	private Vector2D getUnitLengthDirection(Vector2D direction) {
-		double x = direction.getX();
-		double y = direction.getY();
-		double vectorLength = Math.sqrt(x * x + y * y);
-		
-		return direction.scaled(1.0 / vectorLength);
+		return direction.scaled(1.0 / length(direction));
+	}
+	
+	/**
+	 * Helper method that calculates length of the vector.
+	 * 
+	 * @param vector <code>Vector2D</code> whose length is calculated
+	 * @return       length of the vector
+	 */
+	private static double length(Vector2D vector) {
+		double x = vector.getX();
+		double y = vector.getY();
+		return Math.sqrt(x * x + y * y);
 	}
 
 	/**
@@ -0,0 +1,114 @@
+package hr.fer.zemris.lsystems.impl.admission;
+
+import hr.fer.zemris.lsystems.impl.DrawMode;
+
+/**
+ * Result of checking render against <code>AdmissionPolicy</code>.
+ * 
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+public final class AdmissionDecision {
+
+	/**
+	 * Possible outcomes of the check.
+	 */
+	public enum Outcome {
+		/**
+		 * render fits all limits and runs as requested
+		 */
+		ACCEPTED,
+		/**
+		 * render runs at lower level
+		 */
+		CAPPED,
+		/**
+		 * render runs in <code>DrawMode.STREAMING</code>
+		 */
+		STREAMED,
+		/**
+		 * render is not run
+		 */
+		REJECTED
+	}
+	
+	/**
+	 * outcome of the check
+	 */
+	private final Outcome outcome;
+	/**
+	 * level that was requested
+	 */
+	private final int requestedLevel;
+	/**
+	 * level that is rendered
+	 */
+	private final int level;
+	/**
+	 * mode that is used
+	 */
+	private final DrawMode mode;
+	/**
+	 * estimate of the requested level
+	 */
+	private final Estimate estimate;
+	
+	/**
+	 * Constructor for creating new <code>AdmissionDecision</code>.
+	 * 
+	 * @param outcome        outcome of the check
+	 * @param requestedLevel level that was requested
+	 * @param level          level that is rendered
+	 * @param mode           mode that is used
+	 * @param estimate       estimate of the requested level
+	 */
+	public AdmissionDecision(Outcome outcome, int requestedLevel, int level, DrawMode mode, Estimate estimate) {
+		this.outcome = outcome;
+		this.requestedLevel = requestedLevel;
+		this.level = level;
+		this.mode = mode;
+		this.estimate = estimate;
+	}
+
+	/**
+	 * @return outcome of the check
+	 */
+	public Outcome getOutcome() {
+		return outcome;
+	}
+
+	/**
+	 * @return level that was requested
+	 */
+	public int getRequestedLevel() {
+		return requestedLevel;
+	}
+
+	/**
+	 * @return level that is rendered
+	 */
+	public int getLevel() {
+		return level;
+	}
+
+	/**
+	 * @return mode that is used
+	 */
+	public DrawMode getMode() {
+		return mode;
+	}
+
+	/**
+	 * @return estimate of the requested level
+	 */
+	public Estimate getEstimate() {
+		return estimate;
+	}
+	
+	@Override
+	public String toString() {
+		return outcome + " level " + requestedLevel + " -> " + level + " (" + mode + "), " + estimate;
+	}
+	
+}
@@ -0,0 +1,39 @@
+package hr.fer.zemris.lsystems.impl.admission;
+
+/**
+ * Exception that is thrown when render is rejected by <code>AdmissionPolicy</code>.
+ * 
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+public class AdmissionException extends IllegalArgumentException {
+
+	/**
+	 * serial number of the exception
+	 */
+	private static final long serialVersionUID = 1L;
+	
+	/**
+	 * decision that rejected render
+	 */
+	private final transient AdmissionDecision decision;
+	
+	/**
+	 * Constructor for creating new <code>AdmissionException</code>.
+	 * 
+	 * @param decision decision that rejected render
+	 */
+	public AdmissionException(AdmissionDecision decision) {
+		super("Render rejected: " + decision.getEstimate());
+		this.decision = decision;
+	}
+	
+	/**
+	 * @return decision that rejected render
+	 */
+	public AdmissionDecision getDecision() {
+		return decision;
+	}
+	
+}
@@ -0,0 +1,217 @@
+package hr.fer.zemris.lsystems.impl.admission;
+
+import hr.fer.zemris.lsystems.impl.DrawMode;
+
+/**
+ * Limits that render of <code>LSystem</code> must fit into, and action taken when it does not. </br>
+ * Before any work is done, render is estimated with <code>GrowthEstimator</code>. </br>
+ * If estimate goes over any of the limits, policy either rejects render, </br>
+ * lowers its level to the highest one that fits, or switches drawing to </br>
+ * <code>DrawMode.STREAMING</code> whose memory does not depend on length of generated string. </br>
+ * All limits are unbounded by default. </br>
+ * Policy may be changed while systems render on other threads: limits are volatile </br>
+ * and every decision reads all of them once, so it never mixes old and new settings of one field.
+ * 
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+public class AdmissionPolicy {
+
+	/**
+	 * Actions that can be taken when render goes over limits.
+	 */
+	public enum Action {
+		/**
+		 * render is rejected with <code>AdmissionException</code>
+		 */
+		REJECT,
+		/**
+		 * render runs at the highest level that fits all limits
+		 */
+		CAP_LEVEL,
+		/**
+		 * drawing runs in <code>DrawMode.STREAMING</code> if that fits all limits, otherwise it is rejected; </br>
+		 * generating can not be streamed, so it is rejected
+		 */
+		STREAM
+	}
+	
+	/**
+	 * largest number of symbols of materialized string
+	 */
+	private volatile double maxSymbols = Double.POSITIVE_INFINITY;
+	/**
+	 * largest number of lines sent to painter
+	 */
+	private volatile double maxSegments = Double.POSITIVE_INFINITY;
+	/**
+	 * largest peak memory in bytes
+	 */
+	private volatile double maxMemoryBytes = Double.POSITIVE_INFINITY;
+	/**
+	 * largest time in nanoseconds
+	 */
+	private volatile double maxNanos = Double.POSITIVE_INFINITY;
+	/**
+	 * action taken when render goes over limits
+	 */
+	private volatile Action action = Action.REJECT;
+	/**
+	 * cost of one symbol, <code>null</code> for default calibration
+	 */
+	private volatile Calibration calibration;
+	
+	/**
+	 * Method sets largest number of symbols of generated string. </br>
+	 * Limit does not apply to streamed and adaptive drawing, which never hold the whole string.
+	 * It returns <code>this</code> object.
+	 * 
+	 * @param maxSymbols the limit
+	 * @return           <code>this</code> object
+	 */
+	public AdmissionPolicy setMaxSymbols(double maxSymbols) {
+		this.maxSymbols = maxSymbols;
+		return this;
+	}
+	
+	/**
+	 * Method sets largest number of lines sent to painter.
+	 * It returns <code>this</code> object.
+	 * 
+	 * @param maxSegments the limit
+	 * @return            <code>this</code> object
+	 */
+	public AdmissionPolicy setMaxSegments(double maxSegments) {
+		this.maxSegments = maxSegments;
+		return this;
+	}
+	
+	/**
+	 * Method sets largest peak memory of render.
+	 * It returns <code>this</code> object.
+	 * 
+	 * @param maxMemoryBytes the limit in bytes
+	 * @return               <code>this</code> object
+	 */
+	public AdmissionPolicy setMaxMemoryBytes(double maxMemoryBytes) {
+		this.maxMemoryBytes = maxMemoryBytes;
+		return this;
+	}
+	
+	/**
+	 * Method sets largest time of render.
+	 * It returns <code>this</code> object.
+	 * 
+	 * @param maxMillis the limit in milliseconds
+	 * @return          <code>this</code> object
+	 */
+	public AdmissionPolicy setMaxMillis(double maxMillis) {
+		this.maxNanos = maxMillis * 1e6;
+		return this;
+	}
+	
+	/**
+	 * Method sets action taken when render goes over limits.
+	 * It returns <code>this</code> object.
+	 * 
+	 * @param action the action
+	 * @return       <code>this</code> object
+	 * @throws       <code>NullPointerException</code> if action is <code>null</code>
+	 */
+	public AdmissionPolicy setAction(Action action) {
+		if (action == null)
+			throw new NullPointerException("Action must not be null.");
+		this.action = action;
+		return this;
+	}
+	
+	/**
+	 * Method sets cost of one symbol used for estimating time.
+	 * It returns <code>this</code> object.
+	 * 
+	 * @param calibration the calibration, or <code>null</code> for calibration measured on this JVM
+	 * @return            <code>this</code> object
+	 */
+	public AdmissionPolicy setCalibration(Calibration calibration) {
+		this.calibration = calibration;
+		return this;
+	}
+	
+	/**
+	 * Method checks render against the limits.
+	 * 
+	 * @param estimator     <code>GrowthEstimator</code> of the system
+	 * @param level         requested level
+	 * @param mode          requested mode
+	 * @param materializing <code>true</code> if generated string is returned, so render can not be streamed
+	 * @return              new <code>AdmissionDecision</code>
+	 */
+	public AdmissionDecision decide(GrowthEstimator estimator, int level, DrawMode mode, boolean materializing) {
+		return snapshot().decideWith(estimator, level, mode, materializing);
+	}
+	
+	/**
+	 * Helper method that copies current settings, so one decision uses consistent limits.
+	 * 
+	 * @return new <code>AdmissionPolicy</code> with the same settings
+	 */
+	private AdmissionPolicy snapshot() {
+		AdmissionPolicy copy = new AdmissionPolicy();
+		copy.maxSymbols = maxSymbols;
+		copy.maxSegments = maxSegments;
+		copy.maxMemoryBytes = maxMemoryBytes;
+		copy.maxNanos = maxNanos;
+		copy.action = action;
+		copy.calibration = calibration;
+		return copy;
+	}
+	
+	/**
+	 * Helper method that checks render against the limits of this policy, which is not shared.
+	 * 
+	 * @param estimator     <code>GrowthEstimator</code> of the system
+	 * @param level         requested level
+	 * @param mode          requested mode
+	 * @param materializing <code>true</code> if generated string is returned
+	 * @return              new <code>AdmissionDecision</code>
+	 */
+	private AdmissionDecision decideWith(GrowthEstimator estimator, int level, DrawMode mode, boolean materializing) {
+		Calibration cost = calibration == null ? Calibration.defaults() : calibration;
+		Estimate estimate = estimator.estimate(level, cost);
+		if (fits(estimate, mode))
+			return new AdmissionDecision(AdmissionDecision.Outcome.ACCEPTED, level, level, mode, estimate);
+		
+		switch (action) {
+		case CAP_LEVEL:
+			for (int lower = level - 1; lower >= 0; lower--) {
+				if (fits(estimator.estimate(lower, cost), mode))
+					return new AdmissionDecision(AdmissionDecision.Outcome.CAPPED, level, lower, mode, estimate);
+			}
+			break;
+		case STREAM:
+			if (!materializing && fits(estimate, DrawMode.STREAMING))
+				return new AdmissionDecision(AdmissionDecision.Outcome.STREAMED, level, level,
+						DrawMode.STREAMING, estimate);
+			break;
+		default:
+			break;
+		}
+		return new AdmissionDecision(AdmissionDecision.Outcome.REJECTED, level, level, mode, estimate);
+	}
+	
+	/**
+	 * Helper method that checks if estimate fits all limits.
+	 * 
+	 * @param estimate <code>Estimate</code> that is checked
+	 * @param mode     mode that would be used
+	 * @return         <code>true</code> if estimate fits
+	 */
+	private boolean fits(Estimate estimate, DrawMode mode) {
+		return (mode == DrawMode.STREAMING || mode == DrawMode.ADAPTIVE || estimate.getSymbols() <= maxSymbols)
+				&& estimate.getSegments() <= maxSegments
+				&& estimate.getPeakBytes(mode) <= maxMemoryBytes
+				&& estimate.getNanos() <= maxNanos;
+	}
+	
+}
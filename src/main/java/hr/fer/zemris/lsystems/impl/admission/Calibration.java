@@ -0,0 +1,118 @@
+package hr.fer.zemris.lsystems.impl.admission;
+
+import hr.fer.zemris.lsystems.LSystem;
+import hr.fer.zemris.lsystems.impl.DrawMode;
+import hr.fer.zemris.lsystems.impl.LSystemBuilderImpl;
+
+/**
+ * Cost of one symbol that is used for turning estimated symbol counts into time. </br>
+ * Default calibration is measured once per JVM on a small reference grammar; </br>
+ * it is measured before the code is fully compiled, so it overestimates rather than underestimates.
+ * 
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+public final class Calibration {
+
+	/**
+	 * time of rewriting one symbol
+	 */
+	private final double generateNanosPerSymbol;
+	/**
+	 * time of interpreting one symbol
+	 */
+	private final double drawNanosPerSymbol;
+	
+	/**
+	 * Constructor for creating new <code>Calibration</code>.
+	 * 
+	 * @param generateNanosPerSymbol time in nanoseconds of rewriting one symbol
+	 * @param drawNanosPerSymbol     time in nanoseconds of interpreting one symbol
+	 * @throws <code>IllegalArgumentException</code> if any of the times is negative
+	 */
+	public Calibration(double generateNanosPerSymbol, double drawNanosPerSymbol) {
+		if (generateNanosPerSymbol < 0 || drawNanosPerSymbol < 0)
+			throw new IllegalArgumentException("Time per symbol must not be negative.");
+		
+		this.generateNanosPerSymbol = generateNanosPerSymbol;
+		this.drawNanosPerSymbol = drawNanosPerSymbol;
+	}
+	
+	/**
+	 * Method returns calibration measured on this JVM. It is measured on first call.
+	 * 
+	 * @return default <code>Calibration</code>
+	 */
+	public static Calibration defaults() {
+		return Holder.DEFAULTS;
+	}
+	
+	/**
+	 * Method measures cost of generating and drawing reference grammar.
+	 * 
+	 * @return measured <code>Calibration</code>
+	 */
+	public static Calibration measure() {
+		LSystemBuilderImpl builder = new LSystemBuilderImpl();
+		builder.configureFromText(new String[] {
+				"command F draw 1",
+				"command + rotate 25.7",
+				"command - rotate -25.7",
+				"command [ push",
+				"command ] pop",
+				"axiom F",
+				"production F F[+F]F[-F]F" });
+		// materialized drawing generates the whole string first, so its generation time can be subtracted
+		builder.setDrawMode(DrawMode.MATERIALIZED);
+		LSystem system = builder.build();
+		int level = 5;
+		
+		long rewritten = 0;
+		for (int l = 0; l < level; l++) {
+			rewritten += system.generate(l).length();
+		}
+		long symbols = system.generate(level).length();
+		
+		long bestGenerate = Long.MAX_VALUE;
+		long bestDraw = Long.MAX_VALUE;
+		for (int i = 0; i < 3; i++) {
+			long start = System.nanoTime();
+			system.generate(level);
+			long generated = System.nanoTime();
+			system.draw(level, (x0, y0, x1, y1, color, size) -> {});
+			long drawn = System.nanoTime();
+			
+			bestGenerate = Math.min(bestGenerate, generated - start);
+			bestDraw = Math.min(bestDraw, Math.max(0, drawn - generated - (generated - start)));
+		}
+		return new Calibration((double) bestGenerate / rewritten, (double) bestDraw / symbols);
+	}
+
+	/**
+	 * @return time in nanoseconds of rewriting one symbol
+	 */
+	public double getGenerateNanosPerSymbol() {
+		return generateNanosPerSymbol;
+	}
+
+	/**
+	 * @return time in nanoseconds of interpreting one symbol
+	 */
+	public double getDrawNanosPerSymbol() {
+		return drawNanosPerSymbol;
+	}
+	
+	/**
+	 * Holder of default calibration, so it is measured only when it is first needed.
+	 */
+	private static final class Holder {
+		
+		/**
+		 * calibration measured on this JVM
+		 */
+		private static final Calibration DEFAULTS = measure();
+		
+	}
+	
+}
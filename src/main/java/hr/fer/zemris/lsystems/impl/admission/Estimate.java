@@ -0,0 +1,132 @@
+package hr.fer.zemris.lsystems.impl.admission;
+
+import hr.fer.zemris.lsystems.impl.DrawMode;
+
+/**
+ * Predicted cost of rendering one level of <code>LSystem</code>. </br>
+ * Counts are <code>double</code> values, so they do not overflow for absurdly deep levels.
+ * 
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+public final class Estimate {
+
+	/**
+	 * level that is estimated
+	 */
+	private final int level;
+	/**
+	 * number of symbols of the generated string
+	 */
+	private final double symbols;
+	/**
+	 * number of symbols rewritten while generating
+	 */
+	private final double rewrittenSymbols;
+	/**
+	 * number of lines sent to painter
+	 */
+	private final double segments;
+	/**
+	 * peak memory when string is materialized
+	 */
+	private final double materializedBytes;
+	/**
+	 * peak memory when last rewriting is fused with interpretation
+	 */
+	private final double fusedBytes;
+	/**
+	 * peak memory when symbols are streamed
+	 */
+	private final double streamingBytes;
+	/**
+	 * time of generating and drawing
+	 */
+	private final double nanos;
+	
+	/**
+	 * Constructor for creating new <code>Estimate</code>.
+	 * 
+	 * @param level             level that is estimated
+	 * @param symbols           number of symbols of the generated string
+	 * @param rewrittenSymbols  number of symbols rewritten while generating
+	 * @param segments          number of lines sent to painter
+	 * @param materializedBytes peak memory in bytes when string is materialized
+	 * @param fusedBytes        peak memory in bytes when last rewriting is fused with interpretation
+	 * @param streamingBytes    peak memory in bytes when symbols are streamed
+	 * @param nanos             time in nanoseconds of generating and drawing
+	 */
+	public Estimate(int level, double symbols, double rewrittenSymbols, double segments,
+			double materializedBytes, double fusedBytes, double streamingBytes, double nanos) {
+		this.level = level;
+		this.symbols = symbols;
+		this.rewrittenSymbols = rewrittenSymbols;
+		this.segments = segments;
+		this.materializedBytes = materializedBytes;
+		this.fusedBytes = fusedBytes;
+		this.streamingBytes = streamingBytes;
+		this.nanos = nanos;
+	}
+
+	/**
+	 * @return level that is estimated
+	 */
+	public int getLevel() {
+		return level;
+	}
+
+	/**
+	 * @return number of symbols of the generated string
+	 */
+	public double getSymbols() {
+		return symbols;
+	}
+
+	/**
+	 * @return number of symbols rewritten while generating
+	 */
+	public double getRewrittenSymbols() {
+		return rewrittenSymbols;
+	}
+
+	/**
+	 * @return number of lines sent to painter
+	 */
+	public double getSegments() {
+		return segments;
+	}
+	
+	/**
+	 * Method returns peak memory needed by the given mode.
+	 * 
+	 * @param mode <code>DrawMode</code> that is used
+	 * @return     peak memory in bytes
+	 */
+	public double getPeakBytes(DrawMode mode) {
+		switch (mode) {
+		case STREAMING:
+		case ADAPTIVE:
+			return streamingBytes;
+		case FUSED:
+			return fusedBytes;
+		default:
+			return materializedBytes;
+		}
+	}
+
+	/**
+	 * @return time in nanoseconds of generating and drawing
+	 */
+	public double getNanos() {
+		return nanos;
+	}
+	
+	@Override
+	public String toString() {
+		return String.format("level %d: %.3g symbols, %.3g segments, %.3g B materialized, %.3g B fused, "
+				+ "%.3g B streaming, %.3g ms", level, symbols, segments, materializedBytes, fusedBytes,
+				streamingBytes, nanos / 1e6);
+	}
+	
+}
@@ -0,0 +1,197 @@
+package hr.fer.zemris.lsystems.impl.admission;
+
+import java.util.Arrays;
+
+import hr.fer.zemris.java.custom.collections.CharIntDictionary;
+import hr.fer.zemris.java.custom.collections.CharObjectDictionary;
+import hr.fer.zemris.java.custom.collections.CharObjectProcessor;
+import hr.fer.zemris.lsystems.impl.StochasticProduction;
+import hr.fer.zemris.lsystems.impl.commands.DrawCommand;
+
+/**
+ * Class that predicts size of generated <code>LSystem</code> without generating it. </br>
+ * Every symbol of the alphabet is rewritten into a fixed multiset of symbols, </br>
+ * so number of occurrences of each symbol at level <code>n + 1</code> is </br>
+ * vector of occurrences at level <code>n</code> multiplied by growth matrix of productions. </br>
+ * Estimating level <code>n</code> costs <code>n</code> multiplications of a small matrix, </br>
+ * independently of how long the generated string is. </br>
+ * For symbol with weighted alternatives every element of the matrix is the largest count </br>
+ * over its alternatives, so estimate is upper bound for every choice.
+ * 
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+public final class GrowthEstimator {
+
+	/**
+	 * bytes used by one frame of depth-first expansion
+	 */
+	private static final int STREAMING_FRAME_BYTES = 128;
+	
+	/**
+	 * symbols of the alphabet
+	 */
+	private final char[] alphabet;
+	/**
+	 * element <code>[i][j]</code> is number of occurrences of symbol <code>j</code> in production of symbol <code>i</code>
+	 */
+	private final double[][] growth;
+	/**
+	 * number of occurrences of every symbol in axiom
+	 */
+	private final double[] axiomCounts;
+	/**
+	 * <code>true</code> for symbols whose command draws a line
+	 */
+	private final boolean[] drawing;
+	/**
+	 * bytes per character of generated string, including its key if system is stochastic
+	 */
+	private final int bytesPerChar;
+	
+	/**
+	 * Constructor for creating new <code>GrowthEstimator</code>.
+	 * 
+	 * @param axiom       axiom of the system
+	 * @param productions productions of the system
+	 * @param commands    commands of the system
+	 */
+	public GrowthEstimator(String axiom, CharObjectDictionary productions, CharObjectDictionary commands) {
+		CharIntDictionary indices = new CharIntDictionary();
+		StringBuilder symbols = new StringBuilder();
+		addSymbols(axiom, indices, symbols);
+		boolean[] stochastic = new boolean[1];
+		productions.forEach(new CharObjectProcessor() {
+			@Override
+			public void process(char key, Object value) {
+				addSymbols(String.valueOf(key), indices, symbols);
+				for (String alternative : StochasticProduction.alternatives(value)) {
+					addSymbols(alternative, indices, symbols);
+				}
+				stochastic[0] |= value instanceof StochasticProduction;
+			}
+		});
+		
+		alphabet = symbols.toString().toCharArray();
+		int size = alphabet.length;
+		growth = new double[size][size];
+		drawing = new boolean[size];
+		int maxChar = 0;
+		for (int i = 0; i < size; i++) {
+			String[] alternatives = StochasticProduction.alternatives(productions.get(alphabet[i]));
+			if (alternatives == null) {
+				growth[i][i] = 1;
+			} else {
+				double[] counts = new double[size];
+				for (String alternative : alternatives) {
+					Arrays.fill(counts, 0);
+					for (int p = 0; p < alternative.length(); p++) {
+						counts[indices.get(alternative.charAt(p))]++;
+					}
+					for (int j = 0; j < size; j++) {
+						growth[i][j] = Math.max(growth[i][j], counts[j]);
+					}
+				}
+			}
+			drawing[i] = commands.get(alphabet[i]) instanceof DrawCommand;
+			maxChar = Math.max(maxChar, alphabet[i]);
+		}
+		
+		axiomCounts = new double[size];
+		for (int i = 0; i < axiom.length(); i++) {
+			axiomCounts[indices.get(axiom.charAt(i))]++;
+		}
+		// stochastic generation keeps long key of every character
+		bytesPerChar = (maxChar < 256 ? 1 : 2) + (stochastic[0] ? Long.BYTES : 0);
+	}
+	
+	/**
+	 * Method estimates cost of the given level.
+	 * 
+	 * @param level       level that is estimated
+	 * @param calibration <code>Calibration</code> used for estimating time
+	 * @return            new <code>Estimate</code>
+	 */
+	public Estimate estimate(int level, Calibration calibration) {
+		double[] counts = axiomCounts.clone();
+		double previousLength = 0;
+		double beforePreviousLength = 0;
+		double rewritten = 0;
+		for (int l = 0; l < level; l++) {
+			beforePreviousLength = previousLength;
+			previousLength = sum(counts);
+			rewritten += previousLength;
+			counts = multiply(counts);
+		}
+		
+		double symbols = sum(counts);
+		double segments = 0;
+		for (int i = 0; i < counts.length; i++) {
+			if (drawing[i])
+				segments += counts[i];
+		}
+		
+		// previous string, builder that may grow to twice the result, and final copy of the builder
+		double materializedBytes = bytesPerChar * (previousLength + 3 * symbols);
+		// fused drawing stops one level earlier
+		double fusedBytes = level == 0
+				? bytesPerChar * symbols
+				: bytesPerChar * (beforePreviousLength + 3 * previousLength);
+		double streamingBytes = (double) STREAMING_FRAME_BYTES * (level + 1);
+		double nanos = rewritten * calibration.getGenerateNanosPerSymbol()
+				+ symbols * calibration.getDrawNanosPerSymbol();
+		return new Estimate(level, symbols, rewritten, segments, materializedBytes, fusedBytes, streamingBytes, nanos);
+	}
+	
+	/**
+	 * Helper method that multiplies row vector with growth matrix.
+	 * 
+	 * @param counts number of occurrences of every symbol
+	 * @return       number of occurrences after one rewriting
+	 */
+	private double[] multiply(double[] counts) {
+		double[] result = new double[counts.length];
+		for (int i = 0; i < counts.length; i++) {
+			if (counts[i] == 0)
+				continue;
+			double[] row = growth[i];
+			for (int j = 0; j < row.length; j++) {
+				result[j] += counts[i] * row[j];
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * Helper method that sums all elements.
+	 * 
+	 * @param values elements that are summed
+	 * @return       the sum
+	 */
+	private static double sum(double[] values) {
+		double sum = 0;
+		for (double value : values) {
+			sum += value;
+		}
+		return sum;
+	}
+	
+	/**
+	 * Helper method that adds symbols that are not yet in the alphabet.
+	 * 
+	 * @param text    symbols that are added
+	 * @param indices maps symbols to their indices
+	 * @param symbols alphabet built so far
+	 */
+	private static void addSymbols(String text, CharIntDictionary indices, StringBuilder symbols) {
+		for (int i = 0; i < text.length(); i++) {
+			char symbol = text.charAt(i);
+			if (!indices.containsKey(symbol)) {
+				indices.put(symbol, symbols.length());
+				symbols.append(symbol);
+			}
+		}
+	}
+	
+}
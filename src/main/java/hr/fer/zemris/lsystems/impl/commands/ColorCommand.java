@@ -19,7 +19,7 @@ public class ColorCommand implements Command {
 	/**
 	 * color used for setting <code>TurtleState</code> color
 	 */
-	private Color color;
+	private final Color color;
 	
 	/**
 	 * Constructor for creating new <code>ColorCommand</code>.
@@ -31,6 +31,15 @@ public class ColorCommand implements Command {
 		this.color = Objects.requireNonNull(color);
 	}
 	
+	/**
+	 * Method returns color that command sets.
+	 * 
+	 * @return <code>Color</code> color that command sets
+	 */
+	public Color getColor() {
+		return color;
+	}
+	
 	@Override
 	public void execute(Context ctx, Painter painter) {
 		ctx.getCurrentState().setColor(color);
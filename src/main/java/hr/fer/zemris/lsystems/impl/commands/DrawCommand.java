@@ -5,6 +5,7 @@ import java.awt.Color;
 import hr.fer.zemris.lsystems.Painter;
 import hr.fer.zemris.lsystems.impl.Command;
 import hr.fer.zemris.lsystems.impl.Context;
+import hr.fer.zemris.lsystems.impl.TurtleState;
 import hr.fer.zemris.math.Vector2D;
 
 /**
@@ -19,7 +20,7 @@ public class DrawCommand implements Command {
 	/**
 	 * number that represents how many of turtle's effective length turtle moves
 	 */
-	private double step;
+	private final double step;
 	
 	/**
 	 * Constructor for creating new <code>DrawCommand</code> object.
@@ -34,21 +35,29 @@ public class DrawCommand implements Command {
 		this.step = step;
 	}
 	
+	/**
+	 * Method returns how many of turtle's effective length turtle moves.
+	 * 
+	 * @return <code>double</code> how many of turtle's effective length turtle moves
+	 */
+	public double getStep() {
+		return step;
+	}
+	
 	@Override
 	public void execute(Context ctx, Painter painter) {
-		Vector2D oldPosition = ctx.getCurrentState().getCurrentPosition();
-		double scaler = ctx.getCurrentState().getEffectiveLength() * step;
-		Vector2D translator = ctx.getCurrentState().getDirection().scaled(scaler);
+		TurtleState state = ctx.getCurrentState();
+		Vector2D position = state.getCurrentPosition();
+		double oldX = position.getX();
+		double oldY = position.getY();
+		position.translateScaled(state.getDirection(), state.getEffectiveLength() * step);
 		
-		Vector2D newPosition = oldPosition.translated(translator);
-		Color color = ctx.getCurrentState().getColor();
+		Color color = state.getColor();
 		float size = 1.0f;
 		
-		painter.drawLine(oldPosition.getX(), oldPosition.getY(), 
-						 newPosition.getX(), newPosition.getY(), 
+		painter.drawLine(oldX, oldY, 
+						 position.getX(), position.getY(), 
 						 color, size); 
-		
-		ctx.getCurrentState().getCurrentPosition().translate(translator);
 	}
 	
 }
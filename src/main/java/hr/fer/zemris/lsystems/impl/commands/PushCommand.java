@@ -15,7 +15,7 @@ public class PushCommand implements Command {
 
 	@Override
 	public void execute(Context ctx, Painter painter) {
-		ctx.pushState(ctx.getCurrentState().copy());
+		ctx.pushCopy();
 	}
 
 }
@@ -16,7 +16,15 @@ public class RotateCommand implements Command {
 	/**
 	 * represents angle that adjusts turtle direction angle
 	 */
-	private double angle;
+	private final double angle;
+	/**
+	 * cosine of the angle, calculated once when command is created
+	 */
+	private final double cos;
+	/**
+	 * sine of the angle, calculated once when command is created
+	 */
+	private final double sin;
 	
 	/**
 	 * Constructor for creating new <code>RotateCommand</code> object.
@@ -25,11 +33,23 @@ public class RotateCommand implements Command {
 	 */
 	public RotateCommand(double angle) {
 		this.angle = angle;
+		double angleInRad = angle * Math.PI / 180;
+		this.cos = Math.cos(angleInRad);
+		this.sin = Math.sin(angleInRad);
+	}
+	
+	/**
+	 * Method returns angle in degrees by which turtle direction is rotated.
+	 * 
+	 * @return <code>double</code> angle in degrees by which turtle direction is rotated
+	 */
+	public double getAngle() {
+		return angle;
 	}
 	
 	@Override
 	public void execute(Context ctx, Painter painter) {
-		ctx.getCurrentState().getDirection().rotate(angle);
+		ctx.getCurrentState().getDirection().rotateByCosSin(cos, sin);
 	}
 
 }
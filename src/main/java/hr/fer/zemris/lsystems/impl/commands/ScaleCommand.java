@@ -16,7 +16,7 @@ public class ScaleCommand implements Command {
 	/**
 	 * factor used for scaling
 	 */
-	private double factor;
+	private final double factor;
 	
 	/**
 	 * Constructor that creates new <code>ScaleCommand</code> object
@@ -31,6 +31,15 @@ public class ScaleCommand implements Command {
 		this.factor = factor;
 	}
 	
+	/**
+	 * Method returns factor by which effective length is scaled.
+	 * 
+	 * @return <code>double</code> factor by which effective length is scaled
+	 */
+	public double getFactor() {
+		return factor;
+	}
+	
 	@Override
 	public void execute(Context ctx, Painter painter) {
 		double newEffectiveLength = ctx.getCurrentState().getEffectiveLength() * factor;
@@ -3,7 +3,7 @@ package hr.fer.zemris.lsystems.impl.commands;
 import hr.fer.zemris.lsystems.Painter;
 import hr.fer.zemris.lsystems.impl.Command;
 import hr.fer.zemris.lsystems.impl.Context;
-import hr.fer.zemris.math.Vector2D;
+import hr.fer.zemris.lsystems.impl.TurtleState;
 
 /**
  * Class represents command that is used for moving turtle without drawing line
@@ -17,7 +17,7 @@ public class SkipCommand implements Command {
 	/**
 	 * number that represents how many of turtle's effective length turtle moves
 	 */
-	private double step;
+	private final double step;
 	
 	/**
 	 * Constructor that creates new <code>SkipCommand</code> object.
@@ -32,11 +32,19 @@ public class SkipCommand implements Command {
 		this.step = step;
 	}
 	
+	/**
+	 * Method returns how many of turtle's effective length turtle moves.
+	 * 
+	 * @return <code>double</code> how many of turtle's effective length turtle moves
+	 */
+	public double getStep() {
+		return step;
+	}
+	
 	@Override
 	public void execute(Context ctx, Painter painter) {
-		double scaler = ctx.getCurrentState().getEffectiveLength() * step;
-		Vector2D translator = ctx.getCurrentState().getDirection().scaled(scaler);
-		ctx.getCurrentState().getCurrentPosition().translate(translator);
+		TurtleState state = ctx.getCurrentState();
+		state.getCurrentPosition().translateScaled(state.getDirection(), state.getEffectiveLength() * step);
 	}
 
 	
@@ -0,0 +1,69 @@
+package hr.fer.zemris.lsystems.impl.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Class that reads number of bytes allocated by the current thread. </br>
+ * It relies on <code>com.sun.management.ThreadMXBean</code>, which is available on HotSpot; </br>
+ * on other virtual machines every reading is <code>-1</code>.
+ * 
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+public final class AllocationCounter {
+
+	/**
+	 * bean that measures allocations, or <code>null</code> if measuring is not supported
+	 */
+	private static final com.sun.management.ThreadMXBean BEAN = createBean();
+	
+	/**
+	 * Private constructor, class offers only static methods.
+	 */
+	private AllocationCounter() {
+	}
+	
+	/**
+	 * Method returns total number of bytes allocated by the current thread so far. </br>
+	 * Only difference of two readings is meaningful.
+	 * 
+	 * @return number of allocated bytes, or <code>-1</code> if measuring is not supported
+	 */
+	public static long currentThread() {
+		return BEAN == null ? -1 : BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+	
+	/**
+	 * Method checks if allocations can be measured.
+	 * 
+	 * @return <code>true</code> if readings are meaningful
+	 */
+	public static boolean isSupported() {
+		return BEAN != null;
+	}
+	
+	/**
+	 * Helper method that finds bean that measures allocations and enables measuring.
+	 * 
+	 * @return the bean, or <code>null</code> if it is not available
+	 */
+	private static com.sun.management.ThreadMXBean createBean() {
+		try {
+			ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+			if (!(bean instanceof com.sun.management.ThreadMXBean))
+				return null;
+			
+			com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+			if (!sunBean.isThreadAllocatedMemorySupported())
+				return null;
+			if (!sunBean.isThreadAllocatedMemoryEnabled())
+				sunBean.setThreadAllocatedMemoryEnabled(true);
+			return sunBean;
+		} catch (LinkageError | UnsupportedOperationException | SecurityException ex) {
+			return null;
+		}
+	}
+	
+}
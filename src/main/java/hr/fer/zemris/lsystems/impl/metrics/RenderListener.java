@@ -0,0 +1,32 @@
+package hr.fer.zemris.lsystems.impl.metrics;
+
+import hr.fer.zemris.lsystems.impl.admission.AdmissionDecision;
+
+/**
+ * Listener that is notified after every render of instrumented <code>LSystem</code>. </br>
+ * Both <code>draw</code> and <code>generate</code> are renders, generation reports no segments. </br>
+ * It is called on the thread that rendered, so it should return quickly.
+ * 
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+public interface RenderListener {
+
+	/**
+	 * Method called when render is finished.
+	 * 
+	 * @param stats <code>RenderStats</code> measured during the render
+	 */
+	void renderFinished(RenderStats stats);
+	
+	/**
+	 * Method called when render was checked by admission policy, before any work is done. </br>
+	 * Default implementation does nothing.
+	 * 
+	 * @param decision <code>AdmissionDecision</code> of the policy
+	 */
+	default void admissionDecided(AdmissionDecision decision) {
+	}
+	
+}
@@ -0,0 +1,274 @@
+package hr.fer.zemris.lsystems.impl.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import hr.fer.zemris.java.custom.collections.ArrayIndexedCollection;
+import hr.fer.zemris.java.custom.collections.ConcurrentDictionary;
+import hr.fer.zemris.java.custom.collections.Processor;
+import hr.fer.zemris.lsystems.impl.admission.AdmissionDecision;
+
+/**
+ * <code>RenderListener</code> that accumulates measurements of all renders. </br>
+ * Counters are <code>LongAdder</code> objects, so renders on many threads </br>
+ * update them without contending on a single memory location. </br>
+ * Accumulated values can be read directly or through JMX after calling <code>register</code>.
+ * 
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+public class RenderMetrics implements RenderListener, RenderMetricsMBean {
+
+	/**
+	 * number of levels whose generation time is recorded separately
+	 */
+	public static final int MAX_LEVELS = 32;
+	
+	/**
+	 * number of finished renders
+	 */
+	private final LongAdder renders = new LongAdder();
+	/**
+	 * generation time of each level, last element collects all deeper levels
+	 */
+	private final LongAdder[] levelNanos = new LongAdder[MAX_LEVELS];
+	/**
+	 * time spent executing commands
+	 */
+	private final LongAdder interpretationNanos = new LongAdder();
+	/**
+	 * number of symbols rewritten during generation
+	 */
+	private final LongAdder symbolsExpanded = new LongAdder();
+	/**
+	 * number of command executions of all types
+	 */
+	private final LongAdder commandExecutions = new LongAdder();
+	/**
+	 * maps command type names to <code>LongAdder</code> of their executions
+	 */
+	private final ConcurrentDictionary commandTypes = new ConcurrentDictionary();
+	/**
+	 * number of lines sent to painters
+	 */
+	private final LongAdder segments = new LongAdder();
+	/**
+	 * largest <code>Context</code> depth
+	 */
+	private final LongAccumulator peakDepth = new LongAccumulator(Math::max, 0);
+	/**
+	 * number of bytes allocated by renders
+	 */
+	private final LongAdder allocatedBytes = new LongAdder();
+	/**
+	 * number of admission decisions of each outcome, indexed by ordinal of the outcome
+	 */
+	private final LongAdder[] admissions = new LongAdder[AdmissionDecision.Outcome.values().length];
+	
+	/**
+	 * Constructor for creating new <code>RenderMetrics</code> with all counters set to zero.
+	 */
+	public RenderMetrics() {
+		for (int i = 0; i < levelNanos.length; i++) {
+			levelNanos[i] = new LongAdder();
+		}
+		for (int i = 0; i < admissions.length; i++) {
+			admissions[i] = new LongAdder();
+		}
+	}
+	
+	@Override
+	public void renderFinished(RenderStats stats) {
+		renders.increment();
+		for (int level = 1; level <= stats.getLevel(); level++) {
+			levelNanos[Math.min(level, MAX_LEVELS) - 1].add(stats.getGenerationNanos(level));
+		}
+		interpretationNanos.add(stats.getInterpretationNanos());
+		symbolsExpanded.add(stats.getSymbolsExpanded());
+		commandExecutions.add(stats.getCommandExecutions());
+		for (String type : stats.getCommandTypes()) {
+			LongAdder executions = (LongAdder) commandTypes.get(type);
+			if (executions == null) {
+				LongAdder created = new LongAdder();
+				executions = (LongAdder) commandTypes.putIfAbsent(type, created);
+				if (executions == null)
+					executions = created;
+			}
+			executions.add(stats.getCommandExecutions(type));
+		}
+		segments.add(stats.getSegments());
+		peakDepth.accumulate(stats.getPeakDepth());
+		if (stats.getAllocatedBytes() > 0)
+			allocatedBytes.add(stats.getAllocatedBytes());
+	}
+	
+	@Override
+	public void admissionDecided(AdmissionDecision decision) {
+		admissions[decision.getOutcome().ordinal()].increment();
+	}
+	
+	/**
+	 * Method registers these metrics with platform <code>MBeanServer</code> </br>
+	 * under name <code>hr.fer.zemris.lsystems:type=RenderMetrics,name=</code><i>name</i>.
+	 * 
+	 * @param name name that distinguishes these metrics from other registered metrics
+	 * @return     <code>ObjectName</code> under which metrics are registered
+	 * @throws     <code>IllegalStateException</code> if registration fails
+	 */
+	public ObjectName register(String name) {
+		try {
+			ObjectName objectName = new ObjectName("hr.fer.zemris.lsystems:type=RenderMetrics,name="
+					+ ObjectName.quote(name));
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			server.registerMBean(this, objectName);
+			return objectName;
+		} catch (JMException ex) {
+			throw new IllegalStateException("Render metrics could not be registered.", ex);
+		}
+	}
+	
+	/**
+	 * Method removes registration made by <code>register</code>.
+	 * 
+	 * @param objectName name returned by <code>register</code>
+	 * @throws           <code>IllegalStateException</code> if metrics are not registered under given name
+	 */
+	public static void unregister(ObjectName objectName) {
+		try {
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+		} catch (JMException ex) {
+			throw new IllegalStateException("Render metrics could not be unregistered.", ex);
+		}
+	}
+
+	@Override
+	public long getRenders() {
+		return renders.sum();
+	}
+
+	@Override
+	public long getGenerationNanos() {
+		long sum = 0;
+		for (LongAdder nanos : levelNanos) {
+			sum += nanos.sum();
+		}
+		return sum;
+	}
+	
+	/**
+	 * Method returns total time spent producing the given level.
+	 * 
+	 * @param level level that was produced, from <code>1</code> to <code>MAX_LEVELS</code>; </br>
+	 *              value for <code>MAX_LEVELS</code> includes all deeper levels
+	 * @return      time in nanoseconds
+	 */
+	public long getGenerationNanos(int level) {
+		if (level < 1 || level > MAX_LEVELS)
+			throw new IndexOutOfBoundsException("Level must be between 1 and " + MAX_LEVELS + ".");
+		return levelNanos[level - 1].sum();
+	}
+
+	@Override
+	public long getInterpretationNanos() {
+		return interpretationNanos.sum();
+	}
+
+	@Override
+	public long getAverageRenderNanos() {
+		long count = renders.sum();
+		return count == 0 ? 0 : (getGenerationNanos() + interpretationNanos.sum()) / count;
+	}
+
+	@Override
+	public long getSymbolsExpanded() {
+		return symbolsExpanded.sum();
+	}
+
+	@Override
+	public long getCommandExecutions() {
+		return commandExecutions.sum();
+	}
+
+	@Override
+	public String[] getCommandTypes() {
+		ArrayIndexedCollection types = new ArrayIndexedCollection();
+		commandTypes.forEachKey(new Processor() {
+			@Override
+			public void process(Object value) {
+				types.add(value);
+			}
+		});
+		
+		String[] result = new String[types.size()];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = (String) types.get(i);
+		}
+		return result;
+	}
+
+	@Override
+	public long getCommandExecutions(String type) {
+		LongAdder executions = (LongAdder) commandTypes.get(type);
+		return executions == null ? 0 : executions.sum();
+	}
+
+	@Override
+	public long getSegments() {
+		return segments.sum();
+	}
+
+	@Override
+	public long getPeakDepth() {
+		return peakDepth.get();
+	}
+
+	@Override
+	public long getAllocatedBytes() {
+		return allocatedBytes.sum();
+	}
+
+	@Override
+	public long getAdmissionsAccepted() {
+		return admissions[AdmissionDecision.Outcome.ACCEPTED.ordinal()].sum();
+	}
+
+	@Override
+	public long getAdmissionsCapped() {
+		return admissions[AdmissionDecision.Outcome.CAPPED.ordinal()].sum();
+	}
+
+	@Override
+	public long getAdmissionsStreamed() {
+		return admissions[AdmissionDecision.Outcome.STREAMED.ordinal()].sum();
+	}
+
+	@Override
+	public long getAdmissionsRejected() {
+		return admissions[AdmissionDecision.Outcome.REJECTED.ordinal()].sum();
+	}
+
+	@Override
+	public void reset() {
+		renders.reset();
+		for (LongAdder nanos : levelNanos) {
+			nanos.reset();
+		}
+		interpretationNanos.reset();
+		symbolsExpanded.reset();
+		commandExecutions.reset();
+		commandTypes.clear();
+		segments.reset();
+		peakDepth.reset();
+		allocatedBytes.reset();
+		for (LongAdder outcome : admissions) {
+			outcome.reset();
+		}
+	}
+	
+}
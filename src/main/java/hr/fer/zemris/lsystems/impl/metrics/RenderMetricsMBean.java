@@ -0,0 +1,93 @@
+package hr.fer.zemris.lsystems.impl.metrics;
+
+/**
+ * Management interface of <code>RenderMetrics</code>.
+ * 
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+public interface RenderMetricsMBean {
+
+	/**
+	 * @return number of finished renders
+	 */
+	long getRenders();
+	
+	/**
+	 * @return total time in nanoseconds spent in generation
+	 */
+	long getGenerationNanos();
+	
+	/**
+	 * @return total time in nanoseconds spent executing commands
+	 */
+	long getInterpretationNanos();
+	
+	/**
+	 * @return average time in nanoseconds of one render
+	 */
+	long getAverageRenderNanos();
+	
+	/**
+	 * @return total number of symbols rewritten during generation
+	 */
+	long getSymbolsExpanded();
+	
+	/**
+	 * @return total number of command executions
+	 */
+	long getCommandExecutions();
+	
+	/**
+	 * @return names of command types that were executed
+	 */
+	String[] getCommandTypes();
+	
+	/**
+	 * @param type simple name of command class
+	 * @return     total number of executions of commands of the given type
+	 */
+	long getCommandExecutions(String type);
+	
+	/**
+	 * @return total number of lines sent to painters
+	 */
+	long getSegments();
+	
+	/**
+	 * @return largest <code>Context</code> depth of any render
+	 */
+	long getPeakDepth();
+	
+	/**
+	 * @return total number of bytes allocated by renders
+	 */
+	long getAllocatedBytes();
+	
+	/**
+	 * @return number of renders accepted by admission policy as requested
+	 */
+	long getAdmissionsAccepted();
+	
+	/**
+	 * @return number of renders whose level was lowered by admission policy
+	 */
+	long getAdmissionsCapped();
+	
+	/**
+	 * @return number of renders switched to streaming by admission policy
+	 */
+	long getAdmissionsStreamed();
+	
+	/**
+	 * @return number of renders rejected by admission policy
+	 */
+	long getAdmissionsRejected();
+	
+	/**
+	 * Method resets all counters to zero.
+	 */
+	void reset();
+	
+}
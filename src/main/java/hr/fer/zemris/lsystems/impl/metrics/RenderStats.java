@@ -0,0 +1,196 @@
+package hr.fer.zemris.lsystems.impl.metrics;
+
+import java.util.Arrays;
+
+/**
+ * Measurements of one render of <code>LSystem</code>. </br>
+ * Render consists of generation, where axiom is rewritten once per level, </br>
+ * and interpretation, where commands of the generated symbols are executed. </br>
+ * Instances are immutable.
+ * 
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+public final class RenderStats {
+
+	/**
+	 * level that was rendered
+	 */
+	private final int level;
+	/**
+	 * time of every generation step, element <code>i</code> is time of producing level <code>i + 1</code>
+	 */
+	private final long[] generationNanos;
+	/**
+	 * time spent executing commands
+	 */
+	private final long interpretationNanos;
+	/**
+	 * number of symbols that were rewritten during generation
+	 */
+	private final long symbolsExpanded;
+	/**
+	 * names of command types that were executed
+	 */
+	private final String[] commandTypes;
+	/**
+	 * number of executions of each command type
+	 */
+	private final long[] commandExecutions;
+	/**
+	 * number of lines sent to painter
+	 */
+	private final long segments;
+	/**
+	 * largest depth of <code>Context</code> stack
+	 */
+	private final int peakDepth;
+	/**
+	 * bytes allocated by the render, or <code>-1</code> if unknown
+	 */
+	private final long allocatedBytes;
+	
+	/**
+	 * Constructor for creating new <code>RenderStats</code>. Given arrays are not copied.
+	 * 
+	 * @param level               level that was rendered
+	 * @param generationNanos     time of every generation step
+	 * @param interpretationNanos time spent executing commands
+	 * @param symbolsExpanded     number of symbols that were rewritten during generation
+	 * @param commandTypes        names of command types that were executed
+	 * @param commandExecutions   number of executions of each command type
+	 * @param segments            number of lines sent to painter
+	 * @param peakDepth           largest depth of <code>Context</code> stack
+	 * @param allocatedBytes      bytes allocated by the render, or <code>-1</code> if unknown
+	 */
+	public RenderStats(int level, long[] generationNanos, long interpretationNanos, long symbolsExpanded,
+			String[] commandTypes, long[] commandExecutions, long segments, int peakDepth, long allocatedBytes) {
+		if (commandTypes.length != commandExecutions.length)
+			throw new IllegalArgumentException("Every command type needs its number of executions.");
+		
+		this.level = level;
+		this.generationNanos = generationNanos;
+		this.interpretationNanos = interpretationNanos;
+		this.symbolsExpanded = symbolsExpanded;
+		this.commandTypes = commandTypes;
+		this.commandExecutions = commandExecutions;
+		this.segments = segments;
+		this.peakDepth = peakDepth;
+		this.allocatedBytes = allocatedBytes;
+	}
+
+	/**
+	 * @return level that was rendered
+	 */
+	public int getLevel() {
+		return level;
+	}
+	
+	/**
+	 * Method returns time of one generation step.
+	 * 
+	 * @param level level that was produced, from <code>1</code> to rendered level
+	 * @return      time in nanoseconds spent producing given level from the previous one
+	 */
+	public long getGenerationNanos(int level) {
+		if (level < 1 || level > generationNanos.length)
+			throw new IndexOutOfBoundsException("Level must be between 1 and " + generationNanos.length + ".");
+		return generationNanos[level - 1];
+	}
+	
+	/**
+	 * @return total time in nanoseconds spent in generation
+	 */
+	public long getGenerationNanos() {
+		long sum = 0;
+		for (long nanos : generationNanos) {
+			sum += nanos;
+		}
+		return sum;
+	}
+
+	/**
+	 * @return time in nanoseconds spent executing commands
+	 */
+	public long getInterpretationNanos() {
+		return interpretationNanos;
+	}
+
+	/**
+	 * @return number of symbols that were rewritten during generation
+	 */
+	public long getSymbolsExpanded() {
+		return symbolsExpanded;
+	}
+	
+	/**
+	 * @return names of command types that were executed
+	 */
+	public String[] getCommandTypes() {
+		return Arrays.copyOf(commandTypes, commandTypes.length);
+	}
+	
+	/**
+	 * Method returns number of executions of commands of the given type.
+	 * 
+	 * @param type simple name of command class, like <code>DrawCommand</code>
+	 * @return     number of executions, <code>0</code> if type was not executed
+	 */
+	public long getCommandExecutions(String type) {
+		for (int i = 0; i < commandTypes.length; i++) {
+			if (commandTypes[i].equals(type))
+				return commandExecutions[i];
+		}
+		return 0;
+	}
+	
+	/**
+	 * @return total number of command executions
+	 */
+	public long getCommandExecutions() {
+		long sum = 0;
+		for (long executions : commandExecutions) {
+			sum += executions;
+		}
+		return sum;
+	}
+
+	/**
+	 * @return number of lines sent to painter
+	 */
+	public long getSegments() {
+		return segments;
+	}
+
+	/**
+	 * @return largest depth of <code>Context</code> stack
+	 */
+	public int getPeakDepth() {
+		return peakDepth;
+	}
+
+	/**
+	 * @return bytes allocated by the render, or <code>-1</code> if unknown
+	 */
+	public long getAllocatedBytes() {
+		return allocatedBytes;
+	}
+	
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		sb.append("level=").append(level)
+			.append(", generation=").append(getGenerationNanos()).append("ns")
+			.append(", interpretation=").append(interpretationNanos).append("ns")
+			.append(", symbols=").append(symbolsExpanded)
+			.append(", segments=").append(segments)
+			.append(", peakDepth=").append(peakDepth)
+			.append(", allocated=").append(allocatedBytes).append('B');
+		for (int i = 0; i < commandTypes.length; i++) {
+			sb.append(", ").append(commandTypes[i]).append('=').append(commandExecutions[i]);
+		}
+		return sb.toString();
+	}
+	
+}
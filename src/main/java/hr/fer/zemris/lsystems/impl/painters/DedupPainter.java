@@ -0,0 +1,302 @@
+package hr.fer.zemris.lsystems.impl.painters;
+
+import java.awt.Color;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Objects;
+
+import hr.fer.zemris.lsystems.Painter;
+
+/**
+ * <code>Painter</code> that drops segments which repeat segments already drawn. </br>
+ * Endpoints are quantized to grid whose cell is one pixel of the output (or finer), </br>
+ * and endpoints are ordered, so the segment and its reverse have the same key. </br>
+ * Keys are kept in open-addressing hash set of <code>long</code> values together with generation </br>
+ * in which they were drawn. Generation advances whenever segment of different style (color and width) </br>
+ * is received, so segment is dropped only if it repeats segment of the current run of equally styled segments. </br>
+ * Segment drawn again after differently styled segment is therefore always drawn, which keeps the order of overdraw. </br>
+ * Memory is bounded: when set holds <code>maxEntries</code> keys it is cleared, </br>
+ * which can only let through duplicates, never drop new segment. </br>
+ * Segments with endpoints outside the grid are passed through unchanged.
+ * 
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+public class DedupPainter implements Painter {
+
+	/**
+	 * default largest number of remembered segments
+	 */
+	public static final int DEFAULT_MAX_ENTRIES = 1 << 20;
+	/**
+	 * largest quantized coordinate, keeps key of all ones free as empty marker
+	 */
+	private static final int MAX_CELL = 0xFFFE;
+	/**
+	 * marker of empty slot
+	 */
+	private static final long EMPTY = -1L;
+	
+	/**
+	 * painter that receives segments that are not duplicates
+	 */
+	private final Painter painter;
+	/**
+	 * number of grid cells per unit of painter coordinates
+	 */
+	private final double cellsPerUnit;
+	/**
+	 * largest number of remembered segments
+	 */
+	private int maxEntries = DEFAULT_MAX_ENTRIES;
+	
+	/**
+	 * keys of remembered segments, <code>EMPTY</code> marks free slot
+	 */
+	private long[] keys;
+	/**
+	 * generation in which each key was last drawn
+	 */
+	private long[] generations;
+	/**
+	 * number of remembered segments
+	 */
+	private int size;
+	/**
+	 * style of the last received segment, ARGB color in high and width bits in low half
+	 */
+	private long style;
+	/**
+	 * current generation, advanced whenever style changes
+	 */
+	private long generation;
+	
+	/**
+	 * number of received segments
+	 */
+	private long received;
+	/**
+	 * number of dropped segments
+	 */
+	private long dropped;
+	/**
+	 * number of segments outside the grid
+	 */
+	private long bypassed;
+	/**
+	 * number of times set was cleared because it was full
+	 */
+	private long resets;
+	
+	/**
+	 * Constructor for creating new <code>DedupPainter</code>.
+	 * 
+	 * @param painter      painter that receives segments that are not duplicates
+	 * @param cellsPerUnit number of grid cells per unit of painter coordinates
+	 * @throws <code>IllegalArgumentException</code> if number of cells is not positive
+	 */
+	public DedupPainter(Painter painter, double cellsPerUnit) {
+		if (!(cellsPerUnit > 0))
+			throw new IllegalArgumentException("Number of cells must be positive, was: " + cellsPerUnit);
+		this.painter = Objects.requireNonNull(painter);
+		this.cellsPerUnit = cellsPerUnit;
+		allocate(16);
+	}
+	
+	/**
+	 * Method creates <code>DedupPainter</code> whose grid cell is one pixel of image </br>
+	 * that maps unit square to given size.
+	 * 
+	 * @param painter painter that receives segments that are not duplicates
+	 * @param width   width of the image in pixels
+	 * @param height  height of the image in pixels
+	 * @return        new <code>DedupPainter</code>
+	 */
+	public static DedupPainter forImage(Painter painter, int width, int height) {
+		return new DedupPainter(painter, Math.max(width, height));
+	}
+	
+	/**
+	 * Method sets largest number of remembered segments. </br>
+	 * Table takes at most 64 bytes per remembered segment. It returns <code>this</code> object.
+	 * 
+	 * @param maxEntries the limit
+	 * @return           <code>this</code> object
+	 * @throws <code>IllegalArgumentException</code> if limit is not positive
+	 */
+	public DedupPainter setMaxEntries(int maxEntries) {
+		if (maxEntries < 1 || maxEntries > 1 << 29)
+			throw new IllegalArgumentException("Limit must be in [1, 2^29], was: " + maxEntries);
+		this.maxEntries = maxEntries;
+		return this;
+	}
+	
+	@Override
+	public void drawLine(double x0, double y0, double x1, double y1, Color color, float size) {
+		received++;
+		long segmentStyle = ((long) color.getRGB() << 32) | (Float.floatToIntBits(size) & 0xFFFFFFFFL);
+		if (segmentStyle != style) {
+			style = segmentStyle;
+			generation++;
+		}
+		
+		long a = cell(x0, y0);
+		long b = cell(x1, y1);
+		if (a < 0 || b < 0) {
+			bypassed++;
+			painter.drawLine(x0, y0, x1, y1, color, size);
+			return;
+		}
+		
+		long key = a <= b ? (a << 32) | b : (b << 32) | a;
+		if (remember(key)) {
+			painter.drawLine(x0, y0, x1, y1, color, size);
+		} else {
+			dropped++;
+		}
+	}
+	
+	/**
+	 * @return number of received segments
+	 */
+	public long getReceivedCount() {
+		return received;
+	}
+	
+	/**
+	 * @return number of dropped segments
+	 */
+	public long getDroppedCount() {
+		return dropped;
+	}
+	
+	/**
+	 * @return number of segments that were passed through because they were outside the grid
+	 */
+	public long getBypassedCount() {
+		return bypassed;
+	}
+	
+	/**
+	 * @return number of times remembered segments were forgotten because limit was reached
+	 */
+	public long getResetCount() {
+		return resets;
+	}
+	
+	/**
+	 * @return number of currently remembered segments
+	 */
+	public int getEntryCount() {
+		return size;
+	}
+	
+	@Override
+	public String toString() {
+		return String.format(Locale.ROOT, "received: %d, dropped: %d (%.1f%%), bypassed: %d, resets: %d",
+				received, dropped, received == 0 ? 0.0 : 100.0 * dropped / received, bypassed, resets);
+	}
+	
+	/**
+	 * Helper method that quantizes point to grid cell.
+	 * 
+	 * @param x <i>x</i> of the point
+	 * @param y <i>y</i> of the point
+	 * @return  cell packed in 32 bits, or -1 if point is outside the grid
+	 */
+	private long cell(double x, double y) {
+		long cx = Math.round(x * cellsPerUnit);
+		long cy = Math.round(y * cellsPerUnit);
+		if (cx < 0 || cy < 0 || cx > MAX_CELL || cy > MAX_CELL)
+			return -1;
+		return (cx << 16) | cy;
+	}
+	
+	/**
+	 * Helper method that records that key was drawn in the current generation.
+	 * 
+	 * @param key key of the segment
+	 * @return    <code>true</code> if segment must be drawn, <code>false</code> if it repeats </br>
+	 *            segment drawn in the current generation
+	 */
+	private boolean remember(long key) {
+		int mask = keys.length - 1;
+		int index = mix(key) & mask;
+		while (true) {
+			long current = keys[index];
+			if (current == key) {
+				if (generations[index] == generation)
+					return false;
+				generations[index] = generation;
+				return true;
+			}
+			if (current == EMPTY)
+				break;
+			index = (index + 1) & mask;
+		}
+		
+		if (size == maxEntries) {
+			Arrays.fill(keys, EMPTY);
+			size = 0;
+			resets++;
+			return remember(key);
+		}
+		keys[index] = key;
+		generations[index] = generation;
+		if (++size > keys.length / 2) {
+			rehash();
+		}
+		return true;
+	}
+	
+	/**
+	 * Helper method that doubles the table, up to twice the largest number of entries.
+	 */
+	private void rehash() {
+		if (keys.length >= 2 * maxEntries)
+			return;
+		
+		long[] oldKeys = keys;
+		long[] oldGenerations = generations;
+		allocate(2 * oldKeys.length);
+		int mask = keys.length - 1;
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] == EMPTY)
+				continue;
+			int index = mix(oldKeys[i]) & mask;
+			while (keys[index] != EMPTY) {
+				index = (index + 1) & mask;
+			}
+			keys[index] = oldKeys[i];
+			generations[index] = oldGenerations[i];
+		}
+	}
+	
+	/**
+	 * Helper method that allocates empty table.
+	 * 
+	 * @param capacity number of slots, power of two
+	 */
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		generations = new long[capacity];
+		Arrays.fill(keys, EMPTY);
+	}
+	
+	/**
+	 * Helper method that spreads bits of the key.
+	 * 
+	 * @param key key that is hashed
+	 * @return    hash of the key
+	 */
+	private static int mix(long key) {
+		key ^= key >>> 33;
+		key *= 0xff51afd7ed558ccdL;
+		key ^= key >>> 33;
+		key *= 0xc4ceb9fe1a85ec53L;
+		key ^= key >>> 33;
+		return (int) key;
+	}
+	
+}
@@ -0,0 +1,70 @@
+package hr.fer.zemris.lsystems.impl.painters;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.geom.Line2D;
+
+/**
+ * <code>PathSink</code> that draws paths to <code>Graphics2D</code>, setting color and stroke once per path. </br>
+ * Segments of the path are still drawn one by one: stroking one large path makes renderer </br>
+ * cover bounding box of the whole path, which costs more than the state changes it saves. </br>
+ * Coordinates are scaled from unit square to image size and <i>y</i> axis is flipped, </br>
+ * like in <code>LSystemViewer</code>.
+ * 
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+public class Graphics2DPathSink implements PathSink {
+
+	/**
+	 * graphics where paths are drawn
+	 */
+	private final Graphics2D g2d;
+	/**
+	 * width of the image in pixels
+	 */
+	private final double width;
+	/**
+	 * height of the image in pixels
+	 */
+	private final double height;
+	/**
+	 * line that is reused for every segment
+	 */
+	private final Line2D.Double line = new Line2D.Double();
+	/**
+	 * stroke of the last drawn path
+	 */
+	private BasicStroke stroke;
+	
+	/**
+	 * Constructor for creating new <code>Graphics2DPathSink</code>.
+	 * 
+	 * @param g2d    graphics where paths are drawn
+	 * @param width  width of the image in pixels
+	 * @param height height of the image in pixels
+	 */
+	public Graphics2DPathSink(Graphics2D g2d, int width, int height) {
+		this.g2d = g2d;
+		this.width = width;
+		this.height = height;
+	}
+	
+	@Override
+	public void drawPath(double[] coordinates, int segments, Color color, float size) {
+		if (stroke == null || stroke.getLineWidth() != size) {
+			stroke = new BasicStroke(size);
+		}
+		g2d.setColor(color);
+		g2d.setStroke(stroke);
+		
+		for (int i = 0, end = 4 * segments; i < end; i += 4) {
+			line.setLine(coordinates[i] * width, (1 - coordinates[i + 1]) * height,
+					coordinates[i + 2] * width, (1 - coordinates[i + 3]) * height);
+			g2d.draw(line);
+		}
+	}
+	
+}
@@ -0,0 +1,301 @@
+package hr.fer.zemris.lsystems.impl.painters;
+
+import java.awt.Color;
+import java.util.Arrays;
+import java.util.Objects;
+
+import hr.fer.zemris.lsystems.Painter;
+
+/**
+ * <code>Painter</code> that buffers segments and sends them to <code>PathSink</code> </br>
+ * grouped by color and width, so drawing state changes once per group instead of once per segment. </br>
+ * By default grouping keeps overdraw order: segment joins the latest group of its color and width </br>
+ * only if it does not overlap bounding box of any group opened after that one, </br>
+ * otherwise new group is opened. Groups are emitted in the order they were opened, </br>
+ * so every segment is still drawn after every earlier segment it overlaps. </br>
+ * When order does not matter (opaque drawing without overlaps, or export that is sorted later), </br>
+ * <code>setOrderInsensitive(true)</code> puts all segments of the same color and width into one group. </br>
+ * Buffered segments are flushed when their number reaches the threshold, </br>
+ * so memory does not depend on size of the drawing. <code>flush()</code> must be called after drawing.
+ * 
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+public class GroupingPainter implements Painter {
+
+	/**
+	 * default number of buffered segments that triggers flush
+	 */
+	public static final int DEFAULT_MAX_SEGMENTS = 4096;
+	/**
+	 * number of open groups that triggers flush, bounds cost of the overlap scan
+	 */
+	private static final int MAX_GROUPS = 64;
+	
+	/**
+	 * receiver of grouped segments
+	 */
+	private final PathSink sink;
+	/**
+	 * open groups in the order they were opened; slots after <code>groupCount</code> are kept for reuse
+	 */
+	private Group[] groups = new Group[8];
+	/**
+	 * number of open groups
+	 */
+	private int groupCount;
+	/**
+	 * number of buffered segments
+	 */
+	private int buffered;
+	
+	/**
+	 * flag that allows grouping regardless of overdraw order
+	 */
+	private boolean orderInsensitive;
+	/**
+	 * number of buffered segments that triggers flush
+	 */
+	private int maxSegments = DEFAULT_MAX_SEGMENTS;
+	/**
+	 * size of one pixel in painter coordinates, used to widen bounding boxes by line width
+	 */
+	private double pixelSize;
+	
+	/**
+	 * number of segments sent to sink
+	 */
+	private long segmentCount;
+	/**
+	 * number of paths sent to sink
+	 */
+	private long pathCount;
+	
+	/**
+	 * Constructor for creating new <code>GroupingPainter</code>.
+	 * 
+	 * @param sink receiver of grouped segments
+	 */
+	public GroupingPainter(PathSink sink) {
+		this.sink = Objects.requireNonNull(sink);
+	}
+	
+	/**
+	 * Method sets whether segments may be reordered regardless of overdraw. </br>
+	 * It returns <code>this</code> object.
+	 * 
+	 * @param orderInsensitive <code>true</code> to put all segments of the same color and width into one group
+	 * @return                 <code>this</code> object
+	 */
+	public GroupingPainter setOrderInsensitive(boolean orderInsensitive) {
+		this.orderInsensitive = orderInsensitive;
+		return this;
+	}
+	
+	/**
+	 * Method sets number of buffered segments that triggers flush. </br>
+	 * It returns <code>this</code> object.
+	 * 
+	 * @param maxSegments the threshold
+	 * @return            <code>this</code> object
+	 * @throws <code>IllegalArgumentException</code> if threshold is not positive
+	 */
+	public GroupingPainter setMaxSegments(int maxSegments) {
+		if (maxSegments < 1)
+			throw new IllegalArgumentException("Threshold must be positive, was: " + maxSegments);
+		this.maxSegments = maxSegments;
+		return this;
+	}
+	
+	/**
+	 * Method sets size of one pixel in painter coordinates. </br>
+	 * Bounding boxes are widened by half of line width and one pixel for antialiasing, </br>
+	 * so segments that touch only through their width are still treated as overlapping. </br>
+	 * Default is 0, which compares bare geometry. It returns <code>this</code> object.
+	 * 
+	 * @param pixelSize size of one pixel
+	 * @return          <code>this</code> object
+	 */
+	public GroupingPainter setPixelSize(double pixelSize) {
+		this.pixelSize = pixelSize;
+		return this;
+	}
+	
+	@Override
+	public void drawLine(double x0, double y0, double x1, double y1, Color color, float size) {
+		double margin = pixelSize == 0 ? 0 : pixelSize * (size / 2 + 1);
+		double minX = Math.min(x0, x1) - margin;
+		double minY = Math.min(y0, y1) - margin;
+		double maxX = Math.max(x0, x1) + margin;
+		double maxY = Math.max(y0, y1) + margin;
+		
+		Group target = null;
+		for (int i = groupCount - 1; i >= 0; i--) {
+			Group group = groups[i];
+			if (group.size == size && group.color.equals(color)) {
+				target = group;
+				break;
+			}
+			if (!orderInsensitive && group.overlaps(minX, minY, maxX, maxY))
+				break;
+		}
+		
+		if (target == null) {
+			if (groupCount == MAX_GROUPS) {
+				flush();
+			}
+			target = openGroup(color, size);
+		}
+		target.add(x0, y0, x1, y1, minX, minY, maxX, maxY);
+		
+		if (++buffered >= maxSegments) {
+			flush();
+		}
+	}
+	
+	/**
+	 * Method sends every buffered group to sink in the order groups were opened.
+	 */
+	public void flush() {
+		for (int i = 0; i < groupCount; i++) {
+			Group group = groups[i];
+			sink.drawPath(group.coordinates, group.segments, group.color, group.size);
+			segmentCount += group.segments;
+			group.clear();
+		}
+		pathCount += groupCount;
+		groupCount = 0;
+		buffered = 0;
+	}
+	
+	/**
+	 * @return number of segments sent to sink
+	 */
+	public long getSegmentCount() {
+		return segmentCount;
+	}
+	
+	/**
+	 * @return number of paths sent to sink, which is number of drawing state changes
+	 */
+	public long getPathCount() {
+		return pathCount;
+	}
+	
+	/**
+	 * Helper method that opens new group at the end of open groups.
+	 * 
+	 * @param color color of the group
+	 * @param size  width of the group
+	 * @return      opened group
+	 */
+	private Group openGroup(Color color, float size) {
+		if (groupCount == groups.length) {
+			groups = Arrays.copyOf(groups, 2 * groups.length);
+		}
+		Group group = groups[groupCount];
+		if (group == null) {
+			group = new Group();
+			groups[groupCount] = group;
+		}
+		groupCount++;
+		group.color = color;
+		group.size = size;
+		return group;
+	}
+	
+	/**
+	 * Buffered segments of one color and width with their bounding box.
+	 */
+	private static class Group {
+		
+		/**
+		 * color of the segments
+		 */
+		private Color color;
+		/**
+		 * width of the segments
+		 */
+		private float size;
+		/**
+		 * coordinates of the segments as (x0, y0, x1, y1) quadruples
+		 */
+		private double[] coordinates = new double[64];
+		/**
+		 * number of segments
+		 */
+		private int segments;
+		/**
+		 * smallest <i>x</i> of bounding box
+		 */
+		private double minX = Double.POSITIVE_INFINITY;
+		/**
+		 * smallest <i>y</i> of bounding box
+		 */
+		private double minY = Double.POSITIVE_INFINITY;
+		/**
+		 * largest <i>x</i> of bounding box
+		 */
+		private double maxX = Double.NEGATIVE_INFINITY;
+		/**
+		 * largest <i>y</i> of bounding box
+		 */
+		private double maxY = Double.NEGATIVE_INFINITY;
+		
+		/**
+		 * Method adds segment to the group.
+		 * 
+		 * @param x0   <i>x</i> of start
+		 * @param y0   <i>y</i> of start
+		 * @param x1   <i>x</i> of end
+		 * @param y1   <i>y</i> of end
+		 * @param minX smallest <i>x</i> of widened bounding box of the segment
+		 * @param minY smallest <i>y</i> of widened bounding box of the segment
+		 * @param maxX largest <i>x</i> of widened bounding box of the segment
+		 * @param maxY largest <i>y</i> of widened bounding box of the segment
+		 */
+		void add(double x0, double y0, double x1, double y1,
+				double minX, double minY, double maxX, double maxY) {
+			int index = 4 * segments;
+			if (index == coordinates.length) {
+				coordinates = Arrays.copyOf(coordinates, 2 * coordinates.length);
+			}
+			coordinates[index] = x0;
+			coordinates[index + 1] = y0;
+			coordinates[index + 2] = x1;
+			coordinates[index + 3] = y1;
+			segments++;
+			
+			this.minX = Math.min(this.minX, minX);
+			this.minY = Math.min(this.minY, minY);
+			this.maxX = Math.max(this.maxX, maxX);
+			this.maxY = Math.max(this.maxY, maxY);
+		}
+		
+		/**
+		 * Method checks if bounding box of the group intersects given box.
+		 * 
+		 * @param minX smallest <i>x</i> of the box
+		 * @param minY smallest <i>y</i> of the box
+		 * @param maxX largest <i>x</i> of the box
+		 * @param maxY largest <i>y</i> of the box
+		 * @return     <code>true</code> if boxes intersect or touch
+		 */
+		boolean overlaps(double minX, double minY, double maxX, double maxY) {
+			return minX <= this.maxX && this.minX <= maxX && minY <= this.maxY && this.minY <= maxY;
+		}
+		
+		/**
+		 * Method empties the group and keeps its array for reuse.
+		 */
+		void clear() {
+			segments = 0;
+			color = null;
+			minX = minY = Double.POSITIVE_INFINITY;
+			maxX = maxY = Double.NEGATIVE_INFINITY;
+		}
+		
+	}
+	
+}
@@ -0,0 +1,256 @@
+package hr.fer.zemris.lsystems.impl.painters;
+
+import java.awt.Color;
+import java.util.Arrays;
+import java.util.Locale;
+
+import hr.fer.zemris.lsystems.Painter;
+
+/**
+ * <code>Painter</code> that draws nothing and only hashes the segments it receives. </br>
+ * Endpoints are quantized to grid with the given step, so engines that differ only </br>
+ * in the last bits of floating point results still hash the same; step 0 hashes exact bits. </br>
+ * Every segment (quantized endpoints, color and width) is fed in order to streaming </br>
+ * 128-bit hash (MurmurHash3 x64 block function), so the hash depends on the order of segments too. </br>
+ * After every <code>chunkSize</code> segments state of the hash is stored as checkpoint, </br>
+ * so two painters that received different drawings can tell the first chunk where they diverged </br>
+ * without remembering segments themselves. Memory is 16 bytes per chunk.
+ *
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+public class HashingPainter implements Painter {
+
+	/**
+	 * default quantization step, far below one pixel of any practical image
+	 */
+	public static final double DEFAULT_QUANTUM = 1e-9;
+	/**
+	 * default number of segments between two checkpoints
+	 */
+	public static final int DEFAULT_CHUNK_SIZE = 1 << 16;
+
+	/**
+	 * first mixing constant of MurmurHash3
+	 */
+	private static final long C1 = 0x87c37b91114253d5L;
+	/**
+	 * second mixing constant of MurmurHash3
+	 */
+	private static final long C2 = 0x4cf5ad432745937fL;
+
+	/**
+	 * reciprocal value of quantization step, 0 if exact bits are hashed
+	 */
+	private final double scale;
+	/**
+	 * number of segments between two checkpoints
+	 */
+	private int chunkSize = DEFAULT_CHUNK_SIZE;
+
+	/**
+	 * first half of hash state
+	 */
+	private long h1;
+	/**
+	 * second half of hash state
+	 */
+	private long h2;
+	/**
+	 * number of received segments
+	 */
+	private long count;
+	/**
+	 * segments left until the next checkpoint
+	 */
+	private int untilCheckpoint = DEFAULT_CHUNK_SIZE;
+	/**
+	 * hash states stored after every chunk, two values per checkpoint
+	 */
+	private long[] checkpoints = new long[32];
+	/**
+	 * number of stored checkpoints
+	 */
+	private int checkpointCount;
+
+	/**
+	 * Constructor for creating new <code>HashingPainter</code> with default quantization step.
+	 */
+	public HashingPainter() {
+		this(DEFAULT_QUANTUM);
+	}
+
+	/**
+	 * Constructor for creating new <code>HashingPainter</code>.
+	 *
+	 * @param quantum quantization step of coordinates, or 0 for exact comparison
+	 * @throws <code>IllegalArgumentException</code> if step is negative or not finite
+	 */
+	public HashingPainter(double quantum) {
+		if (!(quantum >= 0) || Double.isInfinite(quantum))
+			throw new IllegalArgumentException("Quantization step must be non-negative, was: " + quantum);
+		this.scale = quantum == 0 ? 0 : 1 / quantum;
+	}
+
+	/**
+	 * Method sets number of segments between two checkpoints. </br>
+	 * It must be set before the first segment is drawn. It returns <code>this</code> object.
+	 *
+	 * @param chunkSize number of segments per chunk
+	 * @return          <code>this</code> object
+	 * @throws <code>IllegalArgumentException</code> if size is not positive
+	 * @throws <code>IllegalStateException</code> if segments were already drawn
+	 */
+	public HashingPainter setChunkSize(int chunkSize) {
+		if (chunkSize < 1)
+			throw new IllegalArgumentException("Chunk size must be positive, was: " + chunkSize);
+		if (count != 0)
+			throw new IllegalStateException("Chunk size can not be changed after drawing started.");
+		this.chunkSize = chunkSize;
+		this.untilCheckpoint = chunkSize;
+		return this;
+	}
+
+	@Override
+	public void drawLine(double x0, double y0, double x1, double y1, Color color, float size) {
+		mix(quantize(x0), quantize(y0));
+		mix(quantize(x1), quantize(y1));
+		mix(((long) color.getRGB() << 32) | (Float.floatToIntBits(size) & 0xFFFFFFFFL), count);
+		count++;
+
+		if (--untilCheckpoint == 0) {
+			untilCheckpoint = chunkSize;
+			if (2 * checkpointCount == checkpoints.length)
+				checkpoints = Arrays.copyOf(checkpoints, 2 * checkpoints.length);
+			checkpoints[2 * checkpointCount] = h1;
+			checkpoints[2 * checkpointCount + 1] = h2;
+			checkpointCount++;
+		}
+	}
+
+	/**
+	 * @return number of received segments
+	 */
+	public long getCount() {
+		return count;
+	}
+
+	/**
+	 * @return number of segments between two checkpoints
+	 */
+	public int getChunkSize() {
+		return chunkSize;
+	}
+
+	/**
+	 * Method returns 128-bit hash of all received segments and their number.
+	 *
+	 * @return array with high and low 64 bits of the hash
+	 */
+	public long[] getHash() {
+		long a = h1 ^ count;
+		long b = h2 ^ count;
+		a += b;
+		b += a;
+		a = fmix(a);
+		b = fmix(b);
+		a += b;
+		b += a;
+		return new long[] { a, b };
+	}
+
+	/**
+	 * Method checks if the given painter received the same drawing as this painter.
+	 *
+	 * @param other painter that is compared
+	 * @return      <code>true</code> if both received the same number of segments with equal hash
+	 */
+	public boolean matches(HashingPainter other) {
+		return count == other.count && Arrays.equals(getHash(), other.getHash());
+	}
+
+	/**
+	 * Method finds the first chunk in which the given painter received different segments. </br>
+	 * Both painters must use the same chunk size and quantization step.
+	 *
+	 * @param other painter that is compared
+	 * @return      index of the first differing chunk, or -1 if drawings are the same
+	 * @throws <code>IllegalArgumentException</code> if chunk sizes differ
+	 */
+	public int firstDifferingChunk(HashingPainter other) {
+		if (chunkSize != other.chunkSize)
+			throw new IllegalArgumentException("Painters use different chunk sizes.");
+		if (matches(other))
+			return -1;
+
+		int common = Math.min(checkpointCount, other.checkpointCount);
+		for (int i = 0; i < common; i++) {
+			if (checkpoints[2 * i] != other.checkpoints[2 * i]
+					|| checkpoints[2 * i + 1] != other.checkpoints[2 * i + 1])
+				return i;
+		}
+		return common;
+	}
+
+	@Override
+	public String toString() {
+		long[] hash = getHash();
+		return String.format(Locale.ROOT, "%016x%016x (%d segments)", hash[0], hash[1], count);
+	}
+
+	/**
+	 * Helper method that quantizes coordinate.
+	 *
+	 * @param value coordinate
+	 * @return      index of grid step, or exact bits if step is 0
+	 */
+	private long quantize(double value) {
+		if (scale == 0)
+			return Double.doubleToLongBits(value);
+		double scaled = value * scale;
+		if (Math.abs(scaled) < 0x1p62)
+			return Math.round(scaled);
+		return Double.doubleToLongBits(value);
+	}
+
+	/**
+	 * Helper method that feeds one 128-bit block to the hash.
+	 *
+	 * @param k1 first half of the block
+	 * @param k2 second half of the block
+	 */
+	private void mix(long k1, long k2) {
+		k1 *= C1;
+		k1 = Long.rotateLeft(k1, 31);
+		k1 *= C2;
+		h1 ^= k1;
+		h1 = Long.rotateLeft(h1, 27);
+		h1 += h2;
+		h1 = h1 * 5 + 0x52dce729;
+
+		k2 *= C2;
+		k2 = Long.rotateLeft(k2, 33);
+		k2 *= C1;
+		h2 ^= k2;
+		h2 = Long.rotateLeft(h2, 31);
+		h2 += h1;
+		h2 = h2 * 5 + 0x38495ab5;
+	}
+
+	/**
+	 * Helper method that applies final avalanche of MurmurHash3.
+	 *
+	 * @param k value that is mixed
+	 * @return  mixed value
+	 */
+	private static long fmix(long k) {
+		k ^= k >>> 33;
+		k *= 0xff51afd7ed558ccdL;
+		k ^= k >>> 33;
+		k *= 0xc4ceb9fe1a85ec53L;
+		k ^= k >>> 33;
+		return k;
+	}
+
+}
@@ -0,0 +1,26 @@
+package hr.fer.zemris.lsystems.impl.painters;
+
+import java.awt.Color;
+
+/**
+ * Receiver of grouped segments. </br>
+ * All segments of one path share color and width, so receiver sets drawing state only once per path.
+ * 
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+public interface PathSink {
+
+	/**
+	 * Method draws segments of one path.
+	 * 
+	 * @param coordinates coordinates of segments as (x0, y0, x1, y1) quadruples; </br>
+	 *                    array is reused after method returns
+	 * @param segments    number of segments in the array
+	 * @param color       color of all segments
+	 * @param size        width of all segments
+	 */
+	void drawPath(double[] coordinates, int segments, Color color, float size);
+	
+}
@@ -0,0 +1,408 @@
+package hr.fer.zemris.lsystems.impl.painters;
+
+import java.awt.Color;
+import java.util.Arrays;
+
+import hr.fer.zemris.lsystems.LSystem;
+import hr.fer.zemris.lsystems.Painter;
+
+/**
+ * Spatial index of segments of one render, used for repainting part of the drawing </br>
+ * without running <code>draw</code> again. Segments are captured once and stored in primitive arrays, </br>
+ * colors are stored as indexes into small palette. Index is uniform grid over bounding box of </br>
+ * all segments, stored in compressed form: cell offsets followed by segment numbers of all cells. </br>
+ * Segment is put into every cell its bounding box covers. </br>
+ * Query visits only cells that intersect visible rectangle, so its cost depends on the number </br>
+ * of visible segments and not on size of the whole drawing. Every segment is reported once, </br>
+ * from the first cell where its bounding box meets the rectangle, and segments are sent </br>
+ * to painter in original draw order. </br>
+ * Index is immutable and can be queried from several threads.
+ *
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+public class SegmentIndex {
+
+	/**
+	 * desired average number of segments per cell
+	 */
+	private static final int SEGMENTS_PER_CELL = 8;
+	/**
+	 * largest number of cells along one side of the grid
+	 */
+	private static final int MAX_CELLS_PER_SIDE = 1024;
+
+	/**
+	 * number of segments
+	 */
+	private final int count;
+	/**
+	 * coordinates of segments as (x0, y0, x1, y1) quadruples
+	 */
+	private final double[] coordinates;
+	/**
+	 * palette index of color of every segment
+	 */
+	private final int[] colorIndexes;
+	/**
+	 * width of every segment
+	 */
+	private final float[] sizes;
+	/**
+	 * distinct colors of segments
+	 */
+	private final Color[] palette;
+
+	/**
+	 * smallest <i>x</i> of all segments
+	 */
+	private final double minX;
+	/**
+	 * smallest <i>y</i> of all segments
+	 */
+	private final double minY;
+	/**
+	 * largest <i>x</i> of all segments
+	 */
+	private final double maxX;
+	/**
+	 * largest <i>y</i> of all segments
+	 */
+	private final double maxY;
+	/**
+	 * number of cells along <i>x</i> axis
+	 */
+	private final int columns;
+	/**
+	 * number of cells along <i>y</i> axis
+	 */
+	private final int rows;
+	/**
+	 * number of cells per unit along <i>x</i> axis
+	 */
+	private final double scaleX;
+	/**
+	 * number of cells per unit along <i>y</i> axis
+	 */
+	private final double scaleY;
+	/**
+	 * offset of every cell in <code>cellSegments</code>, with total number as the last element
+	 */
+	private final int[] cellStart;
+	/**
+	 * segment numbers of all cells, ascending inside every cell
+	 */
+	private final int[] cellSegments;
+
+	/**
+	 * Constructor for creating new <code>SegmentIndex</code> from captured segments.
+	 *
+	 * @param recorder painter that captured segments
+	 */
+	private SegmentIndex(Recorder recorder) {
+		this.count = recorder.count;
+		this.coordinates = Arrays.copyOf(recorder.coordinates, 4 * count);
+		this.colorIndexes = Arrays.copyOf(recorder.colorIndexes, count);
+		this.sizes = Arrays.copyOf(recorder.sizes, count);
+		this.palette = Arrays.copyOf(recorder.palette, recorder.paletteSize);
+
+		double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < 4 * count; i += 2) {
+			minX = Math.min(minX, coordinates[i]);
+			maxX = Math.max(maxX, coordinates[i]);
+			minY = Math.min(minY, coordinates[i + 1]);
+			maxY = Math.max(maxY, coordinates[i + 1]);
+		}
+		if (count == 0) {
+			minX = minY = maxX = maxY = 0;
+		}
+		this.minX = minX;
+		this.minY = minY;
+		this.maxX = maxX;
+		this.maxY = maxY;
+
+		int side = (int) Math.min(MAX_CELLS_PER_SIDE, Math.max(1, Math.ceil(Math.sqrt((double) count / SEGMENTS_PER_CELL))));
+		double width = maxX - minX;
+		double height = maxY - minY;
+		this.columns = width >= height ? side : Math.max(1, (int) Math.round(side * width / height));
+		this.rows = height >= width ? side : Math.max(1, (int) Math.round(side * height / width));
+		this.scaleX = width > 0 ? columns / width : 0;
+		this.scaleY = height > 0 ? rows / height : 0;
+
+		this.cellStart = new int[columns * rows + 1];
+		for (int i = 0; i < count; i++) {
+			int fromColumn = column(segmentMinX(i)), toColumn = column(segmentMaxX(i));
+			int fromRow = row(segmentMinY(i)), toRow = row(segmentMaxY(i));
+			for (int r = fromRow; r <= toRow; r++) {
+				for (int c = fromColumn; c <= toColumn; c++) {
+					cellStart[r * columns + c + 1]++;
+				}
+			}
+		}
+		for (int i = 1; i < cellStart.length; i++) {
+			cellStart[i] += cellStart[i - 1];
+		}
+
+		this.cellSegments = new int[cellStart[cellStart.length - 1]];
+		int[] fill = Arrays.copyOf(cellStart, cellStart.length - 1);
+		for (int i = 0; i < count; i++) {
+			int fromColumn = column(segmentMinX(i)), toColumn = column(segmentMaxX(i));
+			int fromRow = row(segmentMinY(i)), toRow = row(segmentMaxY(i));
+			for (int r = fromRow; r <= toRow; r++) {
+				for (int c = fromColumn; c <= toColumn; c++) {
+					cellSegments[fill[r * columns + c]++] = i;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Method draws system and captures its segments into new index.
+	 *
+	 * @param system system that is drawn
+	 * @param level  level that is drawn
+	 * @return       index of all segments of the drawing
+	 */
+	public static SegmentIndex capture(LSystem system, int level) {
+		Recorder recorder = new Recorder();
+		system.draw(level, recorder);
+		return new SegmentIndex(recorder);
+	}
+
+	/**
+	 * Method sends segments whose bounding box intersects given rectangle to painter, in draw order.
+	 *
+	 * @param minX    smallest <i>x</i> of the rectangle
+	 * @param minY    smallest <i>y</i> of the rectangle
+	 * @param maxX    largest <i>x</i> of the rectangle
+	 * @param maxY    largest <i>y</i> of the rectangle
+	 * @param painter painter that receives segments
+	 * @return        number of segments sent to painter
+	 */
+	public int query(double minX, double minY, double maxX, double maxY, Painter painter) {
+		if (count == 0 || minX > this.maxX || maxX < this.minX || minY > this.maxY || maxY < this.minY)
+			return 0;
+		if (minX <= this.minX && minY <= this.minY && maxX >= this.maxX && maxY >= this.maxY) {
+			drawAll(painter);
+			return count;
+		}
+
+		int fromColumn = column(minX), toColumn = column(maxX);
+		int fromRow = row(minY), toRow = row(maxY);
+
+		int[] found = new int[64];
+		int size = 0;
+		for (int r = fromRow; r <= toRow; r++) {
+			for (int c = fromColumn; c <= toColumn; c++) {
+				int cell = r * columns + c;
+				for (int k = cellStart[cell], end = cellStart[cell + 1]; k < end; k++) {
+					int i = cellSegments[k];
+					if (segmentMinX(i) > maxX || segmentMaxX(i) < minX
+							|| segmentMinY(i) > maxY || segmentMaxY(i) < minY)
+						continue;
+					// report segment only from the first cell shared by its box and the rectangle
+					if (Math.max(column(segmentMinX(i)), fromColumn) != c || Math.max(row(segmentMinY(i)), fromRow) != r)
+						continue;
+					if (size == found.length) {
+						found = Arrays.copyOf(found, 2 * size);
+					}
+					found[size++] = i;
+				}
+			}
+		}
+
+		if (size > count >>> 4) {
+			// many visible segments, restore draw order with bit set instead of sorting
+			long[] bits = new long[(count + 63) >>> 6];
+			for (int k = 0; k < size; k++) {
+				bits[found[k] >>> 6] |= 1L << found[k];
+			}
+			for (int word = 0; word < bits.length; word++) {
+				for (long w = bits[word]; w != 0; w &= w - 1) {
+					draw((word << 6) + Long.numberOfTrailingZeros(w), painter);
+				}
+			}
+		} else {
+			Arrays.sort(found, 0, size);
+			for (int k = 0; k < size; k++) {
+				draw(found[k], painter);
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Method sends all segments to painter, in draw order.
+	 *
+	 * @param painter painter that receives segments
+	 */
+	public void drawAll(Painter painter) {
+		for (int i = 0; i < count; i++) {
+			draw(i, painter);
+		}
+	}
+
+	/**
+	 * @return number of segments in the index
+	 */
+	public int getSegmentCount() {
+		return count;
+	}
+
+	/**
+	 * @return number of cells of the grid
+	 */
+	public int getCellCount() {
+		return columns * rows;
+	}
+
+	/**
+	 * @return bounding box of all segments as (minX, minY, maxX, maxY)
+	 */
+	public double[] getBounds() {
+		return new double[] { minX, minY, maxX, maxY };
+	}
+
+	/**
+	 * Helper method that sends one segment to painter.
+	 *
+	 * @param i       number of the segment
+	 * @param painter painter that receives segment
+	 */
+	private void draw(int i, Painter painter) {
+		int base = 4 * i;
+		painter.drawLine(coordinates[base], coordinates[base + 1], coordinates[base + 2], coordinates[base + 3],
+				palette[colorIndexes[i]], sizes[i]);
+	}
+
+	/**
+	 * Helper method that returns column of the given <i>x</i>, clamped to the grid.
+	 *
+	 * @param x <i>x</i> coordinate
+	 * @return  column of the cell
+	 */
+	private int column(double x) {
+		int column = (int) ((x - minX) * scaleX);
+		return column < 0 ? 0 : column >= columns ? columns - 1 : column;
+	}
+
+	/**
+	 * Helper method that returns row of the given <i>y</i>, clamped to the grid.
+	 *
+	 * @param y <i>y</i> coordinate
+	 * @return  row of the cell
+	 */
+	private int row(double y) {
+		int row = (int) ((y - minY) * scaleY);
+		return row < 0 ? 0 : row >= rows ? rows - 1 : row;
+	}
+
+	/**
+	 * @param i number of the segment
+	 * @return  smallest <i>x</i> of the segment
+	 */
+	private double segmentMinX(int i) {
+		return Math.min(coordinates[4 * i], coordinates[4 * i + 2]);
+	}
+
+	/**
+	 * @param i number of the segment
+	 * @return  largest <i>x</i> of the segment
+	 */
+	private double segmentMaxX(int i) {
+		return Math.max(coordinates[4 * i], coordinates[4 * i + 2]);
+	}
+
+	/**
+	 * @param i number of the segment
+	 * @return  smallest <i>y</i> of the segment
+	 */
+	private double segmentMinY(int i) {
+		return Math.min(coordinates[4 * i + 1], coordinates[4 * i + 3]);
+	}
+
+	/**
+	 * @param i number of the segment
+	 * @return  largest <i>y</i> of the segment
+	 */
+	private double segmentMaxY(int i) {
+		return Math.max(coordinates[4 * i + 1], coordinates[4 * i + 3]);
+	}
+
+	/**
+	 * <code>Painter</code> that stores segments into growing primitive arrays.
+	 */
+	private static class Recorder implements Painter {
+
+		/**
+		 * coordinates of segments as (x0, y0, x1, y1) quadruples
+		 */
+		private double[] coordinates = new double[1024];
+		/**
+		 * palette index of color of every segment
+		 */
+		private int[] colorIndexes = new int[256];
+		/**
+		 * width of every segment
+		 */
+		private float[] sizes = new float[256];
+		/**
+		 * number of segments
+		 */
+		private int count;
+		/**
+		 * distinct colors
+		 */
+		private Color[] palette = new Color[4];
+		/**
+		 * number of distinct colors
+		 */
+		private int paletteSize;
+		/**
+		 * palette index of the last color, segments usually repeat it
+		 */
+		private int lastColor = -1;
+
+		@Override
+		public void drawLine(double x0, double y0, double x1, double y1, Color color, float size) {
+			if (count == sizes.length) {
+				coordinates = Arrays.copyOf(coordinates, 8 * count);
+				colorIndexes = Arrays.copyOf(colorIndexes, 2 * count);
+				sizes = Arrays.copyOf(sizes, 2 * count);
+			}
+			int base = 4 * count;
+			coordinates[base] = x0;
+			coordinates[base + 1] = y0;
+			coordinates[base + 2] = x1;
+			coordinates[base + 3] = y1;
+			colorIndexes[count] = colorIndex(color);
+			sizes[count] = size;
+			count++;
+		}
+
+		/**
+		 * Helper method that returns palette index of the color, adding it if needed.
+		 *
+		 * @param color color of the segment
+		 * @return      index in palette
+		 */
+		private int colorIndex(Color color) {
+			if (lastColor >= 0 && palette[lastColor].equals(color))
+				return lastColor;
+
+			for (int i = 0; i < paletteSize; i++) {
+				if (palette[i].equals(color))
+					return lastColor = i;
+			}
+			if (paletteSize == palette.length) {
+				palette = Arrays.copyOf(palette, 2 * paletteSize);
+			}
+			palette[paletteSize] = color;
+			return lastColor = paletteSize++;
+		}
+
+	}
+
+}
@@ -0,0 +1,75 @@
+package hr.fer.zemris.lsystems.server;
+
+import java.awt.Color;
+
+import hr.fer.zemris.lsystems.Painter;
+
+/**
+ * <code>Painter</code> that forwards lines to another painter and stops render when its deadline passes. </br>
+ * Clock is read once per batch of lines, so checking costs almost nothing.
+ * 
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+class DeadlinePainter implements Painter {
+
+	/**
+	 * number of lines between two reads of the clock
+	 */
+	private static final int CHECK_INTERVAL = 1024;
+	
+	/**
+	 * painter that receives lines
+	 */
+	private final Painter painter;
+	/**
+	 * deadline from <code>System.nanoTime()</code>
+	 */
+	private final long deadline;
+	/**
+	 * lines left until the next check
+	 */
+	private int untilCheck = CHECK_INTERVAL;
+	
+	/**
+	 * Constructor for creating new <code>DeadlinePainter</code>.
+	 * 
+	 * @param painter  painter that receives lines
+	 * @param deadline deadline from <code>System.nanoTime()</code>
+	 */
+	DeadlinePainter(Painter painter, long deadline) {
+		this.painter = painter;
+		this.deadline = deadline;
+	}
+	
+	@Override
+	public void drawLine(double x0, double y0, double x1, double y1, Color color, float size) {
+		if (--untilCheck == 0) {
+			untilCheck = CHECK_INTERVAL;
+			if (System.nanoTime() - deadline > 0 || Thread.currentThread().isInterrupted())
+				throw new DeadlineExceededException();
+		}
+		painter.drawLine(x0, y0, x1, y1, color, size);
+	}
+	
+	/**
+	 * Exception that stops render whose deadline has passed.
+	 */
+	static class DeadlineExceededException extends RuntimeException {
+		
+		/**
+		 * serial number of the exception
+		 */
+		private static final long serialVersionUID = 1L;
+		
+		/**
+		 * Constructor for creating new <code>DeadlineExceededException</code>.
+		 */
+		DeadlineExceededException() {
+			super("Render deadline exceeded.", null, false, false);
+		}
+		
+	}
+	
+}
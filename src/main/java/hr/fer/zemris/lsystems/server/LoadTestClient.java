@@ -0,0 +1,208 @@
+package hr.fer.zemris.lsystems.server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Simple load generator for <code>RenderServer</code>. </br>
+ * Given number of clients send requests to the same URL back to back, </br>
+ * and latency of every request is recorded. Report contains throughput, </br>
+ * 50th and 99th percentile of latency and number of responses per status code class.
+ *
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+public class LoadTestClient {
+
+	/**
+	 * Method that is executed when program starts. </br>
+	 * Arguments are URL, number of clients (default 8) and number of requests (default 1000).
+	 *
+	 * @param args command line arguments
+	 * @throws Exception if test is interrupted or URL is not valid
+	 */
+	public static void main(String[] args) throws Exception {
+		if (args.length < 1) {
+			System.out.println("Usage: LoadTestClient url [clients] [requests]");
+			return;
+		}
+		URL url = new URL(args[0]);
+		int clients = args.length > 1 ? Integer.parseInt(args[1]) : 8;
+		int requests = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+
+		System.out.println(run(url, clients, requests));
+	}
+
+	/**
+	 * Method sends requests and measures their latency.
+	 *
+	 * @param url      URL that is requested
+	 * @param clients  number of concurrent clients
+	 * @param requests total number of requests
+	 * @return         report of the test
+	 * @throws InterruptedException if test is interrupted
+	 */
+	public static Report run(URL url, int clients, int requests) throws InterruptedException {
+		if (clients < 1 || requests < 1)
+			throw new IllegalArgumentException("Number of clients and requests must be positive.");
+
+		long[] latencies = new long[requests];
+		int[] statusClasses = new int[6];
+		AtomicInteger next = new AtomicInteger();
+		ExecutorService pool = Executors.newFixedThreadPool(clients);
+
+		long start = System.nanoTime();
+		for (int i = 0; i < clients; i++) {
+			pool.execute(() -> {
+				int index;
+				while ((index = next.getAndIncrement()) < requests) {
+					long requestStart = System.nanoTime();
+					int status = request(url);
+					latencies[index] = System.nanoTime() - requestStart;
+					synchronized (statusClasses) {
+						statusClasses[Math.max(0, Math.min(5, status / 100))]++;
+					}
+				}
+			});
+		}
+		pool.shutdown();
+		pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+		long elapsed = System.nanoTime() - start;
+
+		Arrays.sort(latencies);
+		return new Report(requests, elapsed, percentile(latencies, 0.50), percentile(latencies, 0.99), statusClasses);
+	}
+
+	/**
+	 * Helper method that sends one request and reads whole response.
+	 *
+	 * @param url URL that is requested
+	 * @return    status code, or 0 if connection failed
+	 */
+	private static int request(URL url) {
+		HttpURLConnection connection = null;
+		try {
+			connection = (HttpURLConnection) url.openConnection();
+			int status = connection.getResponseCode();
+			InputStream body = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+			if (body != null) {
+				try (InputStream input = body) {
+					byte[] buffer = new byte[8192];
+					while (input.read(buffer) != -1) {
+						// response is discarded
+					}
+				}
+			}
+			return status;
+		} catch (IOException ex) {
+			return 0;
+		}
+	}
+
+	/**
+	 * Helper method that returns percentile of sorted values.
+	 *
+	 * @param sorted   sorted values
+	 * @param fraction percentile as fraction
+	 * @return         value at given percentile
+	 */
+	private static long percentile(long[] sorted, double fraction) {
+		int index = (int) Math.ceil(fraction * sorted.length) - 1;
+		return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+	}
+
+	/**
+	 * Result of one load test.
+	 */
+	public static class Report {
+
+		/**
+		 * number of sent requests
+		 */
+		private final int requests;
+		/**
+		 * duration of the test in nanoseconds
+		 */
+		private final long elapsedNanos;
+		/**
+		 * median latency in nanoseconds
+		 */
+		private final long p50Nanos;
+		/**
+		 * 99th percentile of latency in nanoseconds
+		 */
+		private final long p99Nanos;
+		/**
+		 * number of responses per status code class, index 0 counts failed connections
+		 */
+		private final int[] statusClasses;
+
+		/**
+		 * Constructor for creating new <code>Report</code>.
+		 *
+		 * @param requests      number of sent requests
+		 * @param elapsedNanos  duration of the test in nanoseconds
+		 * @param p50Nanos      median latency in nanoseconds
+		 * @param p99Nanos      99th percentile of latency in nanoseconds
+		 * @param statusClasses number of responses per status code class
+		 */
+		Report(int requests, long elapsedNanos, long p50Nanos, long p99Nanos, int[] statusClasses) {
+			this.requests = requests;
+			this.elapsedNanos = elapsedNanos;
+			this.p50Nanos = p50Nanos;
+			this.p99Nanos = p99Nanos;
+			this.statusClasses = statusClasses;
+		}
+
+		/**
+		 * @return number of requests per second
+		 */
+		public double getThroughput() {
+			return requests * 1e9 / elapsedNanos;
+		}
+
+		/**
+		 * @return median latency in nanoseconds
+		 */
+		public long getP50Nanos() {
+			return p50Nanos;
+		}
+
+		/**
+		 * @return 99th percentile of latency in nanoseconds
+		 */
+		public long getP99Nanos() {
+			return p99Nanos;
+		}
+
+		/**
+		 * Method returns number of responses whose status code is in given class.
+		 *
+		 * @param statusClass status code divided by 100, or 0 for failed connections
+		 * @return            number of responses
+		 */
+		public int getCount(int statusClass) {
+			return statusClasses[statusClass];
+		}
+
+		@Override
+		public String toString() {
+			return String.format(Locale.ROOT,
+					"requests: %d, throughput: %.1f req/s, p50: %.2f ms, p99: %.2f ms, "
+					+ "2xx: %d, 4xx: %d, 5xx: %d, failed: %d",
+					requests, getThroughput(), p50Nanos / 1e6, p99Nanos / 1e6,
+					statusClasses[2], statusClasses[4], statusClasses[5], statusClasses[0]);
+		}
+
+	}
+
+}
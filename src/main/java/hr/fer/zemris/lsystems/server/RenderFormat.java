@@ -0,0 +1,211 @@
+package hr.fer.zemris.lsystems.server;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.Line2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+import javax.imageio.ImageIO;
+
+import hr.fer.zemris.lsystems.LSystem;
+import hr.fer.zemris.lsystems.Painter;
+import hr.fer.zemris.lsystems.impl.painters.DedupPainter;
+
+/**
+ * Output formats of <code>RenderServer</code>. </br>
+ * Coordinates of <code>LSystem</code> are in unit square with <i>y</i> axis pointing up, </br>
+ * like in <code>LSystemViewer</code>; image formats scale them to requested size.
+ * 
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+public enum RenderFormat {
+
+	/**
+	 * raster image
+	 */
+	PNG("image/png") {
+		@Override
+		byte[] render(LSystem system, int level, int width, int height, long deadline, boolean dedup,
+				long maxBytes) {
+			BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+			Graphics2D g2d = image.createGraphics();
+			try {
+				g2d.setColor(Color.WHITE);
+				g2d.fillRect(0, 0, width, height);
+				g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+				Line2D.Double line = new Line2D.Double();
+				Painter painter = (x0, y0, x1, y1, color, size) -> {
+					line.setLine(x0 * width, (1 - y0) * height, x1 * width, (1 - y1) * height);
+					g2d.setColor(color);
+					g2d.setStroke(new BasicStroke(size));
+					g2d.draw(line);
+				};
+				system.draw(level, source(painter, width, height, deadline, dedup));
+			} finally {
+				g2d.dispose();
+			}
+			
+			ByteArrayOutputStream output = new ByteArrayOutputStream();
+			try {
+				ImageIO.write(image, "png", output);
+			} catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+			return output.toByteArray();
+		}
+	},
+	/**
+	 * vector image with one <code>line</code> element per segment
+	 */
+	SVG("image/svg+xml") {
+		@Override
+		byte[] render(LSystem system, int level, int width, int height, long deadline, boolean dedup,
+				long maxBytes) {
+			StringBuilder svg = new StringBuilder(4096);
+			svg.append("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"").append(width)
+				.append("\" height=\"").append(height).append("\">\n");
+			Painter painter = (x0, y0, x1, y1, color, size) -> {
+				svg.append(String.format(Locale.ROOT,
+						"<line x1=\"%.2f\" y1=\"%.2f\" x2=\"%.2f\" y2=\"%.2f\" stroke=\"#%06x\" stroke-width=\"%.1f\"/>\n",
+						x0 * width, (1 - y0) * height, x1 * width, (1 - y1) * height,
+						color.getRGB() & 0xFFFFFF, size));
+				if (svg.length() > maxBytes)
+					throw new ResponseTooLargeException(maxBytes);
+			};
+			system.draw(level, source(painter, width, height, deadline, dedup));
+			svg.append("</svg>\n");
+			return svg.toString().getBytes(StandardCharsets.UTF_8);
+		}
+	},
+	/**
+	 * binary stream: magic <code>LSEG</code>, number of segments, and for every segment </br>
+	 * four <code>float</code> coordinates in unit square, ARGB color and width (big-endian)
+	 */
+	SEGMENTS("application/octet-stream") {
+		@Override
+		byte[] render(LSystem system, int level, int width, int height, long deadline, boolean dedup,
+				long maxBytes) {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+			DataOutputStream output = new DataOutputStream(bytes);
+			int[] count = new int[1];
+			Painter painter = (x0, y0, x1, y1, color, size) -> {
+				try {
+					output.writeFloat((float) x0);
+					output.writeFloat((float) y0);
+					output.writeFloat((float) x1);
+					output.writeFloat((float) y1);
+					output.writeInt(color.getRGB());
+					output.writeFloat(size);
+					count[0]++;
+					if (bytes.size() > maxBytes)
+						throw new ResponseTooLargeException(maxBytes);
+				} catch (IOException ex) {
+					throw new UncheckedIOException(ex);
+				}
+			};
+			try {
+				output.writeInt(SEGMENTS_MAGIC);
+				output.writeInt(0);
+				system.draw(level, source(painter, width, height, deadline, dedup));
+				output.flush();
+			} catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+			
+			byte[] result = bytes.toByteArray();
+			ByteBuffer.wrap(result).putInt(4, count[0]);
+			return result;
+		}
+	};
+	
+	/**
+	 * magic number that starts segment stream ("LSEG")
+	 */
+	public static final int SEGMENTS_MAGIC = 0x4C534547;
+	
+	/**
+	 * MIME type of the format
+	 */
+	private final String contentType;
+	
+	/**
+	 * Constructor for creating new <code>RenderFormat</code>.
+	 * 
+	 * @param contentType MIME type of the format
+	 */
+	private RenderFormat(String contentType) {
+		this.contentType = contentType;
+	}
+	
+	/**
+	 * @return MIME type of the format
+	 */
+	public String getContentType() {
+		return contentType;
+	}
+	
+	/**
+	 * Method renders system in this format.
+	 * 
+	 * @param system   system that is rendered
+	 * @param level    level that is rendered
+	 * @param width    width of the image in pixels
+	 * @param height   height of the image in pixels
+	 * @param deadline deadline from <code>System.nanoTime()</code>
+	 * @param dedup    <code>true</code> to drop segments that repeat already drawn segments
+	 * @param maxBytes largest size of vector output in bytes, raster image has fixed size and ignores it
+	 * @return         rendered bytes
+	 * @throws DeadlinePainter.DeadlineExceededException if deadline passes while rendering
+	 * @throws ResponseTooLargeException                 if output grows over the limit
+	 */
+	abstract byte[] render(LSystem system, int level, int width, int height, long deadline, boolean dedup,
+			long maxBytes);
+	
+	/**
+	 * Helper method that creates painter that system draws to.
+	 * 
+	 * @param painter  painter of the format
+	 * @param width    width of the image in pixels
+	 * @param height   height of the image in pixels
+	 * @param deadline deadline from <code>System.nanoTime()</code>
+	 * @param dedup    <code>true</code> to drop segments that repeat already drawn segments
+	 * @return         painter that checks deadline and optionally drops duplicates
+	 */
+	private static Painter source(Painter painter, int width, int height, long deadline, boolean dedup) {
+		return new DeadlinePainter(dedup ? DedupPainter.forImage(painter, width, height) : painter, deadline);
+	}
+	
+	/**
+	 * Exception that stops render whose output grew over the limit.
+	 */
+	static class ResponseTooLargeException extends RuntimeException {
+		
+		/**
+		 * serial number of the exception
+		 */
+		private static final long serialVersionUID = 1L;
+		
+		/**
+		 * Constructor for creating new <code>ResponseTooLargeException</code>.
+		 * 
+		 * @param maxBytes limit that was exceeded
+		 */
+		ResponseTooLargeException(long maxBytes) {
+			super("Response is larger than " + maxBytes + " bytes, request lower level or png format.",
+					null, false, false);
+		}
+		
+	}
+	
+}
@@ -0,0 +1,635 @@
+package hr.fer.zemris.lsystems.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.io.UnsupportedEncodingException;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import hr.fer.zemris.lsystems.LSystem;
+import hr.fer.zemris.lsystems.Painter;
+import hr.fer.zemris.lsystems.impl.AdaptiveLSystem;
+import hr.fer.zemris.lsystems.impl.ConfigParseException;
+import hr.fer.zemris.lsystems.impl.GrammarLibrary;
+import hr.fer.zemris.lsystems.impl.LSystemBuilderImpl;
+import hr.fer.zemris.lsystems.impl.StateUnderflowException;
+import hr.fer.zemris.lsystems.impl.admission.AdmissionException;
+import hr.fer.zemris.lsystems.impl.admission.AdmissionPolicy;
+
+/**
+ * Local HTTP service that renders <code>LSystem</code> definitions. </br>
+ * Endpoint <code>/render</code> accepts parameters <code>name</code> (definition from <code>GrammarLibrary</code>), </br>
+ * <code>level</code>, <code>width</code>, <code>height</code>, <code>format</code> (<code>png</code>, <code>svg</code> </br>
+ * or <code>segments</code>), <code>deadline</code> in milliseconds and <code>dedup=true</code>, which drops </br>
+ * segments that repeat already drawn ones (see <code>DedupPainter</code>), and <code>adaptive</code> with </br>
+ * threshold in pixels, which draws with <code>DrawMode.ADAPTIVE</code> for the requested size. </br>
+ * Inline definition is sent </br>
+ * as body of <code>POST</code> request instead of <code>name</code>. </br>
+ * Requests are handled on virtual threads when the runtime offers them (Java 21 and newer), </br>
+ * otherwise on cached pool of daemon threads. Rendering itself runs on bounded pool of platform threads: </br>
+ * when all render threads are busy and render queue is full, request is answered with 503 at once, </br>
+ * and render that misses its deadline is cancelled and answered with 504. </br>
+ * Level is limited to <code>MAX_LEVEL</code>, admission policy of the server checks both inline </br>
+ * and named definitions, and vector output that grows over <code>getMaxResponseBytes()</code> </br>
+ * is stopped and answered with 422, as is definition whose requested level pops more states than it pushes.
+ *
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+public class RenderServer implements Closeable {
+
+	/**
+	 * path of the render endpoint
+	 */
+	public static final String RENDER_PATH = "/render";
+	/**
+	 * largest width or height of rendered image in pixels
+	 */
+	private static final int MAX_IMAGE_SIZE = 4096;
+	/**
+	 * largest accepted inline definition in bytes
+	 */
+	private static final int MAX_BODY_SIZE = 1 << 16;
+	/**
+	 * largest requested level; estimating and streaming cost grows with level even for </br>
+	 * grammars that do not grow, so unbounded level could occupy render thread for ever
+	 */
+	public static final int MAX_LEVEL = 64;
+	/**
+	 * default largest size of vector response in bytes
+	 */
+	public static final long DEFAULT_MAX_RESPONSE_BYTES = 1L << 26;
+
+	/**
+	 * underlying HTTP server
+	 */
+	private final HttpServer server;
+	/**
+	 * library of named definitions
+	 */
+	private final GrammarLibrary library;
+	/**
+	 * executor that runs request handlers
+	 */
+	private final ExecutorService requestExecutor;
+	/**
+	 * bounded pool that runs renders
+	 */
+	private final ThreadPoolExecutor renderPool;
+	/**
+	 * policy applied to inline and named definitions, may be <code>null</code>
+	 */
+	private final AdmissionPolicy policy;
+	/**
+	 * deadline used when request does not give one, and upper bound for given deadlines
+	 */
+	private final long maxDeadlineMillis;
+	/**
+	 * largest size of vector response in bytes
+	 */
+	private volatile long maxResponseBytes = DEFAULT_MAX_RESPONSE_BYTES;
+
+	/**
+	 * number of renders that are queued or running
+	 */
+	private final AtomicInteger activeRenders = new AtomicInteger();
+	/**
+	 * number of successfully served renders
+	 */
+	private final LongAdder served = new LongAdder();
+	/**
+	 * number of requests rejected because render pool was full
+	 */
+	private final LongAdder overloaded = new LongAdder();
+	/**
+	 * number of renders that missed their deadline
+	 */
+	private final LongAdder timedOut = new LongAdder();
+
+	/**
+	 * Constructor for creating new <code>RenderServer</code>. Server is not started. </br>
+	 * If policy is given, it is also set to the library and definitions of the library are rebuilt, </br>
+	 * so named definitions are checked in the same way as inline ones.
+	 *
+	 * @param address           address to bind, port 0 picks free port
+	 * @param library           library of named definitions
+	 * @param renderThreads     number of platform threads that render
+	 * @param queueCapacity     number of renders that may wait for render thread, 0 for none
+	 * @param maxDeadlineMillis default and largest deadline of one request in milliseconds
+	 * @param policy            admission policy applied to all definitions, or <code>null</code>
+	 * @throws IOException if address can not be bound or definitions can not be rebuilt
+	 * @throws <code>IllegalArgumentException</code> if number of threads, queue capacity or deadline is not valid
+	 */
+	public RenderServer(InetSocketAddress address, GrammarLibrary library, int renderThreads, int queueCapacity,
+			long maxDeadlineMillis, AdmissionPolicy policy) throws IOException {
+		if (renderThreads < 1)
+			throw new IllegalArgumentException("Number of render threads must be positive, was: " + renderThreads);
+		if (queueCapacity < 0)
+			throw new IllegalArgumentException("Queue capacity must not be negative, was: " + queueCapacity);
+		if (maxDeadlineMillis <= 0)
+			throw new IllegalArgumentException("Deadline must be positive, was: " + maxDeadlineMillis);
+
+		this.library = Objects.requireNonNull(library);
+		this.policy = policy;
+		this.maxDeadlineMillis = maxDeadlineMillis;
+		if (policy != null) {
+			library.setAdmissionPolicy(policy);
+			library.loadAll();
+		}
+
+		BlockingQueue<Runnable> queue = queueCapacity == 0
+				? new SynchronousQueue<>()
+				: new LinkedBlockingQueue<>(queueCapacity);
+		AtomicInteger threadNumber = new AtomicInteger();
+		this.renderPool = new ThreadPoolExecutor(renderThreads, renderThreads, 0, TimeUnit.MILLISECONDS, queue,
+				runnable -> {
+					Thread thread = new Thread(runnable, "render-" + threadNumber.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}, new ThreadPoolExecutor.AbortPolicy()) {
+			@Override
+			protected void afterExecute(Runnable task, Throwable failure) {
+				// also runs for renders cancelled while queued
+				activeRenders.decrementAndGet();
+			}
+		};
+		this.requestExecutor = newRequestExecutor();
+
+		this.server = HttpServer.create(address, 0);
+		this.server.setExecutor(requestExecutor);
+		this.server.createContext(RENDER_PATH, this::handle);
+	}
+
+	/**
+	 * Method starts accepting requests.
+	 */
+	public void start() {
+		server.start();
+	}
+
+	/**
+	 * @return address where server accepts requests
+	 */
+	public InetSocketAddress getAddress() {
+		return server.getAddress();
+	}
+
+	/**
+	 * @return largest size of vector response in bytes
+	 */
+	public long getMaxResponseBytes() {
+		return maxResponseBytes;
+	}
+
+	/**
+	 * Method sets largest size of <code>svg</code> and <code>segments</code> response. </br>
+	 * Both are built in memory, so render that grows over the limit is stopped and answered with 422.
+	 * It returns <code>this</code> object.
+	 *
+	 * @param maxResponseBytes the limit in bytes
+	 * @return                 <code>this</code> object
+	 * @throws <code>IllegalArgumentException</code> if limit is not positive
+	 */
+	public RenderServer setMaxResponseBytes(long maxResponseBytes) {
+		if (maxResponseBytes <= 0)
+			throw new IllegalArgumentException("Response limit must be positive, was: " + maxResponseBytes);
+		this.maxResponseBytes = maxResponseBytes;
+		return this;
+	}
+
+	/**
+	 * @return number of renders that are queued or running
+	 */
+	public int getActiveRenders() {
+		return activeRenders.get();
+	}
+
+	/**
+	 * @return number of successfully served renders
+	 */
+	public long getServedCount() {
+		return served.sum();
+	}
+
+	/**
+	 * @return number of requests rejected because render pool was full
+	 */
+	public long getOverloadedCount() {
+		return overloaded.sum();
+	}
+
+	/**
+	 * @return number of renders that missed their deadline
+	 */
+	public long getTimedOutCount() {
+		return timedOut.sum();
+	}
+
+	/**
+	 * Method stops server and interrupts running renders.
+	 */
+	@Override
+	public void close() {
+		server.stop(0);
+		renderPool.shutdownNow();
+		requestExecutor.shutdownNow();
+	}
+
+	/**
+	 * Helper method that handles one request of the render endpoint.
+	 *
+	 * @param exchange request and its response
+	 * @throws IOException if response can not be sent
+	 */
+	private void handle(HttpExchange exchange) throws IOException {
+		try {
+			RenderRequest request = parse(exchange);
+			long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(request.deadlineMillis);
+			long maxBytes = maxResponseBytes;
+
+			Future<byte[]> future;
+			activeRenders.incrementAndGet();
+			try {
+				future = renderPool.submit(() -> request.format.render(request.system, request.level,
+						request.width, request.height, deadline, request.dedup, maxBytes));
+			} catch (RejectedExecutionException ex) {
+				activeRenders.decrementAndGet();
+				overloaded.increment();
+				throw new RequestException(503, "Render queue is full.");
+			}
+
+			byte[] body = await(future, deadline);
+			exchange.getResponseHeaders().set("Content-Type", request.format.getContentType());
+			send(exchange, 200, body);
+			served.increment();
+		} catch (RequestException ex) {
+			send(exchange, ex.status, (ex.getMessage() + "\n").getBytes(StandardCharsets.UTF_8));
+		} finally {
+			exchange.close();
+		}
+	}
+
+	/**
+	 * Helper method that waits for render until its deadline. </br>
+	 * Render that misses it is cancelled with interrupt, which the engine checks </br>
+	 * while expanding symbols, so render thread is released even if no line was drawn yet.
+	 *
+	 * @param future   pending render
+	 * @param deadline deadline from <code>System.nanoTime()</code>
+	 * @return         rendered bytes
+	 * @throws RequestException if render fails or misses deadline
+	 */
+	private byte[] await(Future<byte[]> future, long deadline) throws RequestException {
+		try {
+			return future.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+		} catch (TimeoutException | CancellationException ex) {
+			future.cancel(true);
+			timedOut.increment();
+			throw new RequestException(504, "Render deadline exceeded.");
+		} catch (InterruptedException ex) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new RequestException(503, "Server is shutting down.");
+		} catch (ExecutionException ex) {
+			Throwable cause = ex.getCause();
+			if (cause instanceof DeadlinePainter.DeadlineExceededException) {
+				timedOut.increment();
+				throw new RequestException(504, cause.getMessage());
+			}
+			if (cause instanceof AdmissionException || cause instanceof RenderFormat.ResponseTooLargeException
+					|| cause instanceof StateUnderflowException)
+				throw new RequestException(422, cause.getMessage());
+			if (cause instanceof CancellationException)
+				throw new RequestException(503, "Server is shutting down.");
+			throw new RequestException(500, "Render failed: " + cause);
+		}
+	}
+
+	/**
+	 * Helper method that reads parameters and definition of the request.
+	 *
+	 * @param exchange request that is parsed
+	 * @return         parsed request
+	 * @throws IOException      if body can not be read
+	 * @throws RequestException if request is not valid
+	 */
+	private RenderRequest parse(HttpExchange exchange) throws IOException, RequestException {
+		String method = exchange.getRequestMethod();
+		if (!method.equals("GET") && !method.equals("POST"))
+			throw new RequestException(405, "Method not allowed: " + method);
+
+		String query = exchange.getRequestURI().getRawQuery();
+		RenderRequest request = new RenderRequest();
+		request.level = intParameter(query, "level", 0, 0, MAX_LEVEL);
+		request.width = intParameter(query, "width", 512, 1, MAX_IMAGE_SIZE);
+		request.height = intParameter(query, "height", 512, 1, MAX_IMAGE_SIZE);
+		request.deadlineMillis = Math.min(maxDeadlineMillis,
+				intParameter(query, "deadline", (int) Math.min(maxDeadlineMillis, Integer.MAX_VALUE), 1, Integer.MAX_VALUE));
+
+		request.dedup = "true".equals(parameter(query, "dedup"));
+
+		String format = parameter(query, "format");
+		try {
+			request.format = format == null
+					? RenderFormat.PNG
+					: RenderFormat.valueOf(format.toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException ex) {
+			throw new RequestException(400, "Unknown format: " + format);
+		}
+
+		String name = parameter(query, "name");
+		if (name != null) {
+			request.system = library.get(name);
+			if (request.system == null)
+				throw new RequestException(404, "Unknown definition: " + name);
+		} else if (method.equals("POST")) {
+			request.system = buildInline(readBody(exchange.getRequestBody()));
+		} else {
+			throw new RequestException(400, "Either parameter 'name' or definition in body is required.");
+		}
+
+		String adaptive = parameter(query, "adaptive");
+		if (adaptive != null && request.system instanceof AdaptiveLSystem) {
+			double threshold;
+			try {
+				threshold = Double.parseDouble(adaptive);
+			} catch (NumberFormatException ex) {
+				threshold = Double.NaN;
+			}
+			if (!(threshold >= 0))
+				throw new RequestException(400, "Parameter 'adaptive' must be non-negative number, was: " + adaptive);
+			request.system = new AdaptiveView((AdaptiveLSystem) request.system, request.width, request.height, threshold);
+		}
+		return request;
+	}
+
+	/**
+	 * Helper method that builds inline definition.
+	 *
+	 * @param text configuration text
+	 * @return     built <code>LSystem</code>
+	 * @throws IOException      if text can not be read
+	 * @throws RequestException if text is not valid configuration
+	 */
+	private LSystem buildInline(String text) throws IOException, RequestException {
+		try {
+			LSystemBuilderImpl builder = new LSystemBuilderImpl();
+			builder.configureFrom(new StringReader(text));
+			if (policy != null) {
+				builder.setAdmissionPolicy(policy);
+			}
+			return builder.build();
+		} catch (ConfigParseException ex) {
+			throw new RequestException(400, ex.getMessage());
+		}
+	}
+
+	/**
+	 * Helper method that reads body of the request.
+	 *
+	 * @param input body of the request
+	 * @return      body as UTF-8 text
+	 * @throws IOException      if body can not be read
+	 * @throws RequestException if body is too large
+	 */
+	private static String readBody(InputStream input) throws IOException, RequestException {
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		byte[] buffer = new byte[4096];
+		int read;
+		while ((read = input.read(buffer)) != -1) {
+			body.write(buffer, 0, read);
+			if (body.size() > MAX_BODY_SIZE)
+				throw new RequestException(413, "Definition is larger than " + MAX_BODY_SIZE + " bytes.");
+		}
+		return new String(body.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Helper method that sends response.
+	 *
+	 * @param exchange request whose response is sent
+	 * @param status   HTTP status code
+	 * @param body     body of the response
+	 * @throws IOException if response can not be sent
+	 */
+	private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+		exchange.sendResponseHeaders(status, body.length);
+		try (OutputStream output = exchange.getResponseBody()) {
+			output.write(body);
+		}
+	}
+
+	/**
+	 * Helper method that returns value of query parameter.
+	 *
+	 * @param query raw query of the request, may be <code>null</code>
+	 * @param name  name of the parameter
+	 * @return      decoded value, or <code>null</code> if there is no such parameter
+	 */
+	private static String parameter(String query, String name) {
+		if (query == null)
+			return null;
+
+		for (String pair : query.split("&")) {
+			int equals = pair.indexOf('=');
+			String key = equals < 0 ? pair : pair.substring(0, equals);
+			if (key.equals(name)) {
+				try {
+					return equals < 0 ? "" : URLDecoder.decode(pair.substring(equals + 1), "UTF-8");
+				} catch (UnsupportedEncodingException ex) {
+					// every Java platform is required to support UTF-8
+					throw new IllegalStateException(ex);
+				}
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Helper method that returns integer query parameter.
+	 *
+	 * @param query        raw query of the request
+	 * @param name         name of the parameter
+	 * @param defaultValue value used when parameter is missing
+	 * @param min          smallest allowed value
+	 * @param max          largest allowed value
+	 * @return             value of the parameter
+	 * @throws RequestException if value is not integer in allowed range
+	 */
+	private static int intParameter(String query, String name, int defaultValue, int min, int max)
+			throws RequestException {
+		String value = parameter(query, name);
+		if (value == null)
+			return defaultValue;
+
+		try {
+			int result = Integer.parseInt(value);
+			if (result >= min && result <= max)
+				return result;
+		} catch (NumberFormatException ex) {
+			// reported below
+		}
+		throw new RequestException(400, "Parameter '" + name + "' must be integer in ["
+				+ min + ", " + max + "], was: " + value);
+	}
+
+	/**
+	 * Helper method that creates executor of request handlers. </br>
+	 * Virtual threads are looked up by reflection, so server runs on every supported runtime.
+	 *
+	 * @return executor that starts new virtual thread per request, or cached pool of daemon threads
+	 */
+	private static ExecutorService newRequestExecutor() {
+		try {
+			Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+			return (ExecutorService) factory.invoke(null);
+		} catch (ReflectiveOperationException ex) {
+			AtomicInteger threadNumber = new AtomicInteger();
+			return Executors.newCachedThreadPool(runnable -> {
+				Thread thread = new Thread(runnable, "render-request-" + threadNumber.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+	}
+
+	/**
+	 * View of <code>AdaptiveLSystem</code> that always draws adaptively for one image size.
+	 */
+	private static class AdaptiveView implements LSystem {
+
+		/**
+		 * system that is drawn
+		 */
+		private final AdaptiveLSystem system;
+		/**
+		 * width of the image in pixels
+		 */
+		private final int width;
+		/**
+		 * height of the image in pixels
+		 */
+		private final int height;
+		/**
+		 * size in pixels below which subtree is replaced
+		 */
+		private final double threshold;
+
+		/**
+		 * Constructor for creating new <code>AdaptiveView</code>.
+		 *
+		 * @param system    system that is drawn
+		 * @param width     width of the image in pixels
+		 * @param height    height of the image in pixels
+		 * @param threshold size in pixels below which subtree is replaced
+		 */
+		AdaptiveView(AdaptiveLSystem system, int width, int height, double threshold) {
+			this.system = system;
+			this.width = width;
+			this.height = height;
+			this.threshold = threshold;
+		}
+
+		@Override
+		public void draw(int level, Painter painter) {
+			system.drawAdaptive(level, painter, width, height, threshold);
+		}
+
+		@Override
+		public String generate(int level) {
+			return system.generate(level);
+		}
+
+	}
+
+	/**
+	 * Parsed render request.
+	 */
+	private static class RenderRequest {
+
+		/**
+		 * system that is rendered
+		 */
+		private LSystem system;
+		/**
+		 * level that is rendered
+		 */
+		private int level;
+		/**
+		 * width of the image in pixels
+		 */
+		private int width;
+		/**
+		 * height of the image in pixels
+		 */
+		private int height;
+		/**
+		 * output format
+		 */
+		private RenderFormat format;
+		/**
+		 * deadline of the request in milliseconds
+		 */
+		private long deadlineMillis;
+		/**
+		 * flag that drops repeated segments
+		 */
+		private boolean dedup;
+
+	}
+
+	/**
+	 * Exception that ends request with given status code.
+	 */
+	private static class RequestException extends Exception {
+
+		/**
+		 * serial number of the exception
+		 */
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * HTTP status code of the response
+		 */
+		private final int status;
+
+		/**
+		 * Constructor for creating new <code>RequestException</code>.
+		 *
+		 * @param status  HTTP status code of the response
+		 * @param message message sent as body of the response
+		 */
+		RequestException(int status, String message) {
+			super(message, null, false, false);
+			this.status = status;
+		}
+
+	}
+
+}
@@ -0,0 +1,333 @@
+package hr.fer.zemris.math;
+
+import java.util.Objects;
+
+/**
+ * Class represents affine transformation in two dimensions as 2x3 matrix: </br>
+ * <pre>
+ * [ m00 m01 m02 ]
+ * [ m10 m11 m12 ]
+ * </pre>
+ * Point (x, y) is transformed to (m00 * x + m01 * y + m02, m10 * x + m11 * y + m12). </br>
+ * All operations modify existing objects or write to arrays given by caller, </br>
+ * so transformations can be composed and applied without allocating. </br>
+ * Angles are given in degrees, just like in <code>Vector2D</code>.
+ *
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+public class Affine2D {
+
+	/**
+	 * determinant below which transformation is treated as not invertible
+	 */
+	private static final double SINGULAR_THRESHOLD = 1E-12;
+
+	/**
+	 * elements of the matrix
+	 */
+	private double m00, m01, m02, m10, m11, m12;
+
+	/**
+	 * Constructor that creates identity transformation.
+	 */
+	public Affine2D() {
+		setIdentity();
+	}
+
+	/**
+	 * Constructor that creates transformation with given matrix elements.
+	 *
+	 * @param m00 element in the first row and first column
+	 * @param m01 element in the first row and second column
+	 * @param m02 translation along x axis
+	 * @param m10 element in the second row and first column
+	 * @param m11 element in the second row and second column
+	 * @param m12 translation along y axis
+	 */
+	public Affine2D(double m00, double m01, double m02, double m10, double m11, double m12) {
+		set(m00, m01, m02, m10, m11, m12);
+	}
+
+	/**
+	 * Method that sets all elements of the matrix.
+	 *
+	 * @param m00 element in the first row and first column
+	 * @param m01 element in the first row and second column
+	 * @param m02 translation along x axis
+	 * @param m10 element in the second row and first column
+	 * @param m11 element in the second row and second column
+	 * @param m12 translation along y axis
+	 */
+	public void set(double m00, double m01, double m02, double m10, double m11, double m12) {
+		this.m00 = m00;
+		this.m01 = m01;
+		this.m02 = m02;
+		this.m10 = m10;
+		this.m11 = m11;
+		this.m12 = m12;
+	}
+
+	/**
+	 * Method that copies given transformation into this one.
+	 *
+	 * @param other <code>Affine2D</code> that is copied
+	 * @throws      <code>NullPointerException</code> if given transformation is <code>null</code>
+	 */
+	public void set(Affine2D other) {
+		Objects.requireNonNull(other);
+		set(other.m00, other.m01, other.m02, other.m10, other.m11, other.m12);
+	}
+
+	/**
+	 * Method that sets this transformation to identity.
+	 */
+	public void setIdentity() {
+		set(1, 0, 0, 0, 1, 0);
+	}
+
+	/**
+	 * Method that sets this transformation to translation by given offset.
+	 *
+	 * @param tx <code>double</code> translation along x axis
+	 * @param ty <code>double</code> translation along y axis
+	 */
+	public void setTranslation(double tx, double ty) {
+		set(1, 0, tx, 0, 1, ty);
+	}
+
+	/**
+	 * Method that sets this transformation to rotation around origin by given angle.
+	 *
+	 * @param angle <code>double</code> angle in degrees
+	 */
+	public void setRotation(double angle) {
+		double angleInRad = angle * Math.PI / 180;
+		double cos = Math.cos(angleInRad);
+		double sin = Math.sin(angleInRad);
+		set(cos, -sin, 0, sin, cos, 0);
+	}
+
+	/**
+	 * Method that sets this transformation to uniform scaling around origin.
+	 *
+	 * @param scaler <code>double</code> scaling factor
+	 */
+	public void setScale(double scaler) {
+		set(scaler, 0, 0, 0, scaler, 0);
+	}
+
+	/**
+	 * Method that appends given transformation to this one, so that </br>
+	 * <code>other</code> is applied first and then this transformation (this = this * other).
+	 *
+	 * @param other <code>Affine2D</code> that is applied before this transformation
+	 * @throws      <code>NullPointerException</code> if given transformation is <code>null</code>
+	 */
+	public void concatenate(Affine2D other) {
+		multiply(this, other, this);
+	}
+
+	/**
+	 * Method that prepends given transformation to this one, so that </br>
+	 * this transformation is applied first and then <code>other</code> (this = other * this).
+	 *
+	 * @param other <code>Affine2D</code> that is applied after this transformation
+	 * @throws      <code>NullPointerException</code> if given transformation is <code>null</code>
+	 */
+	public void preConcatenate(Affine2D other) {
+		multiply(other, this, this);
+	}
+
+	/**
+	 * Method that stores product <code>a * b</code> into <code>out</code>. </br>
+	 * Resulting transformation applies <code>b</code> first and then <code>a</code>. </br>
+	 * Output is allowed to be the same object as any of the operands.
+	 *
+	 * @param a   <code>Affine2D</code> that is applied second
+	 * @param b   <code>Affine2D</code> that is applied first
+	 * @param out <code>Affine2D</code> where result is stored
+	 * @throws    <code>NullPointerException</code> if any of the arguments is <code>null</code>
+	 */
+	public static void multiply(Affine2D a, Affine2D b, Affine2D out) {
+		Objects.requireNonNull(a);
+		Objects.requireNonNull(b);
+		Objects.requireNonNull(out);
+
+		double n00 = a.m00 * b.m00 + a.m01 * b.m10;
+		double n01 = a.m00 * b.m01 + a.m01 * b.m11;
+		double n02 = a.m00 * b.m02 + a.m01 * b.m12 + a.m02;
+		double n10 = a.m10 * b.m00 + a.m11 * b.m10;
+		double n11 = a.m10 * b.m01 + a.m11 * b.m11;
+		double n12 = a.m10 * b.m02 + a.m11 * b.m12 + a.m12;
+		out.set(n00, n01, n02, n10, n11, n12);
+	}
+
+	/**
+	 * Method returns determinant of the linear part of this transformation.
+	 *
+	 * @return <code>double</code> determinant
+	 */
+	public double determinant() {
+		return m00 * m11 - m01 * m10;
+	}
+
+	/**
+	 * Method that stores inverse of this transformation into <code>out</code>. </br>
+	 * Output is allowed to be this object.
+	 *
+	 * @param out <code>Affine2D</code> where inverse is stored
+	 * @throws    <code>IllegalStateException</code> if this transformation is not invertible
+	 * @throws    <code>NullPointerException</code> if given output is <code>null</code>
+	 */
+	public void invert(Affine2D out) {
+		Objects.requireNonNull(out);
+
+		double det = determinant();
+		if (Math.abs(det) < SINGULAR_THRESHOLD)
+			throw new IllegalStateException("Transformation is not invertible. Determinant was: " + det);
+
+		double n00 = m11 / det;
+		double n01 = -m01 / det;
+		double n10 = -m10 / det;
+		double n11 = m00 / det;
+		double n02 = -(n00 * m02 + n01 * m12);
+		double n12 = -(n10 * m02 + n11 * m12);
+		out.set(n00, n01, n02, n10, n11, n12);
+	}
+
+	/**
+	 * Method that stores this transformation applied <code>n</code> times into <code>out</code>. </br>
+	 * Power is calculated by repeated squaring, so it takes O(log n) multiplications. </br>
+	 * Negative <code>n</code> applies inverse transformation. Output must not be this object.
+	 *
+	 * @param n   <code>int</code> number of times transformation is applied
+	 * @param out <code>Affine2D</code> where result is stored
+	 * @throws    <code>IllegalArgumentException</code> if output is this object
+	 * @throws    <code>IllegalStateException</code> if <code>n</code> is negative and transformation is not invertible
+	 */
+	public void pow(int n, Affine2D out) {
+		Objects.requireNonNull(out);
+		if (out == this)
+			throw new IllegalArgumentException("Output must not be the transformation itself.");
+
+		Affine2D base = new Affine2D();
+		if (n < 0) {
+			invert(base);
+		} else {
+			base.set(this);
+		}
+
+		out.setIdentity();
+		long exponent = Math.abs((long) n);
+		while (exponent > 0) {
+			if ((exponent & 1) != 0)
+				multiply(out, base, out);
+			exponent >>>= 1;
+			if (exponent > 0)
+				multiply(base, base, base);
+		}
+	}
+
+	/**
+	 * Method that transforms given point and stores result into <code>out</code> </br>
+	 * at indexes <code>offset</code> (x component) and <code>offset + 1</code> (y component).
+	 *
+	 * @param x      <code>double</code> x component of the point
+	 * @param y      <code>double</code> y component of the point
+	 * @param out    array where result is stored
+	 * @param offset index where x component of the result is stored
+	 */
+	public void apply(double x, double y, double[] out, int offset) {
+		out[offset] = m00 * x + m01 * y + m02;
+		out[offset + 1] = m10 * x + m11 * y + m12;
+	}
+
+	/**
+	 * Method that transforms <code>count</code> points stored as interleaved (x, y) pairs. </br>
+	 * Source and destination are allowed to be the same array.
+	 *
+	 * @param src       array of source points
+	 * @param srcOffset index of x component of the first source point
+	 * @param dst       array where transformed points are stored
+	 * @param dstOffset index where x component of the first transformed point is stored
+	 * @param count     number of points
+	 */
+	public void apply(double[] src, int srcOffset, double[] dst, int dstOffset, int count) {
+		for (int i = 0; i < count; i++) {
+			double x = src[srcOffset + 2 * i];
+			double y = src[srcOffset + 2 * i + 1];
+			dst[dstOffset + 2 * i] = m00 * x + m01 * y + m02;
+			dst[dstOffset + 2 * i + 1] = m10 * x + m11 * y + m12;
+		}
+	}
+
+	/**
+	 * Method that transforms given point in place.
+	 *
+	 * @param point <code>Vector2D</code> that is transformed
+	 * @throws      <code>NullPointerException</code> if given point is <code>null</code>
+	 */
+	public void applyToPoint(Vector2D point) {
+		double x = point.getX();
+		double y = point.getY();
+		point.set(m00 * x + m01 * y + m02, m10 * x + m11 * y + m12);
+	}
+
+	/**
+	 * Method that transforms given direction in place. </br>
+	 * Translation part of the transformation is ignored.
+	 *
+	 * @param direction <code>Vector2D</code> that is transformed
+	 * @throws          <code>NullPointerException</code> if given direction is <code>null</code>
+	 */
+	public void applyToDirection(Vector2D direction) {
+		double x = direction.getX();
+		double y = direction.getY();
+		direction.set(m00 * x + m01 * y, m10 * x + m11 * y);
+	}
+
+	/**
+	 * @return element in the first row and first column
+	 */
+	public double getM00() {
+		return m00;
+	}
+
+	/**
+	 * @return element in the first row and second column
+	 */
+	public double getM01() {
+		return m01;
+	}
+
+	/**
+	 * @return translation along x axis
+	 */
+	public double getM02() {
+		return m02;
+	}
+
+	/**
+	 * @return element in the second row and first column
+	 */
+	public double getM10() {
+		return m10;
+	}
+
+	/**
+	 * @return element in the second row and second column
+	 */
+	public double getM11() {
+		return m11;
+	}
+
+	/**
+	 * @return translation along y axis
+	 */
+	public double getM12() {
+		return m12;
+	}
+
+}
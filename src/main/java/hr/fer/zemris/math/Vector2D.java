@@ -74,12 +74,45 @@ public class Vector2D {
 	
 	/**
 	 * Method returns new <code>Vector2D</code> object that represents rotation of this vector by given <code>angle</code>.
+	 * Just like <code>rotate</code>, angle is given in degrees.
 	 * 
-	 * @param angle <code>Vector2D</code> that represents angle by which this vector is rotated
+	 * @param angle <code>double</code> angle in degrees by which this vector is rotated
 	 * @return       new <code>Vector2D</code> object that represents rotation of this vector by given <code>angle</code>.
 	 */
 	public Vector2D rotated(double angle) {
-		return new Vector2D(getRotatedX(angle), getRotatedY(angle));
+		double angleInRad = angle * Math.PI / 180;
+		return new Vector2D(getRotatedX(angleInRad), getRotatedY(angleInRad));
+	}
+	
+	/**
+	 * Method that rotates this vector by angle whose cosine and sine are given. </br>
+	 * It is used when the same rotation is applied many times, 
+	 * so that trigonometric functions are calculated only once.
+	 * 
+	 * @param cos <code>double</code> cosine of the angle
+	 * @param sin <code>double</code> sine of the angle
+	 */
+	public void rotateByCosSin(double cos, double sin) {
+		double newX = x * cos - y * sin;
+		double newY = y * cos + x * sin;
+		x = newX;
+		y = newY;
+	}
+	
+	/**
+	 * Method that translates this vector by given <code>direction</code> scaled by <code>scaler</code>. </br>
+	 * It has the same effect as <code>translate(direction.scaled(scaler))</code>, 
+	 * but creates no intermediate vector.
+	 * 
+	 * @param direction <code>Vector2D</code> direction of translation
+	 * @param scaler    <code>double</code> scaler by which direction is scaled
+	 * @throws 		    <code>NullPointerException</code> if given direction is <code>null</code>
+	 */
+	public void translateScaled(Vector2D direction, double scaler) {
+		Objects.requireNonNull(direction);
+		
+		x += direction.x * scaler;
+		y += direction.y * scaler;
 	}
 	
 	/**
@@ -129,6 +162,30 @@ public class Vector2D {
 		return y;
 	}
 	
+	/**
+	 * Method sets both components of vector.
+	 * 
+	 * @param x <code>double</code> new x component of vector
+	 * @param y <code>double</code> new y component of vector
+	 */
+	public void set(double x, double y) {
+		this.x = x;
+		this.y = y;
+	}
+	
+	/**
+	 * Method copies components of given vector into this vector.
+	 * 
+	 * @param other <code>Vector2D</code> whose components are copied
+	 * @throws 		<code>NullPointerException</code> if given vector is <code>null</code>
+	 */
+	public void set(Vector2D other) {
+		Objects.requireNonNull(other);
+		
+		this.x = other.x;
+		this.y = other.y;
+	}
+	
 	/**
 	 * Method sets x component of vector.
 	 * 
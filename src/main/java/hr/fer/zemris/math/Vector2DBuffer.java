@@ -0,0 +1,309 @@
+package hr.fer.zemris.math;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Class represents growable buffer of two dimensional points. </br>
+ * Components are stored in two separate <code>double</code> arrays (x components and y components), </br>
+ * so bulk operations are simple counted loops over primitive arrays </br>
+ * that JIT compiler can unroll and vectorize. </br>
+ * It is intended for post-processing of large numbers of points, </br>
+ * where one <code>Vector2D</code> object per point would be too expensive.
+ *
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+public class Vector2DBuffer {
+
+	/**
+	 * default capacity is used when initial capacity of buffer is not given
+	 */
+	private static final int DEFAULT_CAPACITY = 16;
+	/**
+	 * used for resizing buffer capacity
+	 */
+	private static final int CAPACITY_MULTIPLIER = 2;
+
+	/**
+	 * x components of points
+	 */
+	private double[] xs;
+	/**
+	 * y components of points
+	 */
+	private double[] ys;
+	/**
+	 * number of points stored in buffer
+	 */
+	private int size;
+
+	/**
+	 * Constructor that creates new empty buffer with default capacity.
+	 */
+	public Vector2DBuffer() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructor that creates new empty buffer with given capacity.
+	 *
+	 * @param initialCapacity initial number of points that buffer can store without reallocating
+	 * @throws <code>IllegalArgumentException</code> if given initial capacity is less than one
+	 */
+	public Vector2DBuffer(int initialCapacity) {
+		if (initialCapacity < 1)
+			throw new IllegalArgumentException("Capacity must not be less then one.");
+		xs = new double[initialCapacity];
+		ys = new double[initialCapacity];
+	}
+
+	/**
+	 * Returns number of points stored in buffer.
+	 *
+	 * @return number of points
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Removes all points from buffer. Capacity is not changed.
+	 */
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * Method that is used for reallocating buffer with larger capacity only if necessary.
+	 *
+	 * @param minCapacity minimum number of points that buffer must be able to store without reallocating
+	 */
+	public void ensureCapacity(int minCapacity) {
+		if (minCapacity > xs.length) {
+			int capacity = Math.max(xs.length * CAPACITY_MULTIPLIER, minCapacity);
+			xs = Arrays.copyOf(xs, capacity);
+			ys = Arrays.copyOf(ys, capacity);
+		}
+	}
+
+	/**
+	 * Adds point with given components to the end of buffer.
+	 *
+	 * @param x <code>double</code> x component of the point
+	 * @param y <code>double</code> y component of the point
+	 */
+	public void add(double x, double y) {
+		ensureCapacity(size + 1);
+		xs[size] = x;
+		ys[size] = y;
+		size++;
+	}
+
+	/**
+	 * Adds components of given vector to the end of buffer.
+	 *
+	 * @param vector <code>Vector2D</code> whose components are added
+	 * @throws       <code>NullPointerException</code> if given vector is <code>null</code>
+	 */
+	public void add(Vector2D vector) {
+		Objects.requireNonNull(vector);
+		add(vector.getX(), vector.getY());
+	}
+
+	/**
+	 * Returns x component of the point at given index.
+	 *
+	 * @param index index of the point
+	 * @return      <code>double</code> x component
+	 * @throws      <code>IndexOutOfBoundsException</code> if index is not valid
+	 */
+	public double getX(int index) {
+		checkIndex(index);
+		return xs[index];
+	}
+
+	/**
+	 * Returns y component of the point at given index.
+	 *
+	 * @param index index of the point
+	 * @return      <code>double</code> y component
+	 * @throws      <code>IndexOutOfBoundsException</code> if index is not valid
+	 */
+	public double getY(int index) {
+		checkIndex(index);
+		return ys[index];
+	}
+
+	/**
+	 * Copies point at given index into given vector.
+	 *
+	 * @param index index of the point
+	 * @param out   <code>Vector2D</code> where components are stored
+	 * @throws      <code>IndexOutOfBoundsException</code> if index is not valid
+	 */
+	public void get(int index, Vector2D out) {
+		checkIndex(index);
+		out.set(xs[index], ys[index]);
+	}
+
+	/**
+	 * Sets components of the point at given index.
+	 *
+	 * @param index index of the point
+	 * @param x     <code>double</code> new x component
+	 * @param y     <code>double</code> new y component
+	 * @throws      <code>IndexOutOfBoundsException</code> if index is not valid
+	 */
+	public void set(int index, double x, double y) {
+		checkIndex(index);
+		xs[index] = x;
+		ys[index] = y;
+	}
+
+	/**
+	 * Translates all points by given offset.
+	 *
+	 * @param dx <code>double</code> offset along x axis
+	 * @param dy <code>double</code> offset along y axis
+	 */
+	public void translate(double dx, double dy) {
+		double[] xs = this.xs;
+		double[] ys = this.ys;
+		int size = this.size;
+		for (int i = 0; i < size; i++) {
+			xs[i] += dx;
+		}
+		for (int i = 0; i < size; i++) {
+			ys[i] += dy;
+		}
+	}
+
+	/**
+	 * Scales all points by given factors around origin.
+	 *
+	 * @param sx <code>double</code> factor along x axis
+	 * @param sy <code>double</code> factor along y axis
+	 */
+	public void scale(double sx, double sy) {
+		double[] xs = this.xs;
+		double[] ys = this.ys;
+		int size = this.size;
+		for (int i = 0; i < size; i++) {
+			xs[i] *= sx;
+		}
+		for (int i = 0; i < size; i++) {
+			ys[i] *= sy;
+		}
+	}
+
+	/**
+	 * Transforms all points with given affine transformation.
+	 *
+	 * @param transform <code>Affine2D</code> that is applied to every point
+	 * @throws          <code>NullPointerException</code> if given transformation is <code>null</code>
+	 */
+	public void transform(Affine2D transform) {
+		double m00 = transform.getM00();
+		double m01 = transform.getM01();
+		double m02 = transform.getM02();
+		double m10 = transform.getM10();
+		double m11 = transform.getM11();
+		double m12 = transform.getM12();
+
+		double[] xs = this.xs;
+		double[] ys = this.ys;
+		int size = this.size;
+		for (int i = 0; i < size; i++) {
+			double x = xs[i];
+			double y = ys[i];
+			xs[i] = m00 * x + m01 * y + m02;
+			ys[i] = m10 * x + m11 * y + m12;
+		}
+	}
+
+	/**
+	 * Calculates axis aligned bounding box of all points and stores it into <code>out</code> </br>
+	 * as (minX, minY, maxX, maxY). For empty buffer minimums are positive infinity </br>
+	 * and maximums are negative infinity. <code>NaN</code> components are ignored.
+	 *
+	 * @param out array of at least four elements where bounds are stored
+	 */
+	public void bounds(double[] out) {
+		double[] xs = this.xs;
+		double[] ys = this.ys;
+		int size = this.size;
+
+		double minX = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < size; i++) {
+			double x = xs[i];
+			minX = x < minX ? x : minX;
+			maxX = x > maxX ? x : maxX;
+		}
+		double minY = Double.POSITIVE_INFINITY;
+		double maxY = Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < size; i++) {
+			double y = ys[i];
+			minY = y < minY ? y : minY;
+			maxY = y > maxY ? y : maxY;
+		}
+
+		out[0] = minX;
+		out[1] = minY;
+		out[2] = maxX;
+		out[3] = maxY;
+	}
+
+	/**
+	 * Copies points into given array, storing components of point <code>i</code> at </br>
+	 * <code>offset + i * stride</code> (x component) and <code>offset + i * stride + 1</code> (y component). </br>
+	 * Stride of two gives interleaved (x, y) pairs that <code>Affine2D.apply</code> accepts.
+	 *
+	 * @param dst    array where points are stored
+	 * @param offset index where x component of the first point is stored
+	 * @param stride distance between x components of two neighbouring points, at least two
+	 * @throws       <code>IllegalArgumentException</code> if stride is less than two
+	 */
+	public void copyStrided(double[] dst, int offset, int stride) {
+		if (stride < 2)
+			throw new IllegalArgumentException("Stride must be at least two. You entered: " + stride);
+
+		for (int i = 0; i < size; i++) {
+			dst[offset + i * stride] = xs[i];
+			dst[offset + i * stride + 1] = ys[i];
+		}
+	}
+
+	/**
+	 * Copies points into given <code>float</code> array with given stride, </br>
+	 * which is the layout expected by most rasterizers and exporters.
+	 *
+	 * @param dst    array where points are stored
+	 * @param offset index where x component of the first point is stored
+	 * @param stride distance between x components of two neighbouring points, at least two
+	 * @throws       <code>IllegalArgumentException</code> if stride is less than two
+	 */
+	public void copyStrided(float[] dst, int offset, int stride) {
+		if (stride < 2)
+			throw new IllegalArgumentException("Stride must be at least two. You entered: " + stride);
+
+		for (int i = 0; i < size; i++) {
+			dst[offset + i * stride] = (float) xs[i];
+			dst[offset + i * stride + 1] = (float) ys[i];
+		}
+	}
+
+	/**
+	 * Helper method that checks if given index is valid.
+	 *
+	 * @param index index that is checked
+	 * @throws      <code>IndexOutOfBoundsException</code> if index is not valid
+	 */
+	private void checkIndex(int index) {
+		if (index < 0 || index >= size)
+			throw new IndexOutOfBoundsException("You entered: " + index);
+	}
+
+}
@@ -0,0 +1,128 @@
+package hr.fer.zemris.java.custom.collections;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of bulk operations of <code>ArrayIndexedCollection</code>
+ * on large workloads. Each bulk operation is measured next to
+ * the element by element equivalent it replaces.
+ *
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ArrayIndexedCollectionBenchmark {
+
+	@Param({ "1000000", "10000000" })
+	private int size;
+
+	private Object[] values;
+
+	private ArrayIndexedCollection source;
+
+	@Setup
+	public void setup() {
+		values = new Object[size];
+		for (int i = 0; i < size; i++) {
+			values[i] = Integer.valueOf(i & 0xFFFF);
+		}
+		source = new ArrayIndexedCollection();
+		source.addAll(values);
+	}
+
+	@Benchmark
+	public ArrayIndexedCollection addOneByOne() {
+		ArrayIndexedCollection collection = new ArrayIndexedCollection();
+		for (Object value : values) {
+			collection.add(value);
+		}
+		return collection;
+	}
+
+	@Benchmark
+	public ArrayIndexedCollection addPresized() {
+		ArrayIndexedCollection collection = new ArrayIndexedCollection();
+		collection.ensureCapacity(size);
+		for (Object value : values) {
+			collection.add(value);
+		}
+		return collection;
+	}
+
+	@Benchmark
+	public ArrayIndexedCollection addAllArray() {
+		ArrayIndexedCollection collection = new ArrayIndexedCollection();
+		collection.addAll(values);
+		return collection;
+	}
+
+	@Benchmark
+	public ArrayIndexedCollection addAllProcessor() {
+		ArrayIndexedCollection collection = new ArrayIndexedCollection();
+		source.forEach(new Processor() {
+			@Override
+			public void process(Object value) {
+				collection.add(value);
+			}
+		});
+		return collection;
+	}
+
+	@Benchmark
+	public ArrayIndexedCollection addAllCollection() {
+		ArrayIndexedCollection collection = new ArrayIndexedCollection();
+		collection.addAll(source);
+		return collection;
+	}
+
+	@Benchmark
+	public Object[] toArray() {
+		return source.toArray();
+	}
+
+	@Benchmark
+	public ArrayIndexedCollection removeRangeFront() {
+		ArrayIndexedCollection collection = new ArrayIndexedCollection(source);
+		collection.removeRange(0, size / 2);
+		return collection;
+	}
+
+	@Benchmark
+	public ArrayIndexedCollection removeFrontOneByOne() {
+		ArrayIndexedCollection collection = new ArrayIndexedCollection(source);
+		// 1000 single removals from the front, each shifts the whole tail
+		for (int i = 0; i < 1000; i++) {
+			collection.remove(0);
+		}
+		return collection;
+	}
+
+	@Benchmark
+	public ArrayIndexedCollection insertMiddleOneByOne() {
+		ArrayIndexedCollection collection = new ArrayIndexedCollection(source);
+		// 1000 insertions in the middle, each shifts half of the elements
+		for (int i = 0; i < 1000; i++) {
+			collection.insert(values[i], size / 2);
+		}
+		return collection;
+	}
+
+}
@@ -0,0 +1,304 @@
+package hr.fer.zemris.java.custom.collections;
+
+import java.lang.reflect.Field;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ArrayIndexedCollectionTest {
+	
+	private static ArrayIndexedCollection numbers(int count) {
+		ArrayIndexedCollection collection = new ArrayIndexedCollection();
+		for (int i = 0; i < count; i++) {
+			collection.add(i);
+		}
+		return collection;
+	}
+	
+	private static Object[] backingArray(ArrayIndexedCollection collection) throws ReflectiveOperationException {
+		Field field = ArrayIndexedCollection.class.getDeclaredField("elements");
+		field.setAccessible(true);
+		return (Object[]) field.get(collection);
+	}
+	
+	private static void assertContents(ArrayIndexedCollection collection, Object... expected) {
+		Assert.assertArrayEquals(expected, collection.toArray());
+	}
+	
+	@Test
+	public void testStream() {
+		ArrayIndexedCollection collection = numbers(1000);
+		
+		long expectedSum = 999L * 1000 / 2;
+		long actualSum = collection.stream().mapToLong(value -> (Integer) value).sum();
+		Assert.assertEquals(expectedSum, actualSum);
+	}
+	
+	@Test
+	public void testParallelStream() {
+		ArrayIndexedCollection collection = numbers(100_000);
+		
+		long expectedSum = 99_999L * 100_000 / 2;
+		long actualSum = collection.parallelStream().mapToLong(value -> (Integer) value).sum();
+		Assert.assertEquals(expectedSum, actualSum);
+	}
+	
+	@Test
+	public void testSpliteratorIsSizedAndSplittable() {
+		ArrayIndexedCollection collection = numbers(100);
+		Spliterator<Object> spliterator = collection.spliterator();
+		
+		Assert.assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED));
+		Assert.assertEquals(100, spliterator.getExactSizeIfKnown());
+		Spliterator<Object> prefix = spliterator.trySplit();
+		Assert.assertNotNull(prefix);
+		Assert.assertEquals(100, prefix.getExactSizeIfKnown() + spliterator.getExactSizeIfKnown());
+	}
+	
+	@Test
+	public void testParallelForEach() {
+		ArrayIndexedCollection collection = numbers(100_000);
+		LongAdder sum = new LongAdder();
+		LongAdder count = new LongAdder();
+		
+		collection.parallelForEach(new Processor() {
+			@Override
+			public void process(Object value) {
+				sum.add((Integer) value);
+				count.increment();
+			}
+		});
+		Assert.assertEquals(100_000, count.sum());
+		Assert.assertEquals(99_999L * 100_000 / 2, sum.sum());
+	}
+
+	@Test
+	public void testEnsureCapacityDoublesOrUsesRequestedCapacity() {
+		ArrayIndexedCollection collection = new ArrayIndexedCollection(4);
+		collection.ensureCapacity(3);
+		Assert.assertEquals(4, collection.capacity());
+		
+		collection.ensureCapacity(5);
+		Assert.assertEquals(8, collection.capacity());
+		
+		collection.ensureCapacity(100);
+		Assert.assertEquals(100, collection.capacity());
+	}
+	
+	@Test
+	public void testEnsureCapacityKeepsElements() {
+		ArrayIndexedCollection collection = numbers(3);
+		collection.ensureCapacity(1000);
+		
+		assertContents(collection, 0, 1, 2);
+		Assert.assertEquals(1000, collection.capacity());
+	}
+	
+	@Test
+	public void testTrimToSize() {
+		ArrayIndexedCollection collection = numbers(20);
+		Assert.assertEquals(32, collection.capacity());
+		
+		collection.trimToSize();
+		Assert.assertEquals(20, collection.capacity());
+		Assert.assertEquals(20, collection.size());
+		Assert.assertEquals(19, collection.get(19));
+		
+		collection.add(20);
+		Assert.assertEquals(40, collection.capacity());
+	}
+	
+	@Test
+	public void testTrimToSizeOfEmptyCollectionKeepsCapacityOne() {
+		ArrayIndexedCollection collection = new ArrayIndexedCollection();
+		collection.trimToSize();
+		Assert.assertEquals(1, collection.capacity());
+		
+		collection.add("a");
+		collection.add("b");
+		assertContents(collection, "a", "b");
+	}
+	
+	@Test
+	public void testRemoveRangeKeepsOrder() {
+		ArrayIndexedCollection collection = numbers(8);
+		collection.removeRange(2, 5);
+		
+		assertContents(collection, 0, 1, 5, 6, 7);
+	}
+	
+	@Test
+	public void testRemoveRangeAtEnds() {
+		ArrayIndexedCollection collection = numbers(6);
+		collection.removeRange(0, 2);
+		assertContents(collection, 2, 3, 4, 5);
+		
+		collection.removeRange(2, 4);
+		assertContents(collection, 2, 3);
+		
+		collection.removeRange(1, 1);
+		assertContents(collection, 2, 3);
+		
+		collection.removeRange(0, 2);
+		Assert.assertTrue(collection.isEmpty());
+	}
+	
+	@Test
+	public void testRemoveRangeClearsRemovedSlots() throws ReflectiveOperationException {
+		ArrayIndexedCollection collection = numbers(8);
+		collection.removeRange(1, 4);
+		
+		Object[] elements = backingArray(collection);
+		for (int i = collection.size(); i < elements.length; i++) {
+			Assert.assertNull("slot " + i, elements[i]);
+		}
+	}
+	
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testRemoveRangeWithNegativeStart() {
+		numbers(5).removeRange(-1, 2);
+	}
+	
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testRemoveRangePastSize() {
+		numbers(5).removeRange(3, 6);
+	}
+	
+	@Test
+	public void testRemoveRangeWithReversedBoundsLeavesCollectionUnchanged() {
+		ArrayIndexedCollection collection = numbers(5);
+		try {
+			collection.removeRange(3, 2);
+			Assert.fail("Expected IndexOutOfBoundsException.");
+		} catch (IndexOutOfBoundsException ex) {
+			assertContents(collection, 0, 1, 2, 3, 4);
+		}
+	}
+	
+	@Test
+	public void testRemoveAtIndexClearsLastSlot() throws ReflectiveOperationException {
+		ArrayIndexedCollection collection = numbers(4);
+		collection.remove(1);
+		
+		assertContents(collection, 0, 2, 3);
+		Assert.assertNull(backingArray(collection)[3]);
+	}
+	
+	@Test
+	public void testRemovedElementIsNotReferenced() throws ReflectiveOperationException {
+		ArrayIndexedCollection collection = new ArrayIndexedCollection();
+		Object removed = new Object();
+		collection.add("a");
+		collection.add(removed);
+		collection.remove(removed);
+		
+		for (Object element : backingArray(collection)) {
+			Assert.assertNotSame(removed, element);
+		}
+	}
+	
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testRemoveAtNegativeIndex() {
+		numbers(3).remove(-1);
+	}
+	
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testRemoveAtSize() {
+		numbers(3).remove(3);
+	}
+	
+	@Test
+	public void testAddAllArrayAppendsInOrder() {
+		ArrayIndexedCollection collection = new ArrayIndexedCollection(2);
+		collection.add("a");
+		collection.addAll(new Object[] { "b", "c", "d" });
+		
+		assertContents(collection, "a", "b", "c", "d");
+		Assert.assertEquals(4, collection.capacity());
+	}
+	
+	@Test
+	public void testAddAllArrayWithNullLeavesCollectionUnchanged() throws ReflectiveOperationException {
+		ArrayIndexedCollection collection = new ArrayIndexedCollection(8);
+		collection.add("a");
+		try {
+			collection.addAll(new Object[] { "b", null, "c" });
+			Assert.fail("Expected NullPointerException.");
+		} catch (NullPointerException ex) {
+			assertContents(collection, "a");
+			Object[] elements = backingArray(collection);
+			for (int i = 1; i < elements.length; i++) {
+				Assert.assertNull("slot " + i, elements[i]);
+			}
+		}
+	}
+	
+	@Test(expected = NullPointerException.class)
+	public void testAddAllNullArray() {
+		new ArrayIndexedCollection().addAll((Object[]) null);
+	}
+	
+	@Test
+	public void testAddAllFromArrayIndexedCollection() {
+		ArrayIndexedCollection collection = numbers(3);
+		ArrayIndexedCollection other = numbers(20);
+		collection.addAll(other);
+		
+		Assert.assertEquals(23, collection.size());
+		Assert.assertEquals(2, collection.get(2));
+		Assert.assertEquals(0, collection.get(3));
+		Assert.assertEquals(19, collection.get(22));
+		Assert.assertEquals(20, other.size());
+	}
+	
+	@Test
+	public void testAddAllFromItself() {
+		ArrayIndexedCollection collection = numbers(3);
+		collection.addAll(collection);
+		
+		assertContents(collection, 0, 1, 2, 0, 1, 2);
+	}
+	
+	@Test
+	public void testAddAllFromOtherCollection() {
+		Collection other = new Collection() {
+			@Override
+			public int size() {
+				return 3;
+			}
+			
+			@Override
+			public void forEach(Processor processor) {
+				processor.process("x");
+				processor.process("y");
+				processor.process("z");
+			}
+		};
+		ArrayIndexedCollection collection = numbers(1);
+		collection.addAll(other);
+		
+		assertContents(collection, 0, "x", "y", "z");
+	}
+	
+	@Test
+	public void testConstructorCopiesCollection() {
+		ArrayIndexedCollection copy = new ArrayIndexedCollection(numbers(40), 4);
+		
+		Assert.assertEquals(40, copy.size());
+		Assert.assertEquals(40, copy.capacity());
+		Assert.assertEquals(39, copy.get(39));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testConstructorWithZeroCapacity() {
+		new ArrayIndexedCollection(0);
+	}
+	
+	@Test(expected = NullPointerException.class)
+	public void testConstructorWithNullCollection() {
+		new ArrayIndexedCollection(null, 4);
+	}
+	
+}
@@ -0,0 +1,102 @@
+package hr.fer.zemris.java.custom.collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CharObjectDictionaryTest {
+	
+	@Test
+	public void testSize() {
+		CharObjectDictionary dictionary = new CharObjectDictionary();
+		dictionary.put('F', "draw");
+		dictionary.put('+', "rotate");
+		dictionary.put('š', "overflow");
+		dictionary.put('F', "draw again");
+		
+		Assert.assertEquals(3, dictionary.size());
+		Assert.assertFalse(dictionary.isEmpty());
+	}
+	
+	@Test
+	public void testGetValue() {
+		CharObjectDictionary dictionary = new CharObjectDictionary();
+		dictionary.put('F', "draw");
+		dictionary.put('š', "overflow");
+		
+		Assert.assertEquals("draw", dictionary.get('F'));
+		Assert.assertEquals("overflow", dictionary.get('š'));
+		Assert.assertNull(dictionary.get('G'));
+		Assert.assertNull(dictionary.get('Ţ'));
+	}
+	
+	@Test
+	public void testStoreValueNull() {
+		CharObjectDictionary dictionary = new CharObjectDictionary();
+		dictionary.put('F', null);
+		
+		Assert.assertTrue(dictionary.containsKey('F'));
+		Assert.assertNull(dictionary.get('F'));
+		Assert.assertEquals(1, dictionary.size());
+	}
+	
+	@Test
+	public void testOverflowGrowth() {
+		CharObjectDictionary dictionary = new CharObjectDictionary();
+		for (char c = 0; c < 2000; c++) {
+			dictionary.put(c, Integer.valueOf(c));
+		}
+		
+		Assert.assertEquals(2000, dictionary.size());
+		for (char c = 0; c < 2000; c++) {
+			Assert.assertEquals(Integer.valueOf(c), dictionary.get(c));
+		}
+	}
+	
+	@Test
+	public void testForEach() {
+		CharObjectDictionary dictionary = new CharObjectDictionary();
+		dictionary.put('B', 2);
+		dictionary.put('A', 1);
+		dictionary.put('š', 3);
+		
+		StringBuilder visited = new StringBuilder();
+		dictionary.forEach(new CharObjectProcessor() {
+			@Override
+			public void process(char key, Object value) {
+				visited.append(key).append(value);
+			}
+		});
+		Assert.assertEquals("A1B2š3", visited.toString());
+	}
+	
+	@Test
+	public void testFrozenSnapshot() {
+		CharObjectDictionary dictionary = new CharObjectDictionary();
+		dictionary.put('F', "draw");
+		CharObjectDictionary frozen = dictionary.freeze();
+		dictionary.put('F', "changed");
+		
+		Assert.assertTrue(frozen.isFrozen());
+		Assert.assertEquals("draw", frozen.get('F'));
+	}
+	
+	@Test (expected = UnsupportedOperationException.class)
+	public void testPutToFrozen() {
+		CharObjectDictionary dictionary = new CharObjectDictionary();
+		dictionary.freeze().put('F', "draw");
+	}
+	
+	@Test
+	public void testCharIntIncrement() {
+		CharIntDictionary counts = new CharIntDictionary();
+		counts.increment('F', 1);
+		counts.increment('F', 1);
+		counts.increment('š', 5);
+		
+		Assert.assertEquals(2, counts.get('F'));
+		Assert.assertEquals(5, counts.get('š'));
+		Assert.assertEquals(0, counts.get('X'));
+		Assert.assertEquals(2, counts.size());
+	}
+	
+}
@@ -0,0 +1,90 @@
+package hr.fer.zemris.java.custom.collections;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of <code>ConcurrentDictionary</code> compared to <code>Dictionary</code>
+ * guarded by <code>synchronized</code>, with six reader threads and two writer threads
+ * sharing one registry.
+ *
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ConcurrentDictionaryBenchmark {
+
+	@Param({ "64" })
+	private int keys;
+
+	private ConcurrentDictionary concurrent;
+
+	private Dictionary synchronizedDictionary;
+
+	@Setup
+	public void setup() {
+		concurrent = new ConcurrentDictionary();
+		synchronizedDictionary = new Dictionary();
+		for (int i = 0; i < keys; i++) {
+			concurrent.put(i, "value" + i);
+			synchronizedDictionary.put(i, "value" + i);
+		}
+	}
+
+	@Benchmark
+	@Group("concurrent")
+	@GroupThreads(6)
+	public Object concurrentRead() {
+		return concurrent.get(ThreadLocalRandom.current().nextInt(keys));
+	}
+
+	@Benchmark
+	@Group("concurrent")
+	@GroupThreads(2)
+	public void concurrentWrite() {
+		int key = ThreadLocalRandom.current().nextInt(keys);
+		concurrent.put(key, "value" + key);
+	}
+
+	@Benchmark
+	@Group("synchronized")
+	@GroupThreads(6)
+	public Object synchronizedRead() {
+		int key = ThreadLocalRandom.current().nextInt(keys);
+		synchronized (synchronizedDictionary) {
+			return synchronizedDictionary.get(key);
+		}
+	}
+
+	@Benchmark
+	@Group("synchronized")
+	@GroupThreads(2)
+	public void synchronizedWrite() {
+		int key = ThreadLocalRandom.current().nextInt(keys);
+		String value = "value" + key;
+		synchronized (synchronizedDictionary) {
+			synchronizedDictionary.put(key, value);
+		}
+	}
+
+}
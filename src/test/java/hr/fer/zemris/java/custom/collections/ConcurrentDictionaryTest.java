@@ -0,0 +1,96 @@
+package hr.fer.zemris.java.custom.collections;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ConcurrentDictionaryTest {
+	
+	private static final int KEYS = 512;
+	private static final int WRITERS = 4;
+	private static final int READERS = 8;
+	private static final int INCREMENTS_PER_WRITER = 50_000;
+	
+	@Test
+	public void testStoreValueNull() {
+		ConcurrentDictionary dictionary = new ConcurrentDictionary();
+		dictionary.put(1, null);
+		
+		Assert.assertTrue(dictionary.containsKey(1));
+		Assert.assertNull(dictionary.get(1));
+		Assert.assertEquals(1, dictionary.size());
+	}
+	
+	@Test
+	public void testPutIfAbsent() {
+		ConcurrentDictionary dictionary = new ConcurrentDictionary();
+		
+		Assert.assertNull(dictionary.putIfAbsent("key", "value1"));
+		Assert.assertEquals("value1", dictionary.putIfAbsent("key", "value2"));
+		Assert.assertEquals("value1", dictionary.get("key"));
+	}
+	
+	@Test (expected = NullPointerException.class)
+	public void testGetNull() {
+		new ConcurrentDictionary().get(null);
+	}
+	
+	@Test
+	public void testManyReadersAndWriters() throws Exception {
+		ConcurrentDictionary dictionary = new ConcurrentDictionary();
+		ExecutorService pool = Executors.newFixedThreadPool(WRITERS + READERS);
+		CountDownLatch start = new CountDownLatch(1);
+		CountDownLatch writersDone = new CountDownLatch(WRITERS);
+		List<Future<?>> futures = new ArrayList<>();
+		
+		for (int w = 0; w < WRITERS; w++) {
+			int seed = w;
+			futures.add(pool.submit(() -> {
+				start.await();
+				for (int i = 0; i < INCREMENTS_PER_WRITER; i++) {
+					int key = (i * 31 + seed) % KEYS;
+					dictionary.compute(key, (k, old) -> old == null ? 1L : (Long) old + 1);
+				}
+				writersDone.countDown();
+				return null;
+			}));
+		}
+		for (int r = 0; r < READERS; r++) {
+			futures.add(pool.submit(() -> {
+				start.await();
+				long[] lastSeen = new long[KEYS];
+				while (writersDone.getCount() > 0) {
+					for (int key = 0; key < KEYS; key++) {
+						Long value = (Long) dictionary.get(key);
+						long current = value == null ? 0 : value;
+						// counters only grow, so a reader must never observe one going back
+						Assert.assertTrue(current >= lastSeen[key]);
+						lastSeen[key] = current;
+					}
+				}
+				return null;
+			}));
+		}
+		
+		start.countDown();
+		for (Future<?> future : futures) {
+			future.get(60, TimeUnit.SECONDS);
+		}
+		pool.shutdown();
+		
+		long total = 0;
+		for (int key = 0; key < KEYS; key++) {
+			total += (Long) dictionary.get(key);
+		}
+		Assert.assertEquals(KEYS, dictionary.size());
+		Assert.assertEquals((long) WRITERS * INCREMENTS_PER_WRITER, total);
+	}
+	
+}
@@ -0,0 +1,90 @@
+package hr.fer.zemris.java.custom.collections;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Lookups and updates of <code>Dictionary</code> at several sizes. </br>
+ * Every operation goes over all keys once, so the score is divided by size to get cost of one operation.
+ *
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DictionaryBenchmark {
+
+	@Param({ "16", "256", "4096" })
+	private int size;
+
+	private Object[] keys;
+
+	private Object[] missingKeys;
+
+	private Dictionary dictionary;
+
+	@Setup
+	public void setup() {
+		keys = new Object[size];
+		missingKeys = new Object[size];
+		dictionary = new Dictionary();
+		for (int i = 0; i < size; i++) {
+			keys[i] = "key" + i;
+			missingKeys[i] = "missing" + i;
+			dictionary.put(keys[i], Integer.valueOf(i));
+		}
+	}
+
+	@Benchmark
+	public int getHit() {
+		int sum = 0;
+		for (Object key : keys) {
+			sum += (Integer) dictionary.get(key);
+		}
+		return sum;
+	}
+
+	@Benchmark
+	public int getMiss() {
+		int found = 0;
+		for (Object key : missingKeys) {
+			if (dictionary.get(key) != null)
+				found++;
+		}
+		return found;
+	}
+
+	@Benchmark
+	public Dictionary putOverwrite() {
+		for (int i = 0; i < keys.length; i++) {
+			dictionary.put(keys[i], Integer.valueOf(i));
+		}
+		return dictionary;
+	}
+
+	@Benchmark
+	public Dictionary putFresh() {
+		Dictionary fresh = new Dictionary();
+		for (int i = 0; i < keys.length; i++) {
+			fresh.put(keys[i], Integer.valueOf(i));
+		}
+		return fresh;
+	}
+
+}
@@ -0,0 +1,75 @@
+package hr.fer.zemris.java.custom.collections;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Lookups in <code>FrozenDictionary</code> compared to the <code>Dictionary</code>
+ * it was frozen from, and the cost of building the snapshot.
+ *
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FrozenDictionaryBenchmark {
+
+	@Param({ "10", "100000" })
+	private int size;
+
+	private Dictionary dictionary;
+
+	private FrozenDictionary frozen;
+
+	private Object[] keys;
+
+	private int next;
+
+	@Setup
+	public void setup() {
+		dictionary = new Dictionary();
+		keys = new Object[size];
+		for (int i = 0; i < size; i++) {
+			keys[i] = "key" + i;
+			dictionary.put(keys[i], i);
+		}
+		frozen = dictionary.freeze();
+	}
+
+	private Object nextKey() {
+		next = next + 1 == size ? 0 : next + 1;
+		return keys[next];
+	}
+
+	@Benchmark
+	public Object frozenGet() {
+		return frozen.get(nextKey());
+	}
+
+	@Benchmark
+	public Object dictionaryGet() {
+		return dictionary.get(nextKey());
+	}
+
+	@Benchmark
+	public FrozenDictionary freeze() {
+		return dictionary.freeze();
+	}
+
+}
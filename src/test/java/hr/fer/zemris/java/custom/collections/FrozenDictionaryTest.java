@@ -0,0 +1,85 @@
+package hr.fer.zemris.java.custom.collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FrozenDictionaryTest {
+	
+	@Test
+	public void testGetValue() {
+		Dictionary dictionary = new Dictionary();
+		dictionary.put(1, "one");
+		dictionary.put(2, "two");
+		dictionary.put(3, null);
+		FrozenDictionary frozen = dictionary.freeze();
+		
+		Assert.assertEquals(3, frozen.size());
+		Assert.assertEquals("two", frozen.get(2));
+		Assert.assertNull(frozen.get(3));
+		Assert.assertTrue(frozen.containsKey(3));
+		Assert.assertNull(frozen.get(4));
+		Assert.assertFalse(frozen.containsKey(4));
+	}
+	
+	@Test
+	public void testSnapshotIsNotChanged() {
+		Dictionary dictionary = new Dictionary();
+		dictionary.put("key", "value1");
+		FrozenDictionary frozen = dictionary.freeze();
+		dictionary.put("key", "value2");
+		dictionary.put("other", "value3");
+		
+		Assert.assertEquals("value1", frozen.get("key"));
+		Assert.assertEquals(1, frozen.size());
+	}
+	
+	@Test
+	public void testEqualHashCodes() {
+		Dictionary dictionary = new Dictionary();
+		// "Aa" and "BB" have the same hash code
+		dictionary.put("Aa", 1);
+		dictionary.put("BB", 2);
+		dictionary.put("AaAa", 3);
+		dictionary.put("BBBB", 4);
+		dictionary.put("AaBB", 5);
+		FrozenDictionary frozen = dictionary.freeze();
+		
+		Assert.assertEquals(1, frozen.get("Aa"));
+		Assert.assertEquals(2, frozen.get("BB"));
+		Assert.assertEquals(3, frozen.get("AaAa"));
+		Assert.assertEquals(4, frozen.get("BBBB"));
+		Assert.assertEquals(5, frozen.get("AaBB"));
+		Assert.assertNull(frozen.get("BBAa"));
+	}
+	
+	@Test
+	public void testEmpty() {
+		FrozenDictionary frozen = new Dictionary().freeze();
+		
+		Assert.assertTrue(frozen.isEmpty());
+		Assert.assertNull(frozen.get("key"));
+	}
+	
+	@Test
+	public void testManyKeys() {
+		int count = 100_000;
+		Object[] keys = new Object[count];
+		Object[] values = new Object[count];
+		for (int i = 0; i < count; i++) {
+			keys[i] = "key" + i;
+			values[i] = i;
+		}
+		FrozenDictionary frozen = new FrozenDictionary(keys, values);
+		
+		for (int i = 0; i < count; i++) {
+			Assert.assertEquals(i, frozen.get("key" + i));
+		}
+		Assert.assertNull(frozen.get("key" + count));
+	}
+	
+	@Test (expected = NullPointerException.class)
+	public void testGetNull() {
+		new Dictionary().freeze().get(null);
+	}
+	
+}
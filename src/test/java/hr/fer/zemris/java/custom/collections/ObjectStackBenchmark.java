@@ -0,0 +1,68 @@
+package hr.fer.zemris.java.custom.collections;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Push and pop of <code>ObjectStack</code>, both as balanced pairs </br>
+ * (like brackets of a plant grammar) and as filling to a depth and draining.
+ *
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ObjectStackBenchmark {
+
+	@Param({ "8", "1024" })
+	private int depth;
+
+	private ObjectStack stack;
+
+	private final Object value = new Object();
+
+	@Setup
+	public void setup() {
+		stack = new ObjectStack();
+	}
+
+	@Benchmark
+	public Object pushPopPairs() {
+		Object last = null;
+		for (int i = 0; i < depth; i++) {
+			stack.push(value);
+			last = stack.peek();
+			stack.pop();
+		}
+		return last;
+	}
+
+	@Benchmark
+	public Object fillAndDrain() {
+		for (int i = 0; i < depth; i++) {
+			stack.push(value);
+		}
+		Object last = null;
+		while (!stack.isEmpty()) {
+			last = stack.pop();
+		}
+		return last;
+	}
+
+}
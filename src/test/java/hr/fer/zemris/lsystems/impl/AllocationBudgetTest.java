@@ -0,0 +1,122 @@
+package hr.fer.zemris.lsystems.impl;
+
+import java.awt.Color;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import hr.fer.zemris.lsystems.LSystem;
+import hr.fer.zemris.lsystems.Painter;
+import hr.fer.zemris.lsystems.impl.metrics.AllocationCounter;
+
+/**
+ * Allocation budgets of the hot paths. Every scenario is warmed up, </br>
+ * then run several times on a large level while bytes allocated by the current thread are measured. </br>
+ * The cheapest run is expressed in bytes per symbol and compared to the budget of the scenario, </br>
+ * so allocations of unrelated work on the same thread (class loading, JIT bookkeeping) </br>
+ * do not fail the test. </br>
+ * Budget of scenario <i>name</i> can be overridden with system property </br>
+ * <code>allocation.budget.</code><i>name</i>, for example when a change legitimately costs more. </br>
+ * Measurements of all scenarios are printed when <code>allocation.budget.report</code> is <code>true</code>.
+ *
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+public class AllocationBudgetTest {
+
+	private static final int WARMUP_RUNS = 10;
+
+	private static final int MEASURED_RUNS = 5;
+
+	@BeforeClass
+	public static void checkSupport() {
+		Assume.assumeTrue("Allocations can not be measured on this JVM.", AllocationCounter.isSupported());
+	}
+
+	@Test
+	public void testDrawPlant() {
+		LSystem system = build(TestGrammars.grammar("plant"));
+		int level = 6;
+		checkDraw("drawPlant", system, level, 2);
+	}
+
+	@Test
+	public void testDrawKoch() {
+		LSystem system = build(TestGrammars.grammar("koch"));
+		int level = 7;
+		checkDraw("drawKoch", system, level, 2);
+	}
+
+	@Test
+	public void testStreamPlant() {
+		LSystemBuilderImpl builder = new LSystemBuilderImpl();
+		builder.configureFromText(TestGrammars.grammar("plant"));
+		builder.setDrawMode(DrawMode.STREAMING);
+		LSystem system = builder.build();
+		int level = 6;
+		checkDraw("streamPlant", system, level, 0.1);
+	}
+
+	@Test
+	public void testGeneratePlant() {
+		LSystem system = build(TestGrammars.grammar("plant"));
+		int level = 6;
+		long expanded = 0;
+		for (int l = 0; l < level; l++) {
+			expanded += system.generate(l).length();
+		}
+		check("generatePlant", minBytesPerRun(() -> system.generate(level)) / expanded, 24);
+	}
+
+	private static void checkDraw(String scenario, LSystem system, int level, double defaultBudget) {
+		CountingPainter painter = new CountingPainter();
+		long symbols = system.generate(level).length();
+		double bytes = minBytesPerRun(() -> system.draw(level, painter));
+		Assert.assertTrue(painter.lines > 0);
+		check(scenario, bytes / symbols, defaultBudget);
+	}
+
+	private static double minBytesPerRun(Runnable run) {
+		for (int i = 0; i < WARMUP_RUNS; i++) {
+			run.run();
+		}
+		long min = Long.MAX_VALUE;
+		for (int i = 0; i < MEASURED_RUNS; i++) {
+			long start = AllocationCounter.currentThread();
+			run.run();
+			min = Math.min(min, AllocationCounter.currentThread() - start);
+		}
+		return min;
+	}
+
+	private static void check(String scenario, double bytesPerSymbol, double defaultBudget) {
+		String property = System.getProperty("allocation.budget." + scenario);
+		double budget = property == null ? defaultBudget : Double.parseDouble(property);
+		String report = String.format("%-14s %8.2f B/symbol, budget %8.2f B/symbol (%5.1f%% used)",
+				scenario, bytesPerSymbol, budget, 100 * bytesPerSymbol / budget);
+		if (Boolean.getBoolean("allocation.budget.report"))
+			System.out.println(report);
+		Assert.assertTrue("Allocation budget exceeded: " + report, bytesPerSymbol <= budget);
+	}
+
+	private static LSystem build(String[] lines) {
+		LSystemBuilderImpl builder = new LSystemBuilderImpl();
+		builder.configureFromText(lines);
+		return builder.build();
+	}
+
+	private static class CountingPainter implements Painter {
+
+		private long lines;
+
+		@Override
+		public void drawLine(double x0, double y0, double x1, double y1, Color color, float size) {
+			lines++;
+		}
+
+	}
+
+}
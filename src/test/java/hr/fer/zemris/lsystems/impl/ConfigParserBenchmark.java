@@ -0,0 +1,92 @@
+package hr.fer.zemris.lsystems.impl;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time needed to parse a large corpus of grammar definitions,
+ * once as arrays of lines and once streamed from <code>Reader</code>.
+ *
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ConfigParserBenchmark {
+
+	@Param({ "10000" })
+	private int definitions;
+
+	private String[][] lines;
+
+	private String[] texts;
+
+	@Setup
+	public void setup() {
+		lines = new String[definitions][];
+		texts = new String[definitions];
+		for (int i = 0; i < definitions; i++) {
+			lines[i] = new String[] {
+				"# definition " + i,
+				"origin 0.05 0.4",
+				"angle " + (i % 90),
+				"unitLength 0.9",
+				"unitLengthDegreeScaler 1.0 / " + (2 + i % 5) + ".0",
+				"",
+				"command F draw 1",
+				"command G skip 1",
+				"command + rotate " + (15 + i % 60),
+				"command - rotate -" + (15 + i % 60),
+				"command [ push",
+				"command ] pop",
+				"command C color 00ff" + String.format("%02x", i % 256),
+				"command S scale 0.5",
+				"",
+				"axiom X",
+				"",
+				"production X F[+X]F[-X]+X",
+				"production F FF"
+			};
+			texts[i] = String.join("\n", lines[i]);
+		}
+	}
+
+	@Benchmark
+	public int configureFromText() {
+		int built = 0;
+		for (String[] definition : lines) {
+			new LSystemBuilderImpl().configureFromText(definition);
+			built++;
+		}
+		return built;
+	}
+
+	@Benchmark
+	public int configureFromReader() throws IOException {
+		int built = 0;
+		for (String text : texts) {
+			new LSystemBuilderImpl().configureFrom(new StringReader(text));
+			built++;
+		}
+		return built;
+	}
+
+}
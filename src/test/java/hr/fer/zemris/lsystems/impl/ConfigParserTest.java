@@ -0,0 +1,122 @@
+package hr.fer.zemris.lsystems.impl;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import hr.fer.zemris.lsystems.LSystem;
+
+public class ConfigParserTest {
+	
+	private static final String KOCH = String.join("\n",
+			"# Koch curve",
+			"origin 0.05 0.4",
+			"angle 0",
+			"unitLength 0.9",
+			"unitLengthDegreeScaler 1.0 / 3.0",
+			"",
+			"command F draw 1",
+			"command + rotate 60",
+			"command - rotate -60",
+			"",
+			"axiom F",
+			"",
+			"production F F+F--F+F");
+	
+	@Test
+	public void testConfigureFromReader() throws IOException {
+		LSystem system = new LSystemBuilderImpl().configureFrom(new StringReader(KOCH)).build();
+		
+		Assert.assertEquals("F+F--F+F", system.generate(1));
+	}
+	
+	@Test
+	public void testConfigureFromTextMatchesReader() throws IOException {
+		LSystem fromText = new LSystemBuilderImpl().configureFromText(KOCH.split("\n")).build();
+		LSystem fromReader = new LSystemBuilderImpl().configureFrom(new StringReader(KOCH)).build();
+		
+		Assert.assertEquals(fromReader.generate(3), fromText.generate(3));
+	}
+	
+	@Test
+	public void testKeywordsDoNotCollide() {
+		LSystem system = new LSystemBuilderImpl().configureFromText(new String[] {
+			"unitLengthDegreeScaler 1 / 2",
+			"unitLength 0.5",
+			"command F draw 1",
+			"axiom F"
+		}).build();
+		double[] length = new double[1];
+		system.draw(1, (x0, y0, x1, y1, color, size) -> length[0] = Math.hypot(x1 - x0, y1 - y0));
+		
+		Assert.assertEquals(0.25, length[0], 1E-9);
+	}
+	
+	@Test
+	public void testErrorReportsLineAndColumn() {
+		try {
+			new LSystemBuilderImpl().configureFromText(new String[] {
+				"axiom F",
+				"angle  abc"
+			});
+			Assert.fail();
+		} catch (ConfigParseException ex) {
+			Assert.assertEquals(2, ex.getLine());
+			Assert.assertEquals(8, ex.getColumn());
+		}
+	}
+	
+	@Test
+	public void testUnsupportedCommand() {
+		try {
+			new LSystemBuilderImpl().configureFromText(new String[] {
+				"command F jump 1"
+			});
+			Assert.fail();
+		} catch (ConfigParseException ex) {
+			Assert.assertEquals(1, ex.getLine());
+			Assert.assertEquals(11, ex.getColumn());
+		}
+	}
+	
+	@Test
+	public void testWeightedProductionsAndSeed() {
+		LSystemBuilderImpl builder = new LSystemBuilderImpl();
+		builder.configureFromText(new String[] {
+			"seed -7",
+			"production A B",
+			"production A 0.25 AB",
+			"production A 3 BA" });
+		
+		StochasticProduction production = (StochasticProduction) builder.getProductions().get('A');
+		Assert.assertEquals(2, production.size());
+		Assert.assertEquals("AB", production.get(0));
+		Assert.assertEquals(0.25, production.getWeight(0), 0);
+		Assert.assertEquals("BA", production.get(1));
+		Assert.assertEquals(-7, builder.getSeed());
+	}
+	
+	@Test
+	public void testInvalidWeight() {
+		try {
+			new LSystemBuilderImpl().configureFromText(new String[] { "production A -1 AB" });
+			Assert.fail();
+		} catch (ConfigParseException ex) {
+			Assert.assertEquals(1, ex.getLine());
+			Assert.assertEquals(14, ex.getColumn());
+		}
+	}
+	
+	@Test (expected = ConfigParseException.class)
+	public void testUnknownKeyword() {
+		new LSystemBuilderImpl().configureFromText(new String[] { "axion F" });
+	}
+	
+	@Test (expected = IllegalArgumentException.class)
+	public void testRegisterInvalidCommand() {
+		new LSystemBuilderImpl().registerCommand('F', "draw -1");
+	}
+	
+}
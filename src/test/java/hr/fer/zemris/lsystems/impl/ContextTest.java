@@ -0,0 +1,136 @@
+package hr.fer.zemris.lsystems.impl;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import hr.fer.zemris.java.custom.collections.EmptyStackException;
+import hr.fer.zemris.lsystems.LSystem;
+import hr.fer.zemris.lsystems.Painter;
+import hr.fer.zemris.lsystems.impl.commands.DrawCommand;
+import hr.fer.zemris.lsystems.impl.commands.PopCommand;
+import hr.fer.zemris.lsystems.impl.commands.RotateCommand;
+import hr.fer.zemris.math.Vector2D;
+
+public class ContextTest {
+
+	private static Context context() {
+		Context ctx = new Context(1);
+		ctx.pushState(new TurtleState(new Vector2D(1, 2), new Vector2D(0, 3), Color.RED, 0.5));
+		return ctx;
+	}
+
+	@Test
+	public void testPushCopyReusesPoppedState() {
+		Context ctx = context();
+		TurtleState initial = ctx.getCurrentState();
+
+		ctx.pushCopy();
+		TurtleState copy = ctx.getCurrentState();
+		Assert.assertNotSame(initial, copy);
+		copy.getCurrentPosition().set(7, 7);
+		copy.setColor(Color.BLUE);
+		ctx.popState();
+
+		initial.setEffectiveLength(2);
+		ctx.pushCopy();
+		Assert.assertSame(copy, ctx.getCurrentState());
+		Assert.assertEquals(1, copy.getCurrentPosition().getX(), 1e-9);
+		Assert.assertEquals(2, copy.getCurrentPosition().getY(), 1e-9);
+		Assert.assertEquals(1, copy.getDirection().getY(), 1e-9);
+		Assert.assertEquals(Color.RED, copy.getColor());
+		Assert.assertEquals(2, copy.getEffectiveLength(), 1e-9);
+		Assert.assertNotSame(initial.getCurrentPosition(), copy.getCurrentPosition());
+		Assert.assertEquals(2, ctx.getPeakDepth());
+	}
+
+	@Test
+	public void testPushCopyDoesNotReuseCallerState() {
+		Context ctx = context();
+		TurtleState mine = new TurtleState(new Vector2D(5, 6), new Vector2D(1, 0), Color.GREEN, 1);
+		ctx.pushState(mine);
+		ctx.popState();
+		ctx.pushCopy();
+
+		Assert.assertNotSame(mine, ctx.getCurrentState());
+		Assert.assertEquals(5, mine.getCurrentPosition().getX(), 1e-9);
+		Assert.assertEquals(6, mine.getCurrentPosition().getY(), 1e-9);
+		Assert.assertEquals(Color.GREEN, mine.getColor());
+		Assert.assertEquals(1, ctx.getCurrentState().getCurrentPosition().getX(), 1e-9);
+	}
+
+	@Test
+	public void testRecycledStateEqualsFreshCopy() {
+		TurtleState current = new TurtleState(new Vector2D(0.5, 0), new Vector2D(0, 1), Color.BLACK, 0.01);
+		TurtleState recycled = current.copy();
+		for (int i = 0; i < 1000; i++) {
+			current.getDirection().rotate(25.7);
+			current.getCurrentPosition().translateScaled(current.getDirection(), 0.01);
+			TurtleState copy = current.copy();
+			recycled.copyFrom(current);
+
+			Assert.assertEquals(copy.getDirection().getX(), recycled.getDirection().getX(), 0);
+			Assert.assertEquals(copy.getDirection().getY(), recycled.getDirection().getY(), 0);
+			Assert.assertEquals(copy.getCurrentPosition().getX(), recycled.getCurrentPosition().getX(), 0);
+			Assert.assertEquals(copy.getCurrentPosition().getY(), recycled.getCurrentPosition().getY(), 0);
+		}
+	}
+
+	@Test
+	public void testBracketedDrawingMatchesDrawingWithFreshCopies() {
+		String[] bush = {
+				"origin 0.5 0",
+				"angle 90",
+				"unitLength 0.5",
+				"unitLengthDegreeScaler 1.0 / 2.0",
+				"command F draw 1",
+				"command + rotate 25",
+				"command - rotate -25",
+				"command [ push",
+				"command ] pop",
+				"axiom GX",
+				"production X F[+X]F[-X]+X",
+				"production F FF" };
+		LSystemBuilderImpl builder = new LSystemBuilderImpl();
+		builder.configureFromText(bush);
+		LSystem system = builder.build();
+
+		for (int level = 0; level <= 6; level++) {
+			List<String> expected = new ArrayList<>();
+			Painter reference = (x0, y0, x1, y1, color, size) -> expected.add(x0 + " " + y0 + " " + x1 + " " + y1);
+			Vector2D direction = new Vector2D(1, 0);
+			direction.rotate(90);
+			Context ctx = new Context();
+			ctx.pushState(new TurtleState(new Vector2D(0.5, 0), direction, Color.BLACK, 0.5 * Math.pow(0.5, level)));
+			Command draw = new DrawCommand(1);
+			Command left = new RotateCommand(25);
+			Command right = new RotateCommand(-25);
+			Command pop = new PopCommand();
+			for (char symbol : system.generate(level).toCharArray()) {
+				switch (symbol) {
+				case 'F': draw.execute(ctx, reference); break;
+				case '+': left.execute(ctx, reference); break;
+				case '-': right.execute(ctx, reference); break;
+				case '[': ctx.pushState(ctx.getCurrentState().copy()); break;
+				case ']': pop.execute(ctx, reference); break;
+				default: break;
+				}
+			}
+
+			List<String> actual = new ArrayList<>();
+			system.draw(level, (x0, y0, x1, y1, color, size) -> actual.add(x0 + " " + y0 + " " + x1 + " " + y1));
+			Assert.assertEquals("level " + level, expected, actual);
+		}
+	}
+
+	@Test (expected = EmptyStackException.class)
+	public void testPopEmpty() {
+		Context ctx = context();
+		ctx.popState();
+		ctx.popState();
+	}
+
+}
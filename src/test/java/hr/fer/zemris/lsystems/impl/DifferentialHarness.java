@@ -0,0 +1,155 @@
+package hr.fer.zemris.lsystems.impl;
+
+import java.awt.Color;
+import java.util.Locale;
+
+import hr.fer.zemris.lsystems.LSystem;
+import hr.fer.zemris.lsystems.Painter;
+import hr.fer.zemris.lsystems.impl.painters.HashingPainter;
+
+/**
+ * Harness that checks whether two engines draw the same segments. </br>
+ * Both drawings are first only hashed with <code>HashingPainter</code>, so arbitrarily deep </br>
+ * levels are compared in constant memory. If hashes differ, the first differing chunk is </br>
+ * drawn again by both engines with only that chunk captured, and the first differing segment is reported.
+ *
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+final class DifferentialHarness {
+
+	/**
+	 * quantization step of coordinates
+	 */
+	private final double quantum;
+	/**
+	 * number of segments per chunk
+	 */
+	private final int chunkSize;
+
+	/**
+	 * Constructor for creating new <code>DifferentialHarness</code>.
+	 *
+	 * @param quantum   quantization step of coordinates, or 0 for exact comparison
+	 * @param chunkSize number of segments per chunk
+	 */
+	DifferentialHarness(double quantum, int chunkSize) {
+		this.quantum = quantum;
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * Method compares drawings of the given level.
+	 *
+	 * @param expected engine whose drawing is trusted
+	 * @param actual   engine that is checked
+	 * @param level    level that is drawn
+	 * @return         <code>null</code> if drawings are the same, otherwise description of the first difference
+	 */
+	String compare(LSystem expected, LSystem actual, int level) {
+		HashingPainter expectedHash = new HashingPainter(quantum).setChunkSize(chunkSize);
+		HashingPainter actualHash = new HashingPainter(quantum).setChunkSize(chunkSize);
+		expected.draw(level, expectedHash);
+		actual.draw(level, actualHash);
+
+		int chunk = expectedHash.firstDifferingChunk(actualHash);
+		if (chunk < 0)
+			return null;
+
+		long from = (long) chunk * chunkSize;
+		double[][] expectedSegments = capture(expected, level, from);
+		double[][] actualSegments = capture(actual, level, from);
+		for (int i = 0; i < chunkSize; i++) {
+			double[] a = expectedSegments[i];
+			double[] b = actualSegments[i];
+			if (a == null && b == null)
+				break;
+			if (a == null || b == null || !same(a, b))
+				return String.format(Locale.ROOT, "first differing segment is %d of %d/%d: expected %s but was %s",
+						from + i, expectedHash.getCount(), actualHash.getCount(), format(a), format(b));
+		}
+		return String.format(Locale.ROOT, "hashes differ but chunk %d is the same, drawing is not deterministic",
+				chunk);
+	}
+
+	/**
+	 * Helper method that draws level again and captures one chunk of segments.
+	 *
+	 * @param system engine that draws
+	 * @param level  level that is drawn
+	 * @param from   index of the first captured segment
+	 * @return       captured segments, missing segments are <code>null</code>
+	 */
+	private double[][] capture(LSystem system, int level, long from) {
+		double[][] segments = new double[chunkSize][];
+		try {
+			system.draw(level, new Painter() {
+				private long index;
+
+				@Override
+				public void drawLine(double x0, double y0, double x1, double y1, Color color, float size) {
+					long offset = index++ - from;
+					if (offset < 0)
+						return;
+					if (offset >= chunkSize)
+						throw StopDrawing.INSTANCE;
+					segments[(int) offset] = new double[] { x0, y0, x1, y1, color.getRGB(), size };
+				}
+			});
+		} catch (StopDrawing ex) {
+			// chunk is captured, rest of drawing is not needed
+		}
+		return segments;
+	}
+
+	/**
+	 * Helper method that compares two captured segments in the same way <code>HashingPainter</code> does.
+	 *
+	 * @param a first segment
+	 * @param b second segment
+	 * @return  <code>true</code> if segments are equal after quantization
+	 */
+	private boolean same(double[] a, double[] b) {
+		double scale = quantum == 0 ? 0 : 1 / quantum;
+		for (int i = 0; i < 4; i++) {
+			boolean equal = scale == 0
+					? Double.compare(a[i], b[i]) == 0
+					: Math.round(a[i] * scale) == Math.round(b[i] * scale);
+			if (!equal)
+				return false;
+		}
+		return a[4] == b[4] && a[5] == b[5];
+	}
+
+	/**
+	 * Helper method that formats captured segment.
+	 *
+	 * @param segment captured segment, may be <code>null</code>
+	 * @return        readable description
+	 */
+	private static String format(double[] segment) {
+		if (segment == null)
+			return "no segment";
+		return String.format(Locale.ROOT, "(%.12f, %.12f)-(%.12f, %.12f) #%08x w%.2f",
+				segment[0], segment[1], segment[2], segment[3], (int) segment[4], segment[5]);
+	}
+
+	/**
+	 * Exception that stops drawing once the captured chunk is complete.
+	 */
+	private static final class StopDrawing extends RuntimeException {
+
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * shared instance, it carries no stack trace
+		 */
+		private static final StopDrawing INSTANCE = new StopDrawing();
+
+		private StopDrawing() {
+			super(null, null, false, false);
+		}
+	}
+
+}
@@ -0,0 +1,222 @@
+package hr.fer.zemris.lsystems.impl;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import hr.fer.zemris.lsystems.LSystem;
+import hr.fer.zemris.lsystems.Painter;
+import hr.fer.zemris.lsystems.impl.painters.HashingPainter;
+
+public class EngineEquivalenceTest {
+
+	private static final String[] MIXED = {
+			"origin 0.5 0.1",
+			"angle 90",
+			"unitLength 0.4",
+			"unitLengthDegreeScaler 1.0 / 2.2",
+			"command F draw 1",
+			"command f skip 0.5",
+			"command + rotate 33.3",
+			"command - rotate -41",
+			"command [ push",
+			"command ] pop",
+			"command S scale 0.9",
+			"command R color FF0000",
+			"command B color 0000FF",
+			"axiom BX",
+			"production X F[+RX]fS[-BX]FX",
+			"production F FfF" };
+
+	private static final String[] STOCHASTIC = {
+			"origin 0.5 0",
+			"angle 90",
+			"unitLength 0.4",
+			"unitLengthDegreeScaler 1.0 / 2.5",
+			"command F draw 1",
+			"command + rotate 25",
+			"command - rotate -25",
+			"command [ push",
+			"command ] pop",
+			"command R color 884400",
+			"command G color 00AA00",
+			"seed 2024",
+			"axiom X",
+			"production X 0.4 F[+X]F[-X]+X",
+			"production X 0.4 F[-X]F[+X]-X",
+			"production X 0.2 RF[+GX][-GX]",
+			"production F 0.7 FF",
+			"production F 0.3 F" };
+
+	/**
+	 * hashes of <code>HashingPainter</code> with exact coordinates, produced by the original </br>
+	 * sequential <code>LSystemimpl.draw</code> of the first version of this repository, </br>
+	 * which generated the whole string and interpreted it with fresh state copy on every push; </br>
+	 * every row is grammar name, level and expected <code>HashingPainter.toString()</code>
+	 */
+	private static final String[][] GOLDEN = {
+			{ "plant", "7", "41c26de7d570cbb08f5384134b919a92 (78125 segments)" },
+			{ "bush", "7", "7bb8d39ba303b930704653845e476fed (4118 segments)" },
+			{ "koch", "8", "f73edfa5ecf1c303af9bc876c2128065 (65536 segments)" },
+			{ "dragon", "16", "85f680bb99f7a26b34220b3e429b5af1 (65536 segments)" },
+			{ "mixed", "0", "00000000000000000000000000000000 (0 segments)" },
+			{ "mixed", "1", "0d52139cb451d1ab688d5f8714ee6667 (2 segments)" },
+			{ "mixed", "2", "9237c522c10db42f972678797389ba4f (10 segments)" },
+			{ "mixed", "3", "2c2775b9450d40b9b9da132c3366d0ed (38 segments)" },
+			{ "mixed", "4", "11fd7dc41c80345a309365f5781c1053 (130 segments)" },
+			{ "mixed", "5", "52cc75929b60c056eab330e166e0a0bd (422 segments)" },
+			{ "mixed", "6", "9027ab7e27f4ced7cef3c3b765b3bce6 (1330 segments)" } };
+
+	/**
+	 * golden hashes of levels with around 10^8 segments, produced in the same way
+	 */
+	private static final String[][] DEEP_GOLDEN = {
+			{ "plant", "11", "8830c1a1b132363f6f357bebd2764c81 (48828125 segments)" },
+			{ "koch", "13", "1bd43a37a46cc5cae13ced7da5209193 (67108864 segments)" },
+			{ "dragon", "26", "9dad86bec1207bacd59ca4b54d635ba7 (67108864 segments)" } };
+
+	private static final DifferentialHarness HARNESS = new DifferentialHarness(0, 1 << 14);
+
+	private static String[] definition(String name) {
+		return name.equals("mixed") ? MIXED : TestGrammars.grammar(name);
+	}
+
+	private static void checkGolden(String[][] golden, DrawMode... modes) {
+		for (String[] row : golden) {
+			int level = Integer.parseInt(row[1]);
+			for (DrawMode mode : modes) {
+				HashingPainter painter = new HashingPainter(0);
+				build(definition(row[0]), mode).draw(level, painter);
+				Assert.assertEquals(row[0] + " " + mode + " at level " + level, row[2], painter.toString());
+			}
+		}
+	}
+
+	private static LSystem build(String[] definition, DrawMode mode) {
+		LSystemBuilderImpl builder = new LSystemBuilderImpl();
+		builder.configureFromText(definition);
+		builder.setDrawMode(mode);
+		builder.setPixelThreshold(0);
+		return builder.build();
+	}
+
+	private static void checkAllModes(String[] definition, int level, DrawMode reference) {
+		LSystem expected = build(definition, reference);
+		for (DrawMode mode : DrawMode.values()) {
+			if (mode == reference)
+				continue;
+			String difference = HARNESS.compare(expected, build(definition, mode), level);
+			Assert.assertNull(mode + " at level " + level + ": " + difference, difference);
+		}
+	}
+
+	@Test
+	public void testCorpusMatchesOriginalEngine() {
+		checkGolden(GOLDEN, DrawMode.values());
+	}
+
+	@Test
+	public void testStochasticGrammar() {
+		for (int level = 0; level <= 7; level++) {
+			checkAllModes(STOCHASTIC, level, DrawMode.MATERIALIZED);
+		}
+	}
+
+	@Test
+	public void testSeedChangesDrawing() {
+		LSystemBuilderImpl builder = new LSystemBuilderImpl();
+		builder.configureFromText(STOCHASTIC);
+		builder.setSeed(2025);
+
+		String difference = HARNESS.compare(build(STOCHASTIC, DrawMode.STREAMING), builder.build(), 6);
+		Assert.assertNotNull(difference);
+	}
+
+	// materialized strings of these levels do not fit in default heap of tests, so other modes are checked
+	@Test
+	public void testDeepCorpusMatchesOriginalEngine() {
+		checkGolden(DEEP_GOLDEN, DrawMode.FUSED, DrawMode.STREAMING, DrawMode.ADAPTIVE);
+	}
+
+	@Test
+	public void testReportsFirstDifferingSegment() {
+		LSystem expected = build(TestGrammars.grammar("koch"), DrawMode.MATERIALIZED);
+		LSystem broken = perturbed(build(TestGrammars.grammar("koch"), DrawMode.STREAMING), 20_000);
+
+		String difference = HARNESS.compare(expected, broken, 8);
+		Assert.assertNotNull(difference);
+		Assert.assertTrue(difference, difference.startsWith("first differing segment is 20000 of 65536/65536"));
+	}
+
+	@Test
+	public void testReportsMissingSegments() {
+		LSystem expected = build(TestGrammars.grammar("koch"), DrawMode.FUSED);
+		LSystem shorter = build(TestGrammars.grammar("koch"), DrawMode.FUSED);
+
+		String difference = HARNESS.compare(expected, shorter, 7);
+		Assert.assertNull(difference);
+		difference = HARNESS.compare(expected, shallower(shorter), 7);
+		Assert.assertTrue(difference, difference.startsWith("first differing segment is 0 of 16384/4096"));
+	}
+
+	@Test
+	public void testReportsTruncatedDrawing() {
+		LSystem expected = build(TestGrammars.grammar("koch"), DrawMode.FUSED);
+		LSystem truncated = truncated(build(TestGrammars.grammar("koch"), DrawMode.STREAMING), 10_000);
+
+		String difference = HARNESS.compare(expected, truncated, 7);
+		Assert.assertNotNull(difference);
+		Assert.assertTrue(difference, difference.startsWith("first differing segment is 10000 of 16384/10000"));
+		Assert.assertTrue(difference, difference.endsWith("but was no segment"));
+	}
+
+	private static LSystem truncated(LSystem system, long count) {
+		return new LSystem() {
+			@Override
+			public String generate(int level) {
+				return system.generate(level);
+			}
+
+			@Override
+			public void draw(int level, Painter painter) {
+				long[] drawn = new long[1];
+				system.draw(level, (x0, y0, x1, y1, color, size) -> {
+					if (drawn[0]++ < count)
+						painter.drawLine(x0, y0, x1, y1, color, size);
+				});
+			}
+		};
+	}
+
+	private static LSystem shallower(LSystem system) {
+		return new LSystem() {
+			@Override
+			public String generate(int level) {
+				return system.generate(level - 1);
+			}
+
+			@Override
+			public void draw(int level, Painter painter) {
+				system.draw(level - 1, painter);
+			}
+		};
+	}
+
+	private static LSystem perturbed(LSystem system, long index) {
+		return new LSystem() {
+			@Override
+			public String generate(int level) {
+				return system.generate(level);
+			}
+
+			@Override
+			public void draw(int level, Painter painter) {
+				long[] count = new long[1];
+				system.draw(level, (x0, y0, x1, y1, color, size) -> {
+					double shift = count[0]++ == index ? Math.ulp(x1) : 0;
+					painter.drawLine(x0, y0, x1 + shift, y1, color, size);
+				});
+			}
+		};
+	}
+
+}
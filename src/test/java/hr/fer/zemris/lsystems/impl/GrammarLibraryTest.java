@@ -0,0 +1,77 @@
+package hr.fer.zemris.lsystems.impl;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import hr.fer.zemris.lsystems.LSystem;
+
+public class GrammarLibraryTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private static void writeDefinition(Path file, String axiom, String production) throws IOException {
+		String text = String.join("\n",
+				"origin 0 0",
+				"angle 0",
+				"unitLength 0.5",
+				"command F draw 1",
+				"axiom " + axiom,
+				"production F " + production);
+		Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	public void testLoadAll() throws IOException {
+		Path directory = folder.newFolder("grammars").toPath();
+		writeDefinition(directory.resolve("first.txt"), "F", "FF");
+		writeDefinition(directory.resolve("second.txt"), "FF", "F");
+		Files.write(directory.resolve("broken.txt"), "axiom".getBytes(StandardCharsets.UTF_8));
+
+		try (GrammarLibrary library = new GrammarLibrary(directory)) {
+			library.loadAll();
+
+			Assert.assertEquals(2, library.size());
+			Assert.assertEquals("FFFF", library.get("first").generate(2));
+			Assert.assertEquals("FF", library.get("second").generate(2));
+			Assert.assertNull(library.get("broken"));
+			Assert.assertTrue(library.getError("broken") instanceof ConfigParseException);
+			Assert.assertTrue(library.getLastLoadNanos() > 0);
+		}
+	}
+
+	@Test
+	public void testChangedDefinitionIsReloaded() throws IOException, InterruptedException {
+		Path directory = folder.newFolder("grammars").toPath();
+		Path file = directory.resolve("plant.txt");
+		writeDefinition(file, "F", "FF");
+
+		try (GrammarLibrary library = new GrammarLibrary(directory)) {
+			library.loadAll();
+			LSystem old = library.get("plant");
+			library.startWatching();
+
+			writeDefinition(file, "F", "FFF");
+			long deadline = System.currentTimeMillis() + 20_000;
+			while (!"FFFFFFFFF".equals(library.get("plant").generate(2))
+					&& System.currentTimeMillis() < deadline) {
+				Thread.sleep(50);
+			}
+
+			Assert.assertTrue(library.getReloadCount() > 0);
+			Assert.assertEquals("FFFFFFFFF", library.get("plant").generate(2));
+			Assert.assertEquals("FFFF", old.generate(2));
+			Assert.assertTrue(library.getMaxReloadNanos() >= library.getAverageReloadNanos());
+			Assert.assertEquals(0, library.getWatchFailureCount());
+			Assert.assertNull(library.getWatchError());
+		}
+	}
+
+}
@@ -0,0 +1,70 @@
+package hr.fer.zemris.lsystems.impl;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import hr.fer.zemris.lsystems.LSystem;
+import hr.fer.zemris.lsystems.Painter;
+
+/**
+ * Generation and interpretation of standard grammars at several levels. </br>
+ * Lines are sent to a painter that only hands coordinates to <code>Blackhole</code>, </br>
+ * so the score is the cost of <code>LSystem</code> itself.
+ *
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LSystemBenchmark {
+
+	@Param({ "plant", "bush", "koch", "dragon" })
+	private String grammar;
+
+	@Param({ "4", "6" })
+	private int level;
+
+	@Param({ "MATERIALIZED", "FUSED" })
+	private DrawMode mode;
+
+	private LSystem system;
+
+	private Painter painter;
+
+	@Setup
+	public void setup(Blackhole blackhole) {
+		LSystemBuilderImpl builder = new LSystemBuilderImpl();
+		builder.configureFromText(TestGrammars.grammar(grammar));
+		builder.setDrawMode(mode);
+		system = builder.build();
+		painter = (x0, y0, x1, y1, color, size) -> blackhole.consume(x1 + y1);
+	}
+
+	@Benchmark
+	public String generate() {
+		return system.generate(level);
+	}
+
+	@Benchmark
+	public void draw() {
+		system.draw(level, painter);
+	}
+
+}
@@ -0,0 +1,395 @@
+package hr.fer.zemris.lsystems.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import hr.fer.zemris.lsystems.LSystem;
+import hr.fer.zemris.lsystems.Painter;
+import hr.fer.zemris.lsystems.impl.metrics.RenderStats;
+import hr.fer.zemris.lsystems.impl.painters.HashingPainter;
+
+public class LSystemBuilderImplTest {
+
+	private static final String[] PLANT = {
+			"origin 0.5 0",
+			"angle 90",
+			"unitLength 0.3",
+			"unitLengthDegreeScaler 1.0 / 2.05",
+			"command F draw 1",
+			"command + rotate 25.7",
+			"command - rotate -25.7",
+			"command [ push",
+			"command ] pop",
+			"command G color 00FF00",
+			"axiom GF",
+			"production F F[+F]F[-F]F" };
+
+	private static String drawingHash(LSystem system, int level) {
+		HashingPainter painter = new HashingPainter(0);
+		system.draw(level, painter);
+		return painter.toString();
+	}
+
+	@Test
+	public void testBuiltSystemIgnoresLaterChanges() {
+		LSystemBuilderImpl builder = new LSystemBuilderImpl();
+		builder.configureFromText(PLANT);
+		LSystem system = builder.build();
+		String generated = system.generate(2);
+		String drawing = drawingHash(system, 2);
+
+		builder.setAxiom("F+F");
+		builder.registerProduction('F', "FF");
+		builder.registerCommand('F', "draw 2");
+		builder.setOrigin(0, 0);
+
+		Assert.assertEquals(generated, system.generate(2));
+		Assert.assertEquals(drawing, drawingHash(system, 2));
+		Assert.assertNotEquals(generated, builder.build().generate(2));
+	}
+
+	@Test
+	public void testConcurrentDraws() throws Exception {
+		LSystemBuilderImpl builder = new LSystemBuilderImpl();
+		builder.configureFromText(PLANT);
+		LSystem system = builder.build();
+		String expected = drawingHash(system, 4);
+
+		ExecutorService pool = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<String>> results = new ArrayList<>();
+			for (int i = 0; i < 64; i++) {
+				Callable<String> task = () -> drawingHash(system, 4);
+				results.add(pool.submit(task));
+			}
+			for (Future<String> result : results) {
+				Assert.assertEquals(expected, result.get());
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testSymbolsWithoutEffectArePrunedFromDrawing() {
+		String[] bush = {
+				"angle 90",
+				"unitLength 0.5",
+				"unitLengthDegreeScaler 1.0 / 2.0",
+				"command F draw 1",
+				"command + rotate 22.5",
+				"command - rotate -22.5",
+				"command [ push",
+				"command ] pop",
+				"axiom XZ",
+				"production X F[+X]F[-X]+X",
+				"production F FF",
+				"production Z ZZ" };
+		LSystemBuilderImpl builder = new LSystemBuilderImpl();
+		builder.configureFromText(bush);
+		RenderStats[] last = new RenderStats[1];
+		builder.addRenderListener(stats -> last[0] = stats);
+		LSystem pruned = builder.build();
+
+		// rotation by zero makes X and Z live without changing the drawing
+		LSystemBuilderImpl reference = new LSystemBuilderImpl();
+		reference.configureFromText(bush);
+		reference.registerCommand('X', "rotate 0");
+		reference.registerCommand('Z', "rotate 0");
+		LSystem unpruned = reference.build();
+		LSystemBuilderImpl streaming = new LSystemBuilderImpl();
+		streaming.configureFromText(bush);
+		streaming.setDrawMode(DrawMode.STREAMING);
+
+		for (int level = 0; level <= 5; level++) {
+			String expected = drawingHash(unpruned, level);
+			Assert.assertEquals(expected, drawingHash(pruned, level));
+			Assert.assertEquals(expected, drawingHash(streaming.build(), level));
+		}
+
+		RenderStats drawn = last[0];
+		String full = pruned.generate(5);
+		Assert.assertTrue(full.indexOf('X') >= 0 && full.indexOf('Z') >= 0);
+		Assert.assertEquals(full.length() - count(full, 'X') - count(full, 'Z'),
+				drawn.getCommandExecutions());
+	}
+
+	@Test
+	public void testInterruptedRenderStops() {
+		for (DrawMode mode : DrawMode.values()) {
+			LSystemBuilderImpl builder = new LSystemBuilderImpl();
+			builder.configureFromText(TestGrammars.grammar("koch"));
+			builder.setDrawMode(mode);
+			LSystem system = builder.build();
+			long[] lines = new long[1];
+
+			Thread.currentThread().interrupt();
+			try {
+				system.draw(12, (x0, y0, x1, y1, color, size) -> lines[0]++);
+				Assert.fail(mode + " drew interrupted render");
+			} catch (CancellationException ex) {
+				Assert.assertTrue(Thread.currentThread().isInterrupted());
+				Assert.assertEquals(mode.toString(), 0, lines[0]);
+			} finally {
+				Thread.interrupted();
+			}
+		}
+
+		LSystemBuilderImpl builder = new LSystemBuilderImpl();
+		builder.configureFromText(TestGrammars.grammar("koch"));
+		Thread.currentThread().interrupt();
+		try {
+			builder.build().generate(12);
+			Assert.fail();
+		} catch (CancellationException ex) {
+			// expected
+		} finally {
+			Thread.interrupted();
+		}
+	}
+
+	@Test
+	public void testAllDrawModesDrawTheSame() {
+		for (DrawMode mode : DrawMode.values()) {
+			LSystemBuilderImpl builder = new LSystemBuilderImpl();
+			builder.configureFromText(PLANT);
+			builder.setPixelThreshold(0);
+			builder.setDrawMode(DrawMode.MATERIALIZED);
+			LSystem reference = builder.build();
+			builder.setDrawMode(mode);
+			LSystem system = builder.build();
+			RenderStats[] last = new RenderStats[1];
+			builder.addRenderListener(stats -> last[0] = stats);
+			LSystem instrumented = builder.build();
+
+			for (int level = 0; level <= 5; level++) {
+				String expected = drawingHash(reference, level);
+				Assert.assertEquals(mode.toString(), expected, drawingHash(system, level));
+				Assert.assertEquals(mode.toString(), expected, drawingHash(instrumented, level));
+				Assert.assertEquals(count(reference.generate(level), 'F'), last[0].getSegments());
+			}
+		}
+	}
+
+	@Test
+	public void testStackIsSizedByBracketAnalysis() {
+		LSystemBuilderImpl builder = new LSystemBuilderImpl();
+		builder.configureFromText(PLANT);
+		builder.registerProduction('F', "F[+F[-F]]F");
+		RenderStats[] last = new RenderStats[1];
+		builder.addRenderListener(stats -> last[0] = stats);
+		LSystem system = builder.build();
+
+		for (int level = 0; level <= 4; level++) {
+			system.draw(level, (x0, y0, x1, y1, color, size) -> {});
+			Assert.assertEquals(1 + 2 * level, last[0].getPeakDepth());
+			Assert.assertEquals(1 + 2 * level, new BracketAnalysis(system.generate(0),
+					builder.getProductions(), builder.getCommands()).stackCapacity(level));
+		}
+	}
+
+	@Test
+	public void testUnbalancedPopIsRejectedBeforeDrawing() {
+		LSystemBuilderImpl builder = new LSystemBuilderImpl();
+		builder.configureFromText(PLANT);
+		builder.setAxiom("F");
+		builder.registerProduction('F', "F]F[F");
+		LSystem system = builder.build();
+
+		system.draw(0, (x0, y0, x1, y1, color, size) -> {});
+		try {
+			system.draw(2, (x0, y0, x1, y1, color, size) -> Assert.fail("Nothing should be drawn."));
+			Assert.fail();
+		} catch (IllegalStateException ex) {
+			Assert.assertTrue(ex.getMessage().contains("Level 2"));
+		}
+	}
+
+	@Test
+	public void testAdaptiveDrawingKeepsStateAfterReplacedSubtree() {
+		LSystemBuilderImpl builder = new LSystemBuilderImpl();
+		builder.configureFromText(new String[] {
+				"origin 0.1 0.3",
+				"angle 10",
+				"unitLength 0.8",
+				"unitLengthDegreeScaler 1.0 / 3.0",
+				"command F draw 1",
+				"command K draw 1",
+				"command + rotate 60",
+				"command - rotate -60",
+				"command S scale 0.5",
+				"command R color FF0000",
+				"axiom K[+K]F",
+				"production K K+K--K+KRS" });
+		builder.setDrawMode(DrawMode.STREAMING);
+		AdaptiveLSystem system = (AdaptiveLSystem) builder.build();
+
+		List<double[]> full = segments(system, 5, -1);
+		List<double[]> adaptive = segments(system, 5, 10_000);
+		Assert.assertEquals(3, adaptive.size());
+
+		double[] expectedLast = full.get(full.size() - 1);
+		double[] actualLast = adaptive.get(2);
+		for (int i = 0; i < 5; i++) {
+			Assert.assertEquals(expectedLast[i], actualLast[i], 1e-9);
+		}
+		Assert.assertEquals(full.get(0)[0], adaptive.get(0)[0], 1e-12);
+		Assert.assertEquals(0xFF000000, (int) adaptive.get(0)[4]);
+	}
+
+	@Test
+	public void testAdaptiveDrawingExpandsUnbalancedSubtrees() {
+		LSystemBuilderImpl builder = new LSystemBuilderImpl();
+		builder.configureFromText(new String[] {
+				"angle 90",
+				"unitLength 0.5",
+				"command F draw 1",
+				"command + rotate 30",
+				"command [ push",
+				"command ] pop",
+				"axiom AB",
+				"production A FA[+",
+				"production B ]FB" });
+		builder.setDrawMode(DrawMode.STREAMING);
+		AdaptiveLSystem system = (AdaptiveLSystem) builder.build();
+
+		List<double[]> full = segments(system, 4, -1);
+		List<double[]> adaptive = segments(system, 4, 10_000);
+		Assert.assertEquals(8, adaptive.size());
+		for (int i = 0; i < full.size(); i++) {
+			Assert.assertArrayEquals(full.get(i), adaptive.get(i), 1e-12);
+		}
+	}
+
+	@Test
+	public void testAdaptiveDrawingFollowsResolution() {
+		LSystemBuilderImpl builder = new LSystemBuilderImpl();
+		builder.configureFromText(TestGrammars.grammar("koch"));
+		builder.setDrawMode(DrawMode.ADAPTIVE);
+		builder.setTargetResolution(64, 64);
+		RenderStats[] last = new RenderStats[1];
+		LSystem small = builder.build();
+		builder.setTargetResolution(1024, 768);
+		LSystem large = builder.build();
+		builder.addRenderListener(stats -> last[0] = stats);
+		LSystem instrumented = builder.build();
+
+		builder.setDrawMode(DrawMode.STREAMING);
+		int full = segments((AdaptiveLSystem) builder.build(), 8, -1).size();
+		long smallCount = drawnSegments(small, 8);
+		long largeCount = drawnSegments(large, 8);
+		Assert.assertEquals(65536, full);
+		Assert.assertTrue(smallCount < largeCount);
+		Assert.assertTrue(largeCount < full / 2);
+
+		Assert.assertEquals(drawingHash(large, 8), drawingHash(instrumented, 8));
+		Assert.assertEquals(largeCount, last[0].getSegments());
+		Assert.assertTrue(last[0].getSymbolsExpanded() < full);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidTargetResolution() {
+		new LSystemBuilderImpl().setTargetResolution(0, 100);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativePixelThreshold() {
+		new LSystemBuilderImpl().setPixelThreshold(-1);
+	}
+
+	@Test
+	public void testStochasticChoicesFollowWeightsAndSeed() {
+		LSystemBuilderImpl builder = new LSystemBuilderImpl();
+		builder.setAxiom(new String(new char[20_000]).replace('\0', 'A'));
+		builder.registerProduction('A', 1, "B");
+		builder.registerProduction('A', 3, "C");
+		builder.setSeed(5);
+		String first = builder.build().generate(1);
+		
+		Assert.assertEquals(first, builder.build().generate(1));
+		Assert.assertEquals(5000, count(first, 'B'), 300);
+		Assert.assertEquals(20_000, count(first, 'B') + count(first, 'C'));
+		
+		builder.setSeed(6);
+		Assert.assertNotEquals(first, builder.build().generate(1));
+		builder.registerProduction('A', "D");
+		Assert.assertEquals(20_000, count(builder.build().generate(1), 'D'));
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidWeight() {
+		new LSystemBuilderImpl().registerProduction('A', 0, "B");
+	}
+	
+	@Test
+	public void testStackCapacityOfStochasticSystem() {
+		LSystemBuilderImpl builder = new LSystemBuilderImpl();
+		builder.configureFromText(PLANT);
+		builder.setAxiom("FF");
+		builder.registerProduction('F', 0.5, "[[F]]");
+		builder.registerProduction('F', 0.5, "F");
+		
+		Assert.assertEquals(5, new BracketAnalysis(builder.getAxiom(),
+				builder.getProductions(), builder.getCommands()).stackCapacity(2));
+		
+		builder.registerProduction('F', 0.5, "]F");
+		try {
+			new BracketAnalysis(builder.getAxiom(), builder.getProductions(), builder.getCommands())
+					.stackCapacity(1);
+			Assert.fail();
+		} catch (IllegalStateException ex) {
+			// some choice pops the initial state
+		}
+	}
+	
+	@Test
+	public void testAdaptiveDrawingOfStochasticSubtrees() {
+		LSystemBuilderImpl builder = new LSystemBuilderImpl();
+		builder.configureFromText(PLANT);
+		builder.setAxiom("F");
+		builder.registerProduction('F', 0.5, "F[+F]F");
+		builder.registerProduction('F', 0.5, "F[-F]F");
+		builder.setDrawMode(DrawMode.STREAMING);
+		AdaptiveLSystem sameEffect = (AdaptiveLSystem) builder.build();
+		Assert.assertEquals(1, segments(sameEffect, 5, 10_000).size());
+		
+		builder.registerProduction('F', 0.5, "F+F");
+		AdaptiveLSystem differentEffect = (AdaptiveLSystem) builder.build();
+		Assert.assertEquals(segments(differentEffect, 5, -1).size(), segments(differentEffect, 5, 10_000).size());
+	}
+	
+	private static List<double[]> segments(AdaptiveLSystem system, int level, double threshold) {
+		List<double[]> segments = new ArrayList<>();
+		Painter painter = (x0, y0, x1, y1, color, size) ->
+				segments.add(new double[] { x0, y0, x1, y1, color.getRGB() });
+		if (threshold < 0)
+			system.draw(level, painter);
+		else
+			system.drawAdaptive(level, painter, 100, 100, threshold);
+		return segments;
+	}
+
+	private static long drawnSegments(LSystem system, int level) {
+		long[] count = new long[1];
+		system.draw(level, (x0, y0, x1, y1, color, size) -> count[0]++);
+		return count[0];
+	}
+
+	private static int count(String text, char symbol) {
+		int count = 0;
+		for (int i = 0; i < text.length(); i++) {
+			if (text.charAt(i) == symbol)
+				count++;
+		}
+		return count;
+	}
+
+}
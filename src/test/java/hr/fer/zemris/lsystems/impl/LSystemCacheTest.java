@@ -0,0 +1,124 @@
+package hr.fer.zemris.lsystems.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import hr.fer.zemris.lsystems.LSystem;
+
+public class LSystemCacheTest {
+	
+	private static final String PLANT = String.join("\n",
+			"origin 0.5 0",
+			"angle 90",
+			"unitLength 0.3",
+			"unitLengthDegreeScaler 1.0 / 2.05",
+			"command F draw 1",
+			"command + rotate 25.7",
+			"command - rotate -25.7",
+			"command [ push",
+			"command ] pop",
+			"command G color 00FF00",
+			"command S scale 0.9",
+			"axiom GF",
+			"production F F[+F]F[-F]SF");
+	
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+	
+	@Test
+	public void testCodecRoundTrip() throws IOException {
+		LSystemBuilderImpl original = new LSystemBuilderImpl();
+		original.configureFromText(PLANT.split("\n"));
+		LSystemBuilderImpl decoded = LSystemCodec.decode(LSystemCodec.encode(original));
+		
+		Assert.assertEquals(original.build().generate(3), decoded.build().generate(3));
+		Assert.assertEquals(drawing(original.build(), 3), drawing(decoded.build(), 3));
+	}
+	
+	@Test
+	public void testCodecRoundTripOfStochasticSystem() {
+		LSystemBuilderImpl original = new LSystemBuilderImpl();
+		original.configureFromText(PLANT.split("\n"));
+		original.registerProduction('F', 0.6, "FF");
+		original.registerProduction('F', 0.4, "F[-F]");
+		original.setSeed(42);
+		LSystemBuilderImpl decoded = LSystemCodec.decode(LSystemCodec.encode(original));
+		
+		Assert.assertEquals(original.build().generate(4), decoded.build().generate(4));
+		Assert.assertEquals(drawing(original.build(), 4), drawing(decoded.build(), 4));
+		decoded.setSeed(43);
+		Assert.assertNotEquals(original.build().generate(4), decoded.build().generate(4));
+	}
+	
+	@Test (expected = IllegalArgumentException.class)
+	public void testDecodeCorrupted() {
+		LSystemBuilderImpl original = new LSystemBuilderImpl();
+		original.configureFromText(PLANT.split("\n"));
+		byte[] data = LSystemCodec.encode(original);
+		byte[] truncated = new byte[data.length / 2];
+		System.arraycopy(data, 0, truncated, 0, truncated.length);
+		LSystemCodec.decode(truncated);
+	}
+	
+	@Test
+	public void testSecondLoadIsServedFromCache() throws IOException {
+		Path directory = folder.newFolder("cache").toPath();
+		LSystemCache cache = new LSystemCache(directory);
+		LSystem first = cache.load(PLANT);
+		LSystemCache warmCache = new LSystemCache(directory);
+		LSystem second = warmCache.load(PLANT);
+		
+		Assert.assertEquals(1, cache.getMisses());
+		Assert.assertEquals(1, warmCache.getHits());
+		Assert.assertEquals(0, warmCache.getMisses());
+		Assert.assertEquals(1, Files.list(directory).count());
+		Assert.assertEquals(drawing(first, 4), drawing(second, 4));
+	}
+	
+	@Test
+	public void testCorruptedEntryIsRebuilt() throws IOException {
+		Path directory = folder.newFolder("cache").toPath();
+		new LSystemCache(directory).load(PLANT);
+		Path entry = Files.list(directory).findFirst().get();
+		Files.write(entry, new byte[] {1, 2, 3});
+		
+		LSystemCache cache = new LSystemCache(directory);
+		cache.load(PLANT);
+		Assert.assertEquals(1, cache.getMisses());
+		cache.load(PLANT);
+		Assert.assertEquals(1, cache.getHits());
+	}
+	
+	@Test
+	public void testEntryOfOlderVersionIsOverwritten() throws IOException {
+		Path directory = folder.newFolder("cache").toPath();
+		new LSystemCache(directory).load(PLANT);
+		Path entry = Files.list(directory).findFirst().get();
+		byte[] data = Files.readAllBytes(entry);
+		ByteBuffer.wrap(data).putShort(4, (short) (LSystemCodec.VERSION - 1));
+		Files.write(entry, data);
+		
+		LSystemCache cache = new LSystemCache(directory);
+		cache.load(PLANT);
+		Assert.assertEquals(1, cache.getMisses());
+		Assert.assertEquals(1, Files.list(directory).count());
+		Assert.assertEquals(LSystemCodec.VERSION, ByteBuffer.wrap(Files.readAllBytes(entry)).getShort(4));
+		cache.load(PLANT);
+		Assert.assertEquals(1, cache.getHits());
+	}
+	
+	private static String drawing(LSystem system, int level) {
+		StringBuilder lines = new StringBuilder();
+		system.draw(level, (x0, y0, x1, y1, color, size) ->
+			lines.append(x0).append(y0).append(x1).append(y1).append(color.getRGB()).append('\n'));
+		return lines.toString();
+	}
+	
+}
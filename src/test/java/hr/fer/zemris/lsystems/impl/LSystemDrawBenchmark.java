@@ -0,0 +1,73 @@
+package hr.fer.zemris.lsystems.impl;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import hr.fer.zemris.lsystems.LSystem;
+
+/**
+ * Throughput of drawing one shared <code>LSystem</code> from a single thread
+ * and from as many threads as there are processors. With immutable system
+ * the second score should be close to the first one multiplied by number of processors.
+ *
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LSystemDrawBenchmark {
+
+	@Param({ "5" })
+	private int level;
+
+	private LSystem system;
+
+	@Setup
+	public void setup() {
+		LSystemBuilderImpl builder = new LSystemBuilderImpl();
+		builder.configureFromText(new String[] {
+				"origin 0.5 0",
+				"angle 90",
+				"unitLength 0.3",
+				"unitLengthDegreeScaler 1.0 / 2.05",
+				"command F draw 1",
+				"command + rotate 25.7",
+				"command - rotate -25.7",
+				"command [ push",
+				"command ] pop",
+				"axiom F",
+				"production F F[+F]F[-F]F" });
+		system = builder.build();
+	}
+
+	@Benchmark
+	@Threads(1)
+	public void drawSingleThread(Blackhole blackhole) {
+		system.draw(level, (x0, y0, x1, y1, color, size) -> blackhole.consume(x1 + y1));
+	}
+
+	@Benchmark
+	@Threads(Threads.MAX)
+	public void drawAllThreads(Blackhole blackhole) {
+		system.draw(level, (x0, y0, x1, y1, color, size) -> blackhole.consume(x1 + y1));
+	}
+
+}
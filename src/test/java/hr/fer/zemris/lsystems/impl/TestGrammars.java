@@ -0,0 +1,79 @@
+package hr.fer.zemris.lsystems.impl;
+
+/**
+ * Standard grammars shared by tests and benchmarks: </br>
+ * branching plant, bush with two productions, Koch curve and dragon curve.
+ *
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+final class TestGrammars {
+
+	private TestGrammars() {
+	}
+
+	/**
+	 * Method returns configuration of the grammar with the given name.
+	 *
+	 * @param name name of the grammar
+	 * @return     lines of configuration
+	 */
+	static String[] grammar(String name) {
+		switch (name) {
+		case "plant":
+			return new String[] {
+					"origin 0.5 0",
+					"angle 90",
+					"unitLength 0.3",
+					"unitLengthDegreeScaler 1.0 / 2.05",
+					"command F draw 1",
+					"command + rotate 25.7",
+					"command - rotate -25.7",
+					"command [ push",
+					"command ] pop",
+					"axiom F",
+					"production F F[+F]F[-F]F" };
+		case "bush":
+			return new String[] {
+					"origin 0.5 0",
+					"angle 90",
+					"unitLength 0.5",
+					"unitLengthDegreeScaler 1.0 / 2.0",
+					"command F draw 1",
+					"command + rotate 22.5",
+					"command - rotate -22.5",
+					"command [ push",
+					"command ] pop",
+					"axiom X",
+					"production X F[+X]F[-X]+X",
+					"production F FF" };
+		case "koch":
+			return new String[] {
+					"origin 0.05 0.4",
+					"angle 0",
+					"unitLength 0.9",
+					"unitLengthDegreeScaler 1.0 / 3.0",
+					"command F draw 1",
+					"command + rotate 60",
+					"command - rotate -60",
+					"axiom F",
+					"production F F+F--F+F" };
+		case "dragon":
+			return new String[] {
+					"origin 0.35 0.5",
+					"angle 0",
+					"unitLength 0.5",
+					"unitLengthDegreeScaler 1.0 / 1.41421356",
+					"command F draw 1",
+					"command + rotate 90",
+					"command - rotate -90",
+					"axiom FX",
+					"production X X+YF+",
+					"production Y -FX-Y" };
+		default:
+			throw new IllegalArgumentException("Unknown grammar: " + name);
+		}
+	}
+
+}
@@ -0,0 +1,156 @@
+package hr.fer.zemris.lsystems.impl.admission;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import hr.fer.zemris.lsystems.LSystem;
+import hr.fer.zemris.lsystems.impl.DrawMode;
+import hr.fer.zemris.lsystems.impl.LSystemBuilderImpl;
+import hr.fer.zemris.lsystems.impl.metrics.RenderMetrics;
+import hr.fer.zemris.lsystems.impl.painters.HashingPainter;
+
+public class AdmissionPolicyTest {
+
+	private static final String[] PLANT = {
+			"angle 90",
+			"unitLength 0.3",
+			"unitLengthDegreeScaler 1.0 / 2.05",
+			"command F draw 1",
+			"command + rotate 25.7",
+			"command - rotate -25.7",
+			"command [ push",
+			"command ] pop",
+			"axiom F",
+			"production F F[+F]F[-F]F" };
+
+	private static final String[] DRAGON = {
+			"unitLength 0.5",
+			"command F draw 1",
+			"command + rotate 90",
+			"command - rotate -90",
+			"axiom FX",
+			"production X X+YF+",
+			"production Y -FX-Y" };
+
+	private static final Calibration UNIT_COST = new Calibration(1, 1);
+
+	private static LSystemBuilderImpl builder(String[] lines) {
+		LSystemBuilderImpl builder = new LSystemBuilderImpl();
+		builder.configureFromText(lines);
+		return builder;
+	}
+
+	private static String drawingHash(LSystem system, int level) {
+		HashingPainter painter = new HashingPainter(0);
+		system.draw(level, painter);
+		return painter.toString();
+	}
+
+	@Test
+	public void testEstimateMatchesGeneratedString() {
+		for (String[] grammar : new String[][] { PLANT, DRAGON }) {
+			LSystem system = builder(grammar).build();
+			LSystemBuilderImpl builder = builder(grammar);
+			builder.setAdmissionPolicy(new AdmissionPolicy().setCalibration(UNIT_COST));
+			AdmissionDecision[] last = new AdmissionDecision[1];
+			builder.addRenderListener(new RenderMetrics() {
+				@Override
+				public void admissionDecided(AdmissionDecision decision) {
+					last[0] = decision;
+				}
+			});
+			LSystem checked = builder.build();
+
+			for (int level = 0; level <= 6; level++) {
+				String generated = system.generate(level);
+				long rewritten = 0;
+				for (int l = 0; l < level; l++) {
+					rewritten += system.generate(l).length();
+				}
+
+				checked.generate(level);
+				Estimate estimate = last[0].getEstimate();
+
+				Assert.assertEquals(generated.length(), estimate.getSymbols(), 0);
+				Assert.assertEquals(generated.chars().filter(c -> c == 'F').count(), estimate.getSegments(), 0);
+				Assert.assertEquals(rewritten, estimate.getRewrittenSymbols(), 0);
+				Assert.assertEquals(rewritten + generated.length(), estimate.getNanos(), 0);
+			}
+		}
+	}
+
+	@Test
+	public void testReject() {
+		RenderMetrics metrics = new RenderMetrics();
+		LSystemBuilderImpl builder = builder(PLANT);
+		builder.setAdmissionPolicy(new AdmissionPolicy().setMaxSymbols(1000).setCalibration(UNIT_COST));
+		builder.addRenderListener(metrics);
+		LSystem system = builder.build();
+
+		system.draw(2, (x0, y0, x1, y1, color, size) -> {});
+		try {
+			system.draw(8, (x0, y0, x1, y1, color, size) -> Assert.fail());
+			Assert.fail();
+		} catch (AdmissionException ex) {
+			Assert.assertEquals(AdmissionDecision.Outcome.REJECTED, ex.getDecision().getOutcome());
+		}
+		Assert.assertEquals(1, metrics.getAdmissionsAccepted());
+		Assert.assertEquals(1, metrics.getAdmissionsRejected());
+		Assert.assertEquals(1, metrics.getRenders());
+	}
+
+	@Test
+	public void testCapLevel() {
+		RenderMetrics metrics = new RenderMetrics();
+		LSystemBuilderImpl builder = builder(PLANT);
+		builder.setAdmissionPolicy(new AdmissionPolicy()
+				.setMaxSegments(100)
+				.setAction(AdmissionPolicy.Action.CAP_LEVEL)
+				.setCalibration(UNIT_COST));
+		builder.addRenderListener(metrics);
+		LSystem system = builder.build();
+
+		int[] lines = new int[1];
+		system.draw(10, (x0, y0, x1, y1, color, size) -> lines[0]++);
+
+		Assert.assertEquals(25, lines[0]);
+		Assert.assertEquals(1, metrics.getAdmissionsCapped());
+		Assert.assertEquals(builder(PLANT).build().generate(2), system.generate(10));
+	}
+
+	@Test
+	public void testSwitchToStreaming() {
+		RenderMetrics metrics = new RenderMetrics();
+		LSystemBuilderImpl builder = builder(PLANT);
+		builder.setAdmissionPolicy(new AdmissionPolicy()
+				.setMaxMemoryBytes(2_000)
+				.setAction(AdmissionPolicy.Action.STREAM)
+				.setCalibration(UNIT_COST));
+		builder.addRenderListener(metrics);
+		LSystem system = builder.build();
+
+		Assert.assertEquals(drawingHash(builder(PLANT).build(), 5), drawingHash(system, 5));
+		Assert.assertEquals(1, metrics.getAdmissionsStreamed());
+		Assert.assertEquals(3125, metrics.getSegments());
+
+		try {
+			system.generate(5);
+			Assert.fail();
+		} catch (AdmissionException ex) {
+			Assert.assertEquals(1, metrics.getAdmissionsRejected());
+		}
+	}
+
+	@Test
+	public void testStreamingDrawsLikeMaterialized() {
+		for (String[] grammar : new String[][] { PLANT, DRAGON }) {
+			LSystemBuilderImpl streaming = builder(grammar);
+			streaming.setDrawMode(DrawMode.STREAMING);
+			for (int level = 0; level <= 6; level++) {
+				Assert.assertEquals(drawingHash(builder(grammar).build(), level),
+						drawingHash(streaming.build(), level));
+			}
+		}
+	}
+
+}
@@ -0,0 +1,73 @@
+package hr.fer.zemris.lsystems.impl.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import hr.fer.zemris.lsystems.LSystem;
+import hr.fer.zemris.lsystems.impl.LSystemBuilderImpl;
+
+/**
+ * Cost of render instrumentation: drawing system built without listeners </br>
+ * compared to drawing the same system built with <code>RenderMetrics</code> listener.
+ *
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RenderMetricsBenchmark {
+
+	@Param({ "5" })
+	private int level;
+
+	private LSystem plain;
+
+	private LSystem instrumented;
+
+	@Setup
+	public void setup() {
+		String[] plant = {
+				"angle 90",
+				"unitLength 0.3",
+				"command F draw 1",
+				"command + rotate 25.7",
+				"command - rotate -25.7",
+				"command [ push",
+				"command ] pop",
+				"axiom F",
+				"production F F[+F]F[-F]F" };
+		LSystemBuilderImpl builder = new LSystemBuilderImpl();
+		builder.configureFromText(plant);
+		plain = builder.build();
+		builder.addRenderListener(new RenderMetrics());
+		instrumented = builder.build();
+	}
+
+	@Benchmark
+	public void drawWithoutListener(Blackhole blackhole) {
+		plain.draw(level, (x0, y0, x1, y1, color, size) -> blackhole.consume(x1));
+	}
+
+	@Benchmark
+	public void drawWithMetrics(Blackhole blackhole) {
+		instrumented.draw(level, (x0, y0, x1, y1, color, size) -> blackhole.consume(x1));
+	}
+
+}
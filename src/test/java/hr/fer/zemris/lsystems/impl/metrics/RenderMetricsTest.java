@@ -0,0 +1,125 @@
+package hr.fer.zemris.lsystems.impl.metrics;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.ObjectName;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import hr.fer.zemris.lsystems.LSystem;
+import hr.fer.zemris.lsystems.impl.DrawMode;
+import hr.fer.zemris.lsystems.impl.LSystemBuilderImpl;
+
+public class RenderMetricsTest {
+
+	private static final String[] PLANT = {
+			"angle 90",
+			"unitLength 0.3",
+			"command F draw 1",
+			"command + rotate 25.7",
+			"command - rotate -25.7",
+			"command [ push",
+			"command ] pop",
+			"axiom F",
+			"production F F[+F]F[-F]F" };
+
+	@Test
+	public void testRenderStats() {
+		RenderStats[] last = new RenderStats[1];
+		LSystemBuilderImpl builder = new LSystemBuilderImpl();
+		builder.configureFromText(PLANT);
+		builder.addRenderListener(stats -> last[0] = stats);
+		LSystem system = builder.build();
+
+		int[] lines = new int[1];
+		system.draw(2, (x0, y0, x1, y1, color, size) -> lines[0]++);
+		RenderStats stats = last[0];
+
+		Assert.assertEquals(2, stats.getLevel());
+		Assert.assertEquals(25, lines[0]);
+		Assert.assertEquals(25, stats.getSegments());
+		Assert.assertEquals(25, stats.getCommandExecutions("DrawCommand"));
+		Assert.assertEquals(12, stats.getCommandExecutions("PushCommand"));
+		Assert.assertEquals(12, stats.getCommandExecutions("RotateCommand"));
+		Assert.assertEquals(25 + 12 + 12 + 12, stats.getCommandExecutions());
+		Assert.assertEquals(1 + 11, stats.getSymbolsExpanded());
+		Assert.assertEquals(3, stats.getPeakDepth());
+		Assert.assertTrue(stats.getGenerationNanos(1) >= 0);
+		if (AllocationCounter.isSupported())
+			Assert.assertTrue(stats.getAllocatedBytes() > 0);
+	}
+
+	@Test
+	public void testEveryModeCountsSameExecutions() {
+		for (DrawMode mode : DrawMode.values()) {
+			RenderStats[] last = new RenderStats[1];
+			LSystemBuilderImpl builder = new LSystemBuilderImpl();
+			builder.configureFromText(PLANT);
+			builder.setDrawMode(mode);
+			builder.setPixelThreshold(0);
+			builder.addRenderListener(stats -> last[0] = stats);
+			builder.build().draw(3, (x0, y0, x1, y1, color, size) -> {
+			});
+			RenderStats stats = last[0];
+
+			Assert.assertEquals(mode.toString(), 125, stats.getSegments());
+			Assert.assertEquals(mode.toString(), 125, stats.getCommandExecutions("DrawCommand"));
+			Assert.assertEquals(mode.toString(), 62, stats.getCommandExecutions("PushCommand"));
+			Assert.assertEquals(mode.toString(), 62, stats.getCommandExecutions("RotateCommand"));
+			Assert.assertEquals(mode.toString(), 4, stats.getPeakDepth());
+		}
+	}
+
+	@Test
+	public void testGenerationIsMeasured() {
+		RenderStats[] last = new RenderStats[1];
+		LSystemBuilderImpl builder = new LSystemBuilderImpl();
+		builder.configureFromText(PLANT);
+		builder.addRenderListener(stats -> last[0] = stats);
+		LSystem system = builder.build();
+
+		String generated = system.generate(3);
+		RenderStats stats = last[0];
+
+		Assert.assertNotNull(stats);
+		Assert.assertEquals(3, stats.getLevel());
+		Assert.assertEquals(1 + 11 + 61, stats.getSymbolsExpanded());
+		Assert.assertEquals(0, stats.getSegments());
+		Assert.assertEquals(0, stats.getCommandExecutions());
+		for (int level = 1; level <= 3; level++) {
+			Assert.assertTrue(stats.getGenerationNanos(level) >= 0);
+		}
+		Assert.assertEquals(new LSystemBuilderImpl().configureFromText(PLANT).build().generate(3), generated);
+	}
+
+	@Test
+	public void testMetricsAccumulateAndAreExposedThroughJmx() throws Exception {
+		RenderMetrics metrics = new RenderMetrics();
+		LSystemBuilderImpl builder = new LSystemBuilderImpl();
+		builder.configureFromText(PLANT);
+		builder.addRenderListener(metrics);
+		LSystem system = builder.build();
+
+		system.draw(2, (x0, y0, x1, y1, color, size) -> {});
+		system.draw(3, (x0, y0, x1, y1, color, size) -> {});
+
+		Assert.assertEquals(2, metrics.getRenders());
+		Assert.assertEquals(25 + 125, metrics.getSegments());
+		Assert.assertEquals(25 + 125, metrics.getCommandExecutions("DrawCommand"));
+		Assert.assertEquals(4, metrics.getPeakDepth());
+
+		ObjectName name = metrics.register("test");
+		try {
+			Object segments = ManagementFactory.getPlatformMBeanServer().getAttribute(name, "Segments");
+			Assert.assertEquals(150L, segments);
+		} finally {
+			RenderMetrics.unregister(name);
+		}
+
+		metrics.reset();
+		Assert.assertEquals(0, metrics.getRenders());
+		Assert.assertEquals(0, metrics.getCommandTypes().length);
+	}
+
+}
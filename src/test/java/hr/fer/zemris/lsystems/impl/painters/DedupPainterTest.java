@@ -0,0 +1,138 @@
+package hr.fer.zemris.lsystems.impl.painters;
+
+import java.awt.Color;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import hr.fer.zemris.lsystems.LSystem;
+import hr.fer.zemris.lsystems.Painter;
+import hr.fer.zemris.lsystems.impl.LSystemBuilderImpl;
+
+public class DedupPainterTest {
+
+	private static class CountingPainter implements Painter {
+		private int count;
+
+		@Override
+		public void drawLine(double x0, double y0, double x1, double y1, Color color, float size) {
+			count++;
+		}
+	}
+
+	@Test
+	public void testReversedDuplicateIsDropped() {
+		CountingPainter counter = new CountingPainter();
+		DedupPainter painter = DedupPainter.forImage(counter, 100, 100);
+		painter.drawLine(0.1, 0.1, 0.5, 0.5, Color.BLACK, 1);
+		painter.drawLine(0.5, 0.5, 0.1, 0.1, Color.BLACK, 1);
+		painter.drawLine(0.1001, 0.1, 0.5, 0.5001, Color.BLACK, 1);
+		painter.drawLine(0.1, 0.1, 0.6, 0.5, Color.BLACK, 1);
+
+		Assert.assertEquals(2, counter.count);
+		Assert.assertEquals(4, painter.getReceivedCount());
+		Assert.assertEquals(2, painter.getDroppedCount());
+	}
+
+	@Test
+	public void testRestyledSegmentIsDrawn() {
+		CountingPainter counter = new CountingPainter();
+		DedupPainter painter = new DedupPainter(counter, 1000);
+		painter.drawLine(0.1, 0.1, 0.5, 0.5, Color.RED, 1);
+		painter.drawLine(0.1, 0.1, 0.5, 0.5, Color.BLUE, 1);
+		painter.drawLine(0.1, 0.1, 0.5, 0.5, Color.RED, 1);
+		painter.drawLine(0.1, 0.1, 0.5, 0.5, Color.RED, 2);
+		painter.drawLine(0.1, 0.1, 0.5, 0.5, Color.RED, 2);
+
+		Assert.assertEquals(4, counter.count);
+		Assert.assertEquals(1, painter.getEntryCount());
+	}
+
+	@Test
+	public void testSegmentOverdrawnByOtherStyleIsDrawnAgain() {
+		CountingPainter counter = new CountingPainter();
+		DedupPainter painter = new DedupPainter(counter, 1000);
+		painter.drawLine(0.1, 0.1, 0.5, 0.5, Color.RED, 1);
+		painter.drawLine(0.1, 0.5, 0.5, 0.1, Color.BLUE, 1);
+		painter.drawLine(0.1, 0.1, 0.5, 0.5, Color.RED, 1);
+		// outside the grid, but crosses the red segment
+		painter.drawLine(-0.1, 0.3, 0.7, 0.3, Color.BLUE, 1);
+		painter.drawLine(0.5, 0.5, 0.1, 0.1, Color.RED, 1);
+		painter.drawLine(0.1, 0.1, 0.5, 0.5, Color.RED, 1);
+
+		Assert.assertEquals(5, counter.count);
+		Assert.assertEquals(1, painter.getDroppedCount());
+	}
+
+	@Test
+	public void testStylesAreComparedExactly() {
+		CountingPainter counter = new CountingPainter();
+		DedupPainter painter = new DedupPainter(counter, 1000);
+		// these two styles had equal 32-bit hash, 31 * rgb + width bits
+		Color color = new Color(0x102030);
+		Color next = new Color(0x102031);
+		float width = Float.intBitsToFloat(Float.floatToIntBits(1f) + 31);
+		painter.drawLine(0.1, 0.1, 0.5, 0.5, next, 1f);
+		painter.drawLine(0.1, 0.1, 0.5, 0.5, color, width);
+		painter.drawLine(0.1, 0.1, 0.5, 0.5, color, width);
+
+		Assert.assertEquals(2, counter.count);
+		Assert.assertEquals(1, painter.getDroppedCount());
+	}
+
+	@Test
+	public void testSegmentsOutsideGridArePassedThrough() {
+		CountingPainter counter = new CountingPainter();
+		DedupPainter painter = new DedupPainter(counter, 1000);
+		painter.drawLine(-0.1, 0, 0.5, 0.5, Color.BLACK, 1);
+		painter.drawLine(-0.1, 0, 0.5, 0.5, Color.BLACK, 1);
+		painter.drawLine(0, 0, 100, 0, Color.BLACK, 1);
+
+		Assert.assertEquals(3, counter.count);
+		Assert.assertEquals(3, painter.getBypassedCount());
+	}
+
+	@Test
+	public void testMemoryIsBounded() {
+		CountingPainter counter = new CountingPainter();
+		DedupPainter painter = new DedupPainter(counter, 10_000).setMaxEntries(100);
+		for (int round = 0; round < 2; round++) {
+			for (int i = 0; i < 250; i++) {
+				painter.drawLine(i / 1000.0, 0, i / 1000.0, 0.5, Color.BLACK, 1);
+			}
+		}
+
+		Assert.assertTrue(painter.getEntryCount() <= 100);
+		Assert.assertTrue(painter.getResetCount() > 0);
+		Assert.assertEquals(500, counter.count);
+		Assert.assertEquals(0, painter.getDroppedCount());
+	}
+
+	@Test
+	public void testRetracingGrammar() {
+		LSystemBuilderImpl builder = new LSystemBuilderImpl();
+		builder.configureFromText(new String[] {
+				"origin 0.2 0.5",
+				"angle 0",
+				"unitLength 0.5",
+				"command F draw 1",
+				"command + rotate 90",
+				"axiom F",
+				"production F F++F" });
+		LSystem system = builder.build();
+
+		CountingPainter counter = new CountingPainter();
+		DedupPainter painter = DedupPainter.forImage(counter, 512, 512);
+		system.draw(8, painter);
+
+		Assert.assertEquals(256, painter.getReceivedCount());
+		Assert.assertEquals(1, counter.count);
+		Assert.assertTrue(painter.toString().contains("dropped: 255"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidGrid() {
+		new DedupPainter(new CountingPainter(), 0);
+	}
+
+}
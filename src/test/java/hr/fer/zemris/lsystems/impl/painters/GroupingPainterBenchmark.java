@@ -0,0 +1,113 @@
+package hr.fer.zemris.lsystems.impl.painters;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.Line2D;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import hr.fer.zemris.lsystems.LSystem;
+import hr.fer.zemris.lsystems.Painter;
+import hr.fer.zemris.lsystems.impl.LSystemBuilderImpl;
+
+/**
+ * Drawing of two-colored plant into antialiased image, line by line </br>
+ * and through <code>GroupingPainter</code> with and without overdraw order.
+ *
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class GroupingPainterBenchmark {
+
+	private static final int SIZE = 800;
+
+	@Param({ "5" })
+	private int level;
+
+	private LSystem system;
+
+	private Graphics2D g2d;
+
+	@Setup
+	public void setup() {
+		LSystemBuilderImpl builder = new LSystemBuilderImpl();
+		builder.configureFromText(new String[] {
+				"origin 0.5 0",
+				"angle 90",
+				"unitLength 0.3",
+				"unitLengthDegreeScaler 1.0 / 2.05",
+				"command F draw 1",
+				"command + rotate 25.7",
+				"command - rotate -25.7",
+				"command [ push",
+				"command ] pop",
+				"command G color 00aa00",
+				"command B color 663300",
+				"axiom BF",
+				"production F F[+GF]F[-GF]F" });
+		system = builder.build();
+
+		g2d = new BufferedImage(SIZE, SIZE, BufferedImage.TYPE_INT_RGB).createGraphics();
+		g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+	}
+
+	@TearDown
+	public void tearDown() {
+		g2d.dispose();
+	}
+
+	@Benchmark
+	public void lineByLine() {
+		Line2D.Double line = new Line2D.Double();
+		Painter painter = (x0, y0, x1, y1, color, size) -> {
+			line.setLine(x0 * SIZE, (1 - y0) * SIZE, x1 * SIZE, (1 - y1) * SIZE);
+			g2d.setColor(color);
+			g2d.setStroke(new BasicStroke(size));
+			g2d.draw(line);
+		};
+		system.draw(level, painter);
+	}
+
+	@Benchmark
+	public long grouped() {
+		return drawGrouped(false);
+	}
+
+	@Benchmark
+	public long groupedOrderInsensitive() {
+		return drawGrouped(true);
+	}
+
+	private long drawGrouped(boolean orderInsensitive) {
+		GroupingPainter painter = new GroupingPainter(new Graphics2DPathSink(g2d, SIZE, SIZE))
+				.setOrderInsensitive(orderInsensitive)
+				.setPixelSize(1.0 / SIZE);
+		system.draw(level, painter);
+		painter.flush();
+		g2d.setColor(Color.BLACK);
+		return painter.getPathCount();
+	}
+
+}
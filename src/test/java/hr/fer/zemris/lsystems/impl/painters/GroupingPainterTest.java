@@ -0,0 +1,161 @@
+package hr.fer.zemris.lsystems.impl.painters;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class GroupingPainterTest {
+
+	private static class RecordingSink implements PathSink {
+		private final List<Color> colors = new ArrayList<>();
+		private final List<Integer> sizes = new ArrayList<>();
+		private final List<double[]> segments = new ArrayList<>();
+		private final List<Color> segmentColors = new ArrayList<>();
+
+		@Override
+		public void drawPath(double[] coordinates, int count, Color color, float size) {
+			colors.add(color);
+			sizes.add(count);
+			for (int i = 0; i < count; i++) {
+				segments.add(new double[] { coordinates[4 * i], coordinates[4 * i + 1],
+						coordinates[4 * i + 2], coordinates[4 * i + 3] });
+				segmentColors.add(color);
+			}
+		}
+	}
+
+	@Test
+	public void testOrderInsensitiveGroupsByColor() {
+		RecordingSink sink = new RecordingSink();
+		GroupingPainter painter = new GroupingPainter(sink).setOrderInsensitive(true);
+		for (int i = 0; i < 10; i++) {
+			painter.drawLine(0, 0, 1, 1, i % 2 == 0 ? Color.RED : Color.BLUE, 1);
+		}
+		painter.flush();
+
+		Assert.assertEquals(2, sink.colors.size());
+		Assert.assertEquals(Color.RED, sink.colors.get(0));
+		Assert.assertEquals(5, (int) sink.sizes.get(0));
+		Assert.assertEquals(2, painter.getPathCount());
+		Assert.assertEquals(10, painter.getSegmentCount());
+	}
+
+	@Test
+	public void testOverlappingSegmentsKeepOrder() {
+		RecordingSink sink = new RecordingSink();
+		GroupingPainter painter = new GroupingPainter(sink);
+		for (int i = 0; i < 10; i++) {
+			painter.drawLine(0, 0, 1, 1, i % 2 == 0 ? Color.RED : Color.BLUE, 1);
+		}
+		painter.flush();
+
+		Assert.assertEquals(10, sink.colors.size());
+		for (int i = 0; i < 10; i++) {
+			Assert.assertEquals(i % 2 == 0 ? Color.RED : Color.BLUE, sink.colors.get(i));
+		}
+	}
+
+	@Test
+	public void testDisjointSegmentsAreGrouped() {
+		RecordingSink sink = new RecordingSink();
+		GroupingPainter painter = new GroupingPainter(sink);
+		for (int i = 0; i < 10; i++) {
+			double y = i * 0.01;
+			painter.drawLine(0, y, 0.1, y, Color.RED, 1);
+			painter.drawLine(0.5, y, 0.6, y, Color.BLUE, 1);
+			painter.drawLine(0.5, y, 0.6, y, Color.BLUE, 2);
+		}
+		painter.flush();
+
+		Assert.assertEquals(3, sink.colors.size());
+		Assert.assertEquals(30, sink.segments.size());
+	}
+
+	@Test
+	public void testPixelSizeWidensBoundingBoxes() {
+		RecordingSink sink = new RecordingSink();
+		GroupingPainter painter = new GroupingPainter(sink).setPixelSize(0.01);
+		for (int i = 0; i < 4; i++) {
+			painter.drawLine(0, 0, 0.1, 0, Color.RED, 4);
+			painter.drawLine(0, 0.02, 0.1, 0.02, Color.BLUE, 4);
+		}
+		painter.flush();
+
+		Assert.assertEquals(8, sink.colors.size());
+	}
+
+	@Test
+	public void testFlushThreshold() {
+		RecordingSink sink = new RecordingSink();
+		GroupingPainter painter = new GroupingPainter(sink).setMaxSegments(3);
+		for (int i = 0; i < 7; i++) {
+			painter.drawLine(i, 0, i + 1, 0, Color.RED, 1);
+		}
+		Assert.assertEquals(2, sink.sizes.size());
+		painter.flush();
+
+		Assert.assertEquals(3, (int) sink.sizes.get(0));
+		Assert.assertEquals(3, (int) sink.sizes.get(1));
+		Assert.assertEquals(1, (int) sink.sizes.get(2));
+		Assert.assertEquals(6.0, sink.segments.get(6)[0], 0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidThreshold() {
+		new GroupingPainter(new RecordingSink()).setMaxSegments(0);
+	}
+
+	@Test
+	public void testOverlappingPairsKeepRelativeOrder() {
+		Random random = new Random(42);
+		Color[] palette = { Color.RED, Color.GREEN, Color.BLUE };
+		int count = 2000;
+		double[][] segments = new double[count][];
+		Color[] colors = new Color[count];
+
+		RecordingSink sink = new RecordingSink();
+		GroupingPainter painter = new GroupingPainter(sink).setMaxSegments(500);
+		for (int i = 0; i < count; i++) {
+			double x = random.nextDouble();
+			double y = random.nextDouble();
+			segments[i] = new double[] { x, y, x + 0.02 * random.nextGaussian(), y + 0.02 * random.nextGaussian() };
+			colors[i] = palette[random.nextInt(2) + (i / 1000)];
+			painter.drawLine(segments[i][0], segments[i][1], segments[i][2], segments[i][3], colors[i], 1);
+		}
+		painter.flush();
+
+		Assert.assertEquals(count, sink.segments.size());
+		Assert.assertTrue(sink.colors.size() < count / 2);
+
+		int[] position = new int[count];
+		for (int i = 0; i < count; i++) {
+			position[i] = indexOf(sink.segments, segments[i]);
+		}
+		for (int i = 0; i < count; i++) {
+			for (int j = i + 1; j < count; j++) {
+				if (colors[i] != colors[j] && overlaps(segments[i], segments[j])) {
+					Assert.assertTrue(position[i] < position[j]);
+				}
+			}
+		}
+	}
+
+	private static int indexOf(List<double[]> list, double[] segment) {
+		for (int i = 0; i < list.size(); i++) {
+			if (Arrays.equals(list.get(i), segment))
+				return i;
+		}
+		throw new AssertionError("Segment was not drawn.");
+	}
+
+	private static boolean overlaps(double[] a, double[] b) {
+		return Math.min(a[0], a[2]) <= Math.max(b[0], b[2]) && Math.min(b[0], b[2]) <= Math.max(a[0], a[2])
+				&& Math.min(a[1], a[3]) <= Math.max(b[1], b[3]) && Math.min(b[1], b[3]) <= Math.max(a[1], a[3]);
+	}
+
+}
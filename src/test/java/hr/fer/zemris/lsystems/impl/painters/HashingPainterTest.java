@@ -0,0 +1,94 @@
+package hr.fer.zemris.lsystems.impl.painters;
+
+import java.awt.Color;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HashingPainterTest {
+
+	private static HashingPainter hash(double quantum, int chunkSize, double[][] segments) {
+		HashingPainter painter = new HashingPainter(quantum).setChunkSize(chunkSize);
+		for (double[] s : segments) {
+			painter.drawLine(s[0], s[1], s[2], s[3], new Color((int) s[4]), 1f);
+		}
+		return painter;
+	}
+
+	private static double[][] walk(int count) {
+		double[][] segments = new double[count][];
+		for (int i = 0; i < count; i++) {
+			segments[i] = new double[] { i * 0.001, 0.5, (i + 1) * 0.001, 0.5, i % 7 };
+		}
+		return segments;
+	}
+
+	@Test
+	public void testEqualDrawingsMatch() {
+		HashingPainter first = hash(1e-9, 8, walk(100));
+		HashingPainter second = hash(1e-9, 8, walk(100));
+
+		Assert.assertTrue(first.matches(second));
+		Assert.assertArrayEquals(first.getHash(), second.getHash());
+		Assert.assertEquals(-1, first.firstDifferingChunk(second));
+		Assert.assertEquals(100, first.getCount());
+		Assert.assertEquals(first.toString(), second.toString());
+	}
+
+	@Test
+	public void testQuantization() {
+		double[][] shifted = walk(10);
+		shifted[3][2] += 1e-14;
+
+		Assert.assertTrue(hash(1e-9, 8, walk(10)).matches(hash(1e-9, 8, shifted)));
+		Assert.assertFalse(hash(0, 8, walk(10)).matches(hash(0, 8, shifted)));
+	}
+
+	@Test
+	public void testOrderColorAndWidthMatter() {
+		double[][] swapped = walk(10);
+		double[] tmp = swapped[4];
+		swapped[4] = swapped[5];
+		swapped[5] = tmp;
+		Assert.assertFalse(hash(1e-9, 8, walk(10)).matches(hash(1e-9, 8, swapped)));
+
+		double[][] recolored = walk(10);
+		recolored[9][4] = 100;
+		Assert.assertFalse(hash(1e-9, 8, walk(10)).matches(hash(1e-9, 8, recolored)));
+
+		HashingPainter thin = new HashingPainter();
+		HashingPainter thick = new HashingPainter();
+		thin.drawLine(0, 0, 1, 1, Color.BLACK, 1f);
+		thick.drawLine(0, 0, 1, 1, Color.BLACK, 2f);
+		Assert.assertFalse(thin.matches(thick));
+	}
+
+	@Test
+	public void testFirstDifferingChunk() {
+		double[][] changed = walk(100);
+		changed[42][1] = 0.25;
+
+		Assert.assertEquals(5, hash(1e-9, 8, walk(100)).firstDifferingChunk(hash(1e-9, 8, changed)));
+		Assert.assertEquals(2, hash(1e-9, 16, walk(100)).firstDifferingChunk(hash(1e-9, 16, changed)));
+
+		double[][] shorter = walk(90);
+		Assert.assertEquals(11, hash(1e-9, 8, walk(100)).firstDifferingChunk(hash(1e-9, 8, shorter)));
+		Assert.assertEquals(11, hash(1e-9, 8, shorter).firstDifferingChunk(hash(1e-9, 8, walk(100))));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testDifferentChunkSizes() {
+		hash(1e-9, 8, walk(10)).firstDifferingChunk(hash(1e-9, 16, walk(10)));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testChunkSizeAfterDrawing() {
+		hash(1e-9, 8, walk(10)).setChunkSize(4);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativeQuantum() {
+		new HashingPainter(-1);
+	}
+
+}
@@ -0,0 +1,92 @@
+package hr.fer.zemris.lsystems.impl.painters;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import hr.fer.zemris.lsystems.LSystem;
+import hr.fer.zemris.lsystems.Painter;
+import hr.fer.zemris.lsystems.impl.LSystemBuilderImpl;
+
+/**
+ * Repaint of the visible part of a drawing: full <code>draw</code> against query of <code>SegmentIndex</code> </br>
+ * for viewports that show given fraction of the drawing width.
+ *
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SegmentIndexBenchmark {
+
+	@Param({ "6" })
+	private int level;
+
+	@Param({ "1.0", "0.1" })
+	private double zoom;
+
+	private LSystem system;
+
+	private SegmentIndex index;
+
+	private Painter painter;
+
+	private double[] viewport;
+
+	@Setup
+	public void setup(Blackhole blackhole) {
+		LSystemBuilderImpl builder = new LSystemBuilderImpl();
+		builder.configureFromText(new String[] {
+				"origin 0.5 0",
+				"angle 90",
+				"unitLength 0.3",
+				"unitLengthDegreeScaler 1.0 / 2.05",
+				"command F draw 1",
+				"command + rotate 25.7",
+				"command - rotate -25.7",
+				"command [ push",
+				"command ] pop",
+				"axiom F",
+				"production F F[+F]F[-F]F" });
+		system = builder.build();
+		index = SegmentIndex.capture(system, level);
+		painter = (x0, y0, x1, y1, color, size) -> blackhole.consume(x1 + y1);
+
+		double[] bounds = index.getBounds();
+		double cx = (bounds[0] + bounds[2]) / 2, cy = (bounds[1] + bounds[3]) / 2;
+		double half = zoom * Math.max(bounds[2] - bounds[0], bounds[3] - bounds[1]) / 2;
+		viewport = new double[] { cx - half, cy - half, cx + half, cy + half };
+	}
+
+	@Benchmark
+	public void redraw() {
+		system.draw(level, (x0, y0, x1, y1, color, size) -> {
+			if (Math.max(x0, x1) >= viewport[0] && Math.min(x0, x1) <= viewport[2]
+					&& Math.max(y0, y1) >= viewport[1] && Math.min(y0, y1) <= viewport[3]) {
+				painter.drawLine(x0, y0, x1, y1, color, size);
+			}
+		});
+	}
+
+	@Benchmark
+	public int query() {
+		return index.query(viewport[0], viewport[1], viewport[2], viewport[3], painter);
+	}
+
+}
@@ -0,0 +1,115 @@
+package hr.fer.zemris.lsystems.impl.painters;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import hr.fer.zemris.lsystems.LSystem;
+import hr.fer.zemris.lsystems.Painter;
+import hr.fer.zemris.lsystems.impl.LSystemBuilderImpl;
+
+public class SegmentIndexTest {
+
+	private static class RecordingPainter implements Painter {
+		private final List<String> lines = new ArrayList<>();
+
+		@Override
+		public void drawLine(double x0, double y0, double x1, double y1, Color color, float size) {
+			lines.add(x0 + " " + y0 + " " + x1 + " " + y1 + " " + color.getRGB() + " " + size);
+		}
+	}
+
+	private static LSystem plant() {
+		LSystemBuilderImpl builder = new LSystemBuilderImpl();
+		builder.configureFromText(new String[] {
+				"origin 0.5 0",
+				"angle 90",
+				"unitLength 0.3",
+				"unitLengthDegreeScaler 1.0 / 2.05",
+				"command F draw 1",
+				"command + rotate 25.7",
+				"command - rotate -25.7",
+				"command [ push",
+				"command ] pop",
+				"command G color 00aa00",
+				"axiom F",
+				"production F F[+GF]F[-F]F" });
+		return builder.build();
+	}
+
+	@Test
+	public void testWholeBoundsReturnAllSegmentsInOrder() {
+		LSystem system = plant();
+		RecordingPainter expected = new RecordingPainter();
+		system.draw(4, expected);
+
+		SegmentIndex index = SegmentIndex.capture(system, 4);
+		double[] bounds = index.getBounds();
+		RecordingPainter actual = new RecordingPainter();
+		int count = index.query(bounds[0], bounds[1], bounds[2], bounds[3], actual);
+
+		Assert.assertEquals(expected.lines.size(), index.getSegmentCount());
+		Assert.assertEquals(expected.lines.size(), count);
+		Assert.assertEquals(expected.lines, actual.lines);
+
+		RecordingPainter all = new RecordingPainter();
+		index.drawAll(all);
+		Assert.assertEquals(expected.lines, all.lines);
+	}
+
+	@Test
+	public void testQueryMatchesBruteForce() {
+		LSystem system = plant();
+		SegmentIndex index = SegmentIndex.capture(system, 5);
+		Assert.assertTrue(index.getCellCount() > 1);
+
+		Random random = new Random(7);
+		for (int round = 0; round < 50; round++) {
+			double x = random.nextDouble(), y = random.nextDouble();
+			double size = 0.3 * random.nextDouble();
+			double minX = x - size, minY = y - size, maxX = x + size, maxY = y + size;
+
+			RecordingPainter expected = new RecordingPainter();
+			system.draw(5, (x0, y0, x1, y1, color, width) -> {
+				if (Math.min(x0, x1) <= maxX && Math.max(x0, x1) >= minX
+						&& Math.min(y0, y1) <= maxY && Math.max(y0, y1) >= minY) {
+					expected.drawLine(x0, y0, x1, y1, color, width);
+				}
+			});
+
+			RecordingPainter actual = new RecordingPainter();
+			index.query(minX, minY, maxX, maxY, actual);
+			Assert.assertEquals(expected.lines, actual.lines);
+		}
+	}
+
+	@Test
+	public void testRectangleOutsideDrawing() {
+		SegmentIndex index = SegmentIndex.capture(plant(), 3);
+		RecordingPainter painter = new RecordingPainter();
+
+		Assert.assertEquals(0, index.query(5, 5, 6, 6, painter));
+		Assert.assertTrue(painter.lines.isEmpty());
+	}
+
+	@Test
+	public void testEmptyAndDegenerateDrawings() {
+		LSystemBuilderImpl builder = new LSystemBuilderImpl();
+		builder.configureFromText(new String[] { "command F draw 1", "command S skip 1", "axiom S" });
+		SegmentIndex empty = SegmentIndex.capture(builder.build(), 2);
+		Assert.assertEquals(0, empty.getSegmentCount());
+		Assert.assertEquals(0, empty.query(0, 0, 1, 1, new RecordingPainter()));
+
+		builder.setAxiom("F");
+		builder.setAngle(0);
+		builder.setUnitLength(0.5);
+		SegmentIndex line = SegmentIndex.capture(builder.build(), 0);
+		RecordingPainter painter = new RecordingPainter();
+		Assert.assertEquals(1, line.query(0.2, -0.1, 0.3, 0.1, painter));
+	}
+
+}
@@ -0,0 +1,270 @@
+package hr.fer.zemris.lsystems.server;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.imageio.ImageIO;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import hr.fer.zemris.lsystems.impl.GrammarLibrary;
+import hr.fer.zemris.lsystems.impl.admission.AdmissionPolicy;
+
+public class RenderServerTest {
+
+	private static final String KOCH = String.join("\n",
+			"origin 0.05 0.4",
+			"angle 0",
+			"unitLength 0.9",
+			"unitLengthDegreeScaler 0.333333",
+			"command F draw 1",
+			"command + rotate 60",
+			"command - rotate -60",
+			"axiom F",
+			"production F F+F--F+F");
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private GrammarLibrary library;
+	private RenderServer server;
+
+	@Before
+	public void setUp() throws IOException {
+		Path directory = folder.newFolder("grammars").toPath();
+		Files.write(directory.resolve("koch.txt"), KOCH.getBytes(StandardCharsets.UTF_8));
+		library = new GrammarLibrary(directory);
+		library.loadAll();
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		if (server != null) {
+			server.close();
+		}
+		library.close();
+	}
+
+	private void start(int renderThreads, int queueCapacity, AdmissionPolicy policy) throws IOException {
+		server = new RenderServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), library,
+				renderThreads, queueCapacity, 30_000, policy);
+		server.start();
+	}
+
+	private HttpURLConnection open(String query) throws IOException {
+		URL url = new URL("http", server.getAddress().getHostString(), server.getAddress().getPort(),
+				RenderServer.RENDER_PATH + "?" + query);
+		return (HttpURLConnection) url.openConnection();
+	}
+
+	private static byte[] body(HttpURLConnection connection) throws IOException {
+		InputStream stream = connection.getResponseCode() < 400
+				? connection.getInputStream()
+				: connection.getErrorStream();
+		ByteArrayOutputStream body = new ByteArrayOutputStream();
+		try (InputStream input = stream) {
+			byte[] buffer = new byte[4096];
+			int read;
+			while ((read = input.read(buffer)) != -1) {
+				body.write(buffer, 0, read);
+			}
+		}
+		return body.toByteArray();
+	}
+
+	@Test
+	public void testPng() throws IOException {
+		start(2, 4, null);
+		HttpURLConnection connection = open("name=koch&level=3&width=200&height=100&format=png");
+
+		Assert.assertEquals(200, connection.getResponseCode());
+		Assert.assertEquals("image/png", connection.getContentType());
+		BufferedImage image = ImageIO.read(new ByteArrayInputStream(body(connection)));
+		Assert.assertEquals(200, image.getWidth());
+		Assert.assertEquals(100, image.getHeight());
+	}
+
+	@Test
+	public void testSvgAndSegmentsContainEveryLine() throws IOException {
+		start(2, 4, null);
+
+		HttpURLConnection svg = open("name=koch&level=2&format=svg");
+		Assert.assertEquals(200, svg.getResponseCode());
+		String text = new String(body(svg), StandardCharsets.UTF_8);
+		Assert.assertEquals(16, text.split("<line ", -1).length - 1);
+
+		HttpURLConnection segments = open("name=koch&level=2&format=segments");
+		Assert.assertEquals(200, segments.getResponseCode());
+		byte[] data = body(segments);
+		DataInputStream input = new DataInputStream(new ByteArrayInputStream(data));
+		Assert.assertEquals(RenderFormat.SEGMENTS_MAGIC, input.readInt());
+		Assert.assertEquals(16, input.readInt());
+		Assert.assertEquals(8 + 16 * 24, data.length);
+	}
+
+	@Test
+	public void testDedupDropsRetracedSegments() throws IOException {
+		start(2, 4, null);
+		HttpURLConnection connection = open("level=6&format=segments&dedup=true");
+		connection.setRequestMethod("POST");
+		connection.setDoOutput(true);
+		try (OutputStream output = connection.getOutputStream()) {
+			output.write(String.join("\n", "origin 0.2 0.5", "angle 0", "unitLength 0.5",
+					"command F draw 1", "command + rotate 90", "axiom F", "production F F++F")
+					.getBytes(StandardCharsets.UTF_8));
+		}
+
+		Assert.assertEquals(200, connection.getResponseCode());
+		DataInputStream input = new DataInputStream(new ByteArrayInputStream(body(connection)));
+		input.readInt();
+		Assert.assertEquals(1, input.readInt());
+	}
+
+	@Test
+	public void testAdaptiveCollapsesSubpixelSubtrees() throws IOException {
+		start(2, 4, null);
+		HttpURLConnection connection = open("name=koch&level=6&width=64&height=64&format=segments&adaptive=1");
+
+		Assert.assertEquals(200, connection.getResponseCode());
+		DataInputStream input = new DataInputStream(new ByteArrayInputStream(body(connection)));
+		input.readInt();
+		int count = input.readInt();
+		Assert.assertTrue(count > 0 && count < 4096);
+
+		Assert.assertEquals(400, open("name=koch&level=2&adaptive=-1").getResponseCode());
+		Assert.assertEquals(400, open("name=koch&level=2&adaptive=many").getResponseCode());
+	}
+
+	@Test
+	public void testInlineDefinition() throws IOException {
+		start(2, 4, null);
+		HttpURLConnection connection = open("level=1&format=segments");
+		connection.setRequestMethod("POST");
+		connection.setDoOutput(true);
+		try (OutputStream output = connection.getOutputStream()) {
+			output.write(KOCH.getBytes(StandardCharsets.UTF_8));
+		}
+
+		Assert.assertEquals(200, connection.getResponseCode());
+		DataInputStream input = new DataInputStream(new ByteArrayInputStream(body(connection)));
+		input.readInt();
+		Assert.assertEquals(4, input.readInt());
+	}
+
+	@Test
+	public void testErrors() throws IOException {
+		start(2, 4, new AdmissionPolicy().setMaxSymbols(1_000));
+
+		Assert.assertEquals(404, open("name=unknown").getResponseCode());
+		Assert.assertEquals(400, open("name=koch&format=gif").getResponseCode());
+		Assert.assertEquals(400, open("name=koch&width=100000").getResponseCode());
+		Assert.assertEquals(400, open("level=2").getResponseCode());
+
+		HttpURLConnection broken = open("level=2");
+		broken.setRequestMethod("POST");
+		broken.setDoOutput(true);
+		try (OutputStream output = broken.getOutputStream()) {
+			output.write("axiom".getBytes(StandardCharsets.UTF_8));
+		}
+		Assert.assertEquals(400, broken.getResponseCode());
+
+		HttpURLConnection large = open("level=8&format=segments");
+		large.setRequestMethod("POST");
+		large.setDoOutput(true);
+		try (OutputStream output = large.getOutputStream()) {
+			output.write(KOCH.getBytes(StandardCharsets.UTF_8));
+		}
+		Assert.assertEquals(422, large.getResponseCode());
+	}
+
+	@Test
+	public void testDefinitionThatPopsInitialStateIsRejected() throws IOException {
+		start(2, 4, null);
+		for (String format : new String[] { "png", "svg", "segments" }) {
+			HttpURLConnection connection = open("level=0&format=" + format);
+			connection.setRequestMethod("POST");
+			connection.setDoOutput(true);
+			try (OutputStream output = connection.getOutputStream()) {
+				output.write("command F draw 1\ncommand ] pop\naxiom F]F".getBytes(StandardCharsets.UTF_8));
+			}
+			Assert.assertEquals(format, 422, connection.getResponseCode());
+		}
+	}
+
+	@Test
+	public void testLevelIsLimited() throws IOException {
+		start(2, 4, null);
+
+		Assert.assertEquals(400, open("name=koch&level=" + (RenderServer.MAX_LEVEL + 1)).getResponseCode());
+		Assert.assertEquals(400, open("name=koch&level=2147483647").getResponseCode());
+	}
+
+	@Test
+	public void testPolicyAppliesToNamedDefinitions() throws IOException {
+		start(2, 4, new AdmissionPolicy().setMaxSegments(1_000));
+
+		Assert.assertEquals(200, open("name=koch&level=4&format=segments").getResponseCode());
+		Assert.assertEquals(422, open("name=koch&level=6&format=segments").getResponseCode());
+	}
+
+	@Test
+	public void testLargeVectorResponseIsRejected() throws IOException {
+		start(2, 4, null);
+		server.setMaxResponseBytes(8 + 100 * 24);
+
+		Assert.assertEquals(200, open("name=koch&level=3&format=segments").getResponseCode());
+		Assert.assertEquals(422, open("name=koch&level=4&format=segments").getResponseCode());
+		Assert.assertEquals(422, open("name=koch&level=3&format=svg").getResponseCode());
+		Assert.assertEquals(200, open("name=koch&level=6&format=png").getResponseCode());
+	}
+
+	@Test
+	public void testDeadline() throws IOException {
+		start(1, 4, null);
+		HttpURLConnection connection = open("name=koch&level=10&deadline=1");
+
+		Assert.assertEquals(504, connection.getResponseCode());
+		Assert.assertEquals(1, server.getTimedOutCount());
+	}
+
+	@Test
+	public void testFullQueueIsRejected() throws Exception {
+		start(1, 0, null);
+		ExecutorService client = Executors.newSingleThreadExecutor();
+		try {
+			Future<Integer> slow = client.submit(() -> open("name=koch&level=11&deadline=5000").getResponseCode());
+			long deadline = System.currentTimeMillis() + 10_000;
+			while (server.getActiveRenders() == 0 && System.currentTimeMillis() < deadline) {
+				Thread.sleep(5);
+			}
+
+			Assert.assertEquals(503, open("name=koch&level=1").getResponseCode());
+			Assert.assertEquals(1, server.getOverloadedCount());
+			int status = slow.get();
+			Assert.assertTrue(status == 200 || status == 504);
+		} finally {
+			client.shutdownNow();
+		}
+	}
+
+}
@@ -0,0 +1,97 @@
+package hr.fer.zemris.math;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class Affine2DTest {
+
+	private static double THRESHOLD = 1E-9;
+	
+	@Test
+	public void testApplyTranslation() {
+		Affine2D transform = new Affine2D();
+		transform.setTranslation(1, 2);
+		double[] out = new double[2];
+		transform.apply(3, 4, out, 0);
+		Assert.assertEquals(4, out[0], THRESHOLD);
+		Assert.assertEquals(6, out[1], THRESHOLD);
+	}
+	
+	@Test
+	public void testRotationMatchesVector() {
+		Affine2D rotation = new Affine2D();
+		rotation.setRotation(60);
+		Vector2D point = new Vector2D(2, 1);
+		Vector2D expected = point.rotated(60);
+		rotation.applyToPoint(point);
+		Assert.assertEquals(expected.getX(), point.getX(), THRESHOLD);
+		Assert.assertEquals(expected.getY(), point.getY(), THRESHOLD);
+	}
+	
+	@Test
+	public void testConcatenateAppliesOtherFirst() {
+		Affine2D transform = new Affine2D();
+		transform.setTranslation(1, 0);
+		Affine2D scale = new Affine2D();
+		scale.setScale(2);
+		transform.concatenate(scale);
+		
+		double[] out = new double[2];
+		transform.apply(1, 1, out, 0);
+		Assert.assertEquals(3, out[0], THRESHOLD);
+		Assert.assertEquals(2, out[1], THRESHOLD);
+	}
+	
+	@Test
+	public void testInvert() {
+		Affine2D transform = new Affine2D(2, 1, 3, -1, 1, 5);
+		Affine2D inverse = new Affine2D();
+		transform.invert(inverse);
+		Affine2D product = new Affine2D();
+		Affine2D.multiply(transform, inverse, product);
+		
+		Assert.assertEquals(1, product.getM00(), THRESHOLD);
+		Assert.assertEquals(0, product.getM01(), THRESHOLD);
+		Assert.assertEquals(0, product.getM02(), THRESHOLD);
+		Assert.assertEquals(0, product.getM10(), THRESHOLD);
+		Assert.assertEquals(1, product.getM11(), THRESHOLD);
+		Assert.assertEquals(0, product.getM12(), THRESHOLD);
+	}
+	
+	@Test (expected = IllegalStateException.class)
+	public void testInvertSingular() {
+		Affine2D transform = new Affine2D(1, 2, 0, 2, 4, 0);
+		transform.invert(new Affine2D());
+	}
+	
+	@Test
+	public void testPow() {
+		Affine2D step = new Affine2D();
+		step.setRotation(90);
+		step.preConcatenate(new Affine2D(1, 0, 1, 0, 1, 0));
+		
+		Affine2D expected = new Affine2D();
+		for (int i = 0; i < 7; i++) {
+			expected.preConcatenate(step);
+		}
+		Affine2D actual = new Affine2D();
+		step.pow(7, actual);
+		
+		double[] e = new double[2];
+		double[] a = new double[2];
+		expected.apply(0.5, 0.25, e, 0);
+		actual.apply(0.5, 0.25, a, 0);
+		Assert.assertEquals(e[0], a[0], THRESHOLD);
+		Assert.assertEquals(e[1], a[1], THRESHOLD);
+	}
+	
+	@Test
+	public void testNegativePow() {
+		Affine2D step = new Affine2D(1, 0, 2, 0, 1, 3);
+		Affine2D result = new Affine2D();
+		step.pow(-3, result);
+		Assert.assertEquals(-6, result.getM02(), THRESHOLD);
+		Assert.assertEquals(-9, result.getM12(), THRESHOLD);
+	}
+	
+}
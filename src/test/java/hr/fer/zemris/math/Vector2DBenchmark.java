@@ -0,0 +1,95 @@
+package hr.fer.zemris.math;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Single operations of <code>Vector2D</code>: in-place operations </br>
+ * compared to the ones that return new vector, and rotation by angle </br>
+ * compared to rotation by precomputed cosine and sine.
+ *
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class Vector2DBenchmark {
+
+	private Vector2D vector;
+
+	private Vector2D offset;
+
+	private double angle = 25.7;
+
+	private double cos;
+
+	private double sin;
+
+	@Setup
+	public void setup() {
+		vector = new Vector2D(0.3, 0.4);
+		offset = new Vector2D(1e-9, -1e-9);
+		cos = Math.cos(Math.toRadians(angle));
+		sin = Math.sin(Math.toRadians(angle));
+	}
+
+	@Benchmark
+	public Vector2D translate() {
+		vector.translate(offset);
+		return vector;
+	}
+
+	@Benchmark
+	public Vector2D translated() {
+		return vector.translated(offset);
+	}
+
+	@Benchmark
+	public Vector2D translateScaled() {
+		vector.translateScaled(offset, 0.5);
+		return vector;
+	}
+
+	@Benchmark
+	public Vector2D rotate() {
+		vector.rotate(angle);
+		return vector;
+	}
+
+	@Benchmark
+	public Vector2D rotateByCosSin() {
+		vector.rotateByCosSin(cos, sin);
+		return vector;
+	}
+
+	@Benchmark
+	public Vector2D rotated() {
+		return vector.rotated(angle);
+	}
+
+	@Benchmark
+	public Vector2D scaled() {
+		return vector.scaled(1.0000001);
+	}
+
+	@Benchmark
+	public Vector2D copy() {
+		return vector.copy();
+	}
+
+}
@@ -0,0 +1,113 @@
+package hr.fer.zemris.math;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Bulk operations of <code>Vector2DBuffer</code> compared to the same operations
+ * done one <code>Vector2D</code> object at a time.
+ *
+ * @author Ante Gazibarić
+ * @version 1.0
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class Vector2DBufferBenchmark {
+
+	@Param({ "1000000" })
+	private int size;
+
+	private Vector2DBuffer buffer;
+
+	private Vector2D[] vectors;
+
+	private Affine2D transform;
+
+	private double[] bounds = new double[4];
+
+	@Setup
+	public void setup() {
+		buffer = new Vector2DBuffer(size);
+		vectors = new Vector2D[size];
+		for (int i = 0; i < size; i++) {
+			double x = Math.sin(i);
+			double y = Math.cos(i * 0.5);
+			buffer.add(x, y);
+			vectors[i] = new Vector2D(x, y);
+		}
+		// close to identity so repeated application stays bounded
+		transform = new Affine2D();
+		transform.setRotation(1E-3);
+	}
+
+	@Benchmark
+	public Vector2DBuffer bufferTransform() {
+		buffer.transform(transform);
+		return buffer;
+	}
+
+	@Benchmark
+	public Vector2D[] objectTransform() {
+		for (Vector2D vector : vectors) {
+			transform.applyToPoint(vector);
+		}
+		return vectors;
+	}
+
+	@Benchmark
+	public Vector2DBuffer bufferTranslate() {
+		buffer.translate(1E-9, -1E-9);
+		return buffer;
+	}
+
+	@Benchmark
+	public Vector2D[] objectTranslate() {
+		Vector2D offset = new Vector2D(1E-9, -1E-9);
+		for (Vector2D vector : vectors) {
+			vector.translate(offset);
+		}
+		return vectors;
+	}
+
+	@Benchmark
+	public double[] bufferBounds() {
+		buffer.bounds(bounds);
+		return bounds;
+	}
+
+	@Benchmark
+	public double[] objectBounds() {
+		double minX = Double.POSITIVE_INFINITY;
+		double minY = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY;
+		double maxY = Double.NEGATIVE_INFINITY;
+		for (Vector2D vector : vectors) {
+			minX = Math.min(minX, vector.getX());
+			minY = Math.min(minY, vector.getY());
+			maxX = Math.max(maxX, vector.getX());
+			maxY = Math.max(maxY, vector.getY());
+		}
+		bounds[0] = minX;
+		bounds[1] = minY;
+		bounds[2] = maxX;
+		bounds[3] = maxY;
+		return bounds;
+	}
+
+}
@@ -0,0 +1,49 @@
+package hr.fer.zemris.math;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class Vector2DBufferTest {
+
+	private static double THRESHOLD = 1E-9;
+	
+	@Test
+	public void testTransformMatchesAffine() {
+		Vector2DBuffer buffer = new Vector2DBuffer(1);
+		buffer.add(1, 2);
+		buffer.add(-3, 0.5);
+		Affine2D transform = new Affine2D(2, 1, 3, -1, 1, 5);
+		buffer.transform(transform);
+		
+		double[] expected = new double[2];
+		transform.apply(-3, 0.5, expected, 0);
+		Assert.assertEquals(2, buffer.size());
+		Assert.assertEquals(expected[0], buffer.getX(1), THRESHOLD);
+		Assert.assertEquals(expected[1], buffer.getY(1), THRESHOLD);
+	}
+	
+	@Test
+	public void testBounds() {
+		Vector2DBuffer buffer = new Vector2DBuffer();
+		buffer.add(1, 2);
+		buffer.add(-3, 0.5);
+		buffer.add(0, 7);
+		double[] bounds = new double[4];
+		buffer.bounds(bounds);
+		
+		Assert.assertArrayEquals(new double[] {-3, 0.5, 1, 7}, bounds, THRESHOLD);
+	}
+	
+	@Test
+	public void testCopyStrided() {
+		Vector2DBuffer buffer = new Vector2DBuffer();
+		buffer.add(1, 2);
+		buffer.add(3, 4);
+		buffer.translate(1, 1);
+		double[] dst = new double[7];
+		buffer.copyStrided(dst, 1, 3);
+		
+		Assert.assertArrayEquals(new double[] {0, 2, 3, 0, 4, 5, 0}, dst, THRESHOLD);
+	}
+	
+}
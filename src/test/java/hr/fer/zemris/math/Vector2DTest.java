@@ -80,4 +80,32 @@ public class Vector2DTest {
 		Assert.assertEquals(expectedY, actualY, THRESHOLD);
 	}
 	
+	@Test
+	public void testRotatedUsesDegrees() {
+		Vector2D v1 = new Vector2D(2, 0);
+		Vector2D v2 = v1.rotated(90);
+		Assert.assertEquals(0, v2.getX(), THRESHOLD);
+		Assert.assertEquals(2, v2.getY(), THRESHOLD);
+		Assert.assertEquals(2, v1.getX(), THRESHOLD);
+	}
+	
+	@Test
+	public void testRotateByCosSin() {
+		Vector2D v1 = new Vector2D(2, 0);
+		Vector2D v2 = new Vector2D(2, 0);
+		double angleInRad = Math.toRadians(30);
+		v1.rotateByCosSin(Math.cos(angleInRad), Math.sin(angleInRad));
+		v2.rotate(30);
+		Assert.assertEquals(v2.getX(), v1.getX(), THRESHOLD);
+		Assert.assertEquals(v2.getY(), v1.getY(), THRESHOLD);
+	}
+	
+	@Test
+	public void testTranslateScaled() {
+		Vector2D v1 = new Vector2D(2, 4);
+		v1.translateScaled(new Vector2D(1, -1), 3);
+		Assert.assertEquals(5, v1.getX(), THRESHOLD);
+		Assert.assertEquals(1, v1.getY(), THRESHOLD);
+	}
+	
 }